@@ -0,0 +1,49 @@
+package com.github.guang19.knife.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 基准测试入口。
+ *
+ * java -jar benchmarks.jar [gc] [include regex]
+ *
+ * gc: 开启GC profiler，报告每次操作分配的字节数(gc.alloc.rate.norm)
+ * include regex: 只运行匹配的基准测试，默认运行全部
+ * 需要JMH的完整命令行参数时，使用 java -cp benchmarks.jar org.openjdk.jmh.Main
+ * </p>
+ */
+public class BenchmarkRunner
+{
+    //开启GC profiler的参数
+    private static final String GC_PROFILER_ARG = "gc";
+
+    public static void main(String[] args) throws RunnerException
+    {
+        ChainedOptionsBuilder options = new OptionsBuilder();
+        boolean hasInclude = false;
+        for (String arg : args)
+        {
+            if (GC_PROFILER_ARG.equalsIgnoreCase(arg))
+            {
+                options.addProfiler(GCProfiler.class);
+            }
+            else
+            {
+                options.include(arg);
+                hasInclude = true;
+            }
+        }
+        if (!hasInclude)
+        {
+            options.include("com\\.github\\.guang19\\.knife\\.benchmark\\..*");
+        }
+        new Runner(options.build()).run();
+    }
+}
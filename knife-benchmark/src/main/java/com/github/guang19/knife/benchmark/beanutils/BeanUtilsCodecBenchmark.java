@@ -0,0 +1,101 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 二进制编码与Java序列化的对比: writeBinary写入复用的heap与direct ByteBuffer、toBinary、readBinary，
+ * 以及ObjectOutputStream/ObjectInputStream的序列化与反序列化，编码后的字节数见各个trial的setup日志。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BeanUtilsCodecBenchmark
+{
+    @Param({"NARROW", "WIDE"})
+    private BeanWidth width;
+
+    private Object bean;
+
+    private ByteBuffer heapBuffer;
+
+    private ByteBuffer directBuffer;
+
+    private byte[] binary;
+
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        bean = BeanUtils.createNewTypeObj(width.newSource(1), width.targetClass());
+        heapBuffer = ByteBuffer.allocate(4096);
+        directBuffer = ByteBuffer.allocateDirect(4096);
+        binary = BeanUtils.toBinary(bean);
+        serialized = serialize();
+        System.out.println(width + " binary bytes : " + binary.length + " , serialized bytes : " + serialized.length);
+    }
+
+    @Benchmark
+    public Object writeHeap()
+    {
+        heapBuffer.clear();
+        BeanUtils.writeBinary(bean, heapBuffer);
+        return heapBuffer;
+    }
+
+    @Benchmark
+    public Object writeDirect()
+    {
+        directBuffer.clear();
+        BeanUtils.writeBinary(bean, directBuffer);
+        return directBuffer;
+    }
+
+    @Benchmark
+    public byte[] toBinary()
+    {
+        return BeanUtils.toBinary(bean);
+    }
+
+    @Benchmark
+    public Object readBinary()
+    {
+        return BeanUtils.readBinary(ByteBuffer.wrap(binary), width.targetClass());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(bean);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException
+    {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized)))
+        {
+            return in.readObject();
+        }
+    }
+}
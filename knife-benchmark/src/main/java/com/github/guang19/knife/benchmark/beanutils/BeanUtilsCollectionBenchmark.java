@@ -0,0 +1,77 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanFieldValueConverter;
+import com.github.guang19.knife.beanutils.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>BeanUtils集合转换的稳态性能：createNewTypeCollection的List与Set重载</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BeanUtilsCollectionBenchmark
+{
+    @Param({"NARROW", "WIDE"})
+    private BeanWidth width;
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private List<Object> sourceList;
+
+    private Set<Object> sourceSet;
+
+    private Class<Object> targetClass;
+
+    private final BeanFieldValueConverter identityConverter = fieldVal -> fieldVal;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        sourceList = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i)
+        {
+            sourceList.add(width.newSource(i));
+        }
+        sourceSet = new HashSet<>(sourceList);
+        targetClass = width.targetClass();
+        BeanUtils.createNewTypeObj(sourceList.get(0), targetClass);
+        BeanUtils.createNewTypeObj(sourceList.get(0), targetClass, identityConverter);
+    }
+
+    @Benchmark
+    public List<Object> createNewTypeList()
+    {
+        return BeanUtils.createNewTypeCollection(sourceList, targetClass);
+    }
+
+    @Benchmark
+    public List<Object> createNewTypeListWithConverter()
+    {
+        return BeanUtils.createNewTypeCollection(sourceList, targetClass, identityConverter);
+    }
+
+    @Benchmark
+    public Set<Object> createNewTypeSet()
+    {
+        return BeanUtils.createNewTypeCollection(sourceSet, targetClass);
+    }
+
+    @Benchmark
+    public Set<Object> createNewTypeSetWithConverter()
+    {
+        return BeanUtils.createNewTypeCollection(sourceSet, targetClass, identityConverter);
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanFieldValueConverter;
+import com.github.guang19.knife.beanutils.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>BeanUtils单个对象拷贝的稳态性能：copy(有/无转换器)与createNewTypeObj</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BeanUtilsCopyBenchmark
+{
+    @Param({"NARROW", "WIDE"})
+    private BeanWidth width;
+
+    private Object source;
+
+    private Object target;
+
+    private Class<Object> targetClass;
+
+    //返回原值的转换器，只衡量转换器路径本身的开销
+    private final BeanFieldValueConverter identityConverter = fieldVal -> fieldVal;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        source = width.newSource(1);
+        target = width.newTarget();
+        targetClass = width.targetClass();
+        //预先生成BeanCopier，首次调用的开销由BeanUtilsFirstCallBenchmark单独衡量
+        BeanUtils.copy(source, target);
+        BeanUtils.copy(source, target, identityConverter);
+    }
+
+    @Benchmark
+    public Object copy()
+    {
+        BeanUtils.copy(source, target);
+        return target;
+    }
+
+    @Benchmark
+    public Object copyWithConverter()
+    {
+        BeanUtils.copy(source, target, identityConverter);
+        return target;
+    }
+
+    @Benchmark
+    public Object createNewTypeObj()
+    {
+        return BeanUtils.createNewTypeObj(source, targetClass);
+    }
+
+    @Benchmark
+    public Object createNewTypeObjWithConverter()
+    {
+        return BeanUtils.createNewTypeObj(source, targetClass, identityConverter);
+    }
+}
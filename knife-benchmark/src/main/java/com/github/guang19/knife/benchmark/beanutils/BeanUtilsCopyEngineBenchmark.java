@@ -0,0 +1,72 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtils;
+import com.github.guang19.knife.beanutils.BoundCopier;
+import com.github.guang19.knife.beanutils.CopyEngine;
+import com.github.guang19.knife.beanutils.CopyEngines;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 比较各拷贝引擎的稳态性能: 直接使用引擎创建的拷贝器，以及为class pair选择引擎后通过BeanUtils.copy拷贝。
+ * 当前运行时不能使用的引擎(如JDK 17上的cglib、JDK 15之前的hiddenClass)会在Setup时失败，JMH会跳过这组参数。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BeanUtilsCopyEngineBenchmark
+{
+    @Param({"cglib", "methodHandle", "hiddenClass"})
+    private String engine;
+
+    @Param({"NARROW", "WIDE"})
+    private BeanWidth width;
+
+    private Object source;
+
+    private Object target;
+
+    private BoundCopier copier;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        CopyEngine copyEngine = CopyEngines.forName(engine);
+        if (copyEngine == null || !copyEngine.isSupported())
+        {
+            throw new IllegalStateException("copy engine : [" + engine + "] is not supported on this runtime");
+        }
+        source = width.newSource(1);
+        target = width.newTarget();
+        copier = copyEngine.createCopier(source.getClass(), target.getClass());
+        BeanUtils.setCopyEngine(source.getClass(), target.getClass(), copyEngine);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        BeanUtils.setCopyEngine(source.getClass(), target.getClass(), null);
+    }
+
+    @Benchmark
+    public Object copier()
+    {
+        copier.copy(source, target);
+        return target;
+    }
+
+    @Benchmark
+    public Object beanUtilsCopy()
+    {
+        BeanUtils.copy(source, target);
+        return target;
+    }
+}
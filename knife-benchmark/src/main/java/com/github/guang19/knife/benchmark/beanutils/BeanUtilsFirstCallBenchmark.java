@@ -0,0 +1,64 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanFieldValueConverter;
+import com.github.guang19.knife.beanutils.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * BeanUtils首次调用的开销(生成BeanCopier)。
+ * 每个fork都是新的JVM，且只测量一次调用，所以结果包含BeanCopier的生成与类加载，
+ * 与{@link BeanUtilsCopyBenchmark}的稳态结果分开报告。
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Thread)
+public class BeanUtilsFirstCallBenchmark
+{
+    @Param({"NARROW", "WIDE"})
+    private BeanWidth width;
+
+    private Object source;
+
+    private Object target;
+
+    private Class<Object> targetClass;
+
+    private final BeanFieldValueConverter identityConverter = fieldVal -> fieldVal;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        source = width.newSource(1);
+        target = width.newTarget();
+        targetClass = width.targetClass();
+    }
+
+    @Benchmark
+    public Object firstCopy()
+    {
+        BeanUtils.copy(source, target);
+        return target;
+    }
+
+    @Benchmark
+    public Object firstCopyWithConverter()
+    {
+        BeanUtils.copy(source, target, identityConverter);
+        return target;
+    }
+
+    @Benchmark
+    public Object firstCreateNewTypeObj()
+    {
+        return BeanUtils.createNewTypeObj(source, targetClass);
+    }
+}
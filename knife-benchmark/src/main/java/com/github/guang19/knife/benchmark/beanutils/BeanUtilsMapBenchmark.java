@@ -0,0 +1,79 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * bean与Map之间的转换，以同宽度的bean之间的copy、createNewTypeObj作为基线:
+ * beanToMap(每次创建Map)、beanToReusableMap(线程复用的Map)、mapToBean、copyFromMap。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BeanUtilsMapBenchmark
+{
+    @Param({"NARROW", "WIDE"})
+    private BeanWidth width;
+
+    private Object source;
+
+    private Object target;
+
+    private Map<String, Object> map;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        source = width.newSource(1);
+        target = width.newTarget();
+        map = BeanUtils.beanToMap(source);
+    }
+
+    @Benchmark
+    public Object copy()
+    {
+        BeanUtils.copy(source, target);
+        return target;
+    }
+
+    @Benchmark
+    public Object createNewTypeObj()
+    {
+        return BeanUtils.createNewTypeObj(source, width.targetClass());
+    }
+
+    @Benchmark
+    public Object beanToMap()
+    {
+        return BeanUtils.beanToMap(source);
+    }
+
+    @Benchmark
+    public Object beanToReusableMap()
+    {
+        return BeanUtils.beanToReusableMap(source);
+    }
+
+    @Benchmark
+    public Object mapToBean()
+    {
+        return BeanUtils.mapToBean(map, width.targetClass());
+    }
+
+    @Benchmark
+    public Object copyFromMap()
+    {
+        BeanUtils.copyFromMap(map, target);
+        return target;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * createNewTypeCollection与createNewTypeCollectionParallel的对比。
+ * 并行版本的阈值设为0，强制拆分，用于找到并行开始有收益的集合大小(BeanUtils.PARALLEL_THRESHOLD)。
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BeanUtilsParallelBenchmark
+{
+    @Param({"NARROW", "WIDE"})
+    private BeanWidth width;
+
+    @Param({"256", "1024", "4096", "16384", "65536", "1000000"})
+    private int size;
+
+    private List<Object> sourceList;
+
+    private Class<Object> targetClass;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        sourceList = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i)
+        {
+            sourceList.add(width.newSource(i));
+        }
+        targetClass = width.targetClass();
+        BeanUtils.createNewTypeObj(sourceList.get(0), targetClass);
+    }
+
+    @Benchmark
+    public List<Object> sequential()
+    {
+        return BeanUtils.createNewTypeCollection(sourceList, targetClass);
+    }
+
+    @Benchmark
+    public List<Object> parallel()
+    {
+        return BeanUtils.createNewTypeCollectionParallel(sourceList, targetClass, null, ForkJoinPool.commonPool(), 0);
+    }
+}
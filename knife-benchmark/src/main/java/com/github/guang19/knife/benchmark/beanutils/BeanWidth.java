@@ -0,0 +1,50 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>基准测试的bean宽度(属性数量)</p>
+ */
+public enum BeanWidth
+{
+    //4个属性
+    NARROW(Beans::narrowSource, Beans.NarrowTarget.class, Beans.NarrowTarget::new),
+
+    //20个属性
+    WIDE(Beans::wideSource, Beans.WideTarget.class, Beans.WideTarget::new);
+
+    //源对象工厂
+    private final IntFunction<Object> sourceFactory;
+
+    //目标对象Class
+    private final Class<?> targetClass;
+
+    //目标对象工厂
+    private final Supplier<Object> targetFactory;
+
+    BeanWidth(IntFunction<Object> sourceFactory, Class<?> targetClass, Supplier<Object> targetFactory)
+    {
+        this.sourceFactory = sourceFactory;
+        this.targetClass = targetClass;
+        this.targetFactory = targetFactory;
+    }
+
+    public Object newSource(int i)
+    {
+        return sourceFactory.apply(i);
+    }
+
+    public Object newTarget()
+    {
+        return targetFactory.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Class<T> targetClass()
+    {
+        return (Class<T>) targetClass;
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.guang19.knife.benchmark.beanutils;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>基准测试使用的bean，NARROW为4个属性，WIDE为20个属性，目标bean可以被Java序列化</p>
+ */
+public class Beans
+{
+    public static class Inner
+    {
+        @Override
+        public String toString()
+        {
+            return "Inner";
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class NarrowSource
+    {
+        private Long id;
+
+        private String name;
+
+        private Integer age;
+
+        private Inner inner;
+    }
+
+    @Getter
+    @Setter
+    public static class NarrowTarget implements Serializable
+    {
+        private Long id;
+
+        private String name;
+
+        private Integer age;
+
+        private String inner;
+    }
+
+    @Getter
+    @Setter
+    public static class WideSource
+    {
+        private Long field00;
+
+        private String field01;
+
+        private Integer field02;
+
+        private Double field03;
+
+        private Boolean field04;
+
+        private Long field05;
+
+        private String field06;
+
+        private Integer field07;
+
+        private Double field08;
+
+        private Boolean field09;
+
+        private Long field10;
+
+        private String field11;
+
+        private Integer field12;
+
+        private Double field13;
+
+        private Boolean field14;
+
+        private Long field15;
+
+        private String field16;
+
+        private Integer field17;
+
+        private Double field18;
+
+        private Boolean field19;
+    }
+
+    @Getter
+    @Setter
+    public static class WideTarget implements Serializable
+    {
+        private Long field00;
+
+        private String field01;
+
+        private Integer field02;
+
+        private Double field03;
+
+        private Boolean field04;
+
+        private Long field05;
+
+        private String field06;
+
+        private Integer field07;
+
+        private Double field08;
+
+        private Boolean field09;
+
+        private Long field10;
+
+        private String field11;
+
+        private Integer field12;
+
+        private Double field13;
+
+        private Boolean field14;
+
+        private Long field15;
+
+        private String field16;
+
+        private Integer field17;
+
+        private Double field18;
+
+        private Boolean field19;
+    }
+
+    /**
+     * 创建已填充属性的NarrowSource
+     *
+     * @param i 序号
+     * @return NarrowSource
+     */
+    public static NarrowSource narrowSource(int i)
+    {
+        NarrowSource source = new NarrowSource();
+        source.setId((long) i);
+        source.setName("guang19-" + i);
+        source.setAge(i % 100);
+        source.setInner(new Inner());
+        return source;
+    }
+
+    /**
+     * 创建已填充属性的WideSource
+     *
+     * @param i 序号
+     * @return WideSource
+     */
+    public static WideSource wideSource(int i)
+    {
+        WideSource source = new WideSource();
+        source.setField00((long) i);
+        source.setField01("v" + i);
+        source.setField02(i);
+        source.setField03(i * 0.5D);
+        source.setField04((i & 1) == 0);
+        source.setField05((long) i);
+        source.setField06("v" + i);
+        source.setField07(i);
+        source.setField08(i * 0.5D);
+        source.setField09((i & 1) == 0);
+        source.setField10((long) i);
+        source.setField11("v" + i);
+        source.setField12(i);
+        source.setField13(i * 0.5D);
+        source.setField14((i & 1) == 0);
+        source.setField15((long) i);
+        source.setField16("v" + i);
+        source.setField17(i);
+        source.setField18(i * 0.5D);
+        source.setField19((i & 1) == 0);
+        return source;
+    }
+}
@@ -0,0 +1,430 @@
+package com.github.guang19.knife.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.beans.Introspector;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 根据@BeanMapper接口在编译时生成普通的Java拷贝代码。
+ *
+ * 对于接口 pkg.PersonMapper，会生成 pkg.PersonMapperImpl:
+ * 1. 实现接口中的每个方法，T map(S source) 创建目标对象后拷贝，void copy(S source, T target) 拷贝到已有的目标对象;
+ * 2. 每个class pair生成一个继承GeneratedBeanCopier的内部类，并注册到
+ *    META-INF/services/com.github.guang19.knife.beanutils.GeneratedBeanCopier，
+ *    BeanUtils在不使用转换器拷贝这些class pair时会直接使用生成的代码。
+ *
+ * 与cglib的BeanCopier一样，只拷贝名称相同、源对象有public getter、目标对象有public setter，
+ * 且setter的参数类型可以接收getter返回值的属性(不做拆箱、装箱)。
+ * </p>
+ */
+@SupportedAnnotationTypes(BeanMapperProcessor.BEAN_MAPPER)
+public class BeanMapperProcessor extends AbstractProcessor
+{
+    //@BeanMapper
+    static final String BEAN_MAPPER = "com.github.guang19.knife.beanutils.BeanMapper";
+
+    //生成的拷贝器的父类
+    private static final String GENERATED_BEAN_COPIER = "com.github.guang19.knife.beanutils.GeneratedBeanCopier";
+
+    //生成的拷贝器的注册文件
+    private static final String SERVICE_FILE = "META-INF/services/" + GENERATED_BEAN_COPIER;
+
+    //生成的实现类的后缀
+    private static final String IMPL_SUFFIX = "Impl";
+
+    //生成的拷贝器的类名前缀
+    private static final String COPIER_PREFIX = "Copier";
+
+    //本次编译生成的所有拷贝器的binary name
+    private final Set<String> generatedCopiers = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        TypeElement beanMapper = processingEnv.getElementUtils().getTypeElement(BEAN_MAPPER);
+        if (beanMapper != null)
+        {
+            for (Element element : roundEnv.getElementsAnnotatedWith(beanMapper))
+            {
+                if (element.getKind() != ElementKind.INTERFACE)
+                {
+                    error(element, "@BeanMapper can only be used on interfaces");
+                    continue;
+                }
+                try
+                {
+                    generate((TypeElement) element);
+                }
+                catch (IOException e)
+                {
+                    error(element, "failed to generate mapper implementation : " + e.getMessage());
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !generatedCopiers.isEmpty())
+        {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    /**
+     * <p>生成@BeanMapper接口的实现类</p>
+     *
+     * @param mapper @BeanMapper接口
+     * @throws IOException 写入源文件失败
+     */
+    private void generate(TypeElement mapper) throws IOException
+    {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        String packageName = elements.getPackageOf(mapper).getQualifiedName().toString();
+        String implName = flatName(mapper) + IMPL_SUFFIX;
+
+        //擦除后的class pair -> 拷贝器
+        Map<String, ClassPair> pairs = new LinkedHashMap<>();
+        StringBuilder methods = new StringBuilder();
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(mapper)))
+        {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT) ||
+                    ((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals(Object.class.getName()))
+            {
+                continue;
+            }
+            List<? extends TypeMirror> parameters = method.getParameters().stream().map(Element::asType).collect(Collectors.toList());
+            TypeMirror returnType = method.getReturnType();
+            boolean mapping = parameters.size() == 1 && returnType.getKind() == TypeKind.DECLARED;
+            boolean copying = parameters.size() == 2 && returnType.getKind() == TypeKind.VOID;
+            if (!mapping && !copying || !method.getTypeParameters().isEmpty())
+            {
+                error(method, "@BeanMapper methods must be declared as 'T map(S source)' or 'void copy(S source, T target)'");
+                valid = false;
+                continue;
+            }
+            TypeMirror sourceType = parameters.get(0);
+            TypeMirror targetType = mapping ? returnType : parameters.get(1);
+            if (sourceType.getKind() != TypeKind.DECLARED || targetType.getKind() != TypeKind.DECLARED)
+            {
+                error(method, "source and target of @BeanMapper methods must be classes");
+                valid = false;
+                continue;
+            }
+            if (mapping && !hasPublicDefaultConstructor((TypeElement) types.asElement(targetType)))
+            {
+                error(method, "target type " + targetType + " has no public default constructor");
+                valid = false;
+                continue;
+            }
+            String pairKey = types.erasure(sourceType) + "->" + types.erasure(targetType);
+            ClassPair pair = pairs.get(pairKey);
+            if (pair == null)
+            {
+                pairs.put(pairKey, pair = new ClassPair(COPIER_PREFIX + pairs.size(), (DeclaredType) sourceType, (DeclaredType) targetType));
+            }
+            appendMethod(methods, method, sourceType, targetType, mapping, pair);
+        }
+        if (!valid)
+        {
+            return;
+        }
+
+        String qualifiedImplName = packageName.isEmpty() ? implName : packageName + "." + implName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedImplName, mapper).openWriter())
+        {
+            StringBuilder source = new StringBuilder();
+            if (!packageName.isEmpty())
+            {
+                source.append("package ").append(packageName).append(";\n\n");
+            }
+            source.append("/**\n").
+                    append(" * 由knife-processor根据 ").append(mapper.getQualifiedName()).append(" 生成，不要修改\n").
+                    append(" */\n").
+                    append("public final class ").append(implName).append(" implements ").append(mapper.getQualifiedName()).append("\n{\n").
+                    append(methods);
+            for (ClassPair pair : pairs.values())
+            {
+                appendCopier(source, pair);
+                generatedCopiers.add(qualifiedImplName + "$" + pair.copierName);
+            }
+            source.append("}\n");
+            writer.write(source.toString());
+        }
+    }
+
+    /**
+     * <p>生成接口方法的实现</p>
+     */
+    private void appendMethod(StringBuilder out, ExecutableElement method, TypeMirror sourceType, TypeMirror targetType,
+                              boolean mapping, ClassPair pair)
+    {
+        out.append("    @Override\n").
+                append("    public ").append(mapping ? targetType.toString() : "void").append(' ').append(method.getSimpleName()).
+                append('(').append(sourceType).append(" source");
+        if (!mapping)
+        {
+            out.append(", ").append(targetType).append(" target");
+        }
+        out.append(")\n    {\n");
+        if (mapping)
+        {
+            out.append("        if (source == null)\n        {\n            return null;\n        }\n").
+                    append("        ").append(targetType).append(" target = new ").append(targetType).append("();\n").
+                    append("        ").append(pair.copierName).append(".copyProperties(source, target);\n").
+                    append("        return target;\n");
+        }
+        else
+        {
+            out.append("        ").append(pair.copierName).append(".copyProperties(source, target);\n");
+        }
+        out.append("    }\n\n");
+    }
+
+    /**
+     * <p>生成class pair的拷贝器</p>
+     */
+    private void appendCopier(StringBuilder out, ClassPair pair)
+    {
+        Types types = processingEnv.getTypeUtils();
+        String sourceClass = types.erasure(pair.sourceType).toString();
+        String targetClass = types.erasure(pair.targetType).toString();
+        out.append("    public static final class ").append(pair.copierName).append(" extends ").append(GENERATED_BEAN_COPIER).append("\n    {\n").
+                append("        public ").append(pair.copierName).append("()\n        {\n").
+                append("            super(").append(sourceClass).append(".class, ").append(targetClass).append(".class);\n        }\n\n").
+                append("        @Override\n").
+                append("        public void copy(Object sourceObj, Object targetObj)\n        {\n").
+                append("            copyProperties((").append(sourceClass).append(") sourceObj, (").append(targetClass).append(") targetObj);\n        }\n\n").
+                append("        static void copyProperties(").append(sourceClass).append(" source, ").append(targetClass).append(" target)\n        {\n");
+        Map<String, ExecutableElement> getters = getters(pair.sourceType);
+        for (Map.Entry<String, List<ExecutableElement>> setter : setters(pair.targetType).entrySet())
+        {
+            ExecutableElement getter = getters.get(setter.getKey());
+            if (getter == null)
+            {
+                continue;
+            }
+            TypeMirror valueType = ((ExecutableType) types.asMemberOf(pair.sourceType, getter)).getReturnType();
+            for (ExecutableElement candidate : setter.getValue())
+            {
+                TypeMirror parameterType = ((ExecutableType) types.asMemberOf(pair.targetType, candidate)).getParameterTypes().get(0);
+                if (isCompatible(valueType, parameterType))
+                {
+                    out.append("            target.").append(candidate.getSimpleName()).append("(source.").append(getter.getSimpleName()).append("());\n");
+                    break;
+                }
+            }
+        }
+        out.append("        }\n    }\n");
+    }
+
+    /**
+     * <p>与BeanCopier相同的兼容规则: 基本类型必须相同，引用类型按擦除后的类型判断子类型，不做拆箱、装箱</p>
+     */
+    private boolean isCompatible(TypeMirror valueType, TypeMirror parameterType)
+    {
+        Types types = processingEnv.getTypeUtils();
+        if (valueType.getKind().isPrimitive() || parameterType.getKind().isPrimitive())
+        {
+            return types.isSameType(valueType, parameterType);
+        }
+        return types.isSubtype(types.erasure(valueType), types.erasure(parameterType));
+    }
+
+    /**
+     * @return 属性名 -> public getter
+     */
+    private Map<String, ExecutableElement> getters(DeclaredType type)
+    {
+        Map<String, ExecutableElement> getters = new TreeMap<>();
+        for (ExecutableElement method : publicMethods(type))
+        {
+            String name = method.getSimpleName().toString();
+            if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID || "getClass".equals(name))
+            {
+                continue;
+            }
+            if (name.startsWith("get") && name.length() > 3)
+            {
+                getters.putIfAbsent(Introspector.decapitalize(name.substring(3)), method);
+            }
+            else if (name.startsWith("is") && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN)
+            {
+                getters.putIfAbsent(Introspector.decapitalize(name.substring(2)), method);
+            }
+        }
+        return getters;
+    }
+
+    /**
+     * @return 属性名 -> public setter，按属性名排序
+     */
+    private Map<String, List<ExecutableElement>> setters(DeclaredType type)
+    {
+        Map<String, List<ExecutableElement>> setters = new TreeMap<>();
+        for (ExecutableElement method : publicMethods(type))
+        {
+            String name = method.getSimpleName().toString();
+            if (name.startsWith("set") && name.length() > 3 && method.getParameters().size() == 1 &&
+                    method.getReturnType().getKind() == TypeKind.VOID)
+            {
+                setters.computeIfAbsent(Introspector.decapitalize(name.substring(3)), k -> new ArrayList<>()).add(method);
+            }
+        }
+        return setters;
+    }
+
+    /**
+     * @return 类型的所有public实例方法，包括继承的方法
+     */
+    private List<ExecutableElement> publicMethods(DeclaredType type)
+    {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers((TypeElement) type.asElement())))
+        {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC))
+            {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private boolean hasPublicDefaultConstructor(TypeElement type)
+    {
+        if (type.getModifiers().contains(Modifier.ABSTRACT))
+        {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+        {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>写入生成的拷贝器的注册文件，会保留增量编译时已存在的注册项</p>
+     */
+    private void writeServiceFile()
+    {
+        Set<String> copiers = new LinkedHashSet<>();
+        try
+        {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8)))
+            {
+                String line;
+                while ((line = reader.readLine()) != null)
+                {
+                    if (!(line = line.trim()).isEmpty())
+                    {
+                        copiers.add(line);
+                    }
+                }
+            }
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            //第一次编译，注册文件不存在
+        }
+        copiers.addAll(generatedCopiers);
+        try
+        {
+            FileObject serviceFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = serviceFile.openWriter())
+            {
+                for (String copier : copiers)
+                {
+                    writer.write(copier);
+                    writer.write('\n');
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "failed to write " + SERVICE_FILE + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return 内部接口以'_'连接外部类的类名
+     */
+    private static String flatName(TypeElement type)
+    {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement)
+        {
+            name.insert(0, '_').insert(0, enclosing.getSimpleName());
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.toString();
+    }
+
+    private void error(Element element, String message)
+    {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * <p>一个class pair与它的拷贝器类名</p>
+     */
+    private static final class ClassPair
+    {
+        private final String copierName;
+
+        private final DeclaredType sourceType;
+
+        private final DeclaredType targetType;
+
+        private ClassPair(String copierName, DeclaredType sourceType, DeclaredType targetType)
+        {
+            this.copierName = copierName;
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+    }
+}
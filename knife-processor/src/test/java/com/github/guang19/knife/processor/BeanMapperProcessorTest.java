@@ -0,0 +1,156 @@
+package com.github.guang19.knife.processor;
+
+import com.github.guang19.knife.beanutils.BeanUtils;
+import com.github.guang19.knife.beanutils.GeneratedBeanCopier;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>编译示例@BeanMapper接口，检查生成的实现类与拷贝器的注册</p>
+ */
+public class BeanMapperProcessorTest
+{
+    private static final String PERSON =
+            "package sample;\n" +
+            "public class Person\n{\n" +
+            "    private String name; private int age; private Long id; private boolean active;\n" +
+            "    public String getName() { return name; } public void setName(String name) { this.name = name; }\n" +
+            "    public int getAge() { return age; } public void setAge(int age) { this.age = age; }\n" +
+            "    public Long getId() { return id; } public void setId(Long id) { this.id = id; }\n" +
+            "    public boolean isActive() { return active; } public void setActive(boolean active) { this.active = active; }\n" +
+            "}\n";
+
+    private static final String PERSON_DTO =
+            "package sample;\n" +
+            "public class PersonDto\n{\n" +
+            "    public static String nameWriter;\n" +
+            "    private CharSequence name; private int age; private long id; private boolean active;\n" +
+            "    public CharSequence getName() { return name; }\n" +
+            "    public void setName(CharSequence name) { this.name = name; nameWriter = new Throwable().getStackTrace()[1].getClassName(); }\n" +
+            "    public int getAge() { return age; } public void setAge(int age) { this.age = age; }\n" +
+            "    public long getId() { return id; } public void setId(long id) { this.id = id; }\n" +
+            "    public boolean isActive() { return active; } public void setActive(boolean active) { this.active = active; }\n" +
+            "}\n";
+
+    private static final String PERSON_MAPPER =
+            "package sample;\n" +
+            "@com.github.guang19.knife.beanutils.BeanMapper\n" +
+            "public interface PersonMapper\n{\n" +
+            "    PersonDto toDto(Person person);\n" +
+            "    void copy(Person person, PersonDto dto);\n" +
+            "}\n";
+
+    private static final String INVALID_MAPPER =
+            "package sample;\n" +
+            "@com.github.guang19.knife.beanutils.BeanMapper\n" +
+            "public interface InvalidMapper\n{\n" +
+            "    PersonDto toDto(Person person, int flags);\n" +
+            "}\n";
+
+    @Test
+    public void testGenerateMapper() throws Exception
+    {
+        Path dir = Files.createTempDirectory("knife-processor");
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, PERSON, PERSON_DTO, PERSON_MAPPER);
+        Assert.assertTrue(diagnostics.toString(), diagnostics.stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR));
+
+        String generated = new String(Files.readAllBytes(dir.resolve("sample/PersonMapperImpl.java")), StandardCharsets.UTF_8);
+        //只拷贝类型兼容的属性，Long -> long 不拷贝
+        Assert.assertTrue(generated.contains("target.setName(source.getName());"));
+        Assert.assertTrue(generated.contains("target.setAge(source.getAge());"));
+        Assert.assertTrue(generated.contains("target.setActive(source.isActive());"));
+        Assert.assertFalse(generated.contains("setId"));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, getClass().getClassLoader()))
+        {
+            Class<?> personClass = classLoader.loadClass("sample.Person");
+            Class<?> dtoClass = classLoader.loadClass("sample.PersonDto");
+            Object person = personClass.newInstance();
+            personClass.getMethod("setName", String.class).invoke(person, "guang19");
+            personClass.getMethod("setAge", int.class).invoke(person, 18);
+            personClass.getMethod("setActive", boolean.class).invoke(person, true);
+
+            Object mapper = classLoader.loadClass("sample.PersonMapperImpl").newInstance();
+            Object dto = mapper.getClass().getMethod("toDto", personClass).invoke(mapper, person);
+            Assert.assertEquals("guang19", dtoClass.getMethod("getName").invoke(dto));
+            Assert.assertEquals(18, dtoClass.getMethod("getAge").invoke(dto));
+            Assert.assertEquals(true, dtoClass.getMethod("isActive").invoke(dto));
+            Assert.assertNull(mapper.getClass().getMethod("toDto", personClass).invoke(mapper, new Object[]{null}));
+
+            //一个class pair只生成一个拷贝器，并注册到ServiceLoader
+            int copiers = 0;
+            String copierName = null;
+            for (GeneratedBeanCopier copier : ServiceLoader.load(GeneratedBeanCopier.class, classLoader))
+            {
+                Assert.assertSame(personClass, copier.getSourceClass());
+                Assert.assertSame(dtoClass, copier.getTargetClass());
+                copierName = copier.getClass().getName();
+                ++copiers;
+            }
+            Assert.assertEquals(1, copiers);
+
+            //BeanUtils使用生成的拷贝器: setName由生成的拷贝器调用，而不是运行时生成的拷贝器
+            Field nameWriter = dtoClass.getField("nameWriter");
+            nameWriter.set(null, null);
+            Object copied = BeanUtils.createNewTypeObj(person, dtoClass);
+            Assert.assertEquals("guang19", dtoClass.getMethod("getName").invoke(copied));
+            Assert.assertEquals(copierName, nameWriter.get(null));
+        }
+    }
+
+    @Test
+    public void testInvalidMapper() throws Exception
+    {
+        Path dir = Files.createTempDirectory("knife-processor");
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, PERSON, PERSON_DTO, INVALID_MAPPER);
+        Assert.assertTrue(diagnostics.stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR &&
+                d.getMessage(null).contains("@BeanMapper methods must be declared as")));
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(Path dir, String... sources) throws IOException
+    {
+        File[] files = new File[sources.length];
+        for (int i = 0; i < sources.length; ++i)
+        {
+            String source = sources[i];
+            String className = source.substring(source.indexOf("public ") + 7).split("\\s+")[1];
+            Path file = dir.resolve("sample/" + className + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            files[i] = file.toFile();
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8))
+        {
+            List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                    "-d", dir.toString(), "-s", dir.toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(files));
+            task.setProcessors(Collections.singletonList(new BeanMapperProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 异步批量转换的选项: 执行转换的Executor、每块的元素数量、同时执行的块数、转换规则，以及接收失败元素的错误通道。
+ *
+ * 源集合被拆分为大小为chunkSize的块，同一时刻最多有maxInFlight个块在Executor中执行，
+ * 一个块完成后才提交下一个块，所以大批量转换不会占满Executor的队列与线程。
+ * 未指定Executor时，运行时支持虚拟线程(Java 21及以上)则每个块使用一个虚拟线程，否则使用ForkJoinPool.commonPool()。
+ *
+ * 选项创建后不可修改，可以被多个线程共享。
+ *
+ * e.g.
+ *
+ *  AsyncConversionOptions options = AsyncConversionOptions.builder().
+ *          chunkSize(512).
+ *          maxInFlight(4).
+ *          onError((source, cause) -> failed.add(source)).
+ *          build();
+ *
+ *  BeanUtils.createNewTypeCollectionAsync(persons, PersonDto.class, options).thenAccept(this::send);
+ * </p>
+ */
+public final class AsyncConversionOptions
+{
+    //默认每块的元素数量
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    //默认选项
+    private static final AsyncConversionOptions DEFAULTS = builder().build();
+
+    //执行转换的Executor，为null时使用默认的Executor
+    private final Executor executor;
+
+    //每块的元素数量
+    private final int chunkSize;
+
+    //同时执行的块数
+    private final int maxInFlight;
+
+    //转换器注册表，为null时与createNewTypeCollection(List, Class)相同
+    private final TypeConverterRegistry typeConverterRegistry;
+
+    //接收转换失败的源对象与原因，为null时第一个失败使整个转换失败
+    private final BiConsumer<Object, Throwable> errorHandler;
+
+    private AsyncConversionOptions(Executor executor, int chunkSize, int maxInFlight, TypeConverterRegistry typeConverterRegistry,
+                                   BiConsumer<Object, Throwable> errorHandler)
+    {
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+        this.typeConverterRegistry = typeConverterRegistry;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * @return 默认选项
+     */
+    public static AsyncConversionOptions defaults()
+    {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return 选项的Builder
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    public int getMaxInFlight()
+    {
+        return maxInFlight;
+    }
+
+    public TypeConverterRegistry getTypeConverterRegistry()
+    {
+        return typeConverterRegistry;
+    }
+
+    public BiConsumer<Object, Throwable> getErrorHandler()
+    {
+        return errorHandler;
+    }
+
+    /**
+     * <p>AsyncConversionOptions的Builder</p>
+     */
+    public static final class Builder
+    {
+        private Executor executor;
+
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        private int maxInFlight = Runtime.getRuntime().availableProcessors();
+
+        private TypeConverterRegistry typeConverterRegistry;
+
+        private BiConsumer<Object, Throwable> errorHandler;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * <p>执行转换的Executor，不要使用事件循环线程</p>
+         *
+         * @param executor Executor
+         * @return this
+         */
+        public Builder executor(Executor executor)
+        {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param chunkSize 每块的元素数量，默认为{@link #DEFAULT_CHUNK_SIZE}
+         * @return this
+         * @throws IllegalArgumentException chunkSize小于1
+         */
+        public Builder chunkSize(int chunkSize)
+        {
+            if (chunkSize < 1)
+            {
+                throw new IllegalArgumentException("chunk size must be positive : [" + chunkSize + "]");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * @param maxInFlight 同时执行的块数，默认为CPU核数
+         * @return this
+         * @throws IllegalArgumentException maxInFlight小于1
+         */
+        public Builder maxInFlight(int maxInFlight)
+        {
+            if (maxInFlight < 1)
+            {
+                throw new IllegalArgumentException("max in-flight chunks must be positive : [" + maxInFlight + "]");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * <p>使用转换器注册表定义的规则转换</p>
+         *
+         * @param typeConverterRegistry 转换器注册表
+         * @return this
+         */
+        public Builder typeConverterRegistry(TypeConverterRegistry typeConverterRegistry)
+        {
+            this.typeConverterRegistry = typeConverterRegistry;
+            return this;
+        }
+
+        /**
+         * <p>
+         * 接收转换失败的源对象与原因，失败的元素不在结果中，其他元素继续转换。
+         * 会在执行转换的线程中被并发调用，需要是线程安全的。
+         * 未设置时，第一个失败的元素使返回的CompletableFuture以这个原因异常完成，未开始的块不再执行。
+         * </p>
+         *
+         * @param errorHandler 错误通道
+         * @return this
+         */
+        public Builder onError(BiConsumer<Object, Throwable> errorHandler)
+        {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        /**
+         * @return AsyncConversionOptions
+         */
+        public AsyncConversionOptions build()
+        {
+            return new AsyncConversionOptions(executor, chunkSize, maxInFlight, typeConverterRegistry, errorHandler);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 一次异步批量转换。源集合在调用线程中复制为数组，然后拆分为固定大小的块，
+ * 最多maxInFlight个块同时在Executor中执行，每个块完成后由执行它的线程提交下一个块，
+ * 所有块完成后按源集合的顺序收集不为null的目标对象。
+ * 返回的CompletableFuture被取消或者异常完成后，正在执行的块在下一个元素处停止，未开始的块不再提交。
+ * </p>
+ */
+final class AsyncConverter<T>
+{
+    //源对象
+    private final Object[] sources;
+
+    //目标对象，与源对象一一对应
+    private final Object[] targets;
+
+    //批量转换器
+    private final BatchConverter<T> batchConverter;
+
+    //执行转换的Executor
+    private final Executor executor;
+
+    //每块的元素数量
+    private final int chunkSize;
+
+    //块数
+    private final int chunks;
+
+    //错误通道，为null时第一个失败使整个转换失败
+    private final BiConsumer<Object, Throwable> errorHandler;
+
+    //下一个提交的块
+    private final AtomicInteger nextChunk = new AtomicInteger();
+
+    //未完成的块数
+    private final AtomicInteger remaining;
+
+    //转换的结果
+    private final CompletableFuture<List<T>> future = new CompletableFuture<>();
+
+    private AsyncConverter(Object[] sources, BatchConverter<T> batchConverter, AsyncConversionOptions options)
+    {
+        this.sources = sources;
+        this.targets = new Object[sources.length];
+        this.batchConverter = batchConverter;
+        this.executor = options.getExecutor() == null ? DefaultExecutor.INSTANCE : options.getExecutor();
+        this.chunkSize = options.getChunkSize();
+        this.chunks = (int) (((long) sources.length + chunkSize - 1) / chunkSize);
+        this.errorHandler = options.getErrorHandler();
+        this.remaining = new AtomicInteger(chunks);
+    }
+
+    /**
+     * <p>开始异步转换</p>
+     *
+     * @param sources        源集合
+     * @param batchConverter 批量转换器
+     * @param options        选项
+     * @param <T>            Target Class
+     * @return 与源集合顺序一致的目标对象，不包含null元素
+     */
+    static <T> CompletableFuture<List<T>> convert(List<?> sources, BatchConverter<T> batchConverter, AsyncConversionOptions options)
+    {
+        AsyncConverter<T> converter = new AsyncConverter<>(sources.toArray(), batchConverter, options);
+        if (converter.chunks == 0)
+        {
+            converter.future.complete(new ArrayList<>());
+        }
+        for (int i = 0, inFlight = Math.min(options.getMaxInFlight(), converter.chunks); i < inFlight; ++i)
+        {
+            converter.submitNext();
+        }
+        return converter.future;
+    }
+
+    /**
+     * <p>提交下一个块</p>
+     */
+    private void submitNext()
+    {
+        int chunk = nextChunk.getAndIncrement();
+        if (chunk >= chunks || future.isDone())
+        {
+            return;
+        }
+        try
+        {
+            executor.execute(() -> run(chunk));
+        }
+        catch (RejectedExecutionException e)
+        {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * <p>转换一个块，完成后提交下一个块</p>
+     *
+     * @param chunk 块的序号
+     */
+    private void run(int chunk)
+    {
+        try
+        {
+            for (int i = chunk * chunkSize, to = Math.min(sources.length, i + chunkSize); i < to; ++i)
+            {
+                if (future.isDone())
+                {
+                    return;
+                }
+                convert(i);
+            }
+        }
+        catch (Throwable e)
+        {
+            future.completeExceptionally(e);
+            return;
+        }
+        if (remaining.decrementAndGet() == 0)
+        {
+            complete();
+        }
+        else
+        {
+            submitNext();
+        }
+    }
+
+    /**
+     * <p>转换一个元素，失败时交给错误通道</p>
+     *
+     * @param index 元素的位置
+     */
+    private void convert(int index)
+    {
+        Object sourceObj = sources[index];
+        if (sourceObj == null)
+        {
+            return;
+        }
+        try
+        {
+            targets[index] = batchConverter.convertOrThrow(sourceObj);
+        }
+        catch (Exception e)
+        {
+            BeanUtilsMetrics.recordConversionFailure(batchConverter.getTargetClass(), e);
+            if (errorHandler == null)
+            {
+                future.completeExceptionally(e);
+            }
+            else
+            {
+                errorHandler.accept(sourceObj, e);
+            }
+        }
+    }
+
+    /**
+     * <p>按源集合的顺序收集目标对象</p>
+     */
+    @SuppressWarnings("unchecked")
+    private void complete()
+    {
+        List<T> result = new ArrayList<>(targets.length);
+        for (Object target : targets)
+        {
+            if (target != null)
+            {
+                result.add((T) target);
+            }
+        }
+        future.complete(result);
+    }
+
+    /**
+     * <p>
+     * 默认的Executor，只在第一次使用时创建:
+     * 运行时提供Executors.newVirtualThreadPerTaskExecutor()(Java 21及以上)时每个块使用一个虚拟线程，
+     * 否则使用ForkJoinPool.commonPool()。通过反射查找，不要求编译时的JDK版本。
+     * </p>
+     */
+    private static final class DefaultExecutor
+    {
+        private static final Executor INSTANCE = create();
+
+        private static Executor create()
+        {
+            try
+            {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (Executor) factory.invoke(null);
+            }
+            catch (ReflectiveOperationException | RuntimeException e)
+            {
+                return ForkJoinPool.commonPool();
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.function.Function;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 批量创建同一种目标类型的对象。
+ * 目标Class的实例化器与转换规则只在创建时获取一次。
+ * 每次调用创建的BatchConverter会记住最近一次使用的拷贝器，源对象类型相同时不必再查找缓存；
+ * 不使用转换器的BatchConverter按目标Class全局共享，不记住拷贝器，每个元素都通过{@link BeanCopiers}查找，
+ * 这样拷贝引擎的切换与拷贝器的淘汰对之后的批量转换立即生效，也不会强引用其他ClassLoader中的源Class。
+ * 目标Class没有默认构造器时，使用{@link ObjectCreators}编译的创建器直接创建目标对象。
+ * 可以被多个线程同时使用。
+ * </p>
+ */
+final class BatchConverter<T>
+{
+    //目标Class不能被创建
+    private static final BatchConverter<Object> UNSUPPORTED = new BatchConverter<>(Object.class, null, null, false);
+
+    //不使用转换器时，目标Class -> BatchConverter，批量转换时不必每次创建
+    private static final ClassValue<BatchConverter<?>> defaultConverters = new ClassValue<BatchConverter<?>>()
+    {
+        @Override
+        protected BatchConverter<?> computeValue(Class<?> type)
+        {
+            BatchConverter<?> batchConverter = create(type);
+            return batchConverter == null ? UNSUPPORTED : batchConverter;
+        }
+    };
+
+    //目标Class
+    private final Class<T> targetClass;
+
+    //目标Class的实例化器，为null时使用创建器
+    private final BeanInstantiator instantiator;
+
+    //源Class -> 拷贝器或创建器
+    private final Function<Class<?>, ?> resolver;
+
+    //是否记住最近一次使用的拷贝器或创建器
+    private final boolean memoized;
+
+    //最近一次使用的拷贝器或创建器，多个线程竞争写入是无害的
+    private Slot slot;
+
+    private BatchConverter(Class<T> targetClass, BeanInstantiator instantiator, Function<Class<?>, ?> resolver, boolean memoized)
+    {
+        this.targetClass = targetClass;
+        this.instantiator = instantiator;
+        this.resolver = resolver;
+        this.memoized = memoized;
+    }
+
+    /**
+     * <p>创建使用BeanFieldValueConverter的BatchConverter</p>
+     *
+     * @param targetClass             目标Class
+     * @param beanFieldValueConverter bean属性值转换器
+     * @param <T>                     Target Class
+     * @return BatchConverter，如果目标Class不能被创建，则返回null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> BatchConverter<T> of(Class<T> targetClass, BeanFieldValueConverter beanFieldValueConverter)
+    {
+        if (beanFieldValueConverter == null)
+        {
+            BatchConverter<?> batchConverter = defaultConverters.get(targetClass);
+            return batchConverter == UNSUPPORTED ? null : (BatchConverter<T>) batchConverter;
+        }
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        if (instantiator == null)
+        {
+            return null;
+        }
+        return new BatchConverter<>(targetClass, instantiator, sourceClass ->
+        {
+            BeanCopiers.ConvertingCopier copier = BeanCopiers.getConverting(sourceClass, targetClass);
+            return (BoundCopier) (sourceObj, targetObj) -> copier.copy(sourceObj, targetObj, beanFieldValueConverter);
+        }, true);
+    }
+
+    /**
+     * <p>创建不使用转换器的BatchConverter</p>
+     *
+     * @param targetClass 目标Class
+     * @param <T>         Target Class
+     * @return BatchConverter，如果目标Class不能被创建，则返回null
+     */
+    private static <T> BatchConverter<T> create(Class<T> targetClass)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        if (instantiator == null)
+        {
+            return ObjectCreators.isSupported(targetClass) ?
+                    new BatchConverter<>(targetClass, null, sourceClass -> ObjectCreators.get(sourceClass, targetClass), false) : null;
+        }
+        return new BatchConverter<>(targetClass, instantiator, sourceClass -> BeanCopiers.get(sourceClass, targetClass), false);
+    }
+
+    /**
+     * <p>创建使用TypeConverterRegistry编译的拷贝器的BatchConverter</p>
+     *
+     * @param targetClass           目标Class
+     * @param typeConverterRegistry 转换器注册表
+     * @param <T>                   Target Class
+     * @return BatchConverter，如果目标Class不能被创建，则返回null
+     */
+    static <T> BatchConverter<T> of(Class<T> targetClass, TypeConverterRegistry typeConverterRegistry)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        if (instantiator == null)
+        {
+            return ObjectCreators.isSupported(targetClass) ? new BatchConverter<>(targetClass, null,
+                    sourceClass -> typeConverterRegistry.getCreator(sourceClass, targetClass), true) : null;
+        }
+        return new BatchConverter<>(targetClass, instantiator, sourceClass -> typeConverterRegistry.getCopier(sourceClass, targetClass), true);
+    }
+
+    /**
+     * <p>根据源对象创建目标对象</p>
+     *
+     * @param sourceObj 源对象
+     * @return 填充属性后的目标对象(浅拷贝)，如果源对象为null或者创建目标对象失败，则返回null
+     */
+    T convert(Object sourceObj)
+    {
+        if (sourceObj == null)
+        {
+            return null;
+        }
+        if (instantiator == null)
+        {
+            return ObjectCreators.create((ObjectCreator) resolve(sourceObj.getClass()), sourceObj, targetClass);
+        }
+        T target = BeanInstantiators.instantiate(instantiator, targetClass);
+        if (target != null)
+        {
+            BeanUtilsMetrics.copy((BoundCopier) resolve(sourceObj.getClass()), sourceObj, target);
+        }
+        return target;
+    }
+
+    /**
+     * <p>根据源对象创建目标对象，创建或拷贝失败时抛出异常，而不是记录日志后返回null</p>
+     *
+     * @param sourceObj 源对象，不能为null
+     * @return 填充属性后的目标对象(浅拷贝)
+     * @throws Exception 创建目标对象或拷贝属性失败
+     */
+    @SuppressWarnings("unchecked")
+    T convertOrThrow(Object sourceObj) throws Exception
+    {
+        if (instantiator != null)
+        {
+            T target = (T) instantiator.newInstance();
+            BeanUtilsMetrics.copy((BoundCopier) resolve(sourceObj.getClass()), sourceObj, target);
+            return target;
+        }
+        ObjectCreator creator = (ObjectCreator) resolve(sourceObj.getClass());
+        if (!BeanUtilsMetrics.enabled)
+        {
+            return (T) creator.create(sourceObj);
+        }
+        long start = System.nanoTime();
+        T target = (T) creator.create(sourceObj);
+        BeanUtilsMetrics.recordCopy(sourceObj.getClass(), targetClass, System.nanoTime() - start);
+        return target;
+    }
+
+    /**
+     * <p>提前获取源Class对应的拷贝器或创建器，编译失败时抛出异常</p>
+     *
+     * @param sourceClass 源Class
+     */
+    void prepare(Class<?> sourceClass)
+    {
+        resolve(sourceClass);
+    }
+
+    /**
+     * @return 目标Class
+     */
+    Class<T> getTargetClass()
+    {
+        return targetClass;
+    }
+
+    /**
+     * <p>获取源Class对应的拷贝器或创建器</p>
+     *
+     * @param sourceClass 源Class
+     * @return 拷贝器或创建器
+     */
+    private Object resolve(Class<?> sourceClass)
+    {
+        if (!memoized)
+        {
+            //ClassValue查找，不分配内存
+            return resolver.apply(sourceClass);
+        }
+        Slot slot = this.slot;
+        if (slot == null || slot.sourceClass != sourceClass)
+        {
+            this.slot = slot = new Slot(sourceClass, resolver.apply(sourceClass));
+        }
+        return slot.value;
+    }
+
+    /**
+     * <p>源Class与它的拷贝器或创建器</p>
+     */
+    private static final class Slot
+    {
+        private final Class<?> sourceClass;
+
+        private final Object value;
+
+        private Slot(Class<?> sourceClass, Object value)
+        {
+            this.sourceClass = sourceClass;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.github.guang19.knife.beanutils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 按列保存的一组bean(struct-of-arrays)，由{@link BeanUtils#toColumns(List, Class)}创建。
+ * 每个属性一列，第i行对应第i个bean:
+ * long、Long属性保存为long列；int、short、byte、char、boolean及其包装类型保存为int列(boolean为0/1)；
+ * double、float及其包装类型保存为double列；String与枚举保存为字典编码的列，列中保存字典的下标，null为-1。
+ * 包装类型的null单独记录在位图中，数值列中对应的值为0。
+ *
+ * 列可以保存在堆内的数组中，也可以保存在堆外的direct ByteBuffer中(本机字节序)，
+ * 两种方式都可以通过LongBuffer、IntBuffer、DoubleBuffer访问，堆内的Buffer可以通过array()直接取得数组。
+ * </p>
+ */
+public final class BeanColumns
+{
+    /**
+     * <p>列的类型</p>
+     */
+    public enum ColumnType
+    {
+        LONG(8),
+        INT(4),
+        DOUBLE(8),
+        //字典编码的String或枚举，列中保存字典下标
+        STRING(4);
+
+        //每个值占用的字节数
+        final int bytes;
+
+        ColumnType(int bytes)
+        {
+            this.bytes = bytes;
+        }
+    }
+
+    //bean Class
+    private final Class<?> beanClass;
+
+    //行数
+    private final int size;
+
+    //列是否保存在direct ByteBuffer中
+    private final boolean direct;
+
+    //列名 -> 列，按属性名排序
+    private final Map<String, Column> columns;
+
+    BeanColumns(Class<?> beanClass, int size, boolean direct, Map<String, Column> columns)
+    {
+        this.beanClass = beanClass;
+        this.size = size;
+        this.direct = direct;
+        this.columns = columns;
+    }
+
+    /**
+     * @return 导出列的bean Class
+     */
+    public Class<?> getBeanClass()
+    {
+        return beanClass;
+    }
+
+    /**
+     * @return 行数
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return 列是否保存在堆外的direct ByteBuffer中
+     */
+    public boolean isDirect()
+    {
+        return direct;
+    }
+
+    /**
+     * @return 列名，按属性名排序
+     */
+    public List<String> getColumnNames()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(columns.keySet()));
+    }
+
+    /**
+     * @param name 列名
+     * @return 列的类型
+     * @throws IllegalArgumentException 列不存在
+     */
+    public ColumnType getColumnType(String name)
+    {
+        return column(name).type;
+    }
+
+    /**
+     * @param name 列名
+     * @return long列，堆内的列可以通过array()取得数组
+     */
+    public LongBuffer getLongColumn(String name)
+    {
+        Column column = column(name, ColumnType.LONG);
+        return column.longs != null ? LongBuffer.wrap(column.longs) : column.buffer().asLongBuffer();
+    }
+
+    /**
+     * @param name 列名
+     * @return int列，堆内的列可以通过array()取得数组
+     */
+    public IntBuffer getIntColumn(String name)
+    {
+        Column column = column(name, ColumnType.INT);
+        return column.ints != null ? IntBuffer.wrap(column.ints) : column.buffer().asIntBuffer();
+    }
+
+    /**
+     * @param name 列名
+     * @return double列，堆内的列可以通过array()取得数组
+     */
+    public DoubleBuffer getDoubleColumn(String name)
+    {
+        Column column = column(name, ColumnType.DOUBLE);
+        return column.doubles != null ? DoubleBuffer.wrap(column.doubles) : column.buffer().asDoubleBuffer();
+    }
+
+    /**
+     * @param name 列名
+     * @return 字典编码列中每一行的字典下标，null为-1
+     */
+    public IntBuffer getCodeColumn(String name)
+    {
+        Column column = column(name, ColumnType.STRING);
+        return column.ints != null ? IntBuffer.wrap(column.ints) : column.buffer().asIntBuffer();
+    }
+
+    /**
+     * @param name 列名
+     * @return 字典编码列的字典，按第一次出现的顺序
+     */
+    public List<String> getDictionary(String name)
+    {
+        return Collections.unmodifiableList(column(name, ColumnType.STRING).dictionary);
+    }
+
+    /**
+     * @param name 列名
+     * @return long列的数组，堆内的列返回数组本身，堆外的列返回拷贝
+     */
+    public long[] getLongs(String name)
+    {
+        Column column = column(name, ColumnType.LONG);
+        if (column.longs != null)
+        {
+            return column.longs;
+        }
+        long[] longs = new long[size];
+        column.buffer().asLongBuffer().get(longs);
+        return longs;
+    }
+
+    /**
+     * @param name 列名
+     * @return int列的数组，堆内的列返回数组本身，堆外的列返回拷贝
+     */
+    public int[] getInts(String name)
+    {
+        Column column = column(name, ColumnType.INT);
+        if (column.ints != null)
+        {
+            return column.ints;
+        }
+        int[] ints = new int[size];
+        column.buffer().asIntBuffer().get(ints);
+        return ints;
+    }
+
+    /**
+     * @param name 列名
+     * @return double列的数组，堆内的列返回数组本身，堆外的列返回拷贝
+     */
+    public double[] getDoubles(String name)
+    {
+        Column column = column(name, ColumnType.DOUBLE);
+        if (column.doubles != null)
+        {
+            return column.doubles;
+        }
+        double[] doubles = new double[size];
+        column.buffer().asDoubleBuffer().get(doubles);
+        return doubles;
+    }
+
+    /**
+     * @param name 列名
+     * @param row  行
+     * @return 字典编码列中这一行的值
+     */
+    public String getString(String name, int row)
+    {
+        Column column = column(name, ColumnType.STRING);
+        int code = column.getInt(row);
+        return code < 0 ? null : column.dictionary.get(code);
+    }
+
+    /**
+     * @param name 列名
+     * @param row  行
+     * @return 这一行的值是否为null
+     */
+    public boolean isNull(String name, int row)
+    {
+        return column(name).isNull(row);
+    }
+
+    /**
+     * @param name 列名
+     * @return 列，不存在时返回null
+     */
+    Column findColumn(String name)
+    {
+        return columns.get(name);
+    }
+
+    private Column column(String name)
+    {
+        Column column = columns.get(name);
+        if (column == null)
+        {
+            throw new IllegalArgumentException("no column : [" + name + "] in columns of class type : [" + beanClass.getName() + "]");
+        }
+        return column;
+    }
+
+    private Column column(String name, ColumnType type)
+    {
+        Column column = column(name);
+        if (column.type != type)
+        {
+            throw new IllegalArgumentException("column : [" + name + "] is of type : [" + column.type + "], not : [" + type + "]");
+        }
+        return column;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BeanColumns{" +
+                "beanClass=" + beanClass.getName() +
+                ", size=" + size +
+                ", direct=" + direct +
+                ", columns=" + columns.keySet() +
+                '}';
+    }
+
+    /**
+     * <p>一列，值保存在数组或direct ByteBuffer中</p>
+     */
+    static final class Column
+    {
+        //列的类型
+        final ColumnType type;
+
+        //堆内的long列
+        private final long[] longs;
+
+        //堆内的int列或字典编码列
+        private final int[] ints;
+
+        //堆内的double列
+        private final double[] doubles;
+
+        //堆外的列，本机字节序
+        private final ByteBuffer buffer;
+
+        //null的位图，属性为基本类型或者字典编码列时为null
+        private final long[] nulls;
+
+        //字典编码列的字典
+        final List<String> dictionary;
+
+        Column(ColumnType type, int size, boolean direct, boolean nullable)
+        {
+            this.type = type;
+            this.longs = !direct && type == ColumnType.LONG ? new long[size] : null;
+            this.ints = !direct && (type == ColumnType.INT || type == ColumnType.STRING) ? new int[size] : null;
+            this.doubles = !direct && type == ColumnType.DOUBLE ? new double[size] : null;
+            this.buffer = direct ? ByteBuffer.allocateDirect(size * type.bytes).order(ByteOrder.nativeOrder()) : null;
+            this.nulls = nullable ? new long[(size + 63) >>> 6] : null;
+            this.dictionary = type == ColumnType.STRING ? new ArrayList<>() : null;
+        }
+
+        /**
+         * @return 堆外列的副本，字节序与位置独立
+         */
+        private ByteBuffer buffer()
+        {
+            return buffer.duplicate().order(ByteOrder.nativeOrder());
+        }
+
+        long getLong(int row)
+        {
+            return longs != null ? longs[row] : buffer.getLong(row << 3);
+        }
+
+        void setLong(int row, long value)
+        {
+            if (longs != null)
+            {
+                longs[row] = value;
+            }
+            else
+            {
+                buffer.putLong(row << 3, value);
+            }
+        }
+
+        int getInt(int row)
+        {
+            return ints != null ? ints[row] : buffer.getInt(row << 2);
+        }
+
+        void setInt(int row, int value)
+        {
+            if (ints != null)
+            {
+                ints[row] = value;
+            }
+            else
+            {
+                buffer.putInt(row << 2, value);
+            }
+        }
+
+        double getDouble(int row)
+        {
+            return doubles != null ? doubles[row] : buffer.getDouble(row << 3);
+        }
+
+        void setDouble(int row, double value)
+        {
+            if (doubles != null)
+            {
+                doubles[row] = value;
+            }
+            else
+            {
+                buffer.putDouble(row << 3, value);
+            }
+        }
+
+        boolean isNull(int row)
+        {
+            if (type == ColumnType.STRING)
+            {
+                return getInt(row) < 0;
+            }
+            return nulls != null && (nulls[row >>> 6] & (1L << row)) != 0L;
+        }
+
+        void setNull(int row)
+        {
+            if (type == ColumnType.STRING)
+            {
+                setInt(row, -1);
+            }
+            else
+            {
+                nulls[row >>> 6] |= 1L << row;
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.github.guang19.knife.beanutils;
+
+import net.sf.cglib.beans.BeanCopier;
+import net.sf.cglib.core.Converter;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 缓存每个class pair的拷贝器。
+ * 不使用转换器时，优先使用编译时生成的{@link GeneratedBeanCopier}，不存在时才由{@link CopyEngine}创建。
+ * 引擎可以全局选择，也可以为某个class pair单独选择，每个引擎的拷贝器分别缓存，切换引擎后立即生效。
+ * 使用BeanFieldValueConverter的拷贝跟随class pair的引擎: 引擎为CGLIB时使用cglib的BeanCopier，
+ * 否则使用MethodHandle编译的拷贝器，cglib在当前JDK上不可用时也可以使用转换器。
+ * </p>
+ */
+final class BeanCopiers
+{
+    //引擎 -> 该引擎创建的不使用转换器的拷贝器
+    private static final ConcurrentHashMap<CopyEngine, ClassPairCache<BoundCopier>> engineCopierCaches;
+
+    //源Class -> (目标Class -> 为这个class pair单独选择的引擎与它的缓存)
+    private static final ClassValue<ConcurrentHashMap<Class<?>, EngineCopiers>> pairEngines;
+
+    //使用BeanFieldValueConverter的cglib BeanCopier
+    private static final ClassPairCache<ConvertingCopier> cglibConvertingCopierCache;
+
+    //使用BeanFieldValueConverter的MethodHandle编译的拷贝器
+    private static final ClassPairCache<ConvertingCopier> compiledConvertingCopierCache;
+
+    //每个线程复用的cglib Converter，拷贝时不必为BeanFieldValueConverter创建适配器
+    private static final ThreadLocal<ReusableConverter> reusableConverter = ThreadLocal.withInitial(ReusableConverter::new);
+
+    //全局的引擎与它的缓存
+    private static volatile EngineCopiers defaultCopiers;
+
+    //是否有class pair单独选择了引擎，没有时不必查找pairEngines
+    private static volatile boolean hasPairEngines;
+
+    static
+    {
+        engineCopierCaches = new ConcurrentHashMap<>();
+        pairEngines = new ClassValue<ConcurrentHashMap<Class<?>, EngineCopiers>>()
+        {
+            @Override
+            protected ConcurrentHashMap<Class<?>, EngineCopiers> computeValue(Class<?> type)
+            {
+                return new ConcurrentHashMap<>();
+            }
+        };
+        cglibConvertingCopierCache = new ClassPairCache<>();
+        compiledConvertingCopierCache = new ClassPairCache<>();
+        defaultCopiers = new EngineCopiers(CopyEngines.defaultEngine());
+    }
+
+    private BeanCopiers()
+    {
+    }
+
+    /**
+     * <p>获取已缓存的不使用转换器的拷贝器</p>
+     *
+     * @param sourceClass 源对象class
+     * @param targetClass 目标对象class
+     * @return 拷贝器
+     */
+    static BoundCopier get(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return copiersOf(sourceClass, targetClass).get(sourceClass, targetClass);
+    }
+
+    /**
+     * @return 全局的引擎
+     */
+    static CopyEngine getDefaultEngine()
+    {
+        return defaultCopiers.engine;
+    }
+
+    /**
+     * <p>设置全局的引擎</p>
+     *
+     * @param engine 引擎
+     */
+    static void setDefaultEngine(CopyEngine engine)
+    {
+        defaultCopiers = copiersOf(checkSupported(engine));
+    }
+
+    /**
+     * <p>为class pair单独设置引擎</p>
+     *
+     * @param sourceClass 源对象class
+     * @param targetClass 目标对象class
+     * @param engine      引擎，为null时恢复使用全局的引擎
+     */
+    static void setEngine(Class<?> sourceClass, Class<?> targetClass, CopyEngine engine)
+    {
+        Objects.requireNonNull(targetClass, "target class can not be null");
+        if (engine == null)
+        {
+            pairEngines.get(sourceClass).remove(targetClass);
+        }
+        else
+        {
+            pairEngines.get(sourceClass).put(targetClass, copiersOf(checkSupported(engine)));
+            hasPairEngines = true;
+        }
+    }
+
+    /**
+     * <p>获取已缓存的使用转换器的拷贝器，class pair的引擎为CGLIB时使用cglib的BeanCopier</p>
+     *
+     * @param sourceClass 源对象class
+     * @param targetClass 目标对象class
+     * @return 拷贝器
+     */
+    static ConvertingCopier getConverting(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return copiersOf(sourceClass, targetClass).engine == CopyEngines.CGLIB ?
+                cglibConvertingCopierCache.get(sourceClass, targetClass, BeanCopiers::createCglibConvertingCopier) :
+                compiledConvertingCopierCache.get(sourceClass, targetClass, BeanCopiers::createCompiledConvertingCopier);
+    }
+
+    /**
+     * <p>使用BeanFieldValueConverter拷贝bean</p>
+     *
+     * @param sourceObj               源对象
+     * @param targetObj               目标对象
+     * @param beanFieldValueConverter bean属性值转换器
+     */
+    static void copyConverting(Object sourceObj, Object targetObj, BeanFieldValueConverter beanFieldValueConverter)
+    {
+        getConverting(sourceObj.getClass(), targetObj.getClass()).copy(sourceObj, targetObj, beanFieldValueConverter);
+    }
+
+    /**
+     * @param sourceClass 源对象class
+     * @param targetClass 目标对象class
+     * @return class pair单独选择的引擎与它的缓存，没有单独选择时为全局的引擎与它的缓存
+     */
+    private static EngineCopiers copiersOf(Class<?> sourceClass, Class<?> targetClass)
+    {
+        EngineCopiers pairCopiers;
+        if (hasPairEngines && (pairCopiers = pairEngines.get(sourceClass).get(targetClass)) != null)
+        {
+            return pairCopiers;
+        }
+        return defaultCopiers;
+    }
+
+    /**
+     * <p>检查引擎在当前运行时是否可用</p>
+     *
+     * @param engine 引擎
+     * @return 引擎
+     */
+    private static CopyEngine checkSupported(CopyEngine engine)
+    {
+        Objects.requireNonNull(engine, "copy engine can not be null");
+        if (!engine.isSupported())
+        {
+            throw new IllegalArgumentException("copy engine : [" + engine.getName() + "] is not supported on this runtime");
+        }
+        return engine;
+    }
+
+    /**
+     * @param engine 引擎
+     * @return 引擎与它的缓存
+     */
+    private static EngineCopiers copiersOf(CopyEngine engine)
+    {
+        EngineCopiers copiers = defaultCopiers;
+        return copiers != null && copiers.engine == engine ? copiers : new EngineCopiers(engine);
+    }
+
+    /**
+     * 创建使用转换器的cglib BeanCopier，复用当前线程的cglib Converter
+     *
+     * @param sourceClass 源对象Class
+     * @param targetClass 目标对象Class
+     * @return 拷贝器
+     */
+    private static ConvertingCopier createCglibConvertingCopier(Class<?> sourceClass, Class<?> targetClass)
+    {
+        BeanCopier beanCopier = BeanCopier.create(sourceClass, targetClass, true);
+        return (sourceObj, targetObj, beanFieldValueConverter) ->
+        {
+            ReusableConverter converter = reusableConverter.get();
+            //转换器中可能再次拷贝，结束后恢复外层的转换器
+            BeanFieldValueConverter outer = converter.delegate;
+            converter.delegate = beanFieldValueConverter;
+            try
+            {
+                beanCopier.copy(sourceObj, targetObj, converter);
+            }
+            finally
+            {
+                converter.delegate = outer;
+            }
+        };
+    }
+
+    /**
+     * 创建使用转换器的MethodHandle编译的拷贝器
+     *
+     * @param sourceClass 源对象Class
+     * @param targetClass 目标对象Class
+     * @return 拷贝器
+     */
+    private static ConvertingCopier createCompiledConvertingCopier(Class<?> sourceClass, Class<?> targetClass)
+    {
+        MethodHandle copier = PropertyCopier.compileConverting(sourceClass, targetClass);
+        return (sourceObj, targetObj, beanFieldValueConverter) ->
+        {
+            try
+            {
+                copier.invokeExact(sourceObj, targetObj, beanFieldValueConverter);
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * <p>使用BeanFieldValueConverter的拷贝器，转换器在拷贝时传入</p>
+     */
+    @FunctionalInterface
+    interface ConvertingCopier
+    {
+        /**
+         * 把源对象的属性经过转换器拷贝到目标对象
+         *
+         * @param sourceObj               源对象
+         * @param targetObj               目标对象
+         * @param beanFieldValueConverter bean属性值转换器
+         */
+        void copy(Object sourceObj, Object targetObj, BeanFieldValueConverter beanFieldValueConverter);
+    }
+
+    /**
+     * <p>一个引擎与它创建的拷贝器</p>
+     */
+    private static final class EngineCopiers
+    {
+        //引擎
+        private final CopyEngine engine;
+
+        //该引擎创建的拷贝器
+        private final ClassPairCache<BoundCopier> cache;
+
+        //创建拷贝器，只创建一次，查找缓存时不分配内存
+        private final BiFunction<Class<?>, Class<?>, BoundCopier> copierFactory = this::createCopier;
+
+        private EngineCopiers(CopyEngine engine)
+        {
+            this.engine = engine;
+            this.cache = engineCopierCaches.computeIfAbsent(engine, e -> new ClassPairCache<>());
+        }
+
+        /**
+         * 获取拷贝器，优先使用编译时生成的拷贝器
+         *
+         * @param sourceClass 源对象Class
+         * @param targetClass 目标对象Class
+         * @return 拷贝器
+         */
+        private BoundCopier get(Class<?> sourceClass, Class<?> targetClass)
+        {
+            return cache.get(sourceClass, targetClass, copierFactory);
+        }
+
+        private BoundCopier createCopier(Class<?> sourceClass, Class<?> targetClass)
+        {
+            GeneratedBeanCopier generatedBeanCopier = GeneratedBeanCopiers.find(sourceClass, targetClass);
+            return generatedBeanCopier != null ? generatedBeanCopier : engine.createCopier(sourceClass, targetClass);
+        }
+    }
+
+    /**
+     * <p>可以替换BeanFieldValueConverter的cglib Converter，只在一个线程中使用</p>
+     */
+    private static final class ReusableConverter implements Converter
+    {
+        //当前使用的bean属性值转换器
+        private BeanFieldValueConverter delegate;
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Object convert(Object fieldVal, Class clazz, Object obj)
+        {
+            return delegate.convertFieldValue(fieldVal);
+        }
+    }
+}
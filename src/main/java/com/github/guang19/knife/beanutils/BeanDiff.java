@@ -0,0 +1,135 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 两个bean之间不同的属性，以位图保存: 第i位对应{@link #getPropertyNames()}中的第i个属性。
+ * 属性名数组由同一个class pair的所有diff共享，每个diff只占用属性数量/64个long。
+ * 可以通过{@link BeanUtils#applyDiff(Object, Object, BeanDiff)}只把这些属性拷贝到目标对象。
+ * </p>
+ */
+public final class BeanDiff
+{
+    //计算diff的比较器
+    final PropertyDiffer differ;
+
+    //不同的属性的位图
+    private final long[] words;
+
+    BeanDiff(PropertyDiffer differ, long[] words)
+    {
+        this.differ = differ;
+        this.words = words;
+    }
+
+    /**
+     * @return 是否没有不同的属性
+     */
+    public boolean isEmpty()
+    {
+        for (long word : words)
+        {
+            if (word != 0L)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 不同的属性数量
+     */
+    public int getChangedCount()
+    {
+        int count = 0;
+        for (long word : words)
+        {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param index 属性在{@link #getPropertyNames()}中的位置
+     * @return 属性是否不同
+     */
+    public boolean isChanged(int index)
+    {
+        return (words[index >>> 6] & (1L << index)) != 0L;
+    }
+
+    /**
+     * @param propertyName 属性名
+     * @return 属性是否不同，不比较的属性返回false
+     */
+    public boolean isChanged(String propertyName)
+    {
+        int index = differ.indexOf(propertyName);
+        return index >= 0 && isChanged(index);
+    }
+
+    /**
+     * @return 比较的所有属性名，按属性名排序
+     */
+    public List<String> getPropertyNames()
+    {
+        return Collections.unmodifiableList(Arrays.asList(differ.names));
+    }
+
+    /**
+     * @return 不同的属性名，按属性名排序
+     */
+    public List<String> getChangedProperties()
+    {
+        List<String> changed = new ArrayList<>(getChangedCount());
+        for (int i = 0; i < differ.names.length; ++i)
+        {
+            if (isChanged(i))
+            {
+                changed.add(differ.names[i]);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return 位图的拷贝，第i位对应第i个属性
+     */
+    public long[] toLongArray()
+    {
+        return words.clone();
+    }
+
+    /**
+     * @return 源Class
+     */
+    public Class<?> getSourceClass()
+    {
+        return differ.sourceClass;
+    }
+
+    /**
+     * @return 目标Class
+     */
+    public Class<?> getTargetClass()
+    {
+        return differ.targetClass;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BeanDiff{" +
+                "sourceClass=" + differ.sourceClass.getName() +
+                ", targetClass=" + differ.targetClass.getName() +
+                ", changed=" + getChangedProperties() +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.guang19.knife.beanutils;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 以默认构造器创建bean的实例化器。
+ * BeanUtils会为每个目标Class生成并缓存一个实现类，创建对象的开销与直接new相当。
+ * 此接口需要被生成的类实现，所以必须是public的，使用者一般不需要直接使用它。
+ * </p>
+ */
+public interface BeanInstantiator
+{
+    /**
+     * 创建新的实例
+     *
+     * @return 新的实例
+     */
+    public abstract Object newInstance();
+}
@@ -0,0 +1,192 @@
+package com.github.guang19.knife.beanutils;
+
+import net.sf.cglib.reflect.ConstructorDelegate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 缓存每个Class的{@link BeanInstantiator}。
+ * 实例化器由cglib的ConstructorDelegate生成，与BeanCopier一样定义在目标Class的ClassLoader中；
+ * 生成失败时退化为缓存的Constructor反射调用。
+ * 没有public默认构造器的Class只会被检测一次，之后直接返回null，而不是每次都抛出异常。
+ * </p>
+ */
+final class BeanInstantiators
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeanInstantiators.class);
+
+    //没有public默认构造器的Class对应的实例化器
+    private static final BeanInstantiator ABSENT = () ->
+    {
+        throw new UnsupportedOperationException();
+    };
+
+    //Class -> 实例化器
+    private static final ClassValue<BeanInstantiator> instantiatorCache = new ClassValue<BeanInstantiator>()
+    {
+        @Override
+        protected BeanInstantiator computeValue(Class<?> type)
+        {
+            return createInstantiator(type);
+        }
+    };
+
+    private BeanInstantiators()
+    {
+    }
+
+    /**
+     * <p>获取已缓存的实例化器</p>
+     *
+     * @param clazz Class
+     * @return 实例化器，如果Class没有public默认构造器，则返回null
+     */
+    static BeanInstantiator get(Class<?> clazz)
+    {
+        BeanInstantiator instantiator = instantiatorCache.get(clazz);
+        return instantiator == ABSENT ? null : instantiator;
+    }
+
+    /**
+     * <p>使用实例化器创建目标对象</p>
+     *
+     * @param instantiator 实例化器
+     * @param targetClass  目标Class
+     * @param <T>          Target Class
+     * @return 目标对象，如果创建失败，则返回null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T instantiate(BeanInstantiator instantiator, Class<T> targetClass)
+    {
+        try
+        {
+            return (T) instantiator.newInstance();
+        }
+        catch (Exception e)
+        {
+            logCreationFailure(targetClass, e);
+            return null;
+        }
+    }
+
+    /**
+     * <p>记录创建目标对象时捕获的异常</p>
+     *
+     * @param targetClass 目标Class
+     * @param e           异常
+     */
+    static void logCreationFailure(Class<?> targetClass, Exception e)
+    {
+        if (LOGGER.isDebugEnabled())
+        {
+            //堆栈交给日志框架输出，不写入标准错误流
+            LOGGER.debug("captured an exception when using [BeanUtils] create object of class type : [{}]" , targetClass, e);
+        }
+        LOGGER.error("captured an exception when using [BeanUtils] create object of class type : [{}] , cause : [{}]" , targetClass, e.toString());
+        BeanUtilsMetrics.recordConversionFailure(targetClass, e);
+    }
+
+    /**
+     * <p>创建目标Class没有public默认构造器，也不能使用创建器创建时抛出的异常</p>
+     *
+     * @param targetClass 目标Class
+     * @return 异常
+     */
+    static IllegalArgumentException noDefaultConstructor(Class<?> targetClass)
+    {
+        return new IllegalArgumentException("can not create object of class type : [" + targetClass.getName() +
+                "] , it has no public default constructor");
+    }
+
+    /**
+     * <p>记录目标Class没有public默认构造器的错误</p>
+     *
+     * @param targetClass 目标Class
+     */
+    static void logNoDefaultConstructor(Class<?> targetClass)
+    {
+        LOGGER.error("[BeanUtils] can not create object of class type : [{}] , it has no public default constructor" , targetClass);
+        BeanUtilsMetrics.recordConversionFailure(targetClass, null);
+    }
+
+    /**
+     * <p>创建实例化器</p>
+     *
+     * @param clazz Class
+     * @return 实例化器
+     */
+    private static BeanInstantiator createInstantiator(Class<?> clazz)
+    {
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers()))
+        {
+            return ABSENT;
+        }
+        Constructor<?> constructor;
+        try
+        {
+            constructor = clazz.getConstructor();
+        }
+        catch (NoSuchMethodException e)
+        {
+            return ABSENT;
+        }
+        try
+        {
+            return (BeanInstantiator) ConstructorDelegate.create(clazz, BeanInstantiator.class);
+        }
+        catch (RuntimeException | LinkageError e)
+        {
+            if (LOGGER.isDebugEnabled())
+            {
+                LOGGER.debug("failed to generate instantiator of class type : [{}], fall back to reflection", clazz, e);
+            }
+            return new ReflectiveInstantiator(constructor);
+        }
+    }
+
+    /**
+     * <p>使用缓存的Constructor反射创建对象</p>
+     */
+    private static final class ReflectiveInstantiator implements BeanInstantiator
+    {
+        private final Constructor<?> constructor;
+
+        private ReflectiveInstantiator(Constructor<?> constructor)
+        {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Object newInstance()
+        {
+            try
+            {
+                return constructor.newInstance();
+            }
+            catch (InvocationTargetException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error)
+                {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+            catch (ReflectiveOperationException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 标注在接口上，由knife-processor在编译时生成普通的Java拷贝代码，不需要在运行时生成字节码。
+ * 接口中的每个抽象方法声明了一个class pair，支持以下两种形式:
+ *
+ *  T map(S source);                 //创建目标对象，目标类型需要有public默认构造器
+ *  void copy(S source, T target);   //拷贝到已有的目标对象
+ *
+ * e.g.
+ *
+ *  @BeanMapper
+ *  public interface PersonMapper
+ *  {
+ *      Person2 toPerson2(Person1 person1);
+ *
+ *      void copy(Person1 person1, Person2 person2);
+ *  }
+ *
+ * 生成的实现类为同一个包下的PersonMapperImpl。
+ * 同时每个class pair都会生成一个{@link GeneratedBeanCopier}并注册到
+ * META-INF/services，BeanUtils在不使用转换器拷贝这些class pair时会直接使用生成的代码。
+ *
+ * 与BeanCopier一样，只拷贝名称相同且目标属性类型可以接收源属性值的属性。
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BeanMapper
+{
+}
@@ -0,0 +1,219 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * bean与Map&lt;String, Object&gt;之间的转换。
+ * 每个Class只解析一次属性，getter按属性名的顺序保存在数组中，setter按属性名建立索引，
+ * 转换时直接调用缓存的MethodHandle，不使用反射。
+ *
+ * bean转换为Map时，Map的key是可读的属性名，value是属性值(基本类型被装箱)。
+ * Map转换为bean时，只写入Map中存在的、可写的属性；值的类型与setter不兼容(包括null写入基本类型)的属性会被跳过。
+ * 两个方向都可以使用{@link BeanFieldValueConverter}转换每个属性值。
+ * </p>
+ */
+final class BeanMaps
+{
+    //(Object)Object
+    private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    //(Object, Object)void
+    private static final MethodType WRITE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    //Class -> 属性访问器
+    private static final ClassValue<Accessors> accessorsCache = new ClassValue<Accessors>()
+    {
+        @Override
+        protected Accessors computeValue(Class<?> type)
+        {
+            return new Accessors(type);
+        }
+    };
+
+    //每个线程复用的Map
+    private static final ThreadLocal<HashMap<String, Object>> reusableMap = new ThreadLocal<>();
+
+    private BeanMaps()
+    {
+    }
+
+    /**
+     * <p>把bean的属性写入新的Map，Map的初始容量保证不会扩容</p>
+     *
+     * @param bean                    bean
+     * @param beanFieldValueConverter bean属性值转换器，可以为null
+     * @return 属性名 -> 属性值，按属性名排序
+     */
+    static Map<String, Object> toMap(Object bean, BeanFieldValueConverter beanFieldValueConverter)
+    {
+        Accessors accessors = accessorsCache.get(bean.getClass());
+        return accessors.read(bean, new LinkedHashMap<>(accessors.mapCapacity), beanFieldValueConverter);
+    }
+
+    /**
+     * <p>把bean的属性写入当前线程复用的Map，写入前清空Map</p>
+     *
+     * @param bean bean
+     * @return 当前线程复用的Map，当前线程下一次调用时会被清空
+     */
+    static Map<String, Object> toReusableMap(Object bean)
+    {
+        Accessors accessors = accessorsCache.get(bean.getClass());
+        HashMap<String, Object> map = reusableMap.get();
+        if (map == null)
+        {
+            //之后转换的bean的属性更多时，HashMap扩容后保留新的容量
+            map = new HashMap<>(accessors.mapCapacity);
+            reusableMap.set(map);
+        }
+        else
+        {
+            map.clear();
+        }
+        return accessors.read(bean, map, null);
+    }
+
+    /**
+     * <p>把Map中的值写入bean的同名属性</p>
+     *
+     * @param map                     属性名 -> 属性值
+     * @param bean                    bean
+     * @param beanFieldValueConverter bean属性值转换器，可以为null
+     */
+    static void fromMap(Map<String, ?> map, Object bean, BeanFieldValueConverter beanFieldValueConverter)
+    {
+        accessorsCache.get(bean.getClass()).write(map, bean, beanFieldValueConverter);
+    }
+
+    /**
+     * <p>一个Class的属性访问器</p>
+     */
+    private static final class Accessors
+    {
+        //可读的属性名，按属性名排序
+        private final String[] names;
+
+        //(Object)Object，与names一一对应
+        private final MethodHandle[] readers;
+
+        //属性名 -> 可写的属性
+        private final Map<String, Writer> writers;
+
+        //保存所有可读属性不需要扩容的HashMap容量
+        private final int mapCapacity;
+
+        private Accessors(Class<?> beanClass)
+        {
+            List<BeanProperty> properties = BeanProperties.of(beanClass).getProperties();
+            int readable = 0;
+            for (BeanProperty property : properties)
+            {
+                if (property.isReadable())
+                {
+                    ++readable;
+                }
+            }
+            this.names = new String[readable];
+            this.readers = new MethodHandle[readable];
+            this.writers = new HashMap<>(Math.max((int) (properties.size() / .75f) + 1, 16));
+            int i = 0;
+            for (BeanProperty property : properties)
+            {
+                if (property.isReadable())
+                {
+                    names[i] = property.getName();
+                    readers[i++] = property.getReader().asType(READ_TYPE);
+                }
+                if (property.isWritable())
+                {
+                    writers.put(property.getName(), new Writer(property));
+                }
+            }
+            this.mapCapacity = (int) (readable / .75f) + 1;
+        }
+
+        private <M extends Map<String, Object>> M read(Object bean, M map, BeanFieldValueConverter beanFieldValueConverter)
+        {
+            try
+            {
+                for (int i = 0; i < readers.length; ++i)
+                {
+                    Object value = (Object) readers[i].invokeExact(bean);
+                    map.put(names[i], beanFieldValueConverter == null ? value : beanFieldValueConverter.convertFieldValue(value));
+                }
+                return map;
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void write(Map<String, ?> map, Object bean, BeanFieldValueConverter beanFieldValueConverter)
+        {
+            try
+            {
+                for (Map.Entry<String, ?> entry : map.entrySet())
+                {
+                    Writer writer = writers.get(entry.getKey());
+                    if (writer != null)
+                    {
+                        Object value = entry.getValue();
+                        writer.write(bean, beanFieldValueConverter == null ? value : beanFieldValueConverter.convertFieldValue(value));
+                    }
+                }
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * <p>一个可写的属性</p>
+     */
+    private static final class Writer
+    {
+        //(Object, Object)void
+        private final MethodHandle writer;
+
+        //属性类型，基本类型为包装类型
+        private final Class<?> type;
+
+        //属性是否是基本类型
+        private final boolean primitive;
+
+        private Writer(BeanProperty property)
+        {
+            Class<?> writeType = property.getWriteType();
+            this.writer = property.getWriter().asType(WRITE_TYPE);
+            this.type = TypeConverterRegistry.wrap(writeType);
+            this.primitive = writeType.isPrimitive();
+        }
+
+        private void write(Object bean, Object value) throws Throwable
+        {
+            if (value == null ? !primitive : type.isInstance(value))
+            {
+                writer.invokeExact(bean, value);
+            }
+        }
+    }
+}
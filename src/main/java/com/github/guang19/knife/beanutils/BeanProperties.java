@@ -0,0 +1,106 @@
+package com.github.guang19.knife.beanutils;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 缓存每个Class的属性。
+ * 与cglib的BeanCopier一样，属性由java.beans.Introspector发现，按属性名排序，
+ * 属性的下标在同一个Class中是稳定的。
+ * </p>
+ */
+final class BeanProperties
+{
+    //Class -> 属性
+    private static final ClassValue<BeanProperties> propertiesCache = new ClassValue<BeanProperties>()
+    {
+        @Override
+        protected BeanProperties computeValue(Class<?> type)
+        {
+            return new BeanProperties(type);
+        }
+    };
+
+    //bean Class
+    private final Class<?> beanClass;
+
+    //所有属性，按属性名排序
+    private final List<BeanProperty> properties;
+
+    //属性名 -> 属性
+    private final Map<String, BeanProperty> propertyIndex;
+
+    private BeanProperties(Class<?> beanClass)
+    {
+        this.beanClass = beanClass;
+        PropertyDescriptor[] descriptors;
+        try
+        {
+            BeanInfo beanInfo = Introspector.getBeanInfo(beanClass, Object.class);
+            descriptors = beanInfo.getPropertyDescriptors();
+        }
+        catch (IntrospectionException e)
+        {
+            throw new IllegalStateException("can not introspect class type : [" + beanClass.getName() + "]", e);
+        }
+        List<BeanProperty> properties = new ArrayList<>(descriptors.length);
+        Map<String, BeanProperty> propertyIndex = new HashMap<>(Math.max((int) (descriptors.length / .75f) + 1, 16));
+        for (PropertyDescriptor descriptor : descriptors)
+        {
+            if (descriptor.getReadMethod() == null && descriptor.getWriteMethod() == null)
+            {
+                continue;
+            }
+            BeanProperty property = new BeanProperty(descriptor.getName(), descriptor.getReadMethod(), descriptor.getWriteMethod());
+            properties.add(property);
+            propertyIndex.put(property.getName(), property);
+        }
+        this.properties = Collections.unmodifiableList(properties);
+        this.propertyIndex = propertyIndex;
+    }
+
+    /**
+     * <p>获取已缓存的属性</p>
+     *
+     * @param beanClass bean Class
+     * @return 属性
+     */
+    static BeanProperties of(Class<?> beanClass)
+    {
+        return propertiesCache.get(beanClass);
+    }
+
+    Class<?> getBeanClass()
+    {
+        return beanClass;
+    }
+
+    /**
+     * @return 所有属性，按属性名排序
+     */
+    List<BeanProperty> getProperties()
+    {
+        return properties;
+    }
+
+    /**
+     * <p>根据属性名获取属性</p>
+     *
+     * @param name 属性名
+     * @return 属性，如果不存在，则返回null
+     */
+    BeanProperty getProperty(String name)
+    {
+        return propertyIndex.get(name);
+    }
+}
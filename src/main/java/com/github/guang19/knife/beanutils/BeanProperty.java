@@ -0,0 +1,139 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * bean的一个属性，以及它的getter与setter。
+ * getter与setter在创建时就被转换为MethodHandle：
+ * reader的类型为(Object)属性类型，writer的类型为(Object, 属性类型)void，
+ * 基本类型的属性不会被装箱。
+ * </p>
+ */
+final class BeanProperty
+{
+    //属性名
+    private final String name;
+
+    //getter，可以为null
+    private final Method readMethod;
+
+    //setter，可以为null
+    private final Method writeMethod;
+
+    //(Object)属性类型
+    private final MethodHandle reader;
+
+    //(Object, 属性类型)void
+    private final MethodHandle writer;
+
+    BeanProperty(String name, Method readMethod, Method writeMethod)
+    {
+        this.name = name;
+        this.readMethod = readMethod;
+        this.writeMethod = writeMethod;
+        this.reader = readMethod == null ? null : unreflect(readMethod);
+        this.writer = writeMethod == null ? null : unreflect(writeMethod);
+    }
+
+    String getName()
+    {
+        return name;
+    }
+
+    boolean isReadable()
+    {
+        return reader != null;
+    }
+
+    boolean isWritable()
+    {
+        return writer != null;
+    }
+
+    Method getReadMethod()
+    {
+        return readMethod;
+    }
+
+    Method getWriteMethod()
+    {
+        return writeMethod;
+    }
+
+    /**
+     * @return getter的返回类型
+     */
+    Class<?> getReadType()
+    {
+        return readMethod.getReturnType();
+    }
+
+    /**
+     * @return getter的泛型返回类型
+     */
+    Type getGenericReadType()
+    {
+        return readMethod.getGenericReturnType();
+    }
+
+    /**
+     * @return setter的参数类型
+     */
+    Class<?> getWriteType()
+    {
+        return writeMethod.getParameterTypes()[0];
+    }
+
+    /**
+     * @return setter的泛型参数类型
+     */
+    Type getGenericWriteType()
+    {
+        return writeMethod.getGenericParameterTypes()[0];
+    }
+
+    /**
+     * @return (Object)属性类型
+     */
+    MethodHandle getReader()
+    {
+        return reader;
+    }
+
+    /**
+     * @return (Object, 属性类型)void
+     */
+    MethodHandle getWriter()
+    {
+        return writer;
+    }
+
+    /**
+     * <p>把getter或setter转换为第一个参数为Object的MethodHandle</p>
+     *
+     * @param method getter或setter
+     * @return MethodHandle
+     */
+    private static MethodHandle unreflect(Method method)
+    {
+        try
+        {
+            //非public的bean Class中的public方法也能访问
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            MethodType type = handle.type();
+            return handle.asType(type.changeParameterType(0, Object.class));
+        }
+        catch (IllegalAccessException | RuntimeException e)
+        {
+            throw new IllegalStateException("can not access method : [" + method + "]", e);
+        }
+    }
+}
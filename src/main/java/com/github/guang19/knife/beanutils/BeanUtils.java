@@ -1,14 +1,25 @@
 package com.github.guang19.knife.beanutils;
 
-import net.sf.cglib.beans.BeanCopier;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author yangguang
@@ -17,17 +28,6 @@ import java.util.stream.Collectors;
  */
 public class BeanUtils
 {
-    private static final Logger LOGGER = LoggerFactory.getLogger(BeanUtils.class);
-
-    //使用过的BeanCopier将加入缓存
-    private static final ConcurrentHashMap<String, BeanCopier> beanCopierCache;
-
-    static
-    {
-        beanCopierCache = new ConcurrentHashMap<>(8);
-    }
-
-
     /**
      * <p>默认拷贝</p>
      *
@@ -55,6 +55,186 @@ public class BeanUtils
         shallowCopy(sourceObj, targetObj, beanFieldValueConverter);
     }
 
+    /**
+     * <p>
+     * 使用转换器注册表定义的规则拷贝bean。
+     * 每个class pair只会编译一次拷贝器，每个属性的转换规则在编译时就确定，只有需要转换的属性才会经过转换器。
+     * </p>
+     *
+     * @param sourceObj             源对象
+     * @param targetObj             目标对象
+     * @param typeConverterRegistry 转换器注册表
+     * @param <S>                   Source Class
+     * @param <T>                   Target Class
+     */
+    public static <S, T> void copy(S sourceObj, T targetObj, TypeConverterRegistry typeConverterRegistry)
+    {
+        BeanUtilsMetrics.copy(typeConverterRegistry.getCopier(sourceObj.getClass(), targetObj.getClass()), sourceObj, targetObj);
+    }
+
+    /**
+     * <p>
+     * 使用拷贝策略拷贝bean，例如只拷贝非null的属性(PATCH语义)，或者不拷贝id、version。
+     * 每个(class pair, 策略)只会编译一次拷贝器，属性的过滤与null的判断都在编译好的拷贝器中。
+     * </p>
+     *
+     * @param sourceObj  源对象
+     * @param targetObj  目标对象
+     * @param copyPolicy 拷贝策略
+     * @param <S>        Source Class
+     * @param <T>        Target Class
+     */
+    public static <S, T> void copy(S sourceObj, T targetObj, CopyPolicy copyPolicy)
+    {
+        BeanUtilsMetrics.copy(copyPolicy.getCopier(sourceObj.getClass(), targetObj.getClass()), sourceObj, targetObj);
+    }
+
+    /**
+     * <p>
+     * 比较两个bean的同名属性，返回值不同的属性。
+     * 比较源对象可读、目标对象可读可写且类型可以直接拷贝的属性，基本类型不装箱，引用类型使用equals。
+     * 每个class pair只编译一次比较器。
+     * </p>
+     *
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     * @return 不同的属性
+     */
+    public static BeanDiff diff(Object sourceObj, Object targetObj)
+    {
+        return PropertyDiffer.get(sourceObj.getClass(), targetObj.getClass()).diff(sourceObj, targetObj);
+    }
+
+    /**
+     * <p>
+     * 只把值不同的属性拷贝到目标对象，值相同的属性不调用setter，返回拷贝前不同的属性，
+     * 可以用于只写回修改过的字段或者记录审计日志。
+     * </p>
+     *
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     * @return 拷贝前不同的属性
+     */
+    public static BeanDiff copyChanged(Object sourceObj, Object targetObj)
+    {
+        return PropertyDiffer.get(sourceObj.getClass(), targetObj.getClass()).copyChanged(sourceObj, targetObj);
+    }
+
+    /**
+     * <p>只把diff中不同的属性拷贝到目标对象，不再比较属性值</p>
+     *
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     * @param diff      同一个class pair的{@link #diff(Object, Object)}的结果
+     * @throws IllegalArgumentException 源对象或目标对象的Class与diff不同
+     */
+    public static void applyDiff(Object sourceObj, Object targetObj, BeanDiff diff)
+    {
+        if (sourceObj.getClass() != diff.getSourceClass() || targetObj.getClass() != diff.getTargetClass())
+        {
+            throw new IllegalArgumentException("diff of [" + diff.getSourceClass().getName() + "] -> [" + diff.getTargetClass().getName() +
+                    "] can not be applied from [" + sourceObj.getClass().getName() + "] to [" + targetObj.getClass().getName() + "]");
+        }
+        diff.differ.apply(sourceObj, targetObj, diff);
+    }
+
+    /**
+     * <p>
+     * 把一组bean按列导出(struct-of-arrays)，数值属性保存为long[]、int[]、double[]，String与枚举属性保存为字典编码的列，
+     * 所有列在一次遍历中填充。列布局每个Class只解析一次，基本类型的属性不会装箱。
+     * </p>
+     *
+     * @param beans     bean，不能有null元素
+     * @param beanClass bean Class
+     * @return 保存在堆内数组中的列
+     */
+    public static BeanColumns toColumns(List<?> beans, Class<?> beanClass)
+    {
+        return toColumns(beans, beanClass, false);
+    }
+
+    /**
+     * <p>把一组bean按列导出，列可以保存在堆外的direct ByteBuffer中</p>
+     *
+     * @param beans     bean，不能有null元素
+     * @param beanClass bean Class
+     * @param direct    是否保存在direct ByteBuffer中(本机字节序)
+     * @return 列
+     */
+    public static BeanColumns toColumns(List<?> beans, Class<?> beanClass, boolean direct)
+    {
+        return ColumnLayout.of(beanClass).export(beanClass, beans, direct);
+    }
+
+    /**
+     * <p>
+     * 根据列创建bean，每一行创建一个bean，只写入名称与列类型都相同的可写属性，null不写入基本类型的属性。
+     * 如果目标对象没有默认构造方法，将返回空集合。
+     * </p>
+     *
+     * @param columns   列
+     * @param beanClass bean Class
+     * @param <T>       bean Class
+     * @return 与行的顺序一致的bean，创建失败的行为null
+     */
+    public static <T> List<T> fromColumns(BeanColumns columns, Class<T> beanClass)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(beanClass);
+        if (instantiator == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(beanClass);
+            return new ArrayList<>();
+        }
+        return ColumnLayout.of(beanClass).rebuild(columns, instantiator, beanClass);
+    }
+
+    /**
+     * <p>
+     * 把bean编码为紧凑的二进制，从buffer的position开始写入，写入后position位于编码的末尾。
+     * 编码可读且可写的基本类型、包装类型、String、byte[]、枚举与嵌套bean属性，不包含属性名，
+     * 整数使用zigzag varint编码。编码的格式见{@link #readBinary(ByteBuffer, Class)}。
+     * 嵌套的bean按树编码，不能有环。
+     * </p>
+     *
+     * @param bean   bean，不能为null
+     * @param buffer heap、direct或memory-mapped的buffer
+     * @throws java.nio.BufferOverflowException buffer的剩余空间不足，此时buffer中已写入部分数据
+     * @throws IllegalStateException            嵌套的bean超过64层，例如对象图中有环
+     */
+    public static void writeBinary(Object bean, ByteBuffer buffer)
+    {
+        BinaryCodec.of(bean.getClass()).write(bean, buffer);
+    }
+
+    /**
+     * <p>把bean编码为紧凑的二进制，编码时使用当前线程复用的缓冲区</p>
+     *
+     * @param bean bean，不能为null
+     * @return 编码后的字节
+     */
+    public static byte[] toBinary(Object bean)
+    {
+        return BinaryCodec.of(bean.getClass()).toBytes(bean);
+    }
+
+    /**
+     * <p>
+     * 从buffer的position开始解码{@link #writeBinary(Object, ByteBuffer)}编码的bean。
+     * 编码前有4个字节的schema指纹，写入端与读取端的Class以及嵌套的Class需要有相同的编码属性(名称与类型)，
+     * 枚举按ordinal编码，两端的枚举常量顺序也需要相同。
+     * </p>
+     *
+     * @param buffer    buffer
+     * @param beanClass bean Class，需要有public默认构造器
+     * @param <T>       bean Class
+     * @return bean
+     * @throws IllegalStateException schema指纹不同，或者bean不能被创建
+     */
+    public static <T> T readBinary(ByteBuffer buffer, Class<T> beanClass)
+    {
+        return beanClass.cast(BinaryCodec.of(beanClass).read(buffer));
+    }
+
     /**
      * <p>
      * 根据源类型的集合创建另一种类型的集合
@@ -69,7 +249,7 @@ public class BeanUtils
      */
     public static <S, T> List<T> createNewTypeCollection(List<S> sourceCollection, Class<T> targetCollectionElementType)
     {
-        return createNewTypeCollection(sourceCollection, targetCollectionElementType, null);
+        return createNewTypeCollection(sourceCollection, targetCollectionElementType, (BeanFieldValueConverter) null);
     }
 
     /**
@@ -87,30 +267,38 @@ public class BeanUtils
      */
     public static <S, T> List<T> createNewTypeCollection(List<S> sourceCollection, Class<T> targetCollectionElementType, BeanFieldValueConverter beanFieldValueConverter)
     {
-        return sourceCollection.
-                stream().
-                map(element ->
-                {
-                    if (element != null)
-                    {
-                        try
-                        {
-                            return create(element, targetCollectionElementType, beanFieldValueConverter);
-                        }
-                        catch (ReflectiveOperationException e)
-                        {
-                            if (LOGGER.isDebugEnabled())
-                            {
-                                LOGGER.debug("captured an exception when using [BeanUtils] create object of class type : [{}]" , targetCollectionElementType);
-                                e.printStackTrace();
-                            }
-                            LOGGER.error("captured an exception when using [BeanUtils] create object of class type : [{}]" , targetCollectionElementType);
-                        }
-                    }
-                    return null;
-                }).
-                filter(Objects::nonNull).
-                collect(Collectors.toList());
+        //目标类型是否能被实例化只检测一次
+        BatchConverter<T> batchConverter = BatchConverter.of(targetCollectionElementType, beanFieldValueConverter);
+        if (batchConverter == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetCollectionElementType);
+            return new ArrayList<>();
+        }
+        return convertNonNull(sourceCollection, batchConverter, new ArrayList<>(sourceCollection.size()));
+    }
+
+    /**
+     * <p>
+     * 根据源类型的集合，并以转换器注册表定义的规则 创建另一种类型的集合,
+     * 即使转换失败,最终返回的集合也不会有null元素。
+     * </p>
+     *
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param typeConverterRegistry       转换器注册表
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 目标类型元素的集合
+     */
+    public static <S, T> List<T> createNewTypeCollection(List<S> sourceCollection, Class<T> targetCollectionElementType, TypeConverterRegistry typeConverterRegistry)
+    {
+        BatchConverter<T> batchConverter = BatchConverter.of(targetCollectionElementType, typeConverterRegistry);
+        if (batchConverter == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetCollectionElementType);
+            return new ArrayList<>();
+        }
+        return convertNonNull(sourceCollection, batchConverter, new ArrayList<>(sourceCollection.size()));
     }
 
 
@@ -128,7 +316,7 @@ public class BeanUtils
      */
     public static <S, T> Set<T> createNewTypeCollection(Set<S> sourceCollection, Class<T> targetCollectionElementType)
     {
-        return createNewTypeCollection(sourceCollection, targetCollectionElementType, null);
+        return createNewTypeCollection(sourceCollection, targetCollectionElementType, (BeanFieldValueConverter) null);
     }
 
 
@@ -148,173 +336,1094 @@ public class BeanUtils
     public static <S, T> Set<T> createNewTypeCollection(Set<S> sourceCollection, Class<T> targetCollectionElementType,
                                                        BeanFieldValueConverter beanFieldValueConverter)
     {
-        return sourceCollection.
-                stream().
-                map(element ->
-                {
-                    if (element != null)
-                    {
-                        try
-                        {
-                            return create(element, targetCollectionElementType, beanFieldValueConverter);
-                        }
-                        catch (ReflectiveOperationException e)
-                        {
-                            if (LOGGER.isDebugEnabled())
-                            {
-                                LOGGER.debug("captured an exception when using [BeanUtils] create object of class type : [{}]" , targetCollectionElementType);
-                                e.printStackTrace();
-                            }
-                            LOGGER.error("captured an exception when using [BeanUtils] create object of class type : [{}]" , targetCollectionElementType);
-                        }
-                    }
-                    return null;
-                }).
-                filter(Objects::nonNull).
-                collect(Collectors.toSet());
+        //目标类型是否能被实例化只检测一次
+        BatchConverter<T> batchConverter = BatchConverter.of(targetCollectionElementType, beanFieldValueConverter);
+        if (batchConverter == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetCollectionElementType);
+            return new HashSet<>();
+        }
+        return convertNonNull(sourceCollection, batchConverter, new HashSet<>((int) (sourceCollection.size() / .75f) + 1));
+    }
+
+    /**
+     * <p>
+     * 根据源类型的集合，并以转换器注册表定义的规则 创建另一种类型的集合,
+     * 即使转换失败,最终返回的集合也不会有null元素。
+     * </p>
+     *
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param typeConverterRegistry       转换器注册表
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 目标类型元素的集合
+     */
+    public static <S, T> Set<T> createNewTypeCollection(Set<S> sourceCollection, Class<T> targetCollectionElementType,
+                                                       TypeConverterRegistry typeConverterRegistry)
+    {
+        BatchConverter<T> batchConverter = BatchConverter.of(targetCollectionElementType, typeConverterRegistry);
+        if (batchConverter == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetCollectionElementType);
+            return new HashSet<>();
+        }
+        return convertNonNull(sourceCollection, batchConverter, new HashSet<>((int) (sourceCollection.size() / .75f) + 1));
     }
 
 
     /**
      * <p>
-     * 根据源对象创建目标对象，并将源对象的属性拷贝到目标对象。
-     * 如果目标对象没有默认构造方法或者创建目标对象失败，都将返回null
+     * 并行地根据源类型的集合创建另一种类型的集合，返回的集合保持源集合的顺序,
+     * 即使转换失败,最终返回的集合也不会有null元素。
+     * 元素数量小于{@link #PARALLEL_THRESHOLD}时按顺序转换，否则拆分后交给ForkJoinPool.commonPool()。
      * </p>
      *
-     * @param sourceObj   源对象
-     * @param targetClass 目标Class
-     * @param <S>         Source Class
-     * @param <T>         Target Class
-     * @return 填充属性后的目标对象(浅拷贝)
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 目标类型元素的集合
      */
-    public static <S, T> T createNewTypeObj(S sourceObj, Class<T> targetClass)
+    public static <S, T> List<T> createNewTypeCollectionParallel(List<S> sourceCollection, Class<T> targetCollectionElementType)
     {
-        return createNewTypeObj(sourceObj, targetClass, null);
+        return createNewTypeCollectionParallel(sourceCollection, targetCollectionElementType, null);
     }
 
     /**
      * <p>
-     * 根据源对象创建目标对象，并根据BeanFieldValueConverter定义的转换规则将源对象的属性拷贝到目标对象。
-     * 如果目标对象没有默认构造方法或者创建目标对象失败，都将返回null
+     * 并行地根据源类型的集合，并以BeanFieldValueConverter定义的规则 创建另一种类型的集合，返回的集合保持源集合的顺序,
+     * 即使转换失败,最终返回的集合也不会有null元素。
+     * 元素数量小于{@link #PARALLEL_THRESHOLD}时按顺序转换，否则拆分后交给ForkJoinPool.commonPool()。
      * </p>
      *
-     * @param sourceObj                 源对象
-     * @param targetClass               目标Class
-     * @param beanFieldValueConverter bean属性值转换器
-     * @param <S>                       Source Class
-     * @param <T>                       Target Class
-     * @return 填充属性后的目标对象(浅拷贝)
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param beanFieldValueConverter   bean属性值转换器，会被多个线程同时调用
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 目标类型元素的集合
      */
-    public static <S, T> T createNewTypeObj(S sourceObj, Class<T> targetClass, BeanFieldValueConverter beanFieldValueConverter)
+    public static <S, T> List<T> createNewTypeCollectionParallel(List<S> sourceCollection, Class<T> targetCollectionElementType,
+                                                                BeanFieldValueConverter beanFieldValueConverter)
     {
-        try
-        {
-            return create(sourceObj, targetClass, beanFieldValueConverter);
-        }
-        catch (ReflectiveOperationException e)
+        return createNewTypeCollectionParallel(sourceCollection, targetCollectionElementType, beanFieldValueConverter,
+                ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * <p>
+     * 使用指定的Executor并行地根据源类型的集合，并以BeanFieldValueConverter定义的规则 创建另一种类型的集合，
+     * 返回的集合保持源集合的顺序，即使转换失败,最终返回的集合也不会有null元素。
+     * </p>
+     *
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param beanFieldValueConverter   bean属性值转换器，会被多个线程同时调用
+     * @param executor                    执行转换的Executor
+     * @param parallelThreshold           元素数量小于此值时按顺序转换
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 目标类型元素的集合
+     */
+    public static <S, T> List<T> createNewTypeCollectionParallel(List<S> sourceCollection, Class<T> targetCollectionElementType,
+                                                                BeanFieldValueConverter beanFieldValueConverter,
+                                                                Executor executor, int parallelThreshold)
+    {
+        BatchConverter<T> batchConverter = BatchConverter.of(targetCollectionElementType, beanFieldValueConverter);
+        if (batchConverter == null)
         {
-            if (LOGGER.isDebugEnabled())
-            {
-                LOGGER.debug("captured an exception when using [BeanUtils] create object of class type : [{}]" , targetClass);
-                e.printStackTrace();
-            }
-            LOGGER.error("captured an exception when using [BeanUtils] create object of class type : [{}]" , targetClass);
-            return null;
+            BeanInstantiators.logNoDefaultConstructor(targetCollectionElementType);
+            return new ArrayList<>();
         }
+        Object[] targets = convertParallel(sourceCollection.toArray(), batchConverter, executor, parallelThreshold);
+        List<T> result = new ArrayList<>(targets.length);
+        addNonNull(targets, result);
+        return result;
     }
 
-
     /**
-     * <p>根据源对象创建目标Class对象</p>
+     * <p>
+     * 并行地根据源类型的集合创建另一种类型的集合,
+     * 即使转换失败,最终返回的集合也不会有null元素。
+     * 元素数量小于{@link #PARALLEL_THRESHOLD}时按顺序转换，否则拆分后交给ForkJoinPool.commonPool()。
+     * </p>
      *
-     * @param sourceObj                 源对象
-     * @param targetClass               目标Class
-     * @param beanFieldValueConverter bean属性值转换器
-     * @param <S>                       Source Class
-     * @param <T>                       Target Class
-     * @return 填充属性后的目标对象(浅拷贝)
-     * @throws ReflectiveOperationException 反射创建对象时的异常
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 目标类型元素的集合
      */
-    private static <S, T> T create(S sourceObj, Class<T> targetClass, BeanFieldValueConverter beanFieldValueConverter)
-            throws ReflectiveOperationException
+    public static <S, T> Set<T> createNewTypeCollectionParallel(Set<S> sourceCollection, Class<T> targetCollectionElementType)
     {
-        //以默认构造器创建目标对象
-        T target = targetClass.getConstructor().newInstance();
-        shallowCopy(sourceObj, target, beanFieldValueConverter);
-        return target;
+        return createNewTypeCollectionParallel(sourceCollection, targetCollectionElementType, null);
     }
 
-
     /**
-     * <p>浅拷贝对象</p>
+     * <p>
+     * 并行地根据源类型的集合，并以BeanFieldValueConverter定义的规则 创建另一种类型的集合,
+     * 即使转换失败,最终返回的集合也不会有null元素。
+     * 元素数量小于{@link #PARALLEL_THRESHOLD}时按顺序转换，否则拆分后交给ForkJoinPool.commonPool()。
+     * </p>
      *
-     * @param sourceObj                 源对象
-     * @param targetObj                 目标对象
-     * @param beanFieldValueConverter bean属性值转换器
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param beanFieldValueConverter   bean属性值转换器，会被多个线程同时调用
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 目标类型元素的集合
      */
-    private static void shallowCopy(Object sourceObj, Object targetObj, BeanFieldValueConverter beanFieldValueConverter)
+    public static <S, T> Set<T> createNewTypeCollectionParallel(Set<S> sourceCollection, Class<T> targetCollectionElementType,
+                                                               BeanFieldValueConverter beanFieldValueConverter)
     {
-        getCachedBeanCopier(sourceObj.getClass(), targetObj.getClass(), beanFieldValueConverter).
-                copy(sourceObj, targetObj,
-                        beanFieldValueConverter == null ? null :
-                                (fieldVal, clazz, obj) -> beanFieldValueConverter.convertFieldValue(fieldVal));
+        return createNewTypeCollectionParallel(sourceCollection, targetCollectionElementType, beanFieldValueConverter,
+                ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
     }
 
     /**
-     * <p>获取已缓存的BeanCopier</p>
+     * <p>
+     * 使用指定的Executor并行地根据源类型的集合，并以BeanFieldValueConverter定义的规则 创建另一种类型的集合,
+     * 即使转换失败,最终返回的集合也不会有null元素。
+     * </p>
      *
-     * @param sourceClass               源对象class
-     * @param targetClass               目标对象class
-     * @param beanFieldValueConverter bean属性值转换器
-     * @return BeanCopier
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param beanFieldValueConverter   bean属性值转换器，会被多个线程同时调用
+     * @param executor                    执行转换的Executor
+     * @param parallelThreshold           元素数量小于此值时按顺序转换
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 目标类型元素的集合
      */
-    private static BeanCopier getCachedBeanCopier(Class<?> sourceClass, Class<?> targetClass, BeanFieldValueConverter beanFieldValueConverter)
+    public static <S, T> Set<T> createNewTypeCollectionParallel(Set<S> sourceCollection, Class<T> targetCollectionElementType,
+                                                               BeanFieldValueConverter beanFieldValueConverter,
+                                                               Executor executor, int parallelThreshold)
     {
-        BeanCopier beanCopier;
-        String beanCopierCacheKey = generateBeanCopierCacheKey(sourceClass, targetClass, beanFieldValueConverter);
-        if ((beanCopier = beanCopierCache.get(beanCopierCacheKey)) == null)
+        BatchConverter<T> batchConverter = BatchConverter.of(targetCollectionElementType, beanFieldValueConverter);
+        if (batchConverter == null)
         {
-            beanCopierCache.put(beanCopierCacheKey, beanCopier =
-                    createBeanCopier(sourceClass, targetClass, beanFieldValueConverter));
+            BeanInstantiators.logNoDefaultConstructor(targetCollectionElementType);
+            return new HashSet<>();
         }
-        return beanCopier;
+        Object[] targets = convertParallel(sourceCollection.toArray(), batchConverter, executor, parallelThreshold);
+        Set<T> result = new HashSet<>(Math.max((int) (targets.length / .75f) + 1, 16));
+        addNonNull(targets, result);
+        return result;
     }
 
     /**
-     * 创BeanCopier
+     * <p>
+     * 异步地根据源类型的集合创建另一种类型的集合，调用线程只复制源集合，不会被转换阻塞，适合在事件循环线程中调用。
+     * 使用默认选项: 每块{@link AsyncConversionOptions#DEFAULT_CHUNK_SIZE}个元素，最多CPU核数个块同时执行，
+     * 运行时支持虚拟线程时在虚拟线程中转换，否则在ForkJoinPool.commonPool()中转换；
+     * 第一个转换失败的元素使返回的CompletableFuture以失败的原因异常完成。
+     * </p>
      *
-     * @param sourceClass               源对象Class
-     * @param targetClass               目标对象Class
-     * @param beanFieldValueConverter bean属性值转换器
-     * @return BeanCopier
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 与源集合顺序一致的目标对象，不包含null元素
      */
-    private static BeanCopier createBeanCopier(Class<?> sourceClass, Class<?> targetClass, BeanFieldValueConverter beanFieldValueConverter)
+    public static <S, T> CompletableFuture<List<T>> createNewTypeCollectionAsync(List<S> sourceCollection, Class<T> targetCollectionElementType)
     {
-        return beanFieldValueConverter == null ? BeanCopier.create(sourceClass, targetClass, false) :
-                BeanCopier.create(sourceClass, targetClass, true);
+        return createNewTypeCollectionAsync(sourceCollection, targetCollectionElementType, AsyncConversionOptions.defaults());
     }
 
     /**
-     * <p>生成BeanCopier缓存的key</p>
+     * <p>
+     * 以指定的选项异步地根据源类型的集合创建另一种类型的集合。
+     * 源集合被拆分为固定大小的块，同一时刻最多有maxInFlight个块在Executor中执行，
+     * 转换失败的元素交给选项中的错误通道，未设置错误通道时第一个失败使整个转换失败。
+     * 取消返回的CompletableFuture会停止还未转换的元素。
+     * </p>
      *
-     * @param clazz1                    class1
-     * @param clazz2                    class2
-     * @param beanFieldValueConverter bean属性值转换器
-     * @return string key
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param options                     异步转换的选项
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 与源集合顺序一致的目标对象，不包含null元素；目标类型不能被创建时以IllegalArgumentException异常完成
      */
-    private static String generateBeanCopierCacheKey(Class<?> clazz1, Class<?> clazz2, BeanFieldValueConverter beanFieldValueConverter)
+    public static <S, T> CompletableFuture<List<T>> createNewTypeCollectionAsync(List<S> sourceCollection, Class<T> targetCollectionElementType,
+                                                                                AsyncConversionOptions options)
     {
-        return beanFieldValueConverter == null ? BEANCOPIER_CACHE_KEY_PREFIX + clazz1.getName() + CONNECTION_SYNBOL + clazz2.getName() :
-                BEANCOPIER_CACHE_KEY_PREFIX + clazz1.getName() + CONNECTION_SYNBOL + clazz2.getName() + BEANCOPIER_CACHE_KEY_SUFFIX;
+        TypeConverterRegistry typeConverterRegistry = options.getTypeConverterRegistry();
+        BatchConverter<T> batchConverter = typeConverterRegistry == null ?
+                BatchConverter.of(targetCollectionElementType, (BeanFieldValueConverter) null) :
+                BatchConverter.of(targetCollectionElementType, typeConverterRegistry);
+        if (batchConverter == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetCollectionElementType);
+            CompletableFuture<List<T>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(BeanInstantiators.noDefaultConstructor(targetCollectionElementType));
+            return failed;
+        }
+        return AsyncConverter.convert(sourceCollection, batchConverter, options);
     }
 
+    /**
+     * <p>
+     * 根据源类型的集合创建另一种类型的集合，并返回结构化的转换结果。
+     * 转换前只检查一次目标类型能否被创建，并编译第一个源对象的class pair的拷贝器，不满足时立即抛出异常；
+     * 单个元素的失败不输出日志，而是记录在结果中(失败数量、按异常类型的统计与失败的样本)。
+     * </p>
+     *
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 转换的结果
+     * @throws IllegalArgumentException 目标类型没有public默认构造器，也不能使用构造器或Builder创建
+     */
+    public static <S, T> ConversionResult<T> convertCollection(List<S> sourceCollection, Class<T> targetCollectionElementType)
+    {
+        return convertCollection(sourceCollection, targetCollectionElementType, null);
+    }
 
-    //BeanCopier缓存key的前缀
-    private static final String BEANCOPIER_CACHE_KEY_PREFIX = "BEAN:";
-
-    //BeanCopier缓存key的连接符
-    private static final String CONNECTION_SYNBOL = "::";
+    /**
+     * <p>以转换器注册表定义的规则根据源类型的集合创建另一种类型的集合，并返回结构化的转换结果</p>
+     *
+     * @param sourceCollection            源集合
+     * @param targetCollectionElementType 目标集合元素类型
+     * @param typeConverterRegistry       转换器注册表，为null时与createNewTypeCollection(List, Class)的规则相同
+     * @param <S>                         Source Class
+     * @param <T>                         Target Class
+     * @return 转换的结果
+     * @throws IllegalArgumentException 目标类型没有public默认构造器，也不能使用构造器或Builder创建
+     */
+    public static <S, T> ConversionResult<T> convertCollection(List<S> sourceCollection, Class<T> targetCollectionElementType,
+                                                               TypeConverterRegistry typeConverterRegistry)
+    {
+        BatchConverter<T> batchConverter = typeConverterRegistry == null ?
+                BatchConverter.of(targetCollectionElementType, (BeanFieldValueConverter) null) :
+                BatchConverter.of(targetCollectionElementType, typeConverterRegistry);
+        if (batchConverter == null)
+        {
+            throw BeanInstantiators.noDefaultConstructor(targetCollectionElementType);
+        }
+        for (S sourceObj : sourceCollection)
+        {
+            if (sourceObj != null)
+            {
+                batchConverter.prepare(sourceObj.getClass());
+                break;
+            }
+        }
+        return ConversionResult.convert(sourceCollection, batchConverter);
+    }
+
+    /**
+     * <p>
+     * 把源集合中的元素按顺序拷贝到调用方提供的目标对象中，第i个源对象拷贝到targets[i]，不创建目标对象，
+     * 适合复用目标对象或者使用对象池的批处理。源对象为null时跳过，对应的目标对象不变。
+     * 源对象类型相同时只查找一次拷贝器。
+     * </p>
+     *
+     * @param sources 源集合
+     * @param targets 目标对象，长度不能小于源集合的大小，不能有null元素
+     * @param <S>     Source Class
+     * @param <T>     Target Class
+     * @return 拷贝的对象数量
+     * @throws IllegalArgumentException 目标对象的数量小于源集合的大小
+     */
+    public static <S, T> int copyAll(List<S> sources, T[] targets)
+    {
+        return copyAll(sources, targets, null);
+    }
+
+    /**
+     * <p>以转换器注册表定义的规则，把源集合中的元素按顺序拷贝到调用方提供的目标对象中</p>
+     *
+     * @param sources               源集合
+     * @param targets               目标对象，长度不能小于源集合的大小，不能有null元素
+     * @param typeConverterRegistry 转换器注册表，为null时使用默认的拷贝
+     * @param <S>                   Source Class
+     * @param <T>                   Target Class
+     * @return 拷贝的对象数量
+     * @throws IllegalArgumentException 目标对象的数量小于源集合的大小
+     */
+    public static <S, T> int copyAll(List<S> sources, T[] targets, TypeConverterRegistry typeConverterRegistry)
+    {
+        int size = sources.size();
+        if (targets.length < size)
+        {
+            throw new IllegalArgumentException("targets length : [" + targets.length + "] is less than sources size : [" + size + "]");
+        }
+        Class<?> sourceClass = null;
+        Class<?> targetClass = null;
+        BoundCopier copier = null;
+        int copied = 0;
+        Iterator<S> iterator = sources instanceof RandomAccess ? null : sources.iterator();
+        for (int i = 0; i < size; ++i)
+        {
+            S sourceObj = iterator == null ? sources.get(i) : iterator.next();
+            if (sourceObj == null)
+            {
+                continue;
+            }
+            T targetObj = targets[i];
+            if (sourceObj.getClass() != sourceClass || targetObj.getClass() != targetClass)
+            {
+                sourceClass = sourceObj.getClass();
+                targetClass = targetObj.getClass();
+                copier = typeConverterRegistry == null ? BeanCopiers.get(sourceClass, targetClass) :
+                        typeConverterRegistry.getCopier(sourceClass, targetClass);
+            }
+            BeanUtilsMetrics.copy(copier, sourceObj, targetObj);
+            ++copied;
+        }
+        return copied;
+    }
+
+    /**
+     * <p>
+     * 把源对象逐个拷贝到当前线程复用的同一个目标对象中，并交给consumer处理，不为每个源对象创建目标对象，
+     * 适合转换后立即序列化或写出的批处理。
+     * consumer不能保存或者在返回后继续使用目标对象，下一个源对象会覆盖它的属性。
+     * 每次拷贝前重置拷贝器不写入的属性，见{@link #forEachConverted(Iterable, Class, Consumer, boolean)}。
+     * 源对象为null时跳过。目标Class没有默认构造方法时不处理任何元素。
+     * </p>
+     *
+     * @param sources     源对象
+     * @param targetClass 目标Class
+     * @param consumer    处理目标对象
+     * @param <S>         Source Class
+     * @param <T>         Target Class
+     */
+    public static <S, T> void forEachConverted(Iterable<S> sources, Class<T> targetClass, Consumer<? super T> consumer)
+    {
+        forEachConverted(sources, targetClass, consumer, true);
+    }
+
+    /**
+     * <p>
+     * 把源对象逐个拷贝到当前线程复用的同一个目标对象中，并交给consumer处理。
+     * reset为true时，每次拷贝前把拷贝器不写入的属性(源对象中没有类型相同的同名属性)恢复为默认构造器创建的对象中的值，
+     * 避免consumer修改过的属性或者上一种源类型写入的属性保留到下一个元素，可变的默认值每次重置时重新拷贝一份。
+     * 目标对象在同一个线程的多次调用之间复用，reset为false时，上一次调用留下的属性也会保留到这一次调用的元素中，
+     * 只有在每个目标属性都会被拷贝器写入，或者consumer不读取其他属性时才能关闭。
+     * </p>
+     *
+     * @param sources     源对象
+     * @param targetClass 目标Class
+     * @param consumer    处理目标对象，不能保存目标对象
+     * @param reset       是否重置拷贝器不写入的属性
+     * @param <S>         Source Class
+     * @param <T>         Target Class
+     */
+    public static <S, T> void forEachConverted(Iterable<S> sources, Class<T> targetClass, Consumer<? super T> consumer, boolean reset)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        if (instantiator == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetClass);
+            return;
+        }
+        T target = ReusableTargets.acquire(targetClass, instantiator);
+        if (target == null)
+        {
+            return;
+        }
+        try
+        {
+            Class<?> sourceClass = null;
+            BoundCopier copier = null;
+            MethodHandle[] resetters = null;
+            for (S sourceObj : sources)
+            {
+                if (sourceObj == null)
+                {
+                    continue;
+                }
+                if (sourceObj.getClass() != sourceClass)
+                {
+                    sourceClass = sourceObj.getClass();
+                    copier = BeanCopiers.get(sourceClass, targetClass);
+                    resetters = reset ? ReusableTargets.getResetters(sourceClass, targetClass) : null;
+                }
+                if (resetters != null)
+                {
+                    ReusableTargets.reset(resetters, target);
+                }
+                BeanUtilsMetrics.copy(copier, sourceObj, target);
+                consumer.accept(target);
+            }
+        }
+        finally
+        {
+            ReusableTargets.release(targetClass, target);
+        }
+    }
+
+
+    /**
+     * <p>
+     * 根据源Iterator惰性地创建另一种类型的Iterator，只有在元素被消费时才创建目标对象,
+     * 适合数据库游标等无法完整放入内存的数据源。
+     * 源元素为null或转换失败时会被跳过，所以不会返回null元素。
+     * </p>
+     *
+     * @param sourceIterator    源Iterator
+     * @param targetElementType 目标元素类型
+     * @param <S>               Source Class
+     * @param <T>               Target Class
+     * @return 目标类型元素的Iterator
+     */
+    public static <S, T> Iterator<T> createNewTypeIterator(Iterator<S> sourceIterator, Class<T> targetElementType)
+    {
+        return createNewTypeIterator(sourceIterator, targetElementType, null);
+    }
+
+    /**
+     * <p>
+     * 根据源Iterator，并以BeanFieldValueConverter定义的规则 惰性地创建另一种类型的Iterator,
+     * 只有在元素被消费时才创建目标对象。
+     * 源元素为null或转换失败时会被跳过，所以不会返回null元素。
+     * </p>
+     *
+     * @param sourceIterator          源Iterator
+     * @param targetElementType       目标元素类型
+     * @param beanFieldValueConverter bean属性值转换器
+     * @param <S>                     Source Class
+     * @param <T>                     Target Class
+     * @return 目标类型元素的Iterator
+     */
+    public static <S, T> Iterator<T> createNewTypeIterator(Iterator<S> sourceIterator, Class<T> targetElementType,
+                                                          BeanFieldValueConverter beanFieldValueConverter)
+    {
+        BatchConverter<T> batchConverter = BatchConverter.of(targetElementType, beanFieldValueConverter);
+        if (batchConverter == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetElementType);
+            return Collections.emptyIterator();
+        }
+        return new ConvertingIterator<>(sourceIterator, batchConverter);
+    }
+
+    /**
+     * <p>
+     * 根据源Spliterator惰性地创建另一种类型的Spliterator，只有在元素被消费时才创建目标对象。
+     * 源元素为null或转换失败时会被跳过，所以不会返回null元素。
+     * </p>
+     *
+     * @param sourceSpliterator 源Spliterator
+     * @param targetElementType 目标元素类型
+     * @param <S>               Source Class
+     * @param <T>               Target Class
+     * @return 目标类型元素的Spliterator
+     */
+    public static <S, T> Spliterator<T> createNewTypeSpliterator(Spliterator<S> sourceSpliterator, Class<T> targetElementType)
+    {
+        return createNewTypeSpliterator(sourceSpliterator, targetElementType, null);
+    }
+
+    /**
+     * <p>
+     * 根据源Spliterator，并以BeanFieldValueConverter定义的规则 惰性地创建另一种类型的Spliterator,
+     * 只有在元素被消费时才创建目标对象，拆分后的Spliterator共用同一个BeanCopier。
+     * 源元素为null或转换失败时会被跳过，所以不会返回null元素。
+     * </p>
+     *
+     * @param sourceSpliterator       源Spliterator
+     * @param targetElementType       目标元素类型
+     * @param beanFieldValueConverter bean属性值转换器
+     * @param <S>                     Source Class
+     * @param <T>                     Target Class
+     * @return 目标类型元素的Spliterator
+     */
+    public static <S, T> Spliterator<T> createNewTypeSpliterator(Spliterator<S> sourceSpliterator, Class<T> targetElementType,
+                                                                BeanFieldValueConverter beanFieldValueConverter)
+    {
+        BatchConverter<T> batchConverter = BatchConverter.of(targetElementType, beanFieldValueConverter);
+        if (batchConverter == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetElementType);
+            return Spliterators.emptySpliterator();
+        }
+        return new ConvertingSpliterator<>(sourceSpliterator, batchConverter);
+    }
+
+    /**
+     * <p>
+     * 根据源Stream惰性地创建另一种类型的Stream，只有在元素被消费时才创建目标对象。
+     * 源元素为null或转换失败时会被跳过，所以不会返回null元素。
+     * 关闭返回的Stream时会关闭源Stream。
+     * </p>
+     *
+     * @param sourceStream      源Stream
+     * @param targetElementType 目标元素类型
+     * @param <S>               Source Class
+     * @param <T>               Target Class
+     * @return 目标类型元素的Stream
+     */
+    public static <S, T> Stream<T> createNewTypeStream(Stream<S> sourceStream, Class<T> targetElementType)
+    {
+        return createNewTypeStream(sourceStream, targetElementType, null);
+    }
+
+    /**
+     * <p>
+     * 根据源Stream，并以BeanFieldValueConverter定义的规则 惰性地创建另一种类型的Stream,
+     * 只有在元素被消费时才创建目标对象，并行Stream的各个线程共用同一个BeanCopier。
+     * 源元素为null或转换失败时会被跳过，所以不会返回null元素。
+     * 关闭返回的Stream时会关闭源Stream。
+     * </p>
+     *
+     * @param sourceStream            源Stream
+     * @param targetElementType       目标元素类型
+     * @param beanFieldValueConverter bean属性值转换器
+     * @param <S>                     Source Class
+     * @param <T>                     Target Class
+     * @return 目标类型元素的Stream
+     */
+    public static <S, T> Stream<T> createNewTypeStream(Stream<S> sourceStream, Class<T> targetElementType,
+                                                      BeanFieldValueConverter beanFieldValueConverter)
+    {
+        BatchConverter<T> batchConverter = BatchConverter.of(targetElementType, beanFieldValueConverter);
+        if (batchConverter == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetElementType);
+            return Stream.<T>empty().onClose(sourceStream::close);
+        }
+        return sourceStream.
+                map(batchConverter::convert).
+                filter(Objects::nonNull);
+    }
+
+    /**
+     * <p>
+     * 根据源对象创建目标对象，并将源对象的属性拷贝到目标对象。
+     * 目标对象没有默认构造方法时，支持record、参数名已知的构造器(@ConstructorProperties)以及builder()，
+     * 使用源对象的同名属性作为参数直接创建目标对象。
+     * 如果目标对象不能被创建或者创建目标对象失败，都将返回null
+     * </p>
+     *
+     * @param sourceObj   源对象
+     * @param targetClass 目标Class
+     * @param <S>         Source Class
+     * @param <T>         Target Class
+     * @return 填充属性后的目标对象(浅拷贝)
+     */
+    public static <S, T> T createNewTypeObj(S sourceObj, Class<T> targetClass)
+    {
+        return createNewTypeObj(sourceObj, targetClass, (BeanFieldValueConverter) null);
+    }
+
+    /**
+     * <p>
+     * 根据源对象创建目标对象，并根据BeanFieldValueConverter定义的转换规则将源对象的属性拷贝到目标对象。
+     * 如果目标对象没有默认构造方法或者创建目标对象失败，都将返回null
+     * </p>
+     *
+     * @param sourceObj                 源对象
+     * @param targetClass               目标Class
+     * @param beanFieldValueConverter bean属性值转换器
+     * @param <S>                       Source Class
+     * @param <T>                       Target Class
+     * @return 填充属性后的目标对象(浅拷贝)
+     */
+    public static <S, T> T createNewTypeObj(S sourceObj, Class<T> targetClass, BeanFieldValueConverter beanFieldValueConverter)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        if (instantiator == null)
+        {
+            if (beanFieldValueConverter == null && ObjectCreators.isSupported(targetClass))
+            {
+                return ObjectCreators.create(ObjectCreators.get(sourceObj.getClass(), targetClass), sourceObj, targetClass);
+            }
+            BeanInstantiators.logNoDefaultConstructor(targetClass);
+            return null;
+        }
+        T target = BeanInstantiators.instantiate(instantiator, targetClass);
+        if (target != null)
+        {
+            shallowCopy(sourceObj, target, beanFieldValueConverter);
+        }
+        return target;
+    }
+
+    /**
+     * <p>
+     * 根据源对象创建目标对象，并根据转换器注册表定义的转换规则将源对象的属性拷贝到目标对象。
+     * 如果目标对象没有默认构造方法或者创建目标对象失败，都将返回null
+     * </p>
+     *
+     * @param sourceObj             源对象
+     * @param targetClass           目标Class
+     * @param typeConverterRegistry 转换器注册表
+     * @param <S>                   Source Class
+     * @param <T>                   Target Class
+     * @return 填充属性后的目标对象(浅拷贝)
+     */
+    public static <S, T> T createNewTypeObj(S sourceObj, Class<T> targetClass, TypeConverterRegistry typeConverterRegistry)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        if (instantiator == null)
+        {
+            if (ObjectCreators.isSupported(targetClass))
+            {
+                return ObjectCreators.create(typeConverterRegistry.getCreator(sourceObj.getClass(), targetClass), sourceObj, targetClass);
+            }
+            BeanInstantiators.logNoDefaultConstructor(targetClass);
+            return null;
+        }
+        T target = BeanInstantiators.instantiate(instantiator, targetClass);
+        if (target != null)
+        {
+            BeanUtilsMetrics.copy(typeConverterRegistry.getCopier(sourceObj.getClass(), targetClass), sourceObj, target);
+        }
+        return target;
+    }
+
+    /**
+     * <p>
+     * 根据源对象创建目标对象，并使用拷贝策略将源对象的属性拷贝到目标对象。
+     * 目标对象没有默认构造方法时通过record、构造器或Builder创建，按拷贝策略过滤、重命名属性，
+     * ignoreNull时不调用Builder的属性方法，保留Builder中的默认值，此时属性映射不能是嵌套路径。
+     * 如果目标对象不能被创建或者创建目标对象失败，都将返回null
+     * </p>
+     *
+     * @param sourceObj   源对象
+     * @param targetClass 目标Class
+     * @param copyPolicy  拷贝策略
+     * @param <S>         Source Class
+     * @param <T>         Target Class
+     * @return 填充属性后的目标对象(浅拷贝)
+     * @throws IllegalArgumentException 通过构造器或Builder创建时，属性映射中有嵌套路径
+     */
+    public static <S, T> T createNewTypeObj(S sourceObj, Class<T> targetClass, CopyPolicy copyPolicy)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        if (instantiator == null)
+        {
+            if (ObjectCreators.isSupported(targetClass))
+            {
+                return ObjectCreators.create(copyPolicy.getCreator(sourceObj.getClass(), targetClass), sourceObj, targetClass);
+            }
+            BeanInstantiators.logNoDefaultConstructor(targetClass);
+            return null;
+        }
+        T target = BeanInstantiators.instantiate(instantiator, targetClass);
+        if (target != null)
+        {
+            BeanUtilsMetrics.copy(copyPolicy.getCopier(sourceObj.getClass(), targetClass), sourceObj, target);
+        }
+        return target;
+    }
+
+    /**
+     * <p>把bean的可读属性转换为Map，key是属性名，按属性名排序</p>
+     *
+     * @param bean bean
+     * @return 属性名 -> 属性值
+     */
+    public static Map<String, Object> beanToMap(Object bean)
+    {
+        return BeanMaps.toMap(bean, null);
+    }
+
+    /**
+     * <p>把bean的可读属性转换为Map，每个属性值都经过BeanFieldValueConverter转换</p>
+     *
+     * @param bean                    bean
+     * @param beanFieldValueConverter bean属性值转换器
+     * @return 属性名 -> 转换后的属性值
+     */
+    public static Map<String, Object> beanToMap(Object bean, BeanFieldValueConverter beanFieldValueConverter)
+    {
+        return BeanMaps.toMap(bean, beanFieldValueConverter);
+    }
+
+    /**
+     * <p>
+     * 把bean的可读属性写入当前线程复用的Map，不会为每次转换创建Map。
+     * 返回的Map在当前线程下一次调用此方法时会被清空，不能保存或者传递给其他线程，需要保存时应该拷贝一份。
+     * </p>
+     *
+     * @param bean bean
+     * @return 当前线程复用的Map
+     */
+    public static Map<String, Object> beanToReusableMap(Object bean)
+    {
+        return BeanMaps.toReusableMap(bean);
+    }
+
+    /**
+     * <p>
+     * 根据Map创建目标对象，Map中的值写入同名的可写属性，值的类型与属性不兼容时跳过。
+     * 如果目标对象没有默认构造方法或者创建目标对象失败，都将返回null
+     * </p>
+     *
+     * @param map         属性名 -> 属性值
+     * @param targetClass 目标Class
+     * @param <T>         Target Class
+     * @return 目标对象
+     */
+    public static <T> T mapToBean(Map<String, ?> map, Class<T> targetClass)
+    {
+        return mapToBean(map, targetClass, null);
+    }
+
+    /**
+     * <p>
+     * 根据Map创建目标对象，Map中的值经过BeanFieldValueConverter转换后写入同名的可写属性，值的类型与属性不兼容时跳过。
+     * 如果目标对象没有默认构造方法或者创建目标对象失败，都将返回null
+     * </p>
+     *
+     * @param map                     属性名 -> 属性值
+     * @param targetClass             目标Class
+     * @param beanFieldValueConverter bean属性值转换器
+     * @param <T>                     Target Class
+     * @return 目标对象
+     */
+    public static <T> T mapToBean(Map<String, ?> map, Class<T> targetClass, BeanFieldValueConverter beanFieldValueConverter)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        if (instantiator == null)
+        {
+            BeanInstantiators.logNoDefaultConstructor(targetClass);
+            return null;
+        }
+        T target = BeanInstantiators.instantiate(instantiator, targetClass);
+        if (target != null)
+        {
+            BeanMaps.fromMap(map, target, beanFieldValueConverter);
+        }
+        return target;
+    }
+
+    /**
+     * <p>把Map中的值写入目标对象同名的可写属性，值的类型与属性不兼容时跳过</p>
+     *
+     * @param map       属性名 -> 属性值
+     * @param targetObj 目标对象
+     * @param <T>       Target Class
+     */
+    public static <T> void copyFromMap(Map<String, ?> map, T targetObj)
+    {
+        BeanMaps.fromMap(map, targetObj, null);
+    }
+
+    /**
+     * <p>
+     * 深拷贝对象，保留引用关系: 同一个对象只会被拷贝一次，循环引用与共享引用在拷贝后保持不变。
+     * bean、数组、Collection、Map会被递归拷贝，String、基本类型的包装类、枚举等不可变类型直接共享。
+     * Date、Calendar、BitSet、StringBuilder、StringBuffer与Atomic*按各自的方式拷贝。
+     * </p>
+     *
+     * @param sourceObj 源对象
+     * @param <T>       Class
+     * @return 拷贝后的对象，如果源对象为null，则返回null
+     * @throws IllegalArgumentException 对象图中有既不是不可变类型，也没有public默认构造器的对象，或者有不支持的JDK类型的对象
+     */
+    public static <T> T deepCopy(T sourceObj)
+    {
+        return DeepCopier.copy(sourceObj, true);
+    }
+
+    /**
+     * <p>
+     * 深拷贝对象。
+     * 不保留引用关系时不需要记录已拷贝的对象，拷贝树形的对象图更快，
+     * 但共享的对象会被拷贝多次，并且对象图中不能有循环引用。
+     * </p>
+     *
+     * @param sourceObj        源对象
+     * @param preserveIdentity 是否保留引用关系
+     * @param <T>              Class
+     * @return 拷贝后的对象，如果源对象为null，则返回null
+     * @throws IllegalArgumentException 对象图中有既不是不可变类型，也没有public默认构造器的对象，或者有不支持的JDK类型的对象
+     */
+    public static <T> T deepCopy(T sourceObj, boolean preserveIdentity)
+    {
+        return DeepCopier.copy(sourceObj, preserveIdentity);
+    }
+
+    /**
+     * <p>
+     * 在ForkJoinPool.commonPool()中并行预热class pair:
+     * 生成不使用转换器的拷贝器与目标Class的实例化器，之后第一次拷贝这些class pair时不再需要生成类。
+     * </p>
+     *
+     * @param classPairs class pair
+     * @return 所有class pair预热完成后得到的结果，包括每个class pair的耗时，单个class pair失败不会使结果失败
+     */
+    public static CompletableFuture<WarmUpReport> warmUp(Collection<ClassPair> classPairs)
+    {
+        return BeanWarmer.warmUp(classPairs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <p>在指定的Executor中并行预热class pair</p>
+     *
+     * @param classPairs class pair
+     * @param executor   执行预热的Executor
+     * @return 所有class pair预热完成后得到的结果，包括每个class pair的耗时，单个class pair失败不会使结果失败
+     */
+    public static CompletableFuture<WarmUpReport> warmUp(Collection<ClassPair> classPairs, Executor executor)
+    {
+        return BeanWarmer.warmUp(classPairs, executor);
+    }
+
+    /**
+     * <p>扫描包(包括子包)中的@BeanMapper接口，在ForkJoinPool.commonPool()中并行预热它们的方法声明的class pair</p>
+     *
+     * @param packageName 包名
+     * @return 所有class pair预热完成后得到的结果
+     * @throws java.io.UncheckedIOException 扫描包失败
+     */
+    public static CompletableFuture<WarmUpReport> warmUp(String packageName)
+    {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return warmUp(BeanWarmer.scanBeanMappers(packageName, classLoader == null ? BeanUtils.class.getClassLoader() : classLoader));
+    }
+
+    /**
+     * @return 不使用转换器拷贝时全局使用的拷贝引擎
+     */
+    public static CopyEngine getDefaultCopyEngine()
+    {
+        return BeanCopiers.getDefaultEngine();
+    }
+
+    /**
+     * <p>
+     * 设置不使用转换器拷贝时全局使用的拷贝引擎，默认在cglib可用时使用{@link CopyEngines#CGLIB}，
+     * 否则使用{@link CopyEngines#METHOD_HANDLE}。
+     * </p>
+     *
+     * @param copyEngine 拷贝引擎
+     * @throws IllegalArgumentException 当前运行时不能使用此引擎
+     */
+    public static void setDefaultCopyEngine(CopyEngine copyEngine)
+    {
+        BeanCopiers.setDefaultEngine(copyEngine);
+    }
+
+    /**
+     * <p>为class pair单独设置不使用转换器拷贝时的拷贝引擎，编译时生成的拷贝器仍然优先</p>
+     *
+     * @param sourceClass 源对象Class
+     * @param targetClass 目标对象Class
+     * @param copyEngine  拷贝引擎，为null时恢复使用全局的拷贝引擎
+     * @throws IllegalArgumentException 当前运行时不能使用此引擎
+     */
+    public static void setCopyEngine(Class<?> sourceClass, Class<?> targetClass, CopyEngine copyEngine)
+    {
+        BeanCopiers.setEngine(sourceClass, targetClass, copyEngine);
+    }
+
+    /**
+     * @return 拷贝器缓存的策略
+     */
+    public static CopierCachePolicy getCopierCachePolicy()
+    {
+        return ClassPairCache.getPolicy();
+    }
+
+    /**
+     * <p>
+     * 设置所有拷贝器缓存(包括TypeConverterRegistry编译的拷贝器)的策略，默认不限制大小。
+     * 缓存的拷贝器超过新的大小时立即淘汰。
+     * </p>
+     *
+     * @param copierCachePolicy 策略
+     */
+    public static void setCopierCachePolicy(CopierCachePolicy copierCachePolicy)
+    {
+        ClassPairCache.setPolicy(copierCachePolicy);
+    }
+
+    /**
+     * <p>淘汰class pair的所有拷贝器，下一次拷贝时重新生成</p>
+     *
+     * @param sourceClass 源对象Class
+     * @param targetClass 目标对象Class
+     */
+    public static void evictCopiers(Class<?> sourceClass, Class<?> targetClass)
+    {
+        ClassPairCache.evictAll(sourceClass, targetClass);
+    }
+
+    /**
+     * <p>淘汰源Class或者目标Class由classLoader加载的所有拷贝器与它们的统计，以及classLoader中编译时生成的拷贝器的索引，
+     * 在卸载ClassLoader(例如热部署、卸载插件)前调用</p>
+     *
+     * @param classLoader ClassLoader
+     */
+    public static void evictCopiers(ClassLoader classLoader)
+    {
+        ClassPairCache.evictAll(classLoader);
+        GeneratedBeanCopiers.evict(classLoader);
+        BeanUtilsMetrics.evict(classLoader);
+    }
+
+    /**
+     * <p>淘汰所有拷贝器，以及已加载的编译时生成的拷贝器</p>
+     */
+    public static void clearCopiers()
+    {
+        ClassPairCache.clearAll();
+        GeneratedBeanCopiers.clear();
+    }
+
+
+    /**
+     * <p>把源对象数组转换为目标对象数组，数量达到阈值时拆分后并行转换</p>
+     *
+     * @param sources           源对象数组
+     * @param batchConverter    批量转换器
+     * @param executor          执行转换的Executor
+     * @param parallelThreshold 元素数量小于此值时按顺序转换
+     * @return 与源对象数组顺序一致的目标对象数组，转换失败的位置为null
+     */
+    private static Object[] convertParallel(Object[] sources, BatchConverter<?> batchConverter, Executor executor, int parallelThreshold)
+    {
+        int size = sources.length;
+        Object[] targets = new Object[size];
+        if (size < parallelThreshold || size < 2)
+        {
+            convertRange(sources, targets, 0, size, batchConverter);
+            return targets;
+        }
+        //每个线程拆分为多个块，以平衡不同块之间的耗时差异
+        int chunks = Math.min(size, Runtime.getRuntime().availableProcessors() * PARALLEL_CHUNKS_PER_THREAD);
+        int chunkSize = (size + chunks - 1) / chunks;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[(size + chunkSize - 1) / chunkSize];
+        for (int i = 0, from = 0; from < size; ++i, from += chunkSize)
+        {
+            int start = from;
+            int end = Math.min(size, from + chunkSize);
+            futures[i] = CompletableFuture.runAsync(() -> convertRange(sources, targets, start, end, batchConverter), executor);
+        }
+        try
+        {
+            CompletableFuture.allOf(futures).join();
+        }
+        catch (CompletionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+        return targets;
+    }
+
+    /**
+     * <p>转换[from, to)范围内的元素</p>
+     *
+     * @param sources        源对象数组
+     * @param targets        目标对象数组
+     * @param from           开始位置(包含)
+     * @param to             结束位置(不包含)
+     * @param batchConverter 批量转换器
+     */
+    private static void convertRange(Object[] sources, Object[] targets, int from, int to, BatchConverter<?> batchConverter)
+    {
+        for (int i = from; i < to; ++i)
+        {
+            targets[i] = batchConverter.convert(sources[i]);
+        }
+    }
+
+    /**
+     * <p>按顺序转换集合中的元素，把不为null的目标对象添加到目标集合</p>
+     *
+     * @param sources        源集合
+     * @param batchConverter 批量转换器
+     * @param targets        目标集合，应该已按源集合的大小预设容量
+     * @param <T>            Target Class
+     * @param <C>            目标集合类型
+     * @return 目标集合
+     */
+    private static <T, C extends Collection<T>> C convertNonNull(Collection<?> sources, BatchConverter<T> batchConverter, C targets)
+    {
+        if (sources instanceof List && sources instanceof RandomAccess)
+        {
+            //不创建Iterator
+            List<?> list = (List<?>) sources;
+            for (int i = 0, size = list.size(); i < size; ++i)
+            {
+                T target = batchConverter.convert(list.get(i));
+                if (target != null)
+                {
+                    targets.add(target);
+                }
+            }
+            return targets;
+        }
+        for (Object source : sources)
+        {
+            T target = batchConverter.convert(source);
+            if (target != null)
+            {
+                targets.add(target);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * <p>把数组中不为null的元素按顺序添加到集合</p>
+     *
+     * @param elements   数组
+     * @param collection 集合
+     * @param <T>        元素类型
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void addNonNull(Object[] elements, Collection<T> collection)
+    {
+        for (Object element : elements)
+        {
+            if (element != null)
+            {
+                collection.add((T) element);
+            }
+        }
+    }
+
+
+    /**
+     * <p>浅拷贝对象</p>
+     *
+     * @param sourceObj                 源对象
+     * @param targetObj                 目标对象
+     * @param beanFieldValueConverter bean属性值转换器
+     */
+    private static void shallowCopy(Object sourceObj, Object targetObj, BeanFieldValueConverter beanFieldValueConverter)
+    {
+        if (beanFieldValueConverter == null)
+        {
+            BeanUtilsMetrics.copy(BeanCopiers.get(sourceObj.getClass(), targetObj.getClass()), sourceObj, targetObj);
+        }
+        else if (!BeanUtilsMetrics.enabled)
+        {
+            BeanCopiers.copyConverting(sourceObj, targetObj, beanFieldValueConverter);
+        }
+        else
+        {
+            long start = System.nanoTime();
+            BeanCopiers.copyConverting(sourceObj, targetObj, beanFieldValueConverter);
+            BeanUtilsMetrics.recordCopy(sourceObj.getClass(), targetObj.getClass(), System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * 并行转换的阈值，元素数量小于此值时按顺序转换。
+     * 拆分与线程切换的开销在几千个元素以下时大于并行带来的收益，见knife-benchmark中的BeanUtilsParallelBenchmark
+     */
+    public static final int PARALLEL_THRESHOLD = 4096;
 
-    //BeanCopier缓存key的后缀
-    private static final String BEANCOPIER_CACHE_KEY_SUFFIX = "USE:BeanFieldValueConverter";
+    //并行转换时每个线程分到的块数
+    private static final int PARALLEL_CHUNKS_PER_THREAD = 4;
 }
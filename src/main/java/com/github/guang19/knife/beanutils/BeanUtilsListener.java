@@ -0,0 +1,55 @@
+package com.github.guang19.knife.beanutils;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * BeanUtils的事件监听器，通过{@link BeanUtilsMetrics#addListener(BeanUtilsListener)}注册，
+ * 只有开启{@link BeanUtilsMetrics}时才会被调用。
+ * 监听器在执行拷贝的线程中同步调用，应该尽快返回；抛出的异常会被记录并忽略。
+ * </p>
+ */
+public interface BeanUtilsListener
+{
+    /**
+     * <p>生成了一个class pair的拷贝器</p>
+     *
+     * @param sourceClass  源Class
+     * @param targetClass  目标Class
+     * @param elapsedNanos 生成的耗时(纳秒)
+     */
+    public default void onCopierGenerated(Class<?> sourceClass, Class<?> targetClass, long elapsedNanos)
+    {
+    }
+
+    /**
+     * <p>一个class pair的拷贝器被缓存策略淘汰，再次使用时会重新生成</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     */
+    public default void onCopierEvicted(Class<?> sourceClass, Class<?> targetClass)
+    {
+    }
+
+    /**
+     * <p>完成了一次拷贝</p>
+     *
+     * @param sourceClass  源Class
+     * @param targetClass  目标Class
+     * @param elapsedNanos 拷贝的耗时(纳秒)
+     */
+    public default void onCopy(Class<?> sourceClass, Class<?> targetClass, long elapsedNanos)
+    {
+    }
+
+    /**
+     * <p>创建目标对象失败</p>
+     *
+     * @param targetClass 目标Class
+     * @param cause       失败的原因，为null时表示目标Class没有public默认构造器
+     */
+    public default void onConversionFailure(Class<?> targetClass, Throwable cause)
+    {
+    }
+}
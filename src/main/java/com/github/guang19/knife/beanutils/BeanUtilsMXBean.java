@@ -0,0 +1,68 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.List;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * BeanUtils的JMX接口，通过{@link BeanUtilsMetrics#registerMBean()}注册为
+ * com.github.guang19.knife:type=BeanUtils。
+ * </p>
+ */
+public interface BeanUtilsMXBean
+{
+    public abstract boolean isEnabled();
+
+    public abstract void setEnabled(boolean enabled);
+
+    /**
+     * @return 生成的拷贝器的数量
+     */
+    public abstract long getCopierCount();
+
+    /**
+     * @return 拷贝器缓存命中的次数
+     */
+    public abstract long getCopierCacheHits();
+
+    /**
+     * @return 拷贝器缓存未命中的次数
+     */
+    public abstract long getCopierCacheMisses();
+
+    /**
+     * @return 拷贝器缓存的命中率
+     */
+    public abstract double getCopierCacheHitRate();
+
+    /**
+     * @return 当前缓存的拷贝器的数量
+     */
+    public abstract int getCachedCopierCount();
+
+    /**
+     * @return 拷贝器被缓存策略淘汰的次数
+     */
+    public abstract long getCopierEvictions();
+
+    /**
+     * @return 被淘汰的拷贝器重新生成的次数
+     */
+    public abstract long getCopierRegenerations();
+
+    /**
+     * @return 创建目标对象失败的次数
+     */
+    public abstract long getConversionFailures();
+
+    /**
+     * @return 每个class pair的统计
+     */
+    public abstract List<PairMetrics> getPairMetrics();
+
+    /**
+     * <p>清空统计</p>
+     */
+    public abstract void reset();
+}
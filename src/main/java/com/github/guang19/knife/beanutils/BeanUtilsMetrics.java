@@ -0,0 +1,531 @@
+package com.github.guang19.knife.beanutils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * BeanUtils的统计: 拷贝器缓存的大小、命中率与淘汰、每个class pair生成拷贝器的耗时与拷贝耗时的分布、创建目标对象失败的次数。
+ * 默认关闭，关闭时拷贝路径上只多读一次volatile字段，不会计时，也不会调用监听器。
+ * 统计可以直接读取，也可以注册为JMX MBean，或者通过{@link BeanUtilsListener}接收每个事件。
+ * </p>
+ */
+public final class BeanUtilsMetrics
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeanUtilsMetrics.class);
+
+    //MBean的名称
+    public static final String MBEAN_NAME = "com.github.guang19.knife:type=BeanUtils";
+
+    //是否开启统计，拷贝路径上只读取这个字段
+    static volatile boolean enabled;
+
+    //监听器
+    private static final List<BeanUtilsListener> listeners = new CopyOnWriteArrayList<>();
+
+    //当前的统计，reset时整体替换
+    private static volatile Statistics statistics = new Statistics();
+
+    private BeanUtilsMetrics()
+    {
+    }
+
+    /**
+     * <p>开启统计</p>
+     */
+    public static void enable()
+    {
+        enabled = true;
+    }
+
+    /**
+     * <p>关闭统计，已有的统计会被保留</p>
+     */
+    public static void disable()
+    {
+        enabled = false;
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * <p>清空统计</p>
+     */
+    public static void reset()
+    {
+        statistics = new Statistics();
+    }
+
+    public static void addListener(BeanUtilsListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(BeanUtilsListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return 开启统计后生成的拷贝器的数量
+     */
+    public static long getCopierCount()
+    {
+        return statistics.copierCount.sum();
+    }
+
+    /**
+     * @return 拷贝器缓存命中的次数
+     */
+    public static long getCopierCacheHits()
+    {
+        return statistics.cacheHits.sum();
+    }
+
+    /**
+     * @return 拷贝器缓存未命中的次数
+     */
+    public static long getCopierCacheMisses()
+    {
+        return statistics.cacheMisses.sum();
+    }
+
+    /**
+     * @return 拷贝器缓存的命中率，没有访问时返回0
+     */
+    public static double getCopierCacheHitRate()
+    {
+        long hits = getCopierCacheHits();
+        long total = hits + getCopierCacheMisses();
+        return total == 0 ? 0D : (double) hits / total;
+    }
+
+    /**
+     * @return 当前缓存的拷贝器的数量，不论是否开启统计
+     */
+    public static int getCachedCopierCount()
+    {
+        return ClassPairCache.totalSize();
+    }
+
+    /**
+     * @return 拷贝器被缓存策略淘汰的次数
+     */
+    public static long getCopierEvictions()
+    {
+        return statistics.evictions.sum();
+    }
+
+    /**
+     * @return 被淘汰的拷贝器重新生成的次数
+     */
+    public static long getCopierRegenerations()
+    {
+        return statistics.regenerations.sum();
+    }
+
+    /**
+     * @return 创建目标对象失败的次数
+     */
+    public static long getConversionFailures()
+    {
+        return statistics.conversionFailures.sum();
+    }
+
+    /**
+     * @return 每个class pair的统计
+     */
+    public static List<PairMetrics> getPairMetrics()
+    {
+        Statistics current = statistics;
+        current.allPairs.removeIf(PairMetrics::isStale);
+        return new ArrayList<>(current.allPairs);
+    }
+
+    /**
+     * <p>获取class pair的统计</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 统计，如果没有记录，则返回null
+     */
+    public static PairMetrics getPairMetrics(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return statistics.find(sourceClass, targetClass);
+    }
+
+    /**
+     * <p>把统计注册为JMX MBean: {@link #MBEAN_NAME}，已注册时什么都不做</p>
+     *
+     * @throws IllegalStateException 注册失败
+     */
+    public static void registerMBean()
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            server.registerMBean(new StandardMBean(new MXBean(), BeanUtilsMXBean.class, true), new ObjectName(MBEAN_NAME));
+        }
+        catch (InstanceAlreadyExistsException e)
+        {
+            //已注册
+        }
+        catch (JMException e)
+        {
+            throw new IllegalStateException("can not register mbean : [" + MBEAN_NAME + "]", e);
+        }
+    }
+
+    /**
+     * <p>注销JMX MBean，未注册时什么都不做</p>
+     */
+    public static void unregisterMBean()
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(MBEAN_NAME));
+        }
+        catch (InstanceNotFoundException e)
+        {
+            //未注册
+        }
+        catch (JMException e)
+        {
+            throw new IllegalStateException("can not unregister mbean : [" + MBEAN_NAME + "]", e);
+        }
+    }
+
+    /**
+     * <p>丢弃源Class或者目标Class由loader加载的class pair的统计</p>
+     *
+     * @param loader ClassLoader，null表示启动类加载器
+     */
+    static void evict(ClassLoader loader)
+    {
+        Statistics current = statistics;
+        current.allPairs.removeIf(pairMetrics ->
+        {
+            if (pairMetrics.isStale())
+            {
+                return true;
+            }
+            if (!pairMetrics.isLoadedBy(loader))
+            {
+                return false;
+            }
+            current.remove(pairMetrics);
+            return true;
+        });
+    }
+
+    /**
+     * <p>使用拷贝器拷贝，开启统计时记录耗时</p>
+     *
+     * @param copier    拷贝器
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     */
+    static void copy(BoundCopier copier, Object sourceObj, Object targetObj)
+    {
+        if (!enabled)
+        {
+            copier.copy(sourceObj, targetObj);
+            return;
+        }
+        long start = System.nanoTime();
+        copier.copy(sourceObj, targetObj);
+        recordCopy(sourceObj.getClass(), targetObj.getClass(), System.nanoTime() - start);
+    }
+
+    /**
+     * <p>记录一次拷贝，调用前需要判断是否开启了统计</p>
+     */
+    static void recordCopy(Class<?> sourceClass, Class<?> targetClass, long nanos)
+    {
+        statistics.pair(sourceClass, targetClass).recordCopy(nanos);
+        for (BeanUtilsListener listener : listeners)
+        {
+            try
+            {
+                listener.onCopy(sourceClass, targetClass, nanos);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.warn("[BeanUtils] listener : [{}] threw an exception", listener, e);
+            }
+        }
+    }
+
+    /**
+     * <p>记录一次拷贝器缓存命中，调用前需要判断是否开启了统计</p>
+     */
+    static void recordCacheHit()
+    {
+        statistics.cacheHits.increment();
+    }
+
+    /**
+     * <p>记录一次拷贝器的生成，也就是一次拷贝器缓存未命中，调用前需要判断是否开启了统计</p>
+     *
+     * @param regenerated 是否是被淘汰后重新生成
+     */
+    static void recordGeneration(Class<?> sourceClass, Class<?> targetClass, long nanos, boolean regenerated)
+    {
+        Statistics current = statistics;
+        current.cacheMisses.increment();
+        current.copierCount.increment();
+        if (regenerated)
+        {
+            current.regenerations.increment();
+        }
+        current.pair(sourceClass, targetClass).recordGeneration(nanos);
+        for (BeanUtilsListener listener : listeners)
+        {
+            try
+            {
+                listener.onCopierGenerated(sourceClass, targetClass, nanos);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.warn("[BeanUtils] listener : [{}] threw an exception", listener, e);
+            }
+        }
+    }
+
+    /**
+     * <p>记录一次拷贝器被缓存策略淘汰，调用前需要判断是否开启了统计</p>
+     */
+    static void recordEviction(Class<?> sourceClass, Class<?> targetClass)
+    {
+        statistics.evictions.increment();
+        for (BeanUtilsListener listener : listeners)
+        {
+            try
+            {
+                listener.onCopierEvicted(sourceClass, targetClass);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.warn("[BeanUtils] listener : [{}] threw an exception", listener, e);
+            }
+        }
+    }
+
+    /**
+     * <p>记录一次创建目标对象失败</p>
+     *
+     * @param targetClass 目标Class
+     * @param cause       失败的原因，为null时表示目标Class没有public默认构造器
+     */
+    static void recordConversionFailure(Class<?> targetClass, Throwable cause)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        statistics.conversionFailures.increment();
+        for (BeanUtilsListener listener : listeners)
+        {
+            try
+            {
+                listener.onConversionFailure(targetClass, cause);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.warn("[BeanUtils] listener : [{}] threw an exception", listener, e);
+            }
+        }
+    }
+
+    /**
+     * <p>一组统计</p>
+     */
+    private static final class Statistics
+    {
+        //生成的拷贝器的数量
+        private final LongAdder copierCount = new LongAdder();
+
+        //拷贝器缓存命中的次数
+        private final LongAdder cacheHits = new LongAdder();
+
+        //拷贝器缓存未命中的次数
+        private final LongAdder cacheMisses = new LongAdder();
+
+        //拷贝器被淘汰的次数
+        private final LongAdder evictions = new LongAdder();
+
+        //被淘汰的拷贝器重新生成的次数
+        private final LongAdder regenerations = new LongAdder();
+
+        //创建目标对象失败的次数
+        private final LongAdder conversionFailures = new LongAdder();
+
+        //与ClassPairCache相同，统计挂在class pair中生命周期较短的Class上
+        //源Class -> (目标Class -> 统计)
+        private final ClassValue<ConcurrentHashMap<Class<?>, PairMetrics>> bySource = new PairMetricsClassValue();
+
+        //目标Class -> (源Class -> 统计)，只保存目标Class的ClassLoader是源Class的ClassLoader的子孙的class pair
+        private final ClassValue<ConcurrentHashMap<Class<?>, PairMetrics>> byTarget = new PairMetricsClassValue();
+
+        //所有class pair的统计，只弱引用Class
+        private final Queue<PairMetrics> allPairs = new ConcurrentLinkedQueue<>();
+
+        /**
+         * @return class pair的统计，如果没有记录，则返回null
+         */
+        private PairMetrics find(Class<?> sourceClass, Class<?> targetClass)
+        {
+            return ClassPairCache.isOwnedByTarget(sourceClass, targetClass) ? byTarget.get(targetClass).get(sourceClass) :
+                    bySource.get(sourceClass).get(targetClass);
+        }
+
+        /**
+         * <p>从Class上移除class pair的统计</p>
+         */
+        private void remove(PairMetrics pairMetrics)
+        {
+            Class<?> sourceClass = pairMetrics.getSourceClass();
+            Class<?> targetClass = pairMetrics.getTargetClass();
+            if (sourceClass == null || targetClass == null)
+            {
+                return;
+            }
+            if (ClassPairCache.isOwnedByTarget(sourceClass, targetClass))
+            {
+                byTarget.get(targetClass).remove(sourceClass, pairMetrics);
+            }
+            else
+            {
+                bySource.get(sourceClass).remove(targetClass, pairMetrics);
+            }
+        }
+
+        private PairMetrics pair(Class<?> sourceClass, Class<?> targetClass)
+        {
+            boolean ownedByTarget = ClassPairCache.isOwnedByTarget(sourceClass, targetClass);
+            ConcurrentHashMap<Class<?>, PairMetrics> pairs = ownedByTarget ? byTarget.get(targetClass) : bySource.get(sourceClass);
+            Class<?> key = ownedByTarget ? sourceClass : targetClass;
+            PairMetrics pairMetrics = pairs.get(key);
+            if (pairMetrics == null)
+            {
+                pairMetrics = pairs.computeIfAbsent(key, k ->
+                {
+                    PairMetrics created = new PairMetrics(sourceClass, targetClass);
+                    allPairs.add(created);
+                    return created;
+                });
+            }
+            return pairMetrics;
+        }
+    }
+
+    /**
+     * <p>每个Class上的class pair统计</p>
+     */
+    private static final class PairMetricsClassValue extends ClassValue<ConcurrentHashMap<Class<?>, PairMetrics>>
+    {
+        @Override
+        protected ConcurrentHashMap<Class<?>, PairMetrics> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>(4);
+        }
+    }
+
+    /**
+     * <p>JMX MBean</p>
+     */
+    private static final class MXBean implements BeanUtilsMXBean
+    {
+        @Override
+        public boolean isEnabled()
+        {
+            return BeanUtilsMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled)
+        {
+            BeanUtilsMetrics.enabled = enabled;
+        }
+
+        @Override
+        public long getCopierCount()
+        {
+            return BeanUtilsMetrics.getCopierCount();
+        }
+
+        @Override
+        public long getCopierCacheHits()
+        {
+            return BeanUtilsMetrics.getCopierCacheHits();
+        }
+
+        @Override
+        public long getCopierCacheMisses()
+        {
+            return BeanUtilsMetrics.getCopierCacheMisses();
+        }
+
+        @Override
+        public double getCopierCacheHitRate()
+        {
+            return BeanUtilsMetrics.getCopierCacheHitRate();
+        }
+
+        @Override
+        public int getCachedCopierCount()
+        {
+            return BeanUtilsMetrics.getCachedCopierCount();
+        }
+
+        @Override
+        public long getCopierEvictions()
+        {
+            return BeanUtilsMetrics.getCopierEvictions();
+        }
+
+        @Override
+        public long getCopierRegenerations()
+        {
+            return BeanUtilsMetrics.getCopierRegenerations();
+        }
+
+        @Override
+        public long getConversionFailures()
+        {
+            return BeanUtilsMetrics.getConversionFailures();
+        }
+
+        @Override
+        public List<PairMetrics> getPairMetrics()
+        {
+            return BeanUtilsMetrics.getPairMetrics();
+        }
+
+        @Override
+        public void reset()
+        {
+            BeanUtilsMetrics.reset();
+        }
+    }
+}
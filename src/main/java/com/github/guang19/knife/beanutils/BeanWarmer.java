@@ -0,0 +1,211 @@
+package com.github.guang19.knife.beanutils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 在请求到来之前预热class pair: 在后台线程池中并行生成拷贝器与目标Class的实例化器，并记录每个class pair的耗时。
+ * class pair可以直接指定，也可以从某个包中所有@BeanMapper接口的方法签名中扫描得到。
+ * </p>
+ */
+final class BeanWarmer
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeanWarmer.class);
+
+    //class文件的后缀
+    private static final String CLASS_SUFFIX = ".class";
+
+    private BeanWarmer()
+    {
+    }
+
+    /**
+     * <p>并行预热class pair</p>
+     *
+     * @param classPairs class pair
+     * @param executor   执行预热的Executor
+     * @return 所有class pair预热完成后得到的结果，单个class pair失败不会使结果失败
+     */
+    static CompletableFuture<WarmUpReport> warmUp(Collection<ClassPair> classPairs, Executor executor)
+    {
+        long start = System.nanoTime();
+        List<CompletableFuture<WarmUpReport.Entry>> futures = new ArrayList<>(classPairs.size());
+        for (ClassPair classPair : classPairs)
+        {
+            futures.add(CompletableFuture.supplyAsync(() -> warmUp(classPair), executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored ->
+        {
+            List<WarmUpReport.Entry> entries = new ArrayList<>(futures.size());
+            for (CompletableFuture<WarmUpReport.Entry> future : futures)
+            {
+                entries.add(future.join());
+            }
+            WarmUpReport report = new WarmUpReport(entries, System.nanoTime() - start);
+            LOGGER.info("[BeanUtils] warm up finished : {}", report);
+            for (WarmUpReport.Entry failure : report.getFailures())
+            {
+                LOGGER.warn("[BeanUtils] failed to warm up class pair : {}", failure.getClassPair(), failure.getFailure());
+            }
+            return report;
+        });
+    }
+
+    /**
+     * <p>预热一个class pair</p>
+     *
+     * @param classPair class pair
+     * @return 预热结果
+     */
+    private static WarmUpReport.Entry warmUp(ClassPair classPair)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            BeanCopiers.get(classPair.getSourceClass(), classPair.getTargetClass());
+            BeanInstantiators.get(classPair.getTargetClass());
+            return new WarmUpReport.Entry(classPair, System.nanoTime() - start, null);
+        }
+        catch (RuntimeException | LinkageError e)
+        {
+            return new WarmUpReport.Entry(classPair, System.nanoTime() - start, e);
+        }
+    }
+
+    /**
+     * <p>扫描包(包括子包)中的@BeanMapper接口，从它们的方法签名中得到class pair</p>
+     *
+     * @param packageName 包名
+     * @param classLoader 加载类的ClassLoader
+     * @return class pair
+     */
+    static Set<ClassPair> scanBeanMappers(String packageName, ClassLoader classLoader)
+    {
+        Set<ClassPair> classPairs = new LinkedHashSet<>();
+        String path = packageName.replace('.', '/');
+        try
+        {
+            Enumeration<URL> resources = classLoader.getResources(path);
+            while (resources.hasMoreElements())
+            {
+                URL resource = resources.nextElement();
+                List<String> classNames = new ArrayList<>();
+                if ("file".equals(resource.getProtocol()))
+                {
+                    collectClassNames(new File(URLDecoder.decode(resource.getFile(), StandardCharsets.UTF_8.name())), packageName, classNames);
+                }
+                else if ("jar".equals(resource.getProtocol()))
+                {
+                    collectClassNames(((JarURLConnection) resource.openConnection()).getJarFile(), path, classNames);
+                }
+                for (String className : classNames)
+                {
+                    collectClassPairs(className, classLoader, classPairs);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("can not scan package : [" + packageName + "]", e);
+        }
+        return classPairs;
+    }
+
+    private static void collectClassNames(File directory, String packageName, List<String> classNames)
+    {
+        File[] files = directory.listFiles();
+        if (files == null)
+        {
+            return;
+        }
+        for (File file : files)
+        {
+            String name = packageName.isEmpty() ? file.getName() : packageName + "." + file.getName();
+            if (file.isDirectory())
+            {
+                collectClassNames(file, name, classNames);
+            }
+            else if (name.endsWith(CLASS_SUFFIX))
+            {
+                classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()));
+            }
+        }
+    }
+
+    private static void collectClassNames(JarFile jarFile, String path, List<String> classNames)
+    {
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements())
+        {
+            String name = entries.nextElement().getName();
+            if ((path.isEmpty() || name.startsWith(path + "/")) && name.endsWith(CLASS_SUFFIX))
+            {
+                classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+            }
+        }
+    }
+
+    /**
+     * <p>如果类是@BeanMapper接口，收集它的方法声明的class pair</p>
+     *
+     * @param className   类名
+     * @param classLoader 加载类的ClassLoader
+     * @param classPairs  class pair
+     */
+    private static void collectClassPairs(String className, ClassLoader classLoader, Set<ClassPair> classPairs)
+    {
+        Class<?> clazz;
+        try
+        {
+            clazz = Class.forName(className, false, classLoader);
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            LOGGER.debug("[BeanUtils] skip class : [{}] when scanning @BeanMapper : {}", className, e.toString());
+            return;
+        }
+        if (!clazz.isInterface() || !clazz.isAnnotationPresent(BeanMapper.class))
+        {
+            return;
+        }
+        for (Method method : clazz.getMethods())
+        {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers()))
+            {
+                continue;
+            }
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 1 && !method.getReturnType().isPrimitive())
+            {
+                classPairs.add(ClassPair.of(parameterTypes[0], method.getReturnType()));
+            }
+            else if (parameterTypes.length == 2 && method.getReturnType() == void.class)
+            {
+                classPairs.add(ClassPair.of(parameterTypes[0], parameterTypes[1]));
+            }
+        }
+    }
+}
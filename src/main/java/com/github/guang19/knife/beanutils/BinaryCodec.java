@@ -0,0 +1,672 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * bean的紧凑二进制编码。每个Class只解析一次属性，按属性名的顺序(schema顺序)依次编码可读且可写的属性，
+ * 编码中不包含属性名:
+ * boolean、byte为1个字节；short、int、char、long为zigzag varint；float、double为定长的大端字节；
+ * 包装类型与嵌套的bean先写1个字节表示是否为null；String与byte[]写varint(长度 + 1)后写UTF-8字节或原始字节，0表示null；
+ * 枚举写varint(ordinal + 1)，0表示null。
+ * 嵌套的bean属性必须有public默认构造器，其他类型的属性不编码。
+ *
+ * 顶层的bean前写4个字节的schema指纹(属性名与类型的哈希，包含嵌套的bean的schema)，读取时指纹不同则抛出异常，
+ * 所以两端的Class以及嵌套的Class需要有相同的属性；枚举按ordinal编码，两端的常量顺序也需要相同。
+ * 对象图按树编码，不记录引用，嵌套超过{@link #MAX_DEPTH}层(例如对象图中有环)时抛出异常。
+ * 基本类型的属性通过(Object)int、(Object)long等MethodHandle读写，不会装箱，编码时不使用反射。
+ * 可以读写heap、direct以及memory-mapped的ByteBuffer，不受ByteBuffer字节序的影响。
+ * </p>
+ */
+final class BinaryCodec
+{
+    //Class -> 编码器
+    private static final ClassValue<BinaryCodec> codecCache = new ClassValue<BinaryCodec>()
+    {
+        @Override
+        protected BinaryCodec computeValue(Class<?> type)
+        {
+            return new BinaryCodec(type);
+        }
+    };
+
+    //(Object)Object
+    private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    //(Object, Object)void
+    private static final MethodType WRITE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    //嵌套的bean的最大层数
+    static final int MAX_DEPTH = 64;
+
+    //每个线程复用的编码缓冲区
+    private static final ThreadLocal<ByteBuffer> reusableBuffer = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+
+    //bean Class
+    private final Class<?> beanClass;
+
+    //bean的实例化器
+    private final BeanInstantiator instantiator;
+
+    //编码的属性，按属性名排序
+    private final Field[] fields;
+
+    //schema指纹
+    private final int fingerprint;
+
+    private BinaryCodec(Class<?> beanClass)
+    {
+        this.beanClass = beanClass;
+        this.instantiator = BeanInstantiators.get(beanClass);
+        List<Field> fields = new ArrayList<>();
+        for (BeanProperty property : BeanProperties.of(beanClass).getProperties())
+        {
+            Kind kind = kindOf(property);
+            if (kind != null)
+            {
+                fields.add(new Field(kind, property));
+            }
+        }
+        this.fields = fields.toArray(new Field[0]);
+        this.fingerprint = fingerprint(beanClass, new ArrayList<>());
+    }
+
+    /**
+     * @param property 属性
+     * @return 属性的编码方式，不编码时返回null
+     */
+    private static Kind kindOf(BeanProperty property)
+    {
+        if (!property.isReadable() || !property.isWritable() || property.getReadType() != property.getWriteType())
+        {
+            return null;
+        }
+        return Kind.of(property.getReadType());
+    }
+
+    /**
+     * <p>计算schema指纹: 属性名与类型名的哈希，嵌套的bean的指纹也计算在内。
+     * 不通过{@link #of(Class)}获取嵌套的编码器，避免在ClassValue计算中递归；
+     * 嵌套路径上已经出现的Class(自引用或相互引用的类型)只计算它在路径中的位置。</p>
+     *
+     * @param beanClass bean Class
+     * @param path      从顶层到beanClass的嵌套路径，不包括beanClass
+     * @return schema指纹
+     */
+    private static int fingerprint(Class<?> beanClass, List<Class<?>> path)
+    {
+        path.add(beanClass);
+        int fingerprint = 1;
+        for (BeanProperty property : BeanProperties.of(beanClass).getProperties())
+        {
+            Kind kind = kindOf(property);
+            if (kind == null)
+            {
+                continue;
+            }
+            Class<?> type = property.getReadType();
+            fingerprint = 31 * (31 * fingerprint + property.getName().hashCode()) + type.getName().hashCode();
+            if (kind == Kind.BEAN)
+            {
+                int index = path.indexOf(type);
+                fingerprint = 31 * fingerprint + (index >= 0 ? index : fingerprint(type, path));
+            }
+        }
+        path.remove(path.size() - 1);
+        return fingerprint;
+    }
+
+    /**
+     * @param beanClass bean Class
+     * @return 已缓存的编码器
+     */
+    static BinaryCodec of(Class<?> beanClass)
+    {
+        return codecCache.get(beanClass);
+    }
+
+    /**
+     * <p>编码bean，从buffer的position开始写入</p>
+     *
+     * @param bean   bean
+     * @param buffer buffer
+     * @throws BufferOverflowException buffer的剩余空间不足
+     */
+    void write(Object bean, ByteBuffer buffer)
+    {
+        writeFixed32(buffer, fingerprint);
+        try
+        {
+            writeFields(bean, buffer, 0);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * <p>编码bean，返回编码后的字节，编码时使用当前线程复用的缓冲区</p>
+     *
+     * @param bean bean
+     * @return 编码后的字节
+     */
+    byte[] toBytes(Object bean)
+    {
+        ByteBuffer buffer = reusableBuffer.get();
+        while (true)
+        {
+            buffer.clear();
+            try
+            {
+                write(bean, buffer);
+                byte[] bytes = new byte[buffer.position()];
+                buffer.flip();
+                buffer.get(bytes);
+                return bytes;
+            }
+            catch (BufferOverflowException e)
+            {
+                buffer = ByteBuffer.allocate(buffer.capacity() << 1);
+                reusableBuffer.set(buffer);
+            }
+        }
+    }
+
+    /**
+     * <p>解码bean，从buffer的position开始读取</p>
+     *
+     * @param buffer buffer
+     * @return bean
+     * @throws IllegalStateException schema指纹不同，或者bean不能被创建
+     */
+    Object read(ByteBuffer buffer)
+    {
+        int actual = readFixed32(buffer);
+        if (actual != fingerprint)
+        {
+            throw new IllegalStateException("binary schema of class type : [" + beanClass.getName() + "] does not match, expected fingerprint : [" +
+                    fingerprint + "], actual : [" + actual + "]");
+        }
+        try
+        {
+            return readFields(buffer, 0);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeFields(Object bean, ByteBuffer buffer, int depth) throws Throwable
+    {
+        checkDepth(depth);
+        for (Field field : fields)
+        {
+            field.write(bean, buffer, depth);
+        }
+    }
+
+    private Object readFields(ByteBuffer buffer, int depth) throws Throwable
+    {
+        checkDepth(depth);
+        if (instantiator == null)
+        {
+            throw new IllegalStateException("class type : [" + beanClass.getName() + "] has no public default constructor");
+        }
+        Object bean = instantiator.newInstance();
+        for (Field field : fields)
+        {
+            field.read(bean, buffer, depth);
+        }
+        return bean;
+    }
+
+    /**
+     * <p>检查嵌套的层数，对象图中有环时在栈溢出之前失败</p>
+     */
+    private void checkDepth(int depth)
+    {
+        if (depth > MAX_DEPTH)
+        {
+            throw new IllegalStateException("nesting depth of class type : [" + beanClass.getName() + "] exceeds " + MAX_DEPTH +
+                    ", the object graph may contain a cycle");
+        }
+    }
+
+    static void writeVarInt(ByteBuffer buffer, int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVarInt(ByteBuffer buffer)
+    {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7)
+        {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+            {
+                return value;
+            }
+        }
+        throw new IllegalStateException("malformed varint");
+    }
+
+    static void writeVarLong(ByteBuffer buffer, long value)
+    {
+        while ((value & ~0x7FL) != 0L)
+        {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer)
+    {
+        long value = 0L;
+        for (int shift = 0; shift < 70; shift += 7)
+        {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+            {
+                return value;
+            }
+        }
+        throw new IllegalStateException("malformed varint");
+    }
+
+    private static void writeFixed32(ByteBuffer buffer, int value)
+    {
+        buffer.putInt(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value));
+    }
+
+    private static int readFixed32(ByteBuffer buffer)
+    {
+        int value = buffer.getInt();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    private static void writeFixed64(ByteBuffer buffer, long value)
+    {
+        buffer.putLong(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+    }
+
+    private static long readFixed64(ByteBuffer buffer)
+    {
+        long value = buffer.getLong();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    /**
+     * <p>写入String: varint(UTF-8长度 + 1)与UTF-8字节，不创建中间的byte[]</p>
+     */
+    private static void writeString(ByteBuffer buffer, String value)
+    {
+        int length = value.length();
+        int utf8Length = length;
+        for (int i = 0; i < length; ++i)
+        {
+            char c = value.charAt(i);
+            if (c >= 0x80)
+            {
+                utf8Length = -1;
+                break;
+            }
+        }
+        if (utf8Length < 0)
+        {
+            //非ASCII字符串由JDK编码，正确处理代理对
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(buffer, bytes.length + 1);
+            buffer.put(bytes);
+            return;
+        }
+        writeVarInt(buffer, length + 1);
+        for (int i = 0; i < length; ++i)
+        {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private static String readString(ByteBuffer buffer)
+    {
+        int length = readVarInt(buffer) - 1;
+        if (length < 0)
+        {
+            return null;
+        }
+        if (buffer.hasArray())
+        {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int zigzag(int value)
+    {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long zigzag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+
+    /**
+     * <p>属性的编码方式</p>
+     */
+    private enum Kind
+    {
+        BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, STRING, BYTES, ENUM, BEAN;
+
+        /**
+         * @param type 属性类型
+         * @return 编码方式，不支持时返回null
+         */
+        private static Kind of(Class<?> type)
+        {
+            Class<?> primitive = TypeConverterRegistry.unwrap(type);
+            if (primitive != null)
+            {
+                return valueOf(primitive.getName().toUpperCase(Locale.ROOT));
+            }
+            if (type == String.class)
+            {
+                return STRING;
+            }
+            if (type == byte[].class)
+            {
+                return BYTES;
+            }
+            if (type.isEnum())
+            {
+                return ENUM;
+            }
+            //嵌套的bean: 非JDK的具体类，有public默认构造器
+            if (!type.isArray() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers()) &&
+                    !type.getName().startsWith("java.") && BeanInstantiators.get(type) != null)
+            {
+                return BEAN;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * <p>一个编码的属性</p>
+     */
+    private static final class Field
+    {
+        //编码方式
+        private final Kind kind;
+
+        //属性类型
+        private final Class<?> type;
+
+        //属性是否是基本类型
+        private final boolean primitive;
+
+        //基本类型: (Object)int、(Object)long、(Object)float或(Object)double；其他: (Object)Object
+        private final MethodHandle reader;
+
+        //基本类型: (Object, int)void、(Object, long)void、(Object, float)void或(Object, double)void；其他: (Object, Object)void
+        private final MethodHandle writer;
+
+        //枚举常量
+        private final Object[] constants;
+
+        private Field(Kind kind, BeanProperty property)
+        {
+            this.kind = kind;
+            this.type = property.getReadType();
+            this.primitive = type.isPrimitive();
+            if (primitive)
+            {
+                Class<?> valueType = kind == Kind.LONG ? long.class : kind == Kind.FLOAT ? float.class :
+                        kind == Kind.DOUBLE ? double.class : int.class;
+                //boolean、byte、short、char与int之间的转换需要explicitCastArguments
+                this.reader = MethodHandles.explicitCastArguments(property.getReader(), MethodType.methodType(valueType, Object.class));
+                this.writer = MethodHandles.explicitCastArguments(property.getWriter(),
+                        MethodType.methodType(void.class, Object.class, valueType));
+            }
+            else
+            {
+                this.reader = property.getReader().asType(READ_TYPE);
+                this.writer = property.getWriter().asType(WRITE_TYPE);
+            }
+            this.constants = kind == Kind.ENUM ? type.getEnumConstants() : null;
+        }
+
+        private void write(Object bean, ByteBuffer buffer, int depth) throws Throwable
+        {
+            if (primitive)
+            {
+                switch (kind)
+                {
+                    case LONG:
+                        writeVarLong(buffer, zigzag((long) reader.invokeExact(bean)));
+                        break;
+                    case FLOAT:
+                        writeFixed32(buffer, Float.floatToRawIntBits((float) reader.invokeExact(bean)));
+                        break;
+                    case DOUBLE:
+                        writeFixed64(buffer, Double.doubleToRawLongBits((double) reader.invokeExact(bean)));
+                        break;
+                    default:
+                        writeInt(buffer, (int) reader.invokeExact(bean));
+                }
+                return;
+            }
+            Object value = (Object) reader.invokeExact(bean);
+            switch (kind)
+            {
+                case STRING:
+                    if (value == null)
+                    {
+                        buffer.put((byte) 0);
+                    }
+                    else
+                    {
+                        writeString(buffer, (String) value);
+                    }
+                    return;
+                case BYTES:
+                    if (value == null)
+                    {
+                        buffer.put((byte) 0);
+                    }
+                    else
+                    {
+                        byte[] bytes = (byte[]) value;
+                        writeVarInt(buffer, bytes.length + 1);
+                        buffer.put(bytes);
+                    }
+                    return;
+                case ENUM:
+                    writeVarInt(buffer, value == null ? 0 : ((Enum<?>) value).ordinal() + 1);
+                    return;
+                default:
+            }
+            if (value == null)
+            {
+                buffer.put((byte) 0);
+                return;
+            }
+            buffer.put((byte) 1);
+            switch (kind)
+            {
+                case LONG:
+                    writeVarLong(buffer, zigzag((Long) value));
+                    break;
+                case FLOAT:
+                    writeFixed32(buffer, Float.floatToRawIntBits((Float) value));
+                    break;
+                case DOUBLE:
+                    writeFixed64(buffer, Double.doubleToRawLongBits((Double) value));
+                    break;
+                case BOOLEAN:
+                    buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+                    break;
+                case CHAR:
+                    writeVarInt(buffer, (Character) value);
+                    break;
+                case BEAN:
+                    of(type).writeFields(value, buffer, depth + 1);
+                    break;
+                default:
+                    writeInt(buffer, ((Number) value).intValue());
+            }
+        }
+
+        /**
+         * <p>写入boolean、byte、short、char、int</p>
+         */
+        private void writeInt(ByteBuffer buffer, int value)
+        {
+            switch (kind)
+            {
+                case BOOLEAN:
+                case BYTE:
+                    buffer.put((byte) value);
+                    break;
+                case CHAR:
+                    writeVarInt(buffer, value);
+                    break;
+                default:
+                    writeVarInt(buffer, zigzag(value));
+            }
+        }
+
+        private int readInt(ByteBuffer buffer)
+        {
+            switch (kind)
+            {
+                case BOOLEAN:
+                case BYTE:
+                    return buffer.get();
+                case CHAR:
+                    return readVarInt(buffer);
+                default:
+                    return unzigzag(readVarInt(buffer));
+            }
+        }
+
+        private void read(Object bean, ByteBuffer buffer, int depth) throws Throwable
+        {
+            if (primitive)
+            {
+                switch (kind)
+                {
+                    case LONG:
+                        writer.invokeExact(bean, unzigzag(readVarLong(buffer)));
+                        break;
+                    case FLOAT:
+                        writer.invokeExact(bean, Float.intBitsToFloat(readFixed32(buffer)));
+                        break;
+                    case DOUBLE:
+                        writer.invokeExact(bean, Double.longBitsToDouble(readFixed64(buffer)));
+                        break;
+                    default:
+                        writer.invokeExact(bean, readInt(buffer));
+                }
+                return;
+            }
+            Object value;
+            switch (kind)
+            {
+                case STRING:
+                    value = readString(buffer);
+                    break;
+                case BYTES:
+                    int length = readVarInt(buffer) - 1;
+                    if (length < 0)
+                    {
+                        value = null;
+                    }
+                    else
+                    {
+                        byte[] bytes = new byte[length];
+                        buffer.get(bytes);
+                        value = bytes;
+                    }
+                    break;
+                case ENUM:
+                    int ordinal = readVarInt(buffer) - 1;
+                    value = ordinal < 0 ? null : constants[ordinal];
+                    break;
+                default:
+                    value = buffer.get() == 0 ? null : readBoxed(buffer, depth);
+            }
+            //新创建的bean中的属性可能有非null的默认值，null也需要写入
+            writer.invokeExact(bean, value);
+        }
+
+        private Object readBoxed(ByteBuffer buffer, int depth) throws Throwable
+        {
+            switch (kind)
+            {
+                case LONG:
+                    return unzigzag(readVarLong(buffer));
+                case FLOAT:
+                    return Float.intBitsToFloat(readFixed32(buffer));
+                case DOUBLE:
+                    return Double.longBitsToDouble(readFixed64(buffer));
+                case BOOLEAN:
+                    return buffer.get() != 0;
+                case BYTE:
+                    return buffer.get();
+                case SHORT:
+                    return (short) unzigzag(readVarInt(buffer));
+                case CHAR:
+                    return (char) readVarInt(buffer);
+                case BEAN:
+                    return of(type).readFields(buffer, depth + 1);
+                default:
+                    return unzigzag(readVarInt(buffer));
+            }
+        }
+    }
+}
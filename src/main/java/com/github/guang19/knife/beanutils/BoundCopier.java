@@ -0,0 +1,20 @@
+package com.github.guang19.knife.beanutils;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 已确定源Class、目标Class与转换规则的拷贝器。
+ * 由{@link CopyEngine}为每个class pair创建，创建后会被缓存并被多个线程同时使用。
+ * </p>
+ */
+public interface BoundCopier
+{
+    /**
+     * 把源对象的属性拷贝到目标对象
+     *
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     */
+    public abstract void copy(Object sourceObj, Object targetObj);
+}
@@ -0,0 +1,78 @@
+package com.github.guang19.knife.beanutils;
+
+import net.sf.cglib.beans.BeanCopier;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 使用cglib的BeanCopier的拷贝引擎。
+ * cglib通过反射调用ClassLoader.defineClass定义生成的类，在较新的JDK上可能被模块系统拒绝，
+ * 所以第一次判断是否可用时会试着生成一个BeanCopier。
+ * </p>
+ */
+final class CglibCopyEngine implements CopyEngine
+{
+    @Override
+    public String getName()
+    {
+        return "cglib";
+    }
+
+    @Override
+    public boolean isSupported()
+    {
+        return Probe.SUPPORTED;
+    }
+
+    @Override
+    public BoundCopier createCopier(Class<?> sourceClass, Class<?> targetClass)
+    {
+        BeanCopier beanCopier = BeanCopier.create(sourceClass, targetClass, false);
+        return (sourceObj, targetObj) -> beanCopier.copy(sourceObj, targetObj, null);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getName();
+    }
+
+    /**
+     * <p>用于判断cglib是否可以在当前运行时生成类</p>
+     */
+    public static final class Probe
+    {
+        //cglib是否可用
+        private static final boolean SUPPORTED = probe();
+
+        //探测用的属性
+        private int value;
+
+        public int getValue()
+        {
+            return value;
+        }
+
+        public void setValue(int value)
+        {
+            this.value = value;
+        }
+
+        private static boolean probe()
+        {
+            try
+            {
+                Probe target = new Probe();
+                Probe source = new Probe();
+                source.setValue(1);
+                BeanCopier.create(Probe.class, Probe.class, false).copy(source, target, null);
+                return target.getValue() == 1;
+            }
+            catch (RuntimeException | LinkageError e)
+            {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.Objects;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>(源Class, 目标Class)</p>
+ */
+public final class ClassPair
+{
+    //源Class
+    private final Class<?> sourceClass;
+
+    //目标Class
+    private final Class<?> targetClass;
+
+    private ClassPair(Class<?> sourceClass, Class<?> targetClass)
+    {
+        this.sourceClass = Objects.requireNonNull(sourceClass, "source class can not be null");
+        this.targetClass = Objects.requireNonNull(targetClass, "target class can not be null");
+    }
+
+    /**
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return class pair
+     */
+    public static ClassPair of(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return new ClassPair(sourceClass, targetClass);
+    }
+
+    public Class<?> getSourceClass()
+    {
+        return sourceClass;
+    }
+
+    public Class<?> getTargetClass()
+    {
+        return targetClass;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof ClassPair))
+        {
+            return false;
+        }
+        ClassPair classPair = (ClassPair) o;
+        return sourceClass == classPair.sourceClass && targetClass == classPair.targetClass;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * sourceClass.hashCode() + targetClass.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[" + sourceClass.getName() + " -> " + targetClass.getName() + "]";
+    }
+}
@@ -0,0 +1,683 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 以(源Class, 目标Class)为key的缓存。
+ * 使用{@link ClassValue}把缓存的值挂在class pair中生命周期较短的Class上：
+ * 目标Class的ClassLoader是源Class的ClassLoader的子孙时挂在目标Class上，否则挂在源Class上，
+ * 查找已缓存的值时不会创建任何对象。
+ * 缓存的值随这个Class一起被回收，不会由静态字段或者父ClassLoader中的Class强引用而导致子ClassLoader无法卸载。
+ *
+ * 同一个class pair的值只会被创建一次：第一个线程负责创建，
+ * 并发的其他线程等待它的结果，而不是重复创建(single-flight)。
+ *
+ * 缓存的大小与淘汰方式由全局的{@link CopierCachePolicy}决定，
+ * 被策略淘汰的class pair会留下一个只弱引用Class的标记，再次创建时记为一次重新生成；
+ * 标记最多保留与缓存大小相同的数量，超出时丢弃最早的标记，此后再次创建不再记为重新生成。
+ * </p>
+ */
+class ClassPairCache<V>
+{
+    //当前的策略
+    private static volatile CopierCachePolicy policy = CopierCachePolicy.unbounded();
+
+    //所有的缓存，用于应用策略与按ClassLoader淘汰
+    private static final Set<ClassPairCache<?>> instances = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    //源Class -> (目标Class -> Entry、正在进行的Generation或者被淘汰的Handle)
+    private final ClassValue<ConcurrentHashMap<Class<?>, Object>> bySource = new PairClassValue();
+
+    //目标Class -> (源Class -> Entry或者被淘汰的Handle)，只保存挂在目标Class上的值
+    private final ClassValue<ConcurrentHashMap<Class<?>, Object>> byTarget = new PairClassValue();
+
+    //是否有挂在目标Class上的值，没有时不必查找byTarget
+    private volatile boolean hasTargetOwned;
+
+    //所有缓存的值的Handle
+    private final Set<Handle> handles = ConcurrentHashMap.newKeySet();
+
+    //被淘汰的标记的Handle，按淘汰的顺序，由this保护
+    private final ArrayDeque<Handle> tombstones = new ArrayDeque<>();
+
+    //缓存的值的数量
+    private final AtomicInteger size = new AtomicInteger();
+
+    //LRU的时钟，每创建一个值加2
+    private final AtomicLong clock = new AtomicLong();
+
+    ClassPairCache()
+    {
+        instances.add(this);
+    }
+
+    /**
+     * <p>获取已缓存的值，如果不存在，则使用factory创建并缓存。</p>
+     * <p>factory抛出的异常会抛给所有等待的线程，且不会被缓存，下一次调用会重新创建。</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param factory     创建缓存值的工厂
+     * @return 缓存的值
+     */
+    @SuppressWarnings("unchecked")
+    V get(Class<?> sourceClass, Class<?> targetClass, BiFunction<Class<?>, Class<?>, V> factory)
+    {
+        ConcurrentHashMap<Class<?>, Object> sourceCache = bySource.get(sourceClass);
+        Object value = sourceCache.get(targetClass);
+        if (value == null && hasTargetOwned)
+        {
+            value = byTarget.get(targetClass).get(sourceClass);
+        }
+        if (value instanceof Entry)
+        {
+            return hit((Entry<V>) value);
+        }
+        return generate(sourceCache, sourceClass, targetClass, factory);
+    }
+
+    /**
+     * <p>淘汰class pair缓存的值</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     */
+    void evict(Class<?> sourceClass, Class<?> targetClass)
+    {
+        Object value = bySource.get(sourceClass).get(targetClass);
+        if (value == null && hasTargetOwned)
+        {
+            value = byTarget.get(targetClass).get(sourceClass);
+        }
+        if (value instanceof Entry)
+        {
+            remove(((Entry<?>) value).handle);
+        }
+        else if (value instanceof Handle)
+        {
+            remove((Handle) value);
+        }
+    }
+
+    /**
+     * <p>淘汰源Class或者目标Class由loader加载的所有值</p>
+     *
+     * @param loader ClassLoader，null表示启动类加载器
+     */
+    void evict(ClassLoader loader)
+    {
+        for (Handle handle : handles)
+        {
+            if (handle.isStale() || handle.isLoadedBy(loader))
+            {
+                remove(handle);
+            }
+        }
+        synchronized (this)
+        {
+            for (Iterator<Handle> iterator = tombstones.iterator(); iterator.hasNext(); )
+            {
+                Handle handle = iterator.next();
+                if (handle.state == Handle.REMOVED || handle.isStale() || handle.isLoadedBy(loader))
+                {
+                    iterator.remove();
+                    remove(handle);
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>淘汰所有的值与被淘汰的标记</p>
+     */
+    void clear()
+    {
+        for (Handle handle : handles)
+        {
+            remove(handle);
+        }
+        synchronized (this)
+        {
+            for (Handle handle : tombstones)
+            {
+                remove(handle);
+            }
+            tombstones.clear();
+        }
+    }
+
+    /**
+     * @return 缓存的值的数量
+     */
+    int size()
+    {
+        return size.get();
+    }
+
+    /**
+     * @return 当前的策略
+     */
+    static CopierCachePolicy getPolicy()
+    {
+        return policy;
+    }
+
+    /**
+     * <p>设置所有缓存的策略，缓存的值超过新的大小时立即淘汰</p>
+     *
+     * @param cachePolicy 策略
+     */
+    static void setPolicy(CopierCachePolicy cachePolicy)
+    {
+        policy = Objects.requireNonNull(cachePolicy, "copier cache policy can not be null");
+        if (cachePolicy.isBounded())
+        {
+            for (ClassPairCache<?> cache : instances())
+            {
+                cache.evictExcess(cachePolicy, null);
+            }
+        }
+    }
+
+    /**
+     * <p>从所有缓存中淘汰class pair的值</p>
+     */
+    static void evictAll(Class<?> sourceClass, Class<?> targetClass)
+    {
+        for (ClassPairCache<?> cache : instances())
+        {
+            cache.evict(sourceClass, targetClass);
+        }
+    }
+
+    /**
+     * <p>从所有缓存中淘汰源Class或者目标Class由loader加载的值</p>
+     */
+    static void evictAll(ClassLoader loader)
+    {
+        for (ClassPairCache<?> cache : instances())
+        {
+            cache.evict(loader);
+        }
+    }
+
+    /**
+     * <p>清空所有缓存</p>
+     */
+    static void clearAll()
+    {
+        for (ClassPairCache<?> cache : instances())
+        {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return 所有缓存中的值的数量
+     */
+    static int totalSize()
+    {
+        int total = 0;
+        for (ClassPairCache<?> cache : instances())
+        {
+            total += cache.size();
+        }
+        return total;
+    }
+
+    private static List<ClassPairCache<?>> instances()
+    {
+        synchronized (instances)
+        {
+            return new ArrayList<>(instances);
+        }
+    }
+
+    /**
+     * <p>命中缓存的值，限制大小时记录访问</p>
+     */
+    private V hit(Entry<V> entry)
+    {
+        CopierCachePolicy current = policy;
+        if (current.isBounded())
+        {
+            //访问时间比上一次创建的值新，比下一次创建的值旧
+            entry.handle.touch(current.isLfu(), clock.get() + 1);
+        }
+        if (BeanUtilsMetrics.enabled)
+        {
+            BeanUtilsMetrics.recordCacheHit();
+        }
+        return entry.value;
+    }
+
+    /**
+     * <p>创建缓存值，或者等待正在创建的线程</p>
+     *
+     * @param sourceCache 源Class对应的缓存
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param factory     创建缓存值的工厂
+     * @return 缓存的值
+     */
+    @SuppressWarnings("unchecked")
+    private V generate(ConcurrentHashMap<Class<?>, Object> sourceCache, Class<?> sourceClass, Class<?> targetClass,
+                       BiFunction<Class<?>, Class<?>, V> factory)
+    {
+        Generation<V> generation = new Generation<>();
+        boolean regenerated = false;
+        for (; ; )
+        {
+            Object value = sourceCache.get(targetClass);
+            if (value == null)
+            {
+                Object owned = hasTargetOwned ? byTarget.get(targetClass).get(sourceClass) : null;
+                if (owned instanceof Entry)
+                {
+                    return hit((Entry<V>) owned);
+                }
+                regenerated |= owned instanceof Handle;
+                if (sourceCache.putIfAbsent(targetClass, generation) == null)
+                {
+                    break;
+                }
+            }
+            else if (value instanceof Entry)
+            {
+                return hit((Entry<V>) value);
+            }
+            else if (value instanceof Generation)
+            {
+                return ((Generation<V>) value).await(sourceClass, targetClass);
+            }
+            else if (sourceCache.replace(targetClass, value, generation))
+            {
+                //替换被淘汰的标记
+                discard((Handle) value);
+                regenerated = true;
+                break;
+            }
+        }
+        return install(sourceCache, sourceClass, targetClass, factory, generation, regenerated);
+    }
+
+    /**
+     * <p>由持有Generation的线程创建并缓存值</p>
+     */
+    @SuppressWarnings("unchecked")
+    private V install(ConcurrentHashMap<Class<?>, Object> sourceCache, Class<?> sourceClass, Class<?> targetClass,
+                      BiFunction<Class<?>, Class<?>, V> factory, Generation<V> generation, boolean regenerated)
+    {
+        //占位前可能有线程刚把值挂在了目标Class上
+        Object owned = hasTargetOwned ? byTarget.get(targetClass).get(sourceClass) : null;
+        if (owned instanceof Entry)
+        {
+            sourceCache.remove(targetClass, generation);
+            generation.future.complete(((Entry<V>) owned).value);
+            return hit((Entry<V>) owned);
+        }
+        V value;
+        long start = System.nanoTime();
+        try
+        {
+            value = factory.apply(sourceClass, targetClass);
+        }
+        catch (RuntimeException | Error e)
+        {
+            sourceCache.remove(targetClass, generation);
+            generation.future.completeExceptionally(e);
+            throw e;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        boolean ownedByTarget = isOwnedByTarget(sourceClass, targetClass);
+        Handle handle = new Handle(sourceClass, targetClass, ownedByTarget, clock.addAndGet(2));
+        Entry<V> entry = new Entry<>(value, handle);
+        handles.add(handle);
+        size.incrementAndGet();
+        if (ownedByTarget)
+        {
+            hasTargetOwned = true;
+            Object previous = byTarget.get(targetClass).put(sourceClass, entry);
+            if (previous instanceof Handle)
+            {
+                discard((Handle) previous);
+                regenerated = true;
+            }
+            sourceCache.remove(targetClass, generation);
+        }
+        else
+        {
+            sourceCache.replace(targetClass, generation, entry);
+        }
+        generation.future.complete(value);
+        if (BeanUtilsMetrics.enabled)
+        {
+            BeanUtilsMetrics.recordGeneration(sourceClass, targetClass, elapsedNanos, regenerated);
+        }
+        CopierCachePolicy current = policy;
+        if (current.isBounded() && size.get() > current.getMaxSize())
+        {
+            evictExcess(current, handle);
+        }
+        return value;
+    }
+
+    /**
+     * <p>按策略淘汰超出大小的值，只遍历缓存的值，不遍历被淘汰的标记</p>
+     *
+     * @param cachePolicy 策略
+     * @param newest      刚创建的值，不会被淘汰，否则LFU会立即淘汰新的值
+     */
+    private synchronized void evictExcess(CopierCachePolicy cachePolicy, Handle newest)
+    {
+        while (size.get() > cachePolicy.getMaxSize())
+        {
+            Handle victim = null;
+            for (Handle handle : handles)
+            {
+                if (handle.isStale())
+                {
+                    remove(handle);
+                }
+                else if (handle != newest && handle.state == Handle.LIVE && (victim == null || handle.isColderThan(victim, cachePolicy.isLfu())))
+                {
+                    victim = handle;
+                }
+            }
+            if (victim == null)
+            {
+                return;
+            }
+            evict(victim, cachePolicy.getMaxSize());
+        }
+    }
+
+    /**
+     * <p>按策略淘汰一个值，留下被淘汰的标记，标记超过maxTombstones个时丢弃最早的标记</p>
+     */
+    private void evict(Handle handle, int maxTombstones)
+    {
+        if (!handle.transit(Handle.LIVE, Handle.EVICTED))
+        {
+            return;
+        }
+        size.decrementAndGet();
+        handles.remove(handle);
+        Class<?> sourceClass = handle.source.get();
+        Class<?> targetClass = handle.target.get();
+        if (sourceClass == null || targetClass == null)
+        {
+            discard(handle);
+            return;
+        }
+        ConcurrentHashMap<Class<?>, Object> cache = handle.ownerCache(this, sourceClass, targetClass);
+        Class<?> key = handle.ownedByTarget ? sourceClass : targetClass;
+        Object value = cache.get(key);
+        if (value instanceof Entry && ((Entry<?>) value).handle == handle && cache.replace(key, value, handle))
+        {
+            tombstones.add(handle);
+            while (tombstones.size() > maxTombstones)
+            {
+                //已经被重新生成替换的标记不在缓存中，remove什么也不做
+                remove(tombstones.poll());
+            }
+        }
+        else
+        {
+            discard(handle);
+        }
+        if (BeanUtilsMetrics.enabled)
+        {
+            BeanUtilsMetrics.recordEviction(sourceClass, targetClass);
+        }
+    }
+
+    /**
+     * <p>移除一个值或者被淘汰的标记，不留下标记</p>
+     */
+    private void remove(Handle handle)
+    {
+        int previous = handle.discard();
+        if (previous == Handle.REMOVED)
+        {
+            return;
+        }
+        if (previous == Handle.LIVE)
+        {
+            size.decrementAndGet();
+        }
+        handles.remove(handle);
+        Class<?> sourceClass = handle.source.get();
+        Class<?> targetClass = handle.target.get();
+        if (sourceClass != null && targetClass != null)
+        {
+            ConcurrentHashMap<Class<?>, Object> cache = handle.ownerCache(this, sourceClass, targetClass);
+            Class<?> key = handle.ownedByTarget ? sourceClass : targetClass;
+            Object value = cache.get(key);
+            if (value == handle || (value instanceof Entry && ((Entry<?>) value).handle == handle))
+            {
+                cache.remove(key, value);
+            }
+        }
+    }
+
+    /**
+     * <p>丢弃已经不在缓存中的被淘汰的标记，tombstones中的标记在被挤出或者清空时移除</p>
+     */
+    private void discard(Handle handle)
+    {
+        handle.discard();
+        handles.remove(handle);
+    }
+
+    /**
+     * <p>目标Class的ClassLoader是否是源Class的ClassLoader的子孙，是则把值挂在目标Class上</p>
+     */
+    static boolean isOwnedByTarget(Class<?> sourceClass, Class<?> targetClass)
+    {
+        ClassLoader sourceLoader = sourceClass.getClassLoader();
+        ClassLoader targetLoader = targetClass.getClassLoader();
+        if (sourceLoader == targetLoader || targetLoader == null)
+        {
+            return false;
+        }
+        try
+        {
+            for (ClassLoader loader = targetLoader.getParent(); ; loader = loader.getParent())
+            {
+                if (loader == sourceLoader)
+                {
+                    return true;
+                }
+                if (loader == null)
+                {
+                    return false;
+                }
+            }
+        }
+        catch (SecurityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * <p>每个Class上的二级缓存</p>
+     */
+    private static final class PairClassValue extends ClassValue<ConcurrentHashMap<Class<?>, Object>>
+    {
+        @Override
+        protected ConcurrentHashMap<Class<?>, Object> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>(4);
+        }
+    }
+
+    /**
+     * <p>缓存的值</p>
+     */
+    private static final class Entry<V>
+    {
+        private final V value;
+
+        private final Handle handle;
+
+        private Entry(V value, Handle handle)
+        {
+            this.value = value;
+            this.handle = handle;
+        }
+    }
+
+    /**
+     * <p>
+     * 一个class pair在缓存中的记录，只弱引用Class，
+     * 用于枚举、淘汰缓存的值，被淘汰后作为标记留在缓存中。
+     * </p>
+     */
+    private static final class Handle
+    {
+        //缓存的值
+        private static final int LIVE = 0;
+
+        //被策略淘汰，留下了标记
+        private static final int EVICTED = 1;
+
+        //已移除
+        private static final int REMOVED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Handle> STATE = AtomicIntegerFieldUpdater.newUpdater(Handle.class, "state");
+
+        private final WeakReference<Class<?>> source;
+
+        private final WeakReference<Class<?>> target;
+
+        //值是否挂在目标Class上
+        private final boolean ownedByTarget;
+
+        private volatile int state;
+
+        //最近一次访问的时钟，不加锁
+        private long lastAccess;
+
+        //访问次数，不加锁
+        private int frequency;
+
+        private Handle(Class<?> sourceClass, Class<?> targetClass, boolean ownedByTarget, long now)
+        {
+            this.source = new WeakReference<>(sourceClass);
+            this.target = new WeakReference<>(targetClass);
+            this.ownedByTarget = ownedByTarget;
+            this.lastAccess = now;
+        }
+
+        private void touch(boolean lfu, long now)
+        {
+            if (lfu)
+            {
+                ++frequency;
+            }
+            if (lastAccess != now)
+            {
+                lastAccess = now;
+            }
+        }
+
+        private boolean isColderThan(Handle other, boolean lfu)
+        {
+            if (lfu && frequency != other.frequency)
+            {
+                return frequency < other.frequency;
+            }
+            return lastAccess < other.lastAccess;
+        }
+
+        private boolean transit(int expect, int update)
+        {
+            return STATE.compareAndSet(this, expect, update);
+        }
+
+        /**
+         * @return 移除前的状态
+         */
+        private int discard()
+        {
+            return STATE.getAndSet(this, REMOVED);
+        }
+
+        /**
+         * @return Class是否已被回收，回收时值也随之被回收
+         */
+        private boolean isStale()
+        {
+            return source.get() == null || target.get() == null;
+        }
+
+        private boolean isLoadedBy(ClassLoader loader)
+        {
+            Class<?> sourceClass = source.get();
+            Class<?> targetClass = target.get();
+            return (sourceClass != null && sourceClass.getClassLoader() == loader) ||
+                    (targetClass != null && targetClass.getClassLoader() == loader);
+        }
+
+        private ConcurrentHashMap<Class<?>, Object> ownerCache(ClassPairCache<?> cache, Class<?> sourceClass, Class<?> targetClass)
+        {
+            return ownedByTarget ? cache.byTarget.get(targetClass) : cache.bySource.get(sourceClass);
+        }
+    }
+
+    /**
+     * <p>一次正在进行的创建</p>
+     */
+    private static final class Generation<V>
+    {
+        //负责创建的线程
+        private final Thread owner = Thread.currentThread();
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        private V await(Class<?> sourceClass, Class<?> targetClass)
+        {
+            if (owner == Thread.currentThread())
+            {
+                throw new IllegalStateException("recursive generation of class pair : [" + sourceClass.getName() + "] -> [" + targetClass.getName() + "]");
+            }
+            try
+            {
+                return future.join();
+            }
+            catch (CompletionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error)
+                {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
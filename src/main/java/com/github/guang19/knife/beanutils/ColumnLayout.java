@@ -0,0 +1,375 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanColumns.Column;
+import com.github.guang19.knife.beanutils.BeanColumns.ColumnType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 一个bean Class的列布局: 哪些属性可以导出为列，以及每一列的读取与写入。
+ * 与拷贝器共享{@link BeanProperties}解析的属性，基本类型的属性通过(Object)long、(Object)int、(Object)double
+ * 的MethodHandle读写，不会装箱；包装类型的属性读取后判断null再拆箱。
+ * 每个Class只解析一次。
+ * </p>
+ */
+final class ColumnLayout
+{
+    //(Object)Object
+    private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    //(Object, Object)void
+    private static final MethodType WRITE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    //Class -> 列布局
+    private static final ClassValue<ColumnLayout> layoutCache = new ClassValue<ColumnLayout>()
+    {
+        @Override
+        protected ColumnLayout computeValue(Class<?> type)
+        {
+            return new ColumnLayout(type);
+        }
+    };
+
+    //可以导出的列，按属性名排序
+    private final List<Spec> readable = new ArrayList<>();
+
+    //列名 -> 可以导入的列
+    private final Map<String, Spec> writable = new HashMap<>();
+
+    private ColumnLayout(Class<?> beanClass)
+    {
+        for (BeanProperty property : BeanProperties.of(beanClass).getProperties())
+        {
+            Class<?> type = property.isReadable() ? property.getReadType() : property.getWriteType();
+            ColumnType columnType = columnType(type);
+            if (columnType == null)
+            {
+                continue;
+            }
+            Spec spec = new Spec(property.getName(), columnType, type, property);
+            if (property.isReadable())
+            {
+                readable.add(spec);
+            }
+            if (property.isWritable() && property.getWriteType() == type)
+            {
+                writable.put(spec.name, spec);
+            }
+        }
+    }
+
+    /**
+     * @param beanClass bean Class
+     * @return 已缓存的列布局
+     */
+    static ColumnLayout of(Class<?> beanClass)
+    {
+        return layoutCache.get(beanClass);
+    }
+
+    /**
+     * @param type 属性类型
+     * @return 列的类型，不能导出为列时返回null
+     */
+    private static ColumnType columnType(Class<?> type)
+    {
+        Class<?> primitive = TypeConverterRegistry.unwrap(type);
+        if (primitive == long.class)
+        {
+            return ColumnType.LONG;
+        }
+        if (primitive == int.class || primitive == short.class || primitive == byte.class || primitive == char.class ||
+                primitive == boolean.class)
+        {
+            return ColumnType.INT;
+        }
+        if (primitive == double.class || primitive == float.class)
+        {
+            return ColumnType.DOUBLE;
+        }
+        if (type == String.class || type.isEnum())
+        {
+            return ColumnType.STRING;
+        }
+        return null;
+    }
+
+    /**
+     * <p>把bean按列导出，所有列在一次遍历中填充</p>
+     *
+     * @param beanClass bean Class
+     * @param beans     bean，不能有null元素
+     * @param direct    是否保存在direct ByteBuffer中
+     * @return 列
+     */
+    BeanColumns export(Class<?> beanClass, List<?> beans, boolean direct)
+    {
+        int size = beans.size();
+        Column[] columns = new Column[readable.size()];
+        Map<String, Column> columnMap = new LinkedHashMap<>();
+        List<Map<String, Integer>> dictionaries = new ArrayList<>(columns.length);
+        for (int i = 0; i < columns.length; ++i)
+        {
+            Spec spec = readable.get(i);
+            columns[i] = new Column(spec.columnType, size, direct, !spec.type.isPrimitive());
+            columnMap.put(spec.name, columns[i]);
+            dictionaries.add(spec.columnType == ColumnType.STRING ? new HashMap<>() : null);
+        }
+        try
+        {
+            int row = 0;
+            for (Object bean : beans)
+            {
+                for (int i = 0; i < columns.length; ++i)
+                {
+                    readable.get(i).read(bean, columns[i], row, dictionaries.get(i));
+                }
+                ++row;
+            }
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+        return new BeanColumns(beanClass, size, direct, columnMap);
+    }
+
+    /**
+     * <p>根据列创建bean，只写入名称与类型都相同的列</p>
+     *
+     * @param columns      列
+     * @param instantiator bean的实例化器
+     * @param beanClass    bean Class
+     * @param <T>          bean Class
+     * @return bean，创建失败的行为null
+     */
+    <T> List<T> rebuild(BeanColumns columns, BeanInstantiator instantiator, Class<T> beanClass)
+    {
+        List<Spec> specs = new ArrayList<>();
+        List<Column> sources = new ArrayList<>();
+        List<Object[]> dictionaries = new ArrayList<>();
+        for (Spec spec : writable.values())
+        {
+            Column column = columns.findColumn(spec.name);
+            if (column != null && column.type == spec.columnType)
+            {
+                specs.add(spec);
+                sources.add(column);
+                dictionaries.add(column.type == ColumnType.STRING ? spec.decodeDictionary(column.dictionary) : null);
+            }
+        }
+        List<T> beans = new ArrayList<>(columns.size());
+        try
+        {
+            for (int row = 0; row < columns.size(); ++row)
+            {
+                T bean = BeanInstantiators.instantiate(instantiator, beanClass);
+                if (bean != null)
+                {
+                    for (int i = 0; i < specs.size(); ++i)
+                    {
+                        specs.get(i).write(bean, sources.get(i), row, dictionaries.get(i));
+                    }
+                }
+                beans.add(bean);
+            }
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+        return beans;
+    }
+
+    /**
+     * <p>一个属性对应的列</p>
+     */
+    private static final class Spec
+    {
+        //列名
+        private final String name;
+
+        //列的类型
+        private final ColumnType columnType;
+
+        //属性类型
+        private final Class<?> type;
+
+        //基本类型: (Object)long、(Object)int或(Object)double；包装类型、String与枚举: (Object)Object
+        private final MethodHandle reader;
+
+        //基本类型: (Object, long)void、(Object, int)void或(Object, double)void；其他: (Object, Object)void
+        private final MethodHandle writer;
+
+        private Spec(String name, ColumnType columnType, Class<?> type, BeanProperty property)
+        {
+            this.name = name;
+            this.columnType = columnType;
+            this.type = type;
+            Class<?> valueType = columnType == ColumnType.LONG ? long.class : columnType == ColumnType.DOUBLE ? double.class : int.class;
+            if (type.isPrimitive())
+            {
+                //boolean与int之间、int与short/byte/char之间的转换需要explicitCastArguments
+                this.reader = property.isReadable() ? MethodHandles.explicitCastArguments(property.getReader(),
+                        MethodType.methodType(valueType, Object.class)) : null;
+                this.writer = property.isWritable() ? MethodHandles.explicitCastArguments(property.getWriter(),
+                        MethodType.methodType(void.class, Object.class, valueType)) : null;
+            }
+            else
+            {
+                this.reader = property.isReadable() ? property.getReader().asType(READ_TYPE) : null;
+                this.writer = property.isWritable() ? property.getWriter().asType(WRITE_TYPE) : null;
+            }
+        }
+
+        private void read(Object bean, Column column, int row, Map<String, Integer> dictionary) throws Throwable
+        {
+            if (type.isPrimitive())
+            {
+                switch (columnType)
+                {
+                    case LONG:
+                        column.setLong(row, (long) reader.invokeExact(bean));
+                        break;
+                    case DOUBLE:
+                        column.setDouble(row, (double) reader.invokeExact(bean));
+                        break;
+                    default:
+                        column.setInt(row, (int) reader.invokeExact(bean));
+                }
+                return;
+            }
+            Object value = (Object) reader.invokeExact(bean);
+            if (value == null)
+            {
+                column.setNull(row);
+                return;
+            }
+            switch (columnType)
+            {
+                case LONG:
+                    column.setLong(row, (Long) value);
+                    break;
+                case DOUBLE:
+                    column.setDouble(row, ((Number) value).doubleValue());
+                    break;
+                case INT:
+                    column.setInt(row, value instanceof Number ? ((Number) value).intValue() :
+                            value instanceof Character ? (Character) value : ((Boolean) value ? 1 : 0));
+                    break;
+                default:
+                    String string = value instanceof Enum ? ((Enum<?>) value).name() : (String) value;
+                    Integer code = dictionary.get(string);
+                    if (code == null)
+                    {
+                        code = column.dictionary.size();
+                        column.dictionary.add(string);
+                        dictionary.put(string, code);
+                    }
+                    column.setInt(row, code);
+            }
+        }
+
+        private void write(Object bean, Column column, int row, Object[] dictionary) throws Throwable
+        {
+            if (column.isNull(row))
+            {
+                //属性可能有非null的默认值，null也需要写入，基本类型的属性不接收null
+                if (!type.isPrimitive())
+                {
+                    writer.invokeExact(bean, (Object) null);
+                }
+                return;
+            }
+            if (type.isPrimitive())
+            {
+                switch (columnType)
+                {
+                    case LONG:
+                        writer.invokeExact(bean, column.getLong(row));
+                        break;
+                    case DOUBLE:
+                        writer.invokeExact(bean, column.getDouble(row));
+                        break;
+                    default:
+                        writer.invokeExact(bean, column.getInt(row));
+                }
+                return;
+            }
+            Object value;
+            switch (columnType)
+            {
+                case LONG:
+                    value = column.getLong(row);
+                    break;
+                case DOUBLE:
+                    double d = column.getDouble(row);
+                    value = type == Float.class ? (Object) (float) d : (Object) d;
+                    break;
+                case INT:
+                    value = box(column.getInt(row));
+                    break;
+                default:
+                    value = dictionary[column.getInt(row)];
+            }
+            writer.invokeExact(bean, value);
+        }
+
+        private Object box(int value)
+        {
+            if (type == Integer.class)
+            {
+                return value;
+            }
+            if (type == Short.class)
+            {
+                return (short) value;
+            }
+            if (type == Byte.class)
+            {
+                return (byte) value;
+            }
+            if (type == Character.class)
+            {
+                return (char) value;
+            }
+            return value != 0;
+        }
+
+        /**
+         * @param dictionary 列的字典
+         * @return 与字典下标对应的属性值，String或枚举常量
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object[] decodeDictionary(List<String> dictionary)
+        {
+            Object[] values = dictionary.toArray();
+            if (type.isEnum())
+            {
+                for (int i = 0; i < values.length; ++i)
+                {
+                    values[i] = Enum.valueOf((Class) type, (String) values[i]);
+                }
+            }
+            return values;
+        }
+    }
+}
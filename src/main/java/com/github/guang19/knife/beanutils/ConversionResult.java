@@ -0,0 +1,215 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 一次批量转换的结果，由{@link BeanUtils#convertCollection(List, Class)}创建:
+ * 转换成功的目标对象、跳过的null源对象数量、失败的数量，按异常类型统计的失败次数，
+ * 以及最多{@link #MAX_SAMPLE_FAILURES}个失败的样本(位置、源对象与原因)。
+ * 单个元素的失败只记录在结果中，不逐个输出日志与堆栈，整批失败时也不会产生大量日志。
+ * </p>
+ */
+public final class ConversionResult<T>
+{
+    //保留的失败样本的最大数量
+    public static final int MAX_SAMPLE_FAILURES = 8;
+
+    //转换成功的目标对象，与源集合的顺序一致
+    private final List<T> targets;
+
+    //源集合的大小
+    private final int sourceCount;
+
+    //跳过的null源对象的数量
+    private int skippedCount;
+
+    //失败的数量
+    private int failedCount;
+
+    //异常类名 -> 失败次数，按第一次出现的顺序
+    private final Map<String, Integer> failureCounts = new LinkedHashMap<>();
+
+    //失败的样本
+    private final List<Failure> sampleFailures = new ArrayList<>();
+
+    private ConversionResult(int sourceCount)
+    {
+        this.sourceCount = sourceCount;
+        this.targets = new ArrayList<>(sourceCount);
+    }
+
+    /**
+     * <p>按顺序转换源集合，收集转换成功的目标对象与失败的元素</p>
+     *
+     * @param sources        源集合
+     * @param batchConverter 批量转换器
+     * @param <T>            Target Class
+     * @return 转换的结果
+     */
+    static <T> ConversionResult<T> convert(List<?> sources, BatchConverter<T> batchConverter)
+    {
+        ConversionResult<T> result = new ConversionResult<>(sources.size());
+        Iterator<?> iterator = sources instanceof RandomAccess ? null : sources.iterator();
+        for (int i = 0, size = result.sourceCount; i < size; ++i)
+        {
+            Object sourceObj = iterator == null ? sources.get(i) : iterator.next();
+            if (sourceObj == null)
+            {
+                ++result.skippedCount;
+                continue;
+            }
+            try
+            {
+                result.targets.add(batchConverter.convertOrThrow(sourceObj));
+            }
+            catch (Exception e)
+            {
+                BeanUtilsMetrics.recordConversionFailure(batchConverter.getTargetClass(), e);
+                result.addFailure(i, sourceObj, e);
+            }
+        }
+        return result;
+    }
+
+    private void addFailure(int index, Object sourceObj, Throwable cause)
+    {
+        ++failedCount;
+        failureCounts.merge(cause.getClass().getName(), 1, Integer::sum);
+        if (sampleFailures.size() < MAX_SAMPLE_FAILURES)
+        {
+            sampleFailures.add(new Failure(index, sourceObj, cause));
+        }
+    }
+
+    /**
+     * @return 转换成功的目标对象，与源集合的顺序一致，不包含null元素
+     */
+    public List<T> getTargets()
+    {
+        return targets;
+    }
+
+    /**
+     * @return 源集合的大小
+     */
+    public int getSourceCount()
+    {
+        return sourceCount;
+    }
+
+    /**
+     * @return 转换成功的数量
+     */
+    public int getConvertedCount()
+    {
+        return targets.size();
+    }
+
+    /**
+     * @return 跳过的null源对象的数量
+     */
+    public int getSkippedCount()
+    {
+        return skippedCount;
+    }
+
+    /**
+     * @return 失败的数量
+     */
+    public int getFailedCount()
+    {
+        return failedCount;
+    }
+
+    /**
+     * @return 是否有元素转换失败
+     */
+    public boolean hasFailures()
+    {
+        return failedCount > 0;
+    }
+
+    /**
+     * @return 异常类名 -> 失败次数，按第一次出现的顺序
+     */
+    public Map<String, Integer> getFailureCounts()
+    {
+        return Collections.unmodifiableMap(failureCounts);
+    }
+
+    /**
+     * @return 最多{@link #MAX_SAMPLE_FAILURES}个失败的样本，按源集合的顺序
+     */
+    public List<Failure> getSampleFailures()
+    {
+        return Collections.unmodifiableList(sampleFailures);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConversionResult{" +
+                "sourceCount=" + sourceCount +
+                ", convertedCount=" + targets.size() +
+                ", skippedCount=" + skippedCount +
+                ", failedCount=" + failedCount +
+                ", failureCounts=" + failureCounts +
+                ", sampleFailures=" + sampleFailures +
+                '}';
+    }
+
+    /**
+     * <p>一个转换失败的元素</p>
+     */
+    public static final class Failure
+    {
+        //元素在源集合中的位置
+        private final int index;
+
+        //源对象
+        private final Object source;
+
+        //失败的原因
+        private final Throwable cause;
+
+        private Failure(int index, Object source, Throwable cause)
+        {
+            this.index = index;
+            this.source = source;
+            this.cause = cause;
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        public Object getSource()
+        {
+            return source;
+        }
+
+        public Throwable getCause()
+        {
+            return cause;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Failure{" +
+                    "index=" + index +
+                    ", cause=" + cause +
+                    '}';
+        }
+    }
+}
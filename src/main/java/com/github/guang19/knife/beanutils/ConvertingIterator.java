@@ -0,0 +1,52 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 惰性转换的Iterator，只有在元素被消费时才创建目标对象。
+ * 源元素为null或转换失败时会被跳过，所以不会返回null元素。
+ * </p>
+ */
+final class ConvertingIterator<S, T> implements Iterator<T>
+{
+    //源Iterator
+    private final Iterator<S> source;
+
+    //批量转换器
+    private final BatchConverter<T> batchConverter;
+
+    //已转换但还没有被消费的元素
+    private T next;
+
+    ConvertingIterator(Iterator<S> source, BatchConverter<T> batchConverter)
+    {
+        this.source = source;
+        this.batchConverter = batchConverter;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        while (next == null && source.hasNext())
+        {
+            next = batchConverter.convert(source.next());
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        T element = next;
+        next = null;
+        return element;
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 惰性转换的Spliterator，只有在元素被消费时才创建目标对象。
+ * 源元素为null或转换失败时会被跳过，所以不会返回null元素，也不再是SIZED的。
+ * 拆分后的Spliterator共用同一个BatchConverter。
+ * </p>
+ */
+final class ConvertingSpliterator<S, T> implements Spliterator<T>
+{
+    //源Spliterator
+    private final Spliterator<S> source;
+
+    //批量转换器
+    private final BatchConverter<T> batchConverter;
+
+    //tryAdvance时接收源元素并转换
+    private final Consumer<S> sink = this::accept;
+
+    //tryAdvance时接收源元素的转换结果
+    private T current;
+
+    ConvertingSpliterator(Spliterator<S> source, BatchConverter<T> batchConverter)
+    {
+        this.source = source;
+        this.batchConverter = batchConverter;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action)
+    {
+        while (source.tryAdvance(sink))
+        {
+            if (current != null)
+            {
+                T element = current;
+                current = null;
+                action.accept(element);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action)
+    {
+        source.forEachRemaining(element ->
+        {
+            T target = batchConverter.convert(element);
+            if (target != null)
+            {
+                action.accept(target);
+            }
+        });
+    }
+
+    @Override
+    public Spliterator<T> trySplit()
+    {
+        Spliterator<S> prefix = source.trySplit();
+        return prefix == null ? null : new ConvertingSpliterator<>(prefix, batchConverter);
+    }
+
+    @Override
+    public long estimateSize()
+    {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics()
+    {
+        return (source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT)) | NONNULL;
+    }
+
+    private void accept(S element)
+    {
+        current = batchConverter.convert(element);
+    }
+}
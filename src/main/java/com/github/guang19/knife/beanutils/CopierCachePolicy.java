@@ -0,0 +1,99 @@
+package com.github.guang19.knife.beanutils;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 拷贝器缓存的策略，通过{@link BeanUtils#setCopierCachePolicy(CopierCachePolicy)}设置。
+ * 默认不限制大小；限制大小时，每个缓存中的拷贝器超过maxSize后按LRU或LFU淘汰，
+ * 被淘汰的class pair再次使用时会重新生成拷贝器。
+ * LRU与LFU都是近似的：访问时间以拷贝器的生成次数为时钟，访问次数的累加不加锁。
+ * </p>
+ */
+public final class CopierCachePolicy
+{
+    //不限制大小
+    private static final CopierCachePolicy UNBOUNDED = new CopierCachePolicy(Eviction.NONE, Integer.MAX_VALUE);
+
+    //淘汰方式
+    private final Eviction eviction;
+
+    //每个缓存最多缓存的拷贝器数量
+    private final int maxSize;
+
+    private CopierCachePolicy(Eviction eviction, int maxSize)
+    {
+        this.eviction = eviction;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return 不限制大小的策略
+     */
+    public static CopierCachePolicy unbounded()
+    {
+        return UNBOUNDED;
+    }
+
+    /**
+     * @param maxSize 每个缓存最多缓存的拷贝器数量
+     * @return 淘汰最久未使用的拷贝器的策略
+     */
+    public static CopierCachePolicy lru(int maxSize)
+    {
+        return new CopierCachePolicy(Eviction.LRU, checkMaxSize(maxSize));
+    }
+
+    /**
+     * @param maxSize 每个缓存最多缓存的拷贝器数量
+     * @return 淘汰使用次数最少的拷贝器的策略
+     */
+    public static CopierCachePolicy lfu(int maxSize)
+    {
+        return new CopierCachePolicy(Eviction.LFU, checkMaxSize(maxSize));
+    }
+
+    /**
+     * @return 是否限制大小
+     */
+    public boolean isBounded()
+    {
+        return eviction != Eviction.NONE;
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * @return 是否按使用次数淘汰
+     */
+    boolean isLfu()
+    {
+        return eviction == Eviction.LFU;
+    }
+
+    private static int checkMaxSize(int maxSize)
+    {
+        if (maxSize <= 0)
+        {
+            throw new IllegalArgumentException("max size must be positive : [" + maxSize + "]");
+        }
+        return maxSize;
+    }
+
+    @Override
+    public String toString()
+    {
+        return isBounded() ? eviction + "(" + maxSize + ")" : "UNBOUNDED";
+    }
+
+    /**
+     * <p>淘汰方式</p>
+     */
+    private enum Eviction
+    {
+        NONE, LRU, LFU
+    }
+}
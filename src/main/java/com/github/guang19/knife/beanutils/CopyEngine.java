@@ -0,0 +1,36 @@
+package com.github.guang19.knife.beanutils;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 拷贝引擎，为不使用转换器的class pair创建拷贝器。
+ * 所有引擎的拷贝规则都与cglib的BeanCopier相同: 只拷贝名称相同、
+ * 源对象有getter、目标对象有setter，且setter的参数类型可以接收getter返回值的属性。
+ *
+ * 内置的引擎在{@link CopyEngines}中，可以通过{@link BeanUtils#setDefaultCopyEngine(CopyEngine)}全局选择，
+ * 或通过{@link BeanUtils#setCopyEngine(Class, Class, CopyEngine)}为某个class pair单独选择。
+ * 每个引擎创建的拷贝器会按class pair分别缓存，createCopier对每个class pair只会被调用一次。
+ * </p>
+ */
+public interface CopyEngine
+{
+    /**
+     * @return 引擎名
+     */
+    public abstract String getName();
+
+    /**
+     * @return 当前运行时是否可以使用此引擎
+     */
+    public abstract boolean isSupported();
+
+    /**
+     * <p>创建拷贝器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 拷贝器
+     */
+    public abstract BoundCopier createCopier(Class<?> sourceClass, Class<?> targetClass);
+}
@@ -0,0 +1,88 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 内置的拷贝引擎。
+ * CGLIB: cglib的BeanCopier，在较新的JDK上可能因为模块系统不可用;
+ * METHOD_HANDLE: 组合getter与setter的MethodHandle，任何JDK都可用;
+ * HIDDEN_CLASS: 为每个class pair定义hidden class，需要JDK 15+。
+ * 各引擎的拷贝速度可以用knife-benchmark中的BeanUtilsCopyEngineBenchmark比较。
+ * </p>
+ */
+public final class CopyEngines
+{
+    //cglib BeanCopier
+    public static final CopyEngine CGLIB = new CglibCopyEngine();
+
+    //MethodHandle
+    public static final CopyEngine METHOD_HANDLE = new MethodHandleCopyEngine();
+
+    //hidden class
+    public static final CopyEngine HIDDEN_CLASS = new HiddenClassCopyEngine();
+
+    //所有内置引擎
+    private static final List<CopyEngine> ENGINES = Collections.unmodifiableList(Arrays.asList(CGLIB, METHOD_HANDLE, HIDDEN_CLASS));
+
+    private CopyEngines()
+    {
+    }
+
+    /**
+     * @return 所有内置引擎
+     */
+    public static List<CopyEngine> all()
+    {
+        return ENGINES;
+    }
+
+    /**
+     * @return 当前运行时可以使用的内置引擎
+     */
+    public static List<CopyEngine> supported()
+    {
+        List<CopyEngine> supported = new ArrayList<>(ENGINES.size());
+        for (CopyEngine engine : ENGINES)
+        {
+            if (engine.isSupported())
+            {
+                supported.add(engine);
+            }
+        }
+        return supported;
+    }
+
+    /**
+     * <p>根据引擎名查找内置引擎</p>
+     *
+     * @param name 引擎名，如cglib、methodHandle、hiddenClass
+     * @return 引擎，如果不存在，则返回null
+     */
+    public static CopyEngine forName(String name)
+    {
+        for (CopyEngine engine : ENGINES)
+        {
+            if (engine.getName().equalsIgnoreCase(name))
+            {
+                return engine;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>默认引擎: cglib可用时使用cglib，与之前的版本行为一致，否则使用MethodHandle</p>
+     *
+     * @return 默认引擎
+     */
+    static CopyEngine defaultEngine()
+    {
+        return CGLIB.isSupported() ? CGLIB : METHOD_HANDLE;
+    }
+}
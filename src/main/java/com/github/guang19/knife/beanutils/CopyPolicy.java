@@ -0,0 +1,287 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 拷贝策略: 只拷贝/不拷贝哪些属性，源属性值为null时是否跳过目标属性的setter(PATCH语义)，
+ * 以及名称不同或者嵌套的属性之间的映射。
+ *
+ * 每个class pair会按策略编译一个拷贝器，属性的过滤在编译时完成，被过滤的属性不会出现在拷贝器中；
+ * 跳过null的判断也编译在拷贝器中，拷贝时不会对每个属性回调。
+ * 属性映射的两端都可以是以.分隔的嵌套路径，路径在编译时解析为getter/setter的调用链，
+ * 拷贝重命名或者展开的属性与拷贝同名属性的开销相同。
+ * 属性类型的转换规则与{@link TypeConverterRegistry}相同，未指定注册表时与BeanCopier相同，只拷贝类型兼容的属性。
+ * 目标Class没有public默认构造器时通过record、构造器或Builder创建，此时属性映射的两端都只能是属性名，不能是嵌套路径。
+ *
+ * 策略创建后不可修改，可以被多个线程共享，编译好的拷贝器缓存在策略中，所以应该创建一次后重复使用。
+ *
+ * e.g.
+ *
+ *  CopyPolicy patch = CopyPolicy.builder().
+ *          exclude("id", "version").
+ *          map("name", "userName").
+ *          map("address.city", "city").
+ *          ignoreNull().
+ *          build();
+ *
+ *  BeanUtils.copy(request, entity, patch);
+ * </p>
+ */
+public final class CopyPolicy
+{
+    //只拷贝的属性，为null时拷贝所有属性
+    private final Set<String> includes;
+
+    //不拷贝的属性
+    private final Set<String> excludes;
+
+    //源属性值为null时是否跳过
+    private final boolean ignoreNull;
+
+    //转换器注册表，为null时只拷贝类型兼容的属性
+    private final TypeConverterRegistry typeConverterRegistry;
+
+    //目标属性路径 -> 源属性路径
+    private final Map<String, String> mappings;
+
+    //编译好的拷贝器
+    private final ClassPairCache<PropertyCopier> copierCache = new ClassPairCache<>();
+
+    //编译好的创建器
+    private final ClassPairCache<ObjectCreator> creatorCache = new ClassPairCache<>();
+
+    //编译拷贝器，只创建一次，查找缓存时不分配内存
+    private final BiFunction<Class<?>, Class<?>, PropertyCopier> copierCompiler = this::compile;
+
+    //编译创建器
+    private final BiFunction<Class<?>, Class<?>, ObjectCreator> creatorCompiler = this::compileCreator;
+
+    private CopyPolicy(Set<String> includes, Set<String> excludes, boolean ignoreNull, TypeConverterRegistry typeConverterRegistry,
+                       Map<String, String> mappings)
+    {
+        this.includes = includes;
+        this.excludes = excludes;
+        this.ignoreNull = ignoreNull;
+        this.typeConverterRegistry = typeConverterRegistry;
+        this.mappings = mappings;
+    }
+
+    /**
+     * @return 策略的Builder
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * <p>获取已编译的拷贝器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 拷贝器
+     */
+    PropertyCopier getCopier(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return copierCache.get(sourceClass, targetClass, copierCompiler);
+    }
+
+    /**
+     * <p>获取已编译的创建器，用于没有默认构造器的目标Class</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 创建器
+     * @throws IllegalArgumentException 属性映射中有嵌套路径
+     */
+    ObjectCreator getCreator(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return creatorCache.get(sourceClass, targetClass, creatorCompiler);
+    }
+
+    private PropertyCopier compile(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return PropertyCopier.compile(sourceClass, targetClass, typeConverterRegistry, this::isCopied, ignoreNull, mappings);
+    }
+
+    private ObjectCreator compileCreator(Class<?> sourceClass, Class<?> targetClass)
+    {
+        for (Map.Entry<String, String> mapping : mappings.entrySet())
+        {
+            if (mapping.getKey().indexOf('.') >= 0 || mapping.getValue().indexOf('.') >= 0)
+            {
+                throw new IllegalArgumentException("nested mapping : [" + mapping.getValue() + "] -> [" + mapping.getKey() +
+                        "] is not supported when creating : [" + targetClass.getName() + "] through a constructor or builder");
+            }
+        }
+        return ObjectCreators.compile(sourceClass, targetClass, typeConverterRegistry, this::sourceNameOf, ignoreNull);
+    }
+
+    /**
+     * @param targetProperty 目标属性
+     * @return 是否拷贝此属性
+     */
+    private boolean isCopied(BeanProperty targetProperty)
+    {
+        return isCopied(targetProperty.getName());
+    }
+
+    /**
+     * @param name 目标属性名
+     * @return 是否拷贝此属性
+     */
+    private boolean isCopied(String name)
+    {
+        return (includes == null || includes.contains(name)) && !excludes.contains(name);
+    }
+
+    /**
+     * <p>与拷贝器相同: 被映射的目标属性读取映射的源属性，其余属性按名称读取并过滤</p>
+     *
+     * @param name 构造器参数名或Builder属性名
+     * @return 源属性名，不拷贝时返回null
+     */
+    private String sourceNameOf(String name)
+    {
+        String sourceName = mappings.get(name);
+        return sourceName != null ? sourceName : isCopied(name) ? name : null;
+    }
+
+    public Set<String> getIncludes()
+    {
+        return includes;
+    }
+
+    public Set<String> getExcludes()
+    {
+        return excludes;
+    }
+
+    public boolean isIgnoreNull()
+    {
+        return ignoreNull;
+    }
+
+    public TypeConverterRegistry getTypeConverterRegistry()
+    {
+        return typeConverterRegistry;
+    }
+
+    /**
+     * @return 目标属性路径 -> 源属性路径
+     */
+    public Map<String, String> getMappings()
+    {
+        return mappings;
+    }
+
+    /**
+     * <p>CopyPolicy的Builder</p>
+     */
+    public static final class Builder
+    {
+        private Set<String> includes;
+
+        private final Set<String> excludes = new HashSet<>();
+
+        private boolean ignoreNull;
+
+        private TypeConverterRegistry typeConverterRegistry;
+
+        private final Map<String, String> mappings = new LinkedHashMap<>();
+
+        private Builder()
+        {
+        }
+
+        /**
+         * <p>只拷贝这些属性，多次调用时取并集</p>
+         *
+         * @param propertyNames 属性名
+         * @return this
+         */
+        public Builder include(String... propertyNames)
+        {
+            if (includes == null)
+            {
+                includes = new HashSet<>();
+            }
+            includes.addAll(Arrays.asList(propertyNames));
+            return this;
+        }
+
+        /**
+         * <p>不拷贝这些属性，优先于{@link #include(String...)}</p>
+         *
+         * @param propertyNames 属性名
+         * @return this
+         */
+        public Builder exclude(String... propertyNames)
+        {
+            excludes.addAll(Arrays.asList(propertyNames));
+            return this;
+        }
+
+        /**
+         * <p>源属性值为null时不调用目标属性的setter，目标属性保持原值</p>
+         *
+         * @return this
+         */
+        public Builder ignoreNull()
+        {
+            this.ignoreNull = true;
+            return this;
+        }
+
+        /**
+         * <p>使用转换器注册表转换类型不兼容的属性</p>
+         *
+         * @param typeConverterRegistry 转换器注册表
+         * @return this
+         */
+        public Builder typeConverterRegistry(TypeConverterRegistry typeConverterRegistry)
+        {
+            this.typeConverterRegistry = typeConverterRegistry;
+            return this;
+        }
+
+        /**
+         * <p>
+         * 把源属性拷贝到名称不同的目标属性，两端都可以是以.分隔的嵌套路径，如map("address.city", "city")。
+         * 源路径中间的属性为null时不拷贝；目标路径中间的属性为null时使用默认构造器创建。
+         * 被映射的目标属性(或者嵌套路径的第一个属性)不再按名称拷贝，映射不受include、exclude影响。
+         * 路径在第一次拷贝class pair时解析，不存在或者类型不能转换时抛出IllegalArgumentException。
+         * </p>
+         *
+         * @param sourcePath 源属性路径
+         * @param targetPath 目标属性路径
+         * @return this
+         */
+        public Builder map(String sourcePath, String targetPath)
+        {
+            mappings.put(Objects.requireNonNull(targetPath, "target path can not be null"),
+                    Objects.requireNonNull(sourcePath, "source path can not be null"));
+            return this;
+        }
+
+        /**
+         * @return CopyPolicy
+         */
+        public CopyPolicy build()
+        {
+            return new CopyPolicy(includes == null ? null : Collections.unmodifiableSet(new HashSet<>(includes)),
+                    Collections.unmodifiableSet(new HashSet<>(excludes)), ignoreNull, typeConverterRegistry,
+                    Collections.unmodifiableMap(new LinkedHashMap<>(mappings)));
+        }
+    }
+}
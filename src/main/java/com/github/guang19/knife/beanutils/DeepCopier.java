@@ -0,0 +1,576 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 深拷贝。
+ * 每个Class的克隆器只创建一次并被缓存:
+ * 1. 不可变类型(基本类型的包装类、String、枚举、BigInteger、BigDecimal、java.time等)直接返回原对象;
+ * 2. 数组、Collection、Map创建同类型(或最接近的可创建类型)的容器后逐个深拷贝元素;
+ * 3. Date、Calendar、BitSet、StringBuilder、StringBuffer与AtomicInteger等常用的可变JDK类型按各自的方式拷贝;
+ * 4. bean通过public默认构造器创建，基本类型与不可变类型的属性由MethodHandle编译的拷贝器直接拷贝，
+ *    其余属性按运行时类型递归深拷贝。
+ * 其他java.*、javax.*中的类型的状态通常不在getter/setter中，不作为bean拷贝，拷贝时抛出异常，而不是返回空的对象。
+ * 保留引用关系时，同一个对象只会被拷贝一次，循环引用与共享引用在拷贝后保持不变。
+ * </p>
+ */
+final class DeepCopier
+{
+    //已知的不可变类型，子类不一定不可变，所以只匹配这些Class本身
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>();
+
+    //(Object)Object
+    private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    //(Object, Object)void
+    private static final MethodType WRITE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    //不可变类型的克隆器
+    private static final TypeCloner IMMUTABLE = (value, context) -> value;
+
+    //Class -> 克隆器
+    private static final ClassValue<TypeCloner> clonerCache = new ClassValue<TypeCloner>()
+    {
+        @Override
+        protected TypeCloner computeValue(Class<?> type)
+        {
+            return createCloner(type);
+        }
+    };
+
+    static
+    {
+        IMMUTABLE_TYPES.add(String.class);
+        IMMUTABLE_TYPES.add(Boolean.class);
+        IMMUTABLE_TYPES.add(Character.class);
+        IMMUTABLE_TYPES.add(Byte.class);
+        IMMUTABLE_TYPES.add(Short.class);
+        IMMUTABLE_TYPES.add(Integer.class);
+        IMMUTABLE_TYPES.add(Long.class);
+        IMMUTABLE_TYPES.add(Float.class);
+        IMMUTABLE_TYPES.add(Double.class);
+        IMMUTABLE_TYPES.add(BigInteger.class);
+        IMMUTABLE_TYPES.add(BigDecimal.class);
+        IMMUTABLE_TYPES.add(Class.class);
+        IMMUTABLE_TYPES.add(UUID.class);
+        IMMUTABLE_TYPES.add(Locale.class);
+        IMMUTABLE_TYPES.add(Pattern.class);
+    }
+
+    private DeepCopier()
+    {
+    }
+
+    /**
+     * <p>深拷贝对象</p>
+     *
+     * @param value            源对象
+     * @param preserveIdentity 是否保留引用关系，不保留时源对象中不能有循环引用
+     * @param <T>              Class
+     * @return 拷贝后的对象，如果源对象为null，则返回null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T copy(T value, boolean preserveIdentity)
+    {
+        return (T) new Context(preserveIdentity).copy(value);
+    }
+
+    /**
+     * <p>判断Class是否为不可变类型</p>
+     *
+     * @param type Class
+     * @return 是否为不可变类型
+     */
+    static boolean isImmutable(Class<?> type)
+    {
+        return type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type) ||
+                //带有方法体的枚举常量是枚举的匿名子类
+                (type.getSuperclass() != null && type.getSuperclass().isEnum()) ||
+                //java.time中的类型都是不可变的
+                (type.getName().startsWith("java.time.") && Modifier.isFinal(type.getModifiers()));
+    }
+
+    /**
+     * <p>创建克隆器</p>
+     *
+     * @param type Class
+     * @return 克隆器
+     */
+    private static TypeCloner createCloner(Class<?> type)
+    {
+        if (isImmutable(type))
+        {
+            return IMMUTABLE;
+        }
+        if (type.isArray())
+        {
+            return type.getComponentType().isPrimitive() ? DeepCopier::copyPrimitiveArray : DeepCopier::copyObjectArray;
+        }
+        if (EnumSet.class.isAssignableFrom(type))
+        {
+            //元素都是枚举，不需要深拷贝
+            return (value, context) -> context.register(value, ((EnumSet<?>) value).clone());
+        }
+        if (Collection.class.isAssignableFrom(type))
+        {
+            return new CollectionCloner(collectionFactory(type));
+        }
+        if (Map.class.isAssignableFrom(type))
+        {
+            return new MapCloner(mapFactory(type));
+        }
+        TypeCloner jdkCloner = jdkCloner(type);
+        if (jdkCloner != null)
+        {
+            return jdkCloner;
+        }
+        if (type.getName().startsWith("java.") || type.getName().startsWith("javax."))
+        {
+            return unsupported(type, "it is a JDK type that does not keep its state in getter/setter pairs");
+        }
+        BeanInstantiator instantiator = BeanInstantiators.get(type);
+        if (instantiator == null)
+        {
+            return unsupported(type, "it is not immutable and has no public default constructor");
+        }
+        return new BeanCloner(type, instantiator);
+    }
+
+    /**
+     * <p>常用的可变JDK类型的克隆器</p>
+     *
+     * @param type Class
+     * @return 克隆器，不是这些类型时返回null
+     */
+    private static TypeCloner jdkCloner(Class<?> type)
+    {
+        if (Date.class.isAssignableFrom(type))
+        {
+            //java.sql.Timestamp等子类的clone同样拷贝全部状态
+            return (value, context) -> context.register(value, ((Date) value).clone());
+        }
+        if (Calendar.class.isAssignableFrom(type))
+        {
+            return (value, context) -> context.register(value, ((Calendar) value).clone());
+        }
+        if (type == BitSet.class)
+        {
+            return (value, context) -> context.register(value, ((BitSet) value).clone());
+        }
+        if (type == StringBuilder.class)
+        {
+            return (value, context) -> context.register(value, new StringBuilder((StringBuilder) value));
+        }
+        if (type == StringBuffer.class)
+        {
+            return (value, context) -> context.register(value, new StringBuffer((StringBuffer) value));
+        }
+        if (type == AtomicInteger.class)
+        {
+            return (value, context) -> context.register(value, new AtomicInteger(((AtomicInteger) value).get()));
+        }
+        if (type == AtomicLong.class)
+        {
+            return (value, context) -> context.register(value, new AtomicLong(((AtomicLong) value).get()));
+        }
+        if (type == AtomicBoolean.class)
+        {
+            return (value, context) -> context.register(value, new AtomicBoolean(((AtomicBoolean) value).get()));
+        }
+        if (type == AtomicReference.class)
+        {
+            return (value, context) ->
+            {
+                AtomicReference<Object> copy = new AtomicReference<>();
+                //先登记，引用自身的AtomicReference也能拷贝
+                context.register(value, copy);
+                copy.set(context.copy(((AtomicReference<?>) value).get()));
+                return copy;
+            };
+        }
+        return null;
+    }
+
+    /**
+     * <p>不能深拷贝的类型的克隆器，拷贝时抛出异常</p>
+     */
+    private static TypeCloner unsupported(Class<?> type, String reason)
+    {
+        return (value, context) ->
+        {
+            throw new IllegalArgumentException("can not deep copy object of class type : [" + type.getName() + "] , " + reason);
+        };
+    }
+
+    private static Object copyPrimitiveArray(Object value, Context context)
+    {
+        int length = Array.getLength(value);
+        Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return context.register(value, copy);
+    }
+
+    private static Object copyObjectArray(Object value, Context context)
+    {
+        Object[] copy = ((Object[]) value).clone();
+        context.register(value, copy);
+        for (int i = 0; i < copy.length; ++i)
+        {
+            copy[i] = context.copy(copy[i]);
+        }
+        return copy;
+    }
+
+    /**
+     * <p>创建空Collection的方法: 优先创建同类型的Collection，不能创建时使用最接近的可创建类型</p>
+     *
+     * @param type Collection Class
+     * @return 源Collection -> 空Collection
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Collection<Object>> collectionFactory(Class<?> type)
+    {
+        if (SortedSet.class.isAssignableFrom(type))
+        {
+            Constructor<?> constructor = comparatorConstructor(type);
+            return constructor != null ?
+                    value -> (Collection<Object>) newInstance(constructor, ((SortedSet<?>) value).comparator()) :
+                    value -> new TreeSet<>((Comparator<Object>) ((SortedSet<?>) value).comparator());
+        }
+        if (PriorityQueue.class == type)
+        {
+            return value -> new PriorityQueue<>(Math.max(((PriorityQueue<?>) value).size(), 1),
+                    (Comparator<Object>) ((PriorityQueue<?>) value).comparator());
+        }
+        BeanInstantiator instantiator = BeanInstantiators.get(type);
+        if (instantiator != null)
+        {
+            return value -> (Collection<Object>) newInstance(instantiator);
+        }
+        if (Set.class.isAssignableFrom(type))
+        {
+            return value -> new LinkedHashSet<>(Math.max((int) (((Collection<?>) value).size() / .75f) + 1, 16));
+        }
+        if (Queue.class.isAssignableFrom(type))
+        {
+            return value -> new ArrayDeque<>(((Collection<?>) value).size());
+        }
+        return value -> new ArrayList<>(((Collection<?>) value).size());
+    }
+
+    /**
+     * <p>创建空Map的方法: 优先创建同类型的Map，不能创建时使用最接近的可创建类型</p>
+     *
+     * @param type Map Class
+     * @return 源Map -> 空Map
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Object, Map<Object, Object>> mapFactory(Class<?> type)
+    {
+        if (EnumMap.class == type)
+        {
+            //保留key的枚举类型，value在拷贝时被替换
+            return value -> new EnumMap((EnumMap) value);
+        }
+        if (SortedMap.class.isAssignableFrom(type))
+        {
+            Constructor<?> constructor = comparatorConstructor(type);
+            return constructor != null ?
+                    value -> (Map<Object, Object>) newInstance(constructor, ((SortedMap<?, ?>) value).comparator()) :
+                    value -> new TreeMap<>((Comparator<Object>) ((SortedMap<?, ?>) value).comparator());
+        }
+        BeanInstantiator instantiator = BeanInstantiators.get(type);
+        if (instantiator != null)
+        {
+            return value -> (Map<Object, Object>) newInstance(instantiator);
+        }
+        if (ConcurrentMap.class.isAssignableFrom(type))
+        {
+            return value -> new ConcurrentHashMap<>(Math.max((int) (((Map<?, ?>) value).size() / .75f) + 1, 16));
+        }
+        return value -> new LinkedHashMap<>(Math.max((int) (((Map<?, ?>) value).size() / .75f) + 1, 16));
+    }
+
+    /**
+     * @param type SortedSet或SortedMap的Class
+     * @return public (Comparator)的构造器，如果不存在，则返回null
+     */
+    private static Constructor<?> comparatorConstructor(Class<?> type)
+    {
+        if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers()))
+        {
+            return null;
+        }
+        try
+        {
+            return type.getConstructor(Comparator.class);
+        }
+        catch (NoSuchMethodException e)
+        {
+            return null;
+        }
+    }
+
+    private static Object newInstance(Constructor<?> constructor, Object argument)
+    {
+        try
+        {
+            return constructor.newInstance(argument);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new IllegalStateException("can not create object of class type : [" + constructor.getDeclaringClass().getName() + "]", e);
+        }
+    }
+
+    private static Object newInstance(BeanInstantiator instantiator)
+    {
+        try
+        {
+            return instantiator.newInstance();
+        }
+        catch (RuntimeException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * <p>一次深拷贝的上下文，记录已拷贝的对象</p>
+     */
+    private static final class Context
+    {
+        //源对象 -> 拷贝后的对象，不保留引用关系时为null
+        private final IdentityHashMap<Object, Object> copies;
+
+        private Context(boolean preserveIdentity)
+        {
+            this.copies = preserveIdentity ? new IdentityHashMap<>() : null;
+        }
+
+        /**
+         * <p>深拷贝一个值</p>
+         *
+         * @param value 源对象
+         * @return 拷贝后的对象
+         */
+        private Object copy(Object value)
+        {
+            if (value == null)
+            {
+                return null;
+            }
+            TypeCloner cloner = clonerCache.get(value.getClass());
+            if (cloner == IMMUTABLE)
+            {
+                return value;
+            }
+            Object copy;
+            if (copies != null && (copy = copies.get(value)) != null)
+            {
+                return copy;
+            }
+            return cloner.clone(value, this);
+        }
+
+        /**
+         * <p>在拷贝子对象之前记录拷贝后的对象，子对象引用源对象时会得到这个对象</p>
+         *
+         * @param value 源对象
+         * @param copy  拷贝后的对象
+         * @return 拷贝后的对象
+         */
+        private Object register(Object value, Object copy)
+        {
+            if (copies != null)
+            {
+                copies.put(value, copy);
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * <p>某个Class的克隆器</p>
+     */
+    @FunctionalInterface
+    private interface TypeCloner
+    {
+        /**
+         * 深拷贝对象
+         *
+         * @param value   源对象，类型为此克隆器对应的Class
+         * @param context 深拷贝的上下文
+         * @return 拷贝后的对象
+         */
+        Object clone(Object value, Context context);
+    }
+
+    /**
+     * <p>Collection的克隆器</p>
+     */
+    private static final class CollectionCloner implements TypeCloner
+    {
+        //源Collection -> 空Collection
+        private final Function<Object, Collection<Object>> factory;
+
+        private CollectionCloner(Function<Object, Collection<Object>> factory)
+        {
+            this.factory = factory;
+        }
+
+        @Override
+        public Object clone(Object value, Context context)
+        {
+            Collection<Object> copy = factory.apply(value);
+            context.register(value, copy);
+            for (Object element : (Collection<?>) value)
+            {
+                copy.add(context.copy(element));
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * <p>Map的克隆器，key与value都会被深拷贝</p>
+     */
+    private static final class MapCloner implements TypeCloner
+    {
+        //源Map -> 空Map
+        private final Function<Object, Map<Object, Object>> factory;
+
+        private MapCloner(Function<Object, Map<Object, Object>> factory)
+        {
+            this.factory = factory;
+        }
+
+        @Override
+        public Object clone(Object value, Context context)
+        {
+            Map<Object, Object> copy = factory.apply(value);
+            context.register(value, copy);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                copy.put(context.copy(entry.getKey()), context.copy(entry.getValue()));
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * <p>bean的克隆器</p>
+     */
+    private static final class BeanCloner implements TypeCloner
+    {
+        //bean Class
+        private final Class<?> beanClass;
+
+        //实例化器
+        private final BeanInstantiator instantiator;
+
+        //直接拷贝基本类型与不可变类型的属性
+        private final PropertyCopier immutablePropertyCopier;
+
+        //需要深拷贝的属性的getter: (Object)Object
+        private final MethodHandle[] readers;
+
+        //需要深拷贝的属性的setter: (Object, Object)void
+        private final MethodHandle[] writers;
+
+        private BeanCloner(Class<?> beanClass, BeanInstantiator instantiator)
+        {
+            this.beanClass = beanClass;
+            this.instantiator = instantiator;
+            this.immutablePropertyCopier = PropertyCopier.compile(beanClass, beanClass, null,
+                    property -> isImmutable(property.getWriteType()));
+            List<MethodHandle> readers = new ArrayList<>();
+            List<MethodHandle> writers = new ArrayList<>();
+            for (BeanProperty property : BeanProperties.of(beanClass).getProperties())
+            {
+                if (property.isReadable() && property.isWritable() && !isImmutable(property.getWriteType()) &&
+                        property.getWriteType().isAssignableFrom(property.getReadType()))
+                {
+                    readers.add(property.getReader().asType(READ_TYPE));
+                    writers.add(property.getWriter().asType(WRITE_TYPE));
+                }
+            }
+            this.readers = readers.toArray(new MethodHandle[0]);
+            this.writers = writers.toArray(new MethodHandle[0]);
+        }
+
+        @Override
+        public Object clone(Object value, Context context)
+        {
+            Object copy = BeanInstantiators.instantiate(instantiator, beanClass);
+            if (copy == null)
+            {
+                throw new IllegalStateException("can not create object of class type : [" + beanClass.getName() + "]");
+            }
+            context.register(value, copy);
+            immutablePropertyCopier.copy(value, copy);
+            try
+            {
+                for (int i = 0; i < readers.length; ++i)
+                {
+                    Object propertyValue = (Object) readers[i].invokeExact(value);
+                    writers[i].invokeExact(copy, context.copy(propertyValue));
+                }
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+            return copy;
+        }
+    }
+}
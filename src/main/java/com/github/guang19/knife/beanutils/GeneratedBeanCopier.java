@@ -0,0 +1,44 @@
+package com.github.guang19.knife.beanutils;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 由knife-processor根据{@link BeanMapper}在编译时生成的拷贝器的父类。
+ * 生成的拷贝器注册在META-INF/services/com.github.guang19.knife.beanutils.GeneratedBeanCopier中，
+ * BeanUtils在不使用转换器拷贝对应的class pair时会优先使用它，而不是在运行时生成BeanCopier。
+ * </p>
+ */
+public abstract class GeneratedBeanCopier implements BoundCopier
+{
+    //源Class
+    private final Class<?> sourceClass;
+
+    //目标Class
+    private final Class<?> targetClass;
+
+    protected GeneratedBeanCopier(Class<?> sourceClass, Class<?> targetClass)
+    {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+    }
+
+    public final Class<?> getSourceClass()
+    {
+        return sourceClass;
+    }
+
+    public final Class<?> getTargetClass()
+    {
+        return targetClass;
+    }
+
+    /**
+     * 把源对象的属性拷贝到目标对象
+     *
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     */
+    @Override
+    public abstract void copy(Object sourceObj, Object targetObj);
+}
@@ -0,0 +1,223 @@
+package com.github.guang19.knife.beanutils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 查找编译时生成的{@link GeneratedBeanCopier}。
+ * 每个ClassLoader只由ServiceLoader加载一次生成的拷贝器，并按源Class与目标Class建立索引，
+ * 源Class通过ClassValue持有它的ClassLoader的索引，只在每个class pair第一次拷贝时查找一次。
+ * 索引只包含这个ClassLoader可见的拷贝器，由这个ClassLoader中的Class持有，不会阻止它被卸载。
+ * 被淘汰的索引在下一次查找时重新加载。
+ * </p>
+ */
+final class GeneratedBeanCopiers
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedBeanCopiers.class);
+
+    //ClassLoader -> 它的索引，只弱引用索引，同一个ClassLoader中的源Class共享一个索引
+    private static final Map<ClassLoader, WeakReference<Index>> indexes = new WeakHashMap<>();
+
+    //源Class -> 源Class的ClassLoader的索引
+    private static final ClassValue<Index> indexCache = new ClassValue<Index>()
+    {
+        @Override
+        protected Index computeValue(Class<?> sourceClass)
+        {
+            return indexOf(sourceClass.getClassLoader());
+        }
+    };
+
+    private GeneratedBeanCopiers()
+    {
+    }
+
+    /**
+     * <p>查找生成的拷贝器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 生成的拷贝器，如果不存在，则返回null
+     */
+    static GeneratedBeanCopier find(Class<?> sourceClass, Class<?> targetClass)
+    {
+        Index index = indexCache.get(sourceClass);
+        if (index.evicted)
+        {
+            indexCache.remove(sourceClass);
+            index = indexCache.get(sourceClass);
+        }
+        Map<Class<?>, GeneratedBeanCopier> copiers = index.copiers.get(sourceClass);
+        return copiers == null ? null : copiers.get(targetClass);
+    }
+
+    /**
+     * <p>淘汰classLoader的索引，以及包含classLoader加载的拷贝器、源Class或者目标Class的索引</p>
+     *
+     * @param classLoader ClassLoader
+     */
+    static void evict(ClassLoader classLoader)
+    {
+        synchronized (indexes)
+        {
+            for (Iterator<Map.Entry<ClassLoader, WeakReference<Index>>> iterator = indexes.entrySet().iterator(); iterator.hasNext(); )
+            {
+                Map.Entry<ClassLoader, WeakReference<Index>> entry = iterator.next();
+                Index index = entry.getValue().get();
+                if (index == null || entry.getKey() == classLoader || index.references(classLoader))
+                {
+                    if (index != null)
+                    {
+                        index.evict();
+                    }
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>淘汰所有的索引</p>
+     */
+    static void clear()
+    {
+        synchronized (indexes)
+        {
+            for (WeakReference<Index> reference : indexes.values())
+            {
+                Index index = reference.get();
+                if (index != null)
+                {
+                    index.evict();
+                }
+            }
+            indexes.clear();
+        }
+    }
+
+    /**
+     * <p>获取ClassLoader的索引，第一次获取时加载</p>
+     *
+     * @param classLoader ClassLoader
+     * @return 索引
+     */
+    private static Index indexOf(ClassLoader classLoader)
+    {
+        if (classLoader == null)
+        {
+            return Index.EMPTY;
+        }
+        synchronized (indexes)
+        {
+            WeakReference<Index> reference = indexes.get(classLoader);
+            Index index = reference == null ? null : reference.get();
+            if (index != null)
+            {
+                return index;
+            }
+        }
+        //在锁外加载，生成的拷贝器的初始化可能再次使用BeanUtils
+        Index index = load(classLoader);
+        synchronized (indexes)
+        {
+            WeakReference<Index> reference = indexes.get(classLoader);
+            Index existing = reference == null ? null : reference.get();
+            if (existing != null)
+            {
+                return existing;
+            }
+            indexes.put(classLoader, new WeakReference<>(index));
+            return index;
+        }
+    }
+
+    /**
+     * <p>加载ClassLoader中所有生成的拷贝器</p>
+     *
+     * @param classLoader ClassLoader
+     * @return 索引
+     */
+    private static Index load(ClassLoader classLoader)
+    {
+        Map<Class<?>, Map<Class<?>, GeneratedBeanCopier>> copiers = new HashMap<>();
+        Iterator<GeneratedBeanCopier> iterator = ServiceLoader.load(GeneratedBeanCopier.class, classLoader).iterator();
+        while (true)
+        {
+            GeneratedBeanCopier copier;
+            try
+            {
+                if (!iterator.hasNext())
+                {
+                    break;
+                }
+                copier = iterator.next();
+            }
+            catch (ServiceConfigurationError e)
+            {
+                LOGGER.error("[BeanUtils] failed to load generated bean copier : {}", e.getMessage());
+                continue;
+            }
+            copiers.computeIfAbsent(copier.getSourceClass(), sourceClass -> new HashMap<>(4)).put(copier.getTargetClass(), copier);
+        }
+        return copiers.isEmpty() ? Index.EMPTY : new Index(copiers);
+    }
+
+    /**
+     * <p>一个ClassLoader中生成的拷贝器</p>
+     */
+    private static final class Index
+    {
+        private static final Index EMPTY = new Index(Collections.emptyMap());
+
+        //源Class -> (目标Class -> 生成的拷贝器)
+        private final Map<Class<?>, Map<Class<?>, GeneratedBeanCopier>> copiers;
+
+        //是否已被淘汰
+        private volatile boolean evicted;
+
+        private Index(Map<Class<?>, Map<Class<?>, GeneratedBeanCopier>> copiers)
+        {
+            this.copiers = copiers;
+        }
+
+        private void evict()
+        {
+            //空索引是共享的，不需要重新加载
+            if (this != EMPTY)
+            {
+                evicted = true;
+            }
+        }
+
+        /**
+         * @return 是否包含classLoader加载的拷贝器、源Class或者目标Class
+         */
+        private boolean references(ClassLoader classLoader)
+        {
+            for (Map<Class<?>, GeneratedBeanCopier> targetCopiers : copiers.values())
+            {
+                for (GeneratedBeanCopier copier : targetCopiers.values())
+                {
+                    if (copier.getClass().getClassLoader() == classLoader || copier.getSourceClass().getClassLoader() == classLoader ||
+                            copier.getTargetClass().getClassLoader() == classLoader)
+                    {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
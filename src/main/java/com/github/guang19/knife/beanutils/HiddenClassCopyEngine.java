@@ -0,0 +1,253 @@
+package com.github.guang19.knife.beanutils;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 使用hidden class(JDK 15+)的拷贝引擎。
+ * 为每个class pair生成直接调用getter与setter的字节码，通过MethodHandles.Lookup.defineHiddenClass
+ * 定义在目标Class的包中，不需要反射调用ClassLoader.defineClass，也不需要--add-opens。
+ * hidden class不会被ClassLoader引用，不再使用时可以被卸载。
+ *
+ * 源Class或者它的getter的返回类型对目标Class的包或者ClassLoader不可见，或者目标Class所在的模块没有对knife开放时，
+ * 这个class pair会退化为使用{@link MethodHandleCopyEngine}。
+ * </p>
+ */
+final class HiddenClassCopyEngine implements CopyEngine
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(HiddenClassCopyEngine.class);
+
+    //生成的拷贝器的类名，hidden class会在类名后追加唯一的后缀
+    private static final String COPIER_NAME = "KnifeHiddenBeanCopier";
+
+    //BoundCopier.copy(Object, Object)void
+    private static final String COPY_DESCRIPTOR = Type.getMethodDescriptor(Type.VOID_TYPE,
+            Type.getType(Object.class), Type.getType(Object.class));
+
+    //MethodHandles.privateLookupIn(Class, Lookup)Lookup，JDK 9之前为null
+    private static final MethodHandle PRIVATE_LOOKUP_IN;
+
+    //(Lookup, byte[], boolean)Lookup，JDK 15之前为null
+    private static final MethodHandle DEFINE_HIDDEN_CLASS;
+
+    static
+    {
+        MethodHandle privateLookupIn = null;
+        MethodHandle defineHiddenClass = null;
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            Object noOptions = Array.newInstance(classOption, 0);
+            privateLookupIn = lookup.findStatic(MethodHandles.class, "privateLookupIn",
+                    MethodType.methodType(MethodHandles.Lookup.class, Class.class, MethodHandles.Lookup.class));
+            defineHiddenClass = MethodHandles.insertArguments(lookup.findVirtual(MethodHandles.Lookup.class, "defineHiddenClass",
+                    MethodType.methodType(MethodHandles.Lookup.class, byte[].class, boolean.class, noOptions.getClass())).
+                    asFixedArity(), 3, noOptions);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            //当前JDK不支持hidden class
+            privateLookupIn = null;
+            defineHiddenClass = null;
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+        DEFINE_HIDDEN_CLASS = defineHiddenClass;
+    }
+
+    @Override
+    public String getName()
+    {
+        return "hiddenClass";
+    }
+
+    @Override
+    public boolean isSupported()
+    {
+        return DEFINE_HIDDEN_CLASS != null;
+    }
+
+    @Override
+    public BoundCopier createCopier(Class<?> sourceClass, Class<?> targetClass)
+    {
+        if (isSupported() && isAccessible(sourceClass, targetClass))
+        {
+            try
+            {
+                return defineCopier(sourceClass, targetClass);
+            }
+            catch (Throwable e)
+            {
+                LOGGER.debug("can not define hidden class copier from [{}] to [{}], use method handle instead : {}",
+                        sourceClass.getName(), targetClass.getName(), e.toString());
+            }
+        }
+        return CopyEngines.METHOD_HANDLE.createCopier(sourceClass, targetClass);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getName();
+    }
+
+    /**
+     * <p>在目标Class的包中定义拷贝器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 拷贝器
+     * @throws Throwable 定义失败
+     */
+    private static BoundCopier defineCopier(Class<?> sourceClass, Class<?> targetClass) throws Throwable
+    {
+        MethodHandles.Lookup targetLookup = (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(targetClass, MethodHandles.lookup());
+        byte[] bytecode = generate(sourceClass, targetClass);
+        MethodHandles.Lookup copierLookup = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(targetLookup, bytecode, true);
+        return (BoundCopier) copierLookup.findConstructor(copierLookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+    }
+
+    /**
+     * <p>生成拷贝器的字节码</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 字节码
+     */
+    private static byte[] generate(Class<?> sourceClass, Class<?> targetClass)
+    {
+        String packageName = packageName(targetClass);
+        String copierName = (packageName.isEmpty() ? "" : packageName.replace('.', '/') + '/') + COPIER_NAME;
+        String sourceType = Type.getInternalName(sourceClass);
+        String targetType = Type.getInternalName(targetClass);
+
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, copierName, null,
+                Type.getInternalName(Object.class), new String[]{Type.getInternalName(BoundCopier.class)});
+
+        MethodVisitor constructor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        //没有分支，不需要StackMapTable
+        MethodVisitor copy = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "copy", COPY_DESCRIPTOR, null, null);
+        copy.visitCode();
+        copy.visitVarInsn(Opcodes.ALOAD, 1);
+        copy.visitTypeInsn(Opcodes.CHECKCAST, sourceType);
+        copy.visitVarInsn(Opcodes.ASTORE, 3);
+        copy.visitVarInsn(Opcodes.ALOAD, 2);
+        copy.visitTypeInsn(Opcodes.CHECKCAST, targetType);
+        copy.visitVarInsn(Opcodes.ASTORE, 4);
+        BeanProperties sourceProperties = BeanProperties.of(sourceClass);
+        for (BeanProperty targetProperty : BeanProperties.of(targetClass).getProperties())
+        {
+            BeanProperty sourceProperty;
+            if (!targetProperty.isWritable() ||
+                    (sourceProperty = sourceProperties.getProperty(targetProperty.getName())) == null || !sourceProperty.isReadable() ||
+                    !targetProperty.getWriteType().isAssignableFrom(sourceProperty.getReadType()))
+            {
+                continue;
+            }
+            copy.visitVarInsn(Opcodes.ALOAD, 4);
+            copy.visitVarInsn(Opcodes.ALOAD, 3);
+            copy.visitMethodInsn(Opcodes.INVOKEVIRTUAL, sourceType, sourceProperty.getReadMethod().getName(),
+                    Type.getMethodDescriptor(sourceProperty.getReadMethod()), false);
+            copy.visitMethodInsn(Opcodes.INVOKEVIRTUAL, targetType, targetProperty.getWriteMethod().getName(),
+                    Type.getMethodDescriptor(targetProperty.getWriteMethod()), false);
+        }
+        copy.visitInsn(Opcodes.RETURN);
+        copy.visitMaxs(0, 0);
+        copy.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * <p>
+     * 定义在目标Class的包中的拷贝器是否可以访问源Class。
+     * 拷贝器的字节码由目标Class的ClassLoader解析，源Class与getter的返回类型都必须能被它加载到同一个Class，
+     * 否则每次拷贝都会抛出NoClassDefFoundError。
+     * </p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 源Class是否可以访问
+     */
+    private static boolean isAccessible(Class<?> sourceClass, Class<?> targetClass)
+    {
+        ClassLoader classLoader = targetClass.getClassLoader();
+        if (!isVisible(sourceClass, classLoader))
+        {
+            return false;
+        }
+        for (BeanProperty sourceProperty : BeanProperties.of(sourceClass).getProperties())
+        {
+            if (sourceProperty.isReadable() && !isVisible(sourceProperty.getReadMethod().getReturnType(), classLoader))
+            {
+                return false;
+            }
+        }
+        if (sourceClass.getClassLoader() == classLoader && packageName(sourceClass).equals(packageName(targetClass)))
+        {
+            return true;
+        }
+        for (Class<?> clazz = sourceClass; clazz != null; clazz = clazz.getEnclosingClass())
+        {
+            if (!Modifier.isPublic(clazz.getModifiers()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param type        Class
+     * @param classLoader ClassLoader
+     * @return classLoader是否能加载到同一个Class
+     */
+    private static boolean isVisible(Class<?> type, ClassLoader classLoader)
+    {
+        if (type.isPrimitive())
+        {
+            return true;
+        }
+        try
+        {
+            return Class.forName(type.getName(), false, classLoader) == type;
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @param clazz Class
+     * @return Class的包名，默认包为空字符串
+     */
+    private static String packageName(Class<?> clazz)
+    {
+        String name = clazz.getName();
+        int lastDot = name.lastIndexOf('.');
+        return lastDot < 0 ? "" : name.substring(0, lastDot);
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 耗时直方图。
+ * 按2的幂划分桶，第i个桶记录[2^(i-1), 2^i)纳秒的耗时，记录一次只需要几次无竞争的原子操作，
+ * 分位数精确到所在桶的上界。
+ * </p>
+ */
+final class LatencyHistogram
+{
+    //桶的数量，覆盖long的全部取值
+    private static final int BUCKETS = 64;
+
+    //每个桶的计数
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    //记录的次数
+    private final LongAdder count = new LongAdder();
+
+    //耗时的总和
+    private final LongAdder sum = new LongAdder();
+
+    //最大耗时
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * <p>记录一次耗时</p>
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    void record(long nanos)
+    {
+        nanos = Math.max(nanos, 0L);
+        buckets.incrementAndGet(Math.min(BUCKETS - Long.numberOfLeadingZeros(nanos), BUCKETS - 1));
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    long getCount()
+    {
+        return count.sum();
+    }
+
+    long getSum()
+    {
+        return sum.sum();
+    }
+
+    long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * <p>获取分位数</p>
+     *
+     * @param percentile 分位，范围[0, 1]
+     * @return 分位数所在桶的上界(纳秒)，没有记录时返回0
+     */
+    long getPercentile(double percentile)
+    {
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i)
+        {
+            total += counts[i] = buckets.get(i);
+        }
+        if (total == 0)
+        {
+            return 0L;
+        }
+        long rank = Math.max((long) Math.ceil(total * Math.min(Math.max(percentile, 0D), 1D)), 1L);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+            {
+                return Math.min(i == 0 ? 0L : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1, getMax());
+            }
+        }
+        return getMax();
+    }
+}
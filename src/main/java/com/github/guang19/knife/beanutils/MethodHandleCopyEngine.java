@@ -0,0 +1,37 @@
+package com.github.guang19.knife.beanutils;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 使用MethodHandle的拷贝引擎。
+ * 每个属性的getter与setter被组合为一个(Object, Object)void的MethodHandle，
+ * 基本类型的属性不会被装箱，也不需要定义新的类，在任何JDK上都可以使用。
+ * </p>
+ */
+final class MethodHandleCopyEngine implements CopyEngine
+{
+    @Override
+    public String getName()
+    {
+        return "methodHandle";
+    }
+
+    @Override
+    public boolean isSupported()
+    {
+        return true;
+    }
+
+    @Override
+    public BoundCopier createCopier(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return PropertyCopier.compile(sourceClass, targetClass, null);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getName();
+    }
+}
@@ -0,0 +1,453 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 泛型嵌套的List、Set、Map、数组属性的递归转换，如List&lt;InnerEntity&gt; -&gt; List&lt;InnerDto&gt;。
+ * 编译拷贝器时根据getter与setter的泛型类型为每个属性解析一次元素类型，确定元素的转换方式:
+ * 注册的转换器、内置的基本类型转换、嵌套的容器，或者使用目标元素类型的拷贝器创建新的bean。
+ * 拷贝时按源容器的大小创建目标容器，目标容器不会扩容。
+ *
+ * 元素类型兼容且容器类型兼容时不需要转换，与之前一样共享源容器的引用；
+ * 元素类型未知(原始类型的容器、类型变量)时也不转换。
+ * 源容器中的null元素保持为null，不处理循环引用。
+ * </p>
+ */
+final class NestedConverters
+{
+    //UnaryOperator.apply(Object)Object
+    private static final MethodHandle APPLY;
+
+    //不需要转换的元素
+    private static final UnaryOperator<Object> IDENTITY = value -> value;
+
+    static
+    {
+        try
+        {
+            APPLY = MethodHandles.publicLookup().findVirtual(UnaryOperator.class, "apply",
+                    MethodType.methodType(Object.class, Object.class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private NestedConverters()
+    {
+    }
+
+    /**
+     * <p>编译一个容器属性的转换</p>
+     *
+     * @param sourceType 源属性的泛型类型
+     * @param targetType 目标属性的泛型类型
+     * @param registry   转换器注册表
+     * @return (源属性类型)目标属性类型，不处理null；如果不是需要转换的容器，则返回null
+     */
+    static MethodHandle compile(Type sourceType, Type targetType, TypeConverterRegistry registry)
+    {
+        Class<?> sourceClass = rawClass(sourceType);
+        Class<?> targetClass = rawClass(targetType);
+        //注册的转换器优先
+        if (registry.findConverter(sourceClass, targetClass) != null)
+        {
+            return null;
+        }
+        UnaryOperator<Object> converter = containerConverter(sourceType, targetType, registry);
+        return converter == null ? null :
+                APPLY.bindTo(converter).asType(MethodType.methodType(targetClass, sourceClass));
+    }
+
+    /**
+     * <p>容器的转换</p>
+     *
+     * @return 转换器，如果不是容器或者不需要转换，则返回null
+     */
+    private static UnaryOperator<Object> containerConverter(Type sourceType, Type targetType, TypeConverterRegistry registry)
+    {
+        Class<?> sourceClass = rawClass(sourceType);
+        Class<?> targetClass = rawClass(targetType);
+        if (Map.class.isAssignableFrom(sourceClass) && Map.class.isAssignableFrom(targetClass))
+        {
+            UnaryOperator<Object> keyConverter = elementConverter(typeArgument(sourceType, 0, 2), typeArgument(targetType, 0, 2), registry);
+            UnaryOperator<Object> valueConverter = elementConverter(typeArgument(sourceType, 1, 2), typeArgument(targetType, 1, 2), registry);
+            IntFunction<Object> factory;
+            if (keyConverter == null || valueConverter == null ||
+                    (keyConverter == IDENTITY && valueConverter == IDENTITY && targetClass.isAssignableFrom(sourceClass)) ||
+                    (factory = mapFactory(targetClass)) == null)
+            {
+                return null;
+            }
+            return source -> convertMap((Map<?, ?>) source, factory, keyConverter, valueConverter);
+        }
+        if (!isSequence(sourceClass) || !isSequence(targetClass))
+        {
+            return null;
+        }
+        UnaryOperator<Object> elementConverter = elementConverter(elementType(sourceType), elementType(targetType), registry);
+        IntFunction<Object> factory;
+        if (elementConverter == null || (elementConverter == IDENTITY && targetClass.isAssignableFrom(sourceClass)) ||
+                (factory = sequenceFactory(targetClass)) == null)
+        {
+            return null;
+        }
+        return targetClass.isArray() ? source -> convertToArray(source, factory, elementConverter) :
+                source -> convertToCollection(source, factory, elementConverter);
+    }
+
+    /**
+     * <p>元素的转换</p>
+     *
+     * @param sourceType 源元素的泛型类型
+     * @param targetType 目标元素的泛型类型
+     * @param registry   转换器注册表
+     * @return 转换器，不需要转换时为IDENTITY，不能转换时为null
+     */
+    private static UnaryOperator<Object> elementConverter(Type sourceType, Type targetType, TypeConverterRegistry registry)
+    {
+        Class<?> sourceClass = TypeConverterRegistry.wrap(rawClass(sourceType));
+        Class<?> targetClass = TypeConverterRegistry.wrap(rawClass(targetType));
+        MethodHandle converter = registry.findConverter(sourceClass, targetClass);
+        if (converter == null)
+        {
+            UnaryOperator<Object> containerConverter = containerConverter(sourceType, targetType, registry);
+            if (containerConverter != null)
+            {
+                return nullSafe(containerConverter);
+            }
+            if (targetClass.isAssignableFrom(sourceClass))
+            {
+                return IDENTITY;
+            }
+            //元素类型未知时不转换
+            if (sourceClass == Object.class)
+            {
+                return null;
+            }
+            converter = TypeConverterRegistry.builtinConversion(sourceClass, targetClass);
+        }
+        if (converter != null)
+        {
+            MethodHandle handle = converter.asType(MethodType.methodType(Object.class, Object.class));
+            return nullSafe(value ->
+            {
+                try
+                {
+                    return (Object) handle.invokeExact(value);
+                }
+                catch (RuntimeException | Error e)
+                {
+                    throw e;
+                }
+                catch (Throwable e)
+                {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        if (isValueType(sourceClass) || isValueType(targetClass))
+        {
+            return null;
+        }
+        //bean元素: 使用目标元素类型的拷贝器或创建器
+        BatchConverter<?> batchConverter = BatchConverter.of(targetClass, registry);
+        return batchConverter == null ? null : batchConverter::convert;
+    }
+
+    private static UnaryOperator<Object> nullSafe(UnaryOperator<Object> converter)
+    {
+        return value -> value == null ? null : converter.apply(value);
+    }
+
+    private static Object convertMap(Map<?, ?> source, IntFunction<Object> factory, UnaryOperator<Object> keyConverter,
+                                     UnaryOperator<Object> valueConverter)
+    {
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> target = (Map<Object, Object>) factory.apply(source.size());
+        for (Map.Entry<?, ?> entry : source.entrySet())
+        {
+            target.put(keyConverter.apply(entry.getKey()), valueConverter.apply(entry.getValue()));
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object convertToCollection(Object source, IntFunction<Object> factory, UnaryOperator<Object> elementConverter)
+    {
+        Collection<Object> target;
+        if (source instanceof Collection)
+        {
+            Collection<?> collection = (Collection<?>) source;
+            target = (Collection<Object>) factory.apply(collection.size());
+            for (Object element : collection)
+            {
+                target.add(elementConverter.apply(element));
+            }
+        }
+        else
+        {
+            int length = Array.getLength(source);
+            target = (Collection<Object>) factory.apply(length);
+            for (int i = 0; i < length; ++i)
+            {
+                target.add(elementConverter.apply(Array.get(source, i)));
+            }
+        }
+        return target;
+    }
+
+    private static Object convertToArray(Object source, IntFunction<Object> factory, UnaryOperator<Object> elementConverter)
+    {
+        Object target;
+        if (source instanceof Collection)
+        {
+            Collection<?> collection = (Collection<?>) source;
+            target = factory.apply(collection.size());
+            int i = 0;
+            for (Object element : collection)
+            {
+                setElement(target, i++, elementConverter.apply(element));
+            }
+        }
+        else
+        {
+            int length = Array.getLength(source);
+            target = factory.apply(length);
+            for (int i = 0; i < length; ++i)
+            {
+                setElement(target, i, elementConverter.apply(Array.get(source, i)));
+            }
+        }
+        return target;
+    }
+
+    private static void setElement(Object array, int index, Object element)
+    {
+        //基本类型的数组保留默认值
+        if (element != null || !array.getClass().getComponentType().isPrimitive())
+        {
+            Array.set(array, index, element);
+        }
+    }
+
+    /**
+     * @param type Class
+     * @return 是否是Collection或数组
+     */
+    private static boolean isSequence(Class<?> type)
+    {
+        return type.isArray() || Collection.class.isAssignableFrom(type);
+    }
+
+    /**
+     * @param type Class
+     * @return 是否是不能按bean拷贝的类型
+     */
+    private static boolean isValueType(Class<?> type)
+    {
+        return DeepCopier.isImmutable(type) || type.isArray() || type.isInterface() ||
+                Modifier.isAbstract(type.getModifiers()) || type.getName().startsWith("java.");
+    }
+
+    /**
+     * <p>创建指定大小的目标Collection或数组</p>
+     *
+     * @param type 目标类型
+     * @return 大小 -> 目标Collection或数组，不支持时返回null
+     */
+    private static IntFunction<Object> sequenceFactory(Class<?> type)
+    {
+        if (type.isArray())
+        {
+            Class<?> componentType = type.getComponentType();
+            return size -> Array.newInstance(componentType, size);
+        }
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()))
+        {
+            if (type.isAssignableFrom(ArrayList.class))
+            {
+                return ArrayList::new;
+            }
+            if (type.isAssignableFrom(LinkedHashSet.class))
+            {
+                return size -> new LinkedHashSet<>(hashCapacity(size));
+            }
+            if (type.isAssignableFrom(TreeSet.class) && (type == SortedSet.class || type == NavigableSet.class))
+            {
+                return size -> new TreeSet<>();
+            }
+            if (type.isAssignableFrom(ArrayDeque.class) && Queue.class.isAssignableFrom(type))
+            {
+                return ArrayDeque::new;
+            }
+            return null;
+        }
+        return concreteFactory(type, Set.class.isAssignableFrom(type));
+    }
+
+    /**
+     * <p>创建指定大小的目标Map</p>
+     *
+     * @param type 目标类型
+     * @return 大小 -> 目标Map，不支持时返回null
+     */
+    private static IntFunction<Object> mapFactory(Class<?> type)
+    {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()))
+        {
+            if (type.isAssignableFrom(LinkedHashMap.class))
+            {
+                return size -> new LinkedHashMap<>(hashCapacity(size));
+            }
+            if (type == SortedMap.class || type == NavigableMap.class)
+            {
+                return size -> new TreeMap<>();
+            }
+            if (type == ConcurrentMap.class)
+            {
+                return size -> new ConcurrentHashMap<>(hashCapacity(size));
+            }
+            return null;
+        }
+        return concreteFactory(type, true);
+    }
+
+    /**
+     * <p>具体的容器类: java.util中有(int)构造器的类使用它预设容量，否则使用默认构造器</p>
+     *
+     * @param type   容器类
+     * @param hashed 构造器参数是否是哈希表的容量
+     * @return 大小 -> 容器，不能实例化时返回null
+     */
+    private static IntFunction<Object> concreteFactory(Class<?> type, boolean hashed)
+    {
+        if (type.getName().startsWith("java.util."))
+        {
+            try
+            {
+                Constructor<?> constructor = type.getConstructor(int.class);
+                return size ->
+                {
+                    try
+                    {
+                        return constructor.newInstance(hashed ? hashCapacity(size) : size);
+                    }
+                    catch (ReflectiveOperationException e)
+                    {
+                        throw new IllegalStateException(e);
+                    }
+                };
+            }
+            catch (NoSuchMethodException e)
+            {
+                //使用默认构造器
+            }
+        }
+        BeanInstantiator instantiator = BeanInstantiators.get(type);
+        return instantiator == null ? null : size -> BeanInstantiators.instantiate(instantiator, type);
+    }
+
+    /**
+     * @param size 元素数量
+     * @return 不需要扩容的哈希表容量
+     */
+    private static int hashCapacity(int size)
+    {
+        return (int) (size / .75f) + 1;
+    }
+
+    /**
+     * @param type Collection或数组的泛型类型
+     * @return 元素的泛型类型
+     */
+    private static Type elementType(Type type)
+    {
+        if (type instanceof GenericArrayType)
+        {
+            return ((GenericArrayType) type).getGenericComponentType();
+        }
+        Class<?> rawClass = rawClass(type);
+        return rawClass.isArray() ? rawClass.getComponentType() : typeArgument(type, 0, 1);
+    }
+
+    /**
+     * @param type  泛型类型
+     * @param index 类型参数的位置
+     * @param count 类型参数的数量，与实际的数量不同时无法确定类型参数的含义
+     * @return 类型参数，未知时返回Object.class
+     */
+    private static Type typeArgument(Type type, int index, int count)
+    {
+        if (type instanceof ParameterizedType)
+        {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (arguments.length == count)
+            {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * @param type 泛型类型
+     * @return 擦除后的Class，类型变量与通配符使用上界
+     */
+    private static Class<?> rawClass(Type type)
+    {
+        if (type instanceof Class)
+        {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType)
+        {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType)
+        {
+            return Array.newInstance(rawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType)
+        {
+            return rawClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable)
+        {
+            return rawClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 已确定源Class与目标Class的创建器，由{@link ObjectCreators}编译。
+ * 读取源对象的属性后直接调用目标Class的构造器或Builder，创建后会被缓存并被多个线程同时使用。
+ * </p>
+ */
+final class ObjectCreator
+{
+    //(Object source)Object
+    private final MethodHandle creator;
+
+    ObjectCreator(MethodHandle creator)
+    {
+        this.creator = creator;
+    }
+
+    /**
+     * <p>根据源对象创建目标对象</p>
+     *
+     * @param sourceObj 源对象
+     * @return 目标对象
+     * @throws Exception 构造器或Builder抛出的异常
+     */
+    Object create(Object sourceObj) throws Exception
+    {
+        try
+        {
+            return (Object) creator.invokeExact(sourceObj);
+        }
+        catch (Exception | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package com.github.guang19.knife.beanutils;
+
+import java.beans.ConstructorProperties;
+import java.beans.Introspector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 创建没有public默认构造器的目标对象: 不可变的值类、record、全参构造器以及Builder。
+ * 按以下顺序确定每个目标Class的创建方式，只检测一次:
+ * 1. record的canonical构造器(JDK 16+，通过反射检测，不依赖编译时的JDK版本);
+ * 2. 参数名已知的public构造器，参数名来自@ConstructorProperties或者使用-parameters编译的class，有多个时使用参数最多的;
+ * 3. public static builder()方法返回的Builder，Builder的属性方法可以是name(value)、setName(value)或withName(value)，
+ *    最后调用build()。
+ *
+ * 每个class pair会被编译为一个(Object source)Object的MethodHandle:
+ * 读取源对象的同名属性后直接调用构造器或Builder，不会先创建一个可变对象再拷贝。
+ * 源对象没有的构造器参数使用null或基本类型的默认值，没有的Builder属性不调用，保留Builder中的默认值。
+ * 属性类型的转换规则与{@link TypeConverterRegistry}相同。
+ * </p>
+ */
+final class ObjectCreators
+{
+    //Objects.isNull(Object)boolean
+    private static final MethodHandle IS_NULL;
+
+    //Class.isRecord()，JDK 16之前为null
+    private static final Method IS_RECORD;
+
+    //Class.getRecordComponents()
+    private static final Method GET_RECORD_COMPONENTS;
+
+    //RecordComponent.getName()
+    private static final Method GET_COMPONENT_NAME;
+
+    //RecordComponent.getType()
+    private static final Method GET_COMPONENT_TYPE;
+
+    //不能创建的Class对应的创建方式
+    private static final TargetFactory ABSENT = (sourceClass, registry, sourceNames, ignoreNull) ->
+    {
+        throw new UnsupportedOperationException();
+    };
+
+    //Class -> 创建方式
+    private static final ClassValue<TargetFactory> factoryCache = new ClassValue<TargetFactory>()
+    {
+        @Override
+        protected TargetFactory computeValue(Class<?> type)
+        {
+            return createFactory(type);
+        }
+    };
+
+    //不使用转换器注册表时编译的创建器
+    private static final ClassPairCache<ObjectCreator> creatorCache = new ClassPairCache<>();
+
+    static
+    {
+        try
+        {
+            IS_NULL = MethodHandles.publicLookup().findStatic(Objects.class, "isNull",
+                    MethodType.methodType(boolean.class, Object.class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+        Method isRecord = null;
+        Method getRecordComponents = null;
+        Method getComponentName = null;
+        Method getComponentType = null;
+        try
+        {
+            Class<?> recordComponentClass = Class.forName("java.lang.reflect.RecordComponent");
+            isRecord = Class.class.getMethod("isRecord");
+            getRecordComponents = Class.class.getMethod("getRecordComponents");
+            getComponentName = recordComponentClass.getMethod("getName");
+            getComponentType = recordComponentClass.getMethod("getType");
+        }
+        catch (ReflectiveOperationException e)
+        {
+            //JDK 16之前没有record
+        }
+        IS_RECORD = isRecord;
+        GET_RECORD_COMPONENTS = getRecordComponents;
+        GET_COMPONENT_NAME = getComponentName;
+        GET_COMPONENT_TYPE = getComponentType;
+    }
+
+    private ObjectCreators()
+    {
+    }
+
+    /**
+     * @param targetClass 目标Class
+     * @return 是否能通过record、构造器或Builder创建目标对象
+     */
+    static boolean isSupported(Class<?> targetClass)
+    {
+        return factoryCache.get(targetClass) != ABSENT;
+    }
+
+    /**
+     * <p>获取已编译的创建器，调用前需要通过{@link #isSupported(Class)}判断</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 创建器
+     */
+    static ObjectCreator get(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return creatorCache.get(sourceClass, targetClass, (s, t) -> compile(s, t, null));
+    }
+
+    /**
+     * <p>编译创建器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param registry    转换器注册表，为null时只使用内置转换
+     * @return 创建器
+     */
+    static ObjectCreator compile(Class<?> sourceClass, Class<?> targetClass, TypeConverterRegistry registry)
+    {
+        return compile(sourceClass, targetClass, registry, Function.identity(), false);
+    }
+
+    /**
+     * <p>编译创建器，可以重命名或者不读取源属性，可以跳过值为null的源属性</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param registry    转换器注册表，为null时只使用内置转换
+     * @param sourceNames 构造器参数名或Builder属性名 -> 源属性名，返回null时不读取源属性
+     * @param ignoreNull  源属性值为null时是否不调用Builder的属性方法，保留Builder中的默认值
+     * @return 创建器
+     */
+    static ObjectCreator compile(Class<?> sourceClass, Class<?> targetClass, TypeConverterRegistry registry,
+                                 Function<String, String> sourceNames, boolean ignoreNull)
+    {
+        return new ObjectCreator(factoryCache.get(targetClass).compile(sourceClass, registry, sourceNames, ignoreNull));
+    }
+
+    /**
+     * <p>使用创建器创建目标对象</p>
+     *
+     * @param creator     创建器
+     * @param sourceObj   源对象
+     * @param targetClass 目标Class
+     * @param <T>         Target Class
+     * @return 目标对象，如果创建失败，则返回null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T create(ObjectCreator creator, Object sourceObj, Class<T> targetClass)
+    {
+        try
+        {
+            if (!BeanUtilsMetrics.enabled)
+            {
+                return (T) creator.create(sourceObj);
+            }
+            long start = System.nanoTime();
+            T target = (T) creator.create(sourceObj);
+            BeanUtilsMetrics.recordCopy(sourceObj.getClass(), targetClass, System.nanoTime() - start);
+            return target;
+        }
+        catch (Exception e)
+        {
+            BeanInstantiators.logCreationFailure(targetClass, e);
+            return null;
+        }
+    }
+
+    /**
+     * <p>检测目标Class的创建方式</p>
+     *
+     * @param type 目标Class
+     * @return 创建方式
+     */
+    private static TargetFactory createFactory(Class<?> type)
+    {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers()))
+        {
+            return ABSENT;
+        }
+        try
+        {
+            TargetFactory factory = recordFactory(type);
+            if (factory == null)
+            {
+                factory = constructorFactory(type);
+            }
+            if (factory == null)
+            {
+                factory = builderFactory(type);
+            }
+            return factory == null ? ABSENT : factory;
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            return ABSENT;
+        }
+    }
+
+    /**
+     * @return record的canonical构造器，不是record时返回null
+     */
+    private static TargetFactory recordFactory(Class<?> type) throws ReflectiveOperationException
+    {
+        if (IS_RECORD == null || !(Boolean) IS_RECORD.invoke(type))
+        {
+            return null;
+        }
+        Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+        String[] names = new String[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; ++i)
+        {
+            names[i] = (String) GET_COMPONENT_NAME.invoke(components[i]);
+            types[i] = (Class<?>) GET_COMPONENT_TYPE.invoke(components[i]);
+        }
+        return new ConstructorFactory(type.getDeclaredConstructor(types), names);
+    }
+
+    /**
+     * @return 参数名已知且参数最多的public构造器，没有时返回null
+     */
+    private static TargetFactory constructorFactory(Class<?> type) throws ReflectiveOperationException
+    {
+        Constructor<?> selected = null;
+        String[] selectedNames = null;
+        for (Constructor<?> constructor : type.getConstructors())
+        {
+            String[] names = parameterNames(constructor);
+            if (names != null && (selected == null || names.length > selectedNames.length))
+            {
+                selected = constructor;
+                selectedNames = names;
+            }
+        }
+        return selected == null ? null : new ConstructorFactory(selected, selectedNames);
+    }
+
+    /**
+     * @return 构造器的参数名，未知时返回null
+     */
+    private static String[] parameterNames(Constructor<?> constructor)
+    {
+        if (constructor.getParameterCount() == 0)
+        {
+            return null;
+        }
+        ConstructorProperties constructorProperties = constructor.getAnnotation(ConstructorProperties.class);
+        if (constructorProperties != null)
+        {
+            return constructorProperties.value().length == constructor.getParameterCount() ? constructorProperties.value() : null;
+        }
+        Parameter[] parameters = constructor.getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; ++i)
+        {
+            if (!parameters[i].isNamePresent())
+            {
+                return null;
+            }
+            names[i] = parameters[i].getName();
+        }
+        return names;
+    }
+
+    /**
+     * @return public static builder()方法返回的Builder，没有时返回null
+     */
+    private static TargetFactory builderFactory(Class<?> type) throws ReflectiveOperationException
+    {
+        Method builder;
+        try
+        {
+            builder = type.getMethod("builder");
+        }
+        catch (NoSuchMethodException e)
+        {
+            return null;
+        }
+        Class<?> builderClass = builder.getReturnType();
+        if (!Modifier.isStatic(builder.getModifiers()) || builderClass.isPrimitive())
+        {
+            return null;
+        }
+        Method build;
+        try
+        {
+            build = builderClass.getMethod("build");
+        }
+        catch (NoSuchMethodException e)
+        {
+            return null;
+        }
+        if (Modifier.isStatic(build.getModifiers()) || !type.isAssignableFrom(build.getReturnType()))
+        {
+            return null;
+        }
+        Map<String, Method> setters = new LinkedHashMap<>();
+        for (Method method : builderClass.getMethods())
+        {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1 || method.getDeclaringClass() == Object.class)
+            {
+                continue;
+            }
+            String name = method.getName();
+            String propertyName = name;
+            if (name.length() > 3 && name.startsWith("set") && Character.isUpperCase(name.charAt(3)))
+            {
+                propertyName = Introspector.decapitalize(name.substring(3));
+            }
+            else if (name.length() > 4 && name.startsWith("with") && Character.isUpperCase(name.charAt(4)))
+            {
+                propertyName = Introspector.decapitalize(name.substring(4));
+            }
+            //name(value)优先于setName(value)、withName(value)
+            if (propertyName.equals(name) || !setters.containsKey(propertyName))
+            {
+                setters.put(propertyName, method);
+            }
+        }
+        return new BuilderFactory(builder, build, setters);
+    }
+
+    /**
+     * @param sourceProperties 源Class的属性
+     * @param name             构造器参数名或Builder属性名
+     * @param sourceNames      参数名 -> 源属性名
+     * @return 可读的源属性，没有时返回null
+     */
+    private static BeanProperty sourcePropertyOf(BeanProperties sourceProperties, String name, Function<String, String> sourceNames)
+    {
+        String sourceName = sourceNames.apply(name);
+        BeanProperty sourceProperty = sourceName == null ? null : sourceProperties.getProperty(sourceName);
+        return sourceProperty == null || !sourceProperty.isReadable() ? null : sourceProperty;
+    }
+
+    /**
+     * <p>编译一个参数: 读取源属性值并转换为参数类型</p>
+     *
+     * @param sourceProperty 源属性
+     * @param parameterType  参数类型
+     * @param registry       转换器注册表，为null时只使用内置转换
+     * @return (Object source)parameterType，如果属性不能转换，则返回null
+     */
+    private static MethodHandle compileArgument(BeanProperty sourceProperty, Class<?> parameterType, TypeConverterRegistry registry)
+    {
+        Class<?> sourceType = sourceProperty.getReadType();
+        //(sourceType)parameterType
+        MethodHandle conversion;
+        MethodHandle converter;
+        if (parameterType.isAssignableFrom(sourceType))
+        {
+            return sourceProperty.getReader().asType(MethodType.methodType(parameterType, Object.class));
+        }
+        else if (registry != null && (converter = registry.findConverter(sourceType, parameterType)) != null)
+        {
+            conversion = MethodHandles.filterReturnValue(converter, nullToDefault(parameterType));
+        }
+        else if ((converter = TypeConverterRegistry.builtinConversion(sourceType, parameterType)) != null)
+        {
+            conversion = converter;
+        }
+        else
+        {
+            return null;
+        }
+        if (!sourceType.isPrimitive())
+        {
+            //源属性值为null时不调用转换器，使用参数类型的默认值
+            conversion = MethodHandles.guardWithTest(IS_NULL.asType(MethodType.methodType(boolean.class, sourceType)),
+                    MethodHandles.dropArguments(defaultValue(parameterType), 0, sourceType), conversion);
+        }
+        return MethodHandles.filterReturnValue(sourceProperty.getReader(), conversion);
+    }
+
+    /**
+     * @param type 参数类型
+     * @return (Object)type，转换为参数类型，基本类型的null转换为默认值
+     */
+    private static MethodHandle nullToDefault(Class<?> type)
+    {
+        MethodHandle cast = MethodHandles.identity(Object.class).asType(MethodType.methodType(type, Object.class));
+        return type.isPrimitive() ? MethodHandles.guardWithTest(IS_NULL,
+                MethodHandles.dropArguments(defaultValue(type), 0, Object.class), cast) : cast;
+    }
+
+    /**
+     * @param type 类型
+     * @return ()type，返回null或者基本类型的默认值
+     */
+    private static MethodHandle defaultValue(Class<?> type)
+    {
+        return MethodHandles.constant(type, type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null);
+    }
+
+    /**
+     * <p>把Method或Constructor转换为MethodHandle</p>
+     */
+    private static MethodHandle unreflect(Object member) throws IllegalAccessException
+    {
+        if (member instanceof Constructor)
+        {
+            Constructor<?> constructor = (Constructor<?>) member;
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        }
+        Method method = (Method) member;
+        method.setAccessible(true);
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    /**
+     * <p>目标Class的创建方式</p>
+     */
+    private interface TargetFactory
+    {
+        /**
+         * @param sourceClass 源Class
+         * @param registry    转换器注册表，可以为null
+         * @param sourceNames 参数名 -> 源属性名，返回null时不读取源属性
+         * @param ignoreNull  源属性值为null时是否跳过
+         * @return (Object source)Object
+         */
+        MethodHandle compile(Class<?> sourceClass, TypeConverterRegistry registry, Function<String, String> sourceNames, boolean ignoreNull);
+    }
+
+    /**
+     * <p>通过构造器创建</p>
+     */
+    private static final class ConstructorFactory implements TargetFactory
+    {
+        //(parameters...)Object
+        private final MethodHandle constructor;
+
+        //参数名
+        private final String[] names;
+
+        private ConstructorFactory(Constructor<?> constructor, String[] names) throws IllegalAccessException
+        {
+            MethodHandle handle = unreflect(constructor);
+            this.constructor = handle.asType(handle.type().changeReturnType(Object.class));
+            this.names = names;
+        }
+
+        @Override
+        public MethodHandle compile(Class<?> sourceClass, TypeConverterRegistry registry, Function<String, String> sourceNames,
+                                    boolean ignoreNull)
+        {
+            //构造器的每个参数都需要传入，源属性值为null时总是使用null或基本类型的默认值，ignoreNull没有影响
+            BeanProperties sourceProperties = BeanProperties.of(sourceClass);
+            MethodHandle[] arguments = new MethodHandle[names.length];
+            for (int i = 0; i < names.length; ++i)
+            {
+                Class<?> parameterType = constructor.type().parameterType(i);
+                BeanProperty sourceProperty = sourcePropertyOf(sourceProperties, names[i], sourceNames);
+                MethodHandle argument = sourceProperty == null ? null : compileArgument(sourceProperty, parameterType, registry);
+                arguments[i] = argument != null ? argument :
+                        MethodHandles.dropArguments(defaultValue(parameterType), 0, Object.class);
+            }
+            //(Object source, Object source, ...)Object -> (Object source)Object
+            MethodHandle create = MethodHandles.filterArguments(constructor, 0, arguments);
+            return MethodHandles.permuteArguments(create, MethodType.methodType(Object.class, Object.class), new int[names.length]);
+        }
+    }
+
+    /**
+     * <p>通过Builder创建</p>
+     */
+    private static final class BuilderFactory implements TargetFactory
+    {
+        //()Object
+        private final MethodHandle builder;
+
+        //(Object builder)Object
+        private final MethodHandle build;
+
+        //属性名 -> (Object builder, 属性类型)void
+        private final Map<String, MethodHandle> setters = new LinkedHashMap<>();
+
+        private BuilderFactory(Method builder, Method build, Map<String, Method> setters) throws IllegalAccessException
+        {
+            this.builder = unreflect(builder).asType(MethodType.methodType(Object.class));
+            this.build = unreflect(build).asType(MethodType.methodType(Object.class, Object.class));
+            for (Map.Entry<String, Method> setter : setters.entrySet())
+            {
+                this.setters.put(setter.getKey(), unreflect(setter.getValue()).asType(MethodType.methodType(void.class, Object.class,
+                        setter.getValue().getParameterTypes()[0])));
+            }
+        }
+
+        @Override
+        public MethodHandle compile(Class<?> sourceClass, TypeConverterRegistry registry, Function<String, String> sourceNames,
+                                    boolean ignoreNull)
+        {
+            BeanProperties sourceProperties = BeanProperties.of(sourceClass);
+            //(Object builder, Object source)void
+            MethodHandle steps = PropertyCopier.noop(MethodType.methodType(void.class, Object.class, Object.class));
+            for (Map.Entry<String, MethodHandle> setter : setters.entrySet())
+            {
+                BeanProperty sourceProperty = sourcePropertyOf(sourceProperties, setter.getKey(), sourceNames);
+                MethodHandle argument = sourceProperty == null ? null :
+                        compileArgument(sourceProperty, setter.getValue().type().parameterType(1), registry);
+                if (argument == null)
+                {
+                    continue;
+                }
+                MethodHandle step = MethodHandles.filterArguments(setter.getValue(), 1, argument);
+                if (ignoreNull && !sourceProperty.getReadType().isPrimitive())
+                {
+                    //(Object builder, Object source)boolean: 源属性值为null时不调用属性方法
+                    MethodHandle isNull = MethodHandles.dropArguments(MethodHandles.filterReturnValue(
+                            sourceProperty.getReader().asType(MethodType.methodType(Object.class, Object.class)), IS_NULL), 0, Object.class);
+                    step = MethodHandles.guardWithTest(isNull, PropertyCopier.noop(step.type()), step);
+                }
+                steps = MethodHandles.foldArguments(steps, step);
+            }
+            //(Object builder, Object source)Object: 先调用属性方法，再调用build()
+            MethodHandle finish = MethodHandles.foldArguments(MethodHandles.dropArguments(build, 1, Object.class), steps);
+            return MethodHandles.foldArguments(finish, builder);
+        }
+    }
+}
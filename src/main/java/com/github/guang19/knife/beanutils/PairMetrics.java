@@ -0,0 +1,173 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 一个class pair的统计: 生成拷贝器的耗时与拷贝耗时的分布。
+ * 只有开启{@link BeanUtilsMetrics}时才会记录。
+ * 只弱引用class pair，统计不会阻止Class与它的ClassLoader被卸载。
+ * </p>
+ */
+public final class PairMetrics
+{
+    //源Class
+    private final WeakReference<Class<?>> sourceClass;
+
+    //目标Class
+    private final WeakReference<Class<?>> targetClass;
+
+    //源Class的名称
+    private final String sourceClassName;
+
+    //目标Class的名称
+    private final String targetClassName;
+
+    //生成拷贝器的耗时的总和，同一个class pair可能被多个缓存(如不同的引擎)分别生成
+    private final LatencyHistogram generations = new LatencyHistogram();
+
+    //拷贝的耗时
+    private final LatencyHistogram copies = new LatencyHistogram();
+
+    PairMetrics(Class<?> sourceClass, Class<?> targetClass)
+    {
+        this.sourceClass = new WeakReference<>(sourceClass);
+        this.targetClass = new WeakReference<>(targetClass);
+        this.sourceClassName = sourceClass.getName();
+        this.targetClassName = targetClass.getName();
+    }
+
+    void recordGeneration(long nanos)
+    {
+        generations.record(nanos);
+    }
+
+    void recordCopy(long nanos)
+    {
+        copies.record(nanos);
+    }
+
+    public String getSourceClassName()
+    {
+        return sourceClassName;
+    }
+
+    public String getTargetClassName()
+    {
+        return targetClassName;
+    }
+
+    /**
+     * @return class pair中是否有Class已被回收
+     */
+    boolean isStale()
+    {
+        return sourceClass.get() == null || targetClass.get() == null;
+    }
+
+    /**
+     * @return 源Class或者目标Class是否由loader加载
+     */
+    boolean isLoadedBy(ClassLoader loader)
+    {
+        Class<?> source = sourceClass.get();
+        Class<?> target = targetClass.get();
+        return (source != null && source.getClassLoader() == loader) || (target != null && target.getClassLoader() == loader);
+    }
+
+    /**
+     * @return 源Class，已被回收时返回null
+     */
+    Class<?> getSourceClass()
+    {
+        return sourceClass.get();
+    }
+
+    /**
+     * @return 目标Class，已被回收时返回null
+     */
+    Class<?> getTargetClass()
+    {
+        return targetClass.get();
+    }
+
+    /**
+     * @return 生成拷贝器的次数
+     */
+    public long getGenerationCount()
+    {
+        return generations.getCount();
+    }
+
+    /**
+     * @return 生成拷贝器的总耗时(纳秒)
+     */
+    public long getGenerationNanos()
+    {
+        return generations.getSum();
+    }
+
+    /**
+     * @return 拷贝次数
+     */
+    public long getCopyCount()
+    {
+        return copies.getCount();
+    }
+
+    /**
+     * @return 拷贝的总耗时(纳秒)
+     */
+    public long getTotalCopyNanos()
+    {
+        return copies.getSum();
+    }
+
+    /**
+     * @return 拷贝的最大耗时(纳秒)
+     */
+    public long getMaxCopyNanos()
+    {
+        return copies.getMax();
+    }
+
+    /**
+     * @return 拷贝耗时的中位数(纳秒)
+     */
+    public long getCopyNanosP50()
+    {
+        return copies.getPercentile(0.5D);
+    }
+
+    /**
+     * @return 拷贝耗时的99分位数(纳秒)
+     */
+    public long getCopyNanosP99()
+    {
+        return copies.getPercentile(0.99D);
+    }
+
+    /**
+     * @param percentile 分位，范围[0, 1]
+     * @return 拷贝耗时的分位数(纳秒)，精确到2的幂
+     */
+    public long getCopyNanosPercentile(double percentile)
+    {
+        return copies.getPercentile(percentile);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[" + sourceClassName + " -> " + targetClassName + "]{" +
+                "generations=" + getGenerationCount() +
+                ", generationNanos=" + getGenerationNanos() +
+                ", copies=" + getCopyCount() +
+                ", p50=" + getCopyNanosP50() +
+                ", p99=" + getCopyNanosP99() +
+                ", max=" + getMaxCopyNanos() +
+                '}';
+    }
+}
@@ -0,0 +1,511 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 由MethodHandle编译的拷贝器。
+ * 编译时为每个(源属性, 目标属性)确定转换规则，并把所有属性的拷贝组合为一个(Object, Object)void的MethodHandle，
+ * 拷贝时不再查找转换器，类型相同的属性也不会经过转换。
+ * </p>
+ */
+final class PropertyCopier implements BoundCopier
+{
+    //(Object, Object)void
+    private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    //(Object, Object, BeanFieldValueConverter)void
+    private static final MethodType CONVERTING_COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class,
+            BeanFieldValueConverter.class);
+
+    //BeanFieldValueConverter.convertFieldValue(Object)Object
+    private static final MethodHandle CONVERT_FIELD_VALUE;
+
+    //Objects.isNull(Object)boolean
+    private static final MethodHandle IS_NULL;
+
+    //()void
+    private static final MethodHandle NOOP;
+
+    static
+    {
+        try
+        {
+            IS_NULL = MethodHandles.publicLookup().findStatic(Objects.class, "isNull",
+                    MethodType.methodType(boolean.class, Object.class));
+            NOOP = MethodHandles.lookup().findStatic(PropertyCopier.class, "noop", MethodType.methodType(void.class));
+            CONVERT_FIELD_VALUE = MethodHandles.publicLookup().findVirtual(BeanFieldValueConverter.class, "convertFieldValue",
+                    MethodType.methodType(Object.class, Object.class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //源Class
+    private final Class<?> sourceClass;
+
+    //目标Class
+    private final Class<?> targetClass;
+
+    //(Object source, Object target)void
+    private final MethodHandle copier;
+
+    //拷贝的属性数量
+    private final int propertyCount;
+
+    private PropertyCopier(Class<?> sourceClass, Class<?> targetClass, MethodHandle copier, int propertyCount)
+    {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.copier = copier;
+        this.propertyCount = propertyCount;
+    }
+
+    /**
+     * <p>编译拷贝器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param registry    转换器注册表，为null时只拷贝类型兼容的属性
+     * @return 拷贝器
+     */
+    static PropertyCopier compile(Class<?> sourceClass, Class<?> targetClass, TypeConverterRegistry registry)
+    {
+        return compile(sourceClass, targetClass, registry, targetProperty -> true);
+    }
+
+    /**
+     * <p>编译只拷贝部分目标属性的拷贝器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param registry    转换器注册表，为null时只拷贝类型兼容的属性
+     * @param filter      需要拷贝的目标属性
+     * @return 拷贝器
+     */
+    static PropertyCopier compile(Class<?> sourceClass, Class<?> targetClass, TypeConverterRegistry registry,
+                                  Predicate<BeanProperty> filter)
+    {
+        return compile(sourceClass, targetClass, registry, filter, false);
+    }
+
+    /**
+     * <p>编译只拷贝部分目标属性的拷贝器，可以跳过值为null的源属性</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param registry    转换器注册表，为null时只拷贝类型兼容的属性
+     * @param filter      需要拷贝的目标属性
+     * @param ignoreNull  源属性值为null时是否不调用目标属性的setter
+     * @return 拷贝器
+     */
+    static PropertyCopier compile(Class<?> sourceClass, Class<?> targetClass, TypeConverterRegistry registry,
+                                  Predicate<BeanProperty> filter, boolean ignoreNull)
+    {
+        return compile(sourceClass, targetClass, registry, filter, ignoreNull, Collections.emptyMap());
+    }
+
+    /**
+     * <p>
+     * 编译拷贝器，除了名称相同的属性，还按mappings拷贝名称不同或者嵌套的属性。
+     * 属性路径以.分隔，如address.city: 源路径中间的属性为null时不拷贝，
+     * 目标路径中间的属性为null时使用默认构造器创建并设置。
+     * 路径在编译时解析为getter/setter的调用链，拷贝时不再查找属性。
+     * </p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param registry    转换器注册表，为null时只拷贝类型兼容的属性
+     * @param filter      需要拷贝的名称相同的目标属性
+     * @param ignoreNull  源属性值为null时是否不调用目标属性的setter
+     * @param mappings    目标属性路径 -> 源属性路径
+     * @return 拷贝器
+     * @throws IllegalArgumentException 属性路径不存在或者类型不能转换
+     */
+    static PropertyCopier compile(Class<?> sourceClass, Class<?> targetClass, TypeConverterRegistry registry,
+                                  Predicate<BeanProperty> filter, boolean ignoreNull, Map<String, String> mappings)
+    {
+        //被映射的目标属性，以及嵌套的目标路径的第一个属性，不再按名称拷贝
+        Set<String> mappedTargets = new HashSet<>();
+        for (String targetPath : mappings.keySet())
+        {
+            mappedTargets.add(splitPath(targetPath)[0]);
+        }
+        BeanProperties sourceProperties = BeanProperties.of(sourceClass);
+        MethodHandle copier = noop(COPY_TYPE);
+        int propertyCount = 0;
+        for (Map.Entry<String, String> mapping : mappings.entrySet())
+        {
+            copier = MethodHandles.foldArguments(copier,
+                    compileMapping(sourceClass, targetClass, mapping.getValue(), mapping.getKey(), registry, ignoreNull));
+            ++propertyCount;
+        }
+        for (BeanProperty targetProperty : BeanProperties.of(targetClass).getProperties())
+        {
+            BeanProperty sourceProperty;
+            if (!targetProperty.isWritable() || mappedTargets.contains(targetProperty.getName()) || !filter.test(targetProperty) ||
+                    (sourceProperty = sourceProperties.getProperty(targetProperty.getName())) == null || !sourceProperty.isReadable())
+            {
+                continue;
+            }
+            MethodHandle write = compileWrite(sourceProperty, targetProperty, registry);
+            if (write != null)
+            {
+                Class<?> sourceType = sourceProperty.getReadType();
+                if (ignoreNull && !sourceType.isPrimitive())
+                {
+                    write = MethodHandles.guardWithTest(dropTarget(IS_NULL.asType(MethodType.methodType(boolean.class, sourceType))),
+                            noop(write.type()), write);
+                }
+                //(Object source, Object target)void
+                MethodHandle copyProperty = MethodHandles.filterArguments(write, 0, sourceProperty.getReader());
+                copier = MethodHandles.foldArguments(copier, copyProperty);
+                ++propertyCount;
+            }
+        }
+        return new PropertyCopier(sourceClass, targetClass, copier, propertyCount);
+    }
+
+    /**
+     * <p>
+     * 编译使用BeanFieldValueConverter的拷贝，规则与使用Converter的BeanCopier相同:
+     * 名称相同的属性不论类型是否兼容都经过转换器，转换结果强制转换为目标属性的类型，基本类型的目标属性收到null时设置为0。
+     * 转换器在拷贝时作为参数传入，同一个拷贝可以使用不同的转换器。
+     * </p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return (Object source, Object target, BeanFieldValueConverter converter)void
+     */
+    static MethodHandle compileConverting(Class<?> sourceClass, Class<?> targetClass)
+    {
+        BeanProperties sourceProperties = BeanProperties.of(sourceClass);
+        MethodHandle copier = noop(CONVERTING_COPY_TYPE);
+        for (BeanProperty targetProperty : BeanProperties.of(targetClass).getProperties())
+        {
+            BeanProperty sourceProperty;
+            if (!targetProperty.isWritable() ||
+                    (sourceProperty = sourceProperties.getProperty(targetProperty.getName())) == null || !sourceProperty.isReadable())
+            {
+                continue;
+            }
+            //(BeanFieldValueConverter converter, Object source)Object，基本类型的属性值被装箱
+            MethodHandle convert = MethodHandles.filterArguments(CONVERT_FIELD_VALUE, 1,
+                    sourceProperty.getReader().asType(MethodType.methodType(Object.class, Object.class)));
+            //(Object target, Object converted)void，explicitCastArguments把null转换为基本类型的0
+            MethodHandle put = MethodHandles.explicitCastArguments(targetProperty.getWriter(), COPY_TYPE);
+            //(Object target, BeanFieldValueConverter converter, Object source)void
+            MethodHandle copyProperty = MethodHandles.collectArguments(put, 1, convert);
+            copier = MethodHandles.foldArguments(copier, MethodHandles.permuteArguments(copyProperty, CONVERTING_COPY_TYPE, 1, 2, 0));
+        }
+        return copier;
+    }
+
+    /**
+     * <p>编译一个属性路径的拷贝</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @param sourcePath  源属性路径
+     * @param targetPath  目标属性路径
+     * @param registry    转换器注册表，为null时只拷贝类型兼容的属性
+     * @param ignoreNull  源属性值为null时是否不调用目标属性的setter
+     * @return (Object source, Object target)void
+     */
+    private static MethodHandle compileMapping(Class<?> sourceClass, Class<?> targetClass, String sourcePath, String targetPath,
+                                               TypeConverterRegistry registry, boolean ignoreNull)
+    {
+        BeanProperty[] sourceChain = resolvePath(sourceClass, sourcePath, false);
+        BeanProperty[] targetChain = resolvePath(targetClass, targetPath, true);
+        BeanProperty sourceLeaf = sourceChain[sourceChain.length - 1];
+        BeanProperty targetLeaf = targetChain[targetChain.length - 1];
+        Class<?> sourceType = sourceLeaf.getReadType();
+        //(sourceType value, Object holder)void
+        MethodHandle write = compileWrite(sourceLeaf, targetLeaf, registry);
+        if (write == null)
+        {
+            throw new IllegalArgumentException("can not copy property : [" + sourceClass.getName() + "." + sourcePath + "] of type : [" +
+                    sourceType.getName() + "] to : [" + targetClass.getName() + "." + targetPath + "] of type : [" + targetLeaf.getWriteType().getName() + "]");
+        }
+        //目标路径: 依次获取或创建中间的对象
+        for (int i = targetChain.length - 2; i >= 0; --i)
+        {
+            write = MethodHandles.filterArguments(write, 1, NestedTarget.getOrCreate(targetChain[i]));
+        }
+        if (ignoreNull && !sourceType.isPrimitive())
+        {
+            write = MethodHandles.guardWithTest(dropTarget(IS_NULL.asType(MethodType.methodType(boolean.class, sourceType))),
+                    noop(write.type()), write);
+        }
+        //源路径: 依次读取中间的对象，为null时不拷贝
+        write = MethodHandles.filterArguments(write, 0, sourceLeaf.getReader());
+        for (int i = sourceChain.length - 2; i >= 0; --i)
+        {
+            write = MethodHandles.guardWithTest(dropTarget(IS_NULL), noop(write.type()), write);
+            write = MethodHandles.filterArguments(write, 0,
+                    sourceChain[i].getReader().asType(MethodType.methodType(Object.class, Object.class)));
+        }
+        return write;
+    }
+
+    /**
+     * <p>解析属性路径</p>
+     *
+     * @param beanClass bean Class
+     * @param path      以.分隔的属性路径
+     * @param write     是否写入路径的最后一个属性
+     * @return 路径上的属性
+     * @throws IllegalArgumentException 属性不存在或者不能访问
+     */
+    private static BeanProperty[] resolvePath(Class<?> beanClass, String path, boolean write)
+    {
+        String[] names = splitPath(path);
+        BeanProperty[] chain = new BeanProperty[names.length];
+        Class<?> holderClass = beanClass;
+        for (int i = 0; i < names.length; ++i)
+        {
+            boolean leaf = i == names.length - 1;
+            BeanProperty property = BeanProperties.of(holderClass).getProperty(names[i]);
+            //中间的属性需要读取；目标路径中间的属性为null时还需要创建并写入
+            boolean accessible = property != null && (leaf ? (write ? property.isWritable() : property.isReadable()) :
+                    property.isReadable() && !property.getReadType().isPrimitive() && (!write || property.isWritable()));
+            if (!accessible)
+            {
+                throw new IllegalArgumentException("can not " + (leaf && write ? "write" : "read") + " property : [" + names[i] +
+                        "] of path : [" + path + "] in class : [" + holderClass.getName() + "]");
+            }
+            chain[i] = property;
+            holderClass = leaf ? null : property.getReadType();
+        }
+        return chain;
+    }
+
+    /**
+     * @param path 以.分隔的属性路径
+     * @return 属性名
+     */
+    private static String[] splitPath(String path)
+    {
+        return path.split("\\.");
+    }
+
+    /**
+     * <p>
+     * 编译一个属性的写入，使用转换器注册表时，
+     * 泛型元素类型不同的List、Set、Map、数组属性由{@link NestedConverters}递归转换。
+     * </p>
+     *
+     * @param sourceProperty 源属性
+     * @param targetProperty 目标属性
+     * @param registry       转换器注册表，为null时只拷贝类型兼容的属性
+     * @return (源属性类型 value, Object target)void，如果属性不能转换，则返回null
+     */
+    private static MethodHandle compileWrite(BeanProperty sourceProperty, BeanProperty targetProperty, TypeConverterRegistry registry)
+    {
+        Class<?> sourceType = sourceProperty.getReadType();
+        Class<?> targetType = targetProperty.getWriteType();
+        MethodHandle conversion = registry == null ? null :
+                NestedConverters.compile(sourceProperty.getGenericReadType(), targetProperty.getGenericWriteType(), registry);
+        if (conversion == null)
+        {
+            return compileWrite(sourceType, targetType, targetProperty.getWriter(), registry);
+        }
+        //(targetType value, Object target)void
+        MethodHandle put = MethodHandles.permuteArguments(targetProperty.getWriter(),
+                MethodType.methodType(void.class, targetType, Object.class), 1, 0);
+        //源属性值为null时目标属性设置为null
+        MethodHandle writeNull = MethodHandles.dropArguments(MethodHandles.insertArguments(put, 0, (Object) null), 0, sourceType);
+        return MethodHandles.guardWithTest(dropTarget(IS_NULL.asType(MethodType.methodType(boolean.class, sourceType))),
+                writeNull, MethodHandles.filterArguments(put, 0, conversion));
+    }
+
+    /**
+     * <p>编译一个属性的写入: 把源属性值转换后写入目标对象</p>
+     *
+     * @param sourceType 源属性类型
+     * @param targetType 目标属性类型
+     * @param writer     (Object, targetType)void
+     * @param registry   转换器注册表，为null时只拷贝类型兼容的属性
+     * @return (sourceType value, Object target)void，如果属性不能转换，则返回null
+     */
+    static MethodHandle compileWrite(Class<?> sourceType, Class<?> targetType, MethodHandle writer, TypeConverterRegistry registry)
+    {
+        //(targetType value, Object target)void
+        MethodHandle put = MethodHandles.permuteArguments(writer, MethodType.methodType(void.class, targetType, Object.class), 1, 0);
+        MethodHandle write;
+        MethodHandle converter;
+        if (targetType.isAssignableFrom(sourceType))
+        {
+            //类型兼容，直接拷贝
+            return put.asType(MethodType.methodType(void.class, sourceType, Object.class));
+        }
+        else if (registry == null)
+        {
+            //没有注册表时与BeanCopier一样，只拷贝类型兼容的属性
+            return null;
+        }
+        else if ((converter = registry.findConverter(sourceType, targetType)) != null)
+        {
+            //(Object converted, Object target)void，基本类型的目标属性不接收null
+            MethodHandle putConverted = put.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            if (targetType.isPrimitive())
+            {
+                putConverted = MethodHandles.guardWithTest(dropTarget(IS_NULL),
+                        noop(putConverted.type()), putConverted);
+            }
+            write = MethodHandles.filterArguments(putConverted, 0, converter);
+        }
+        else if ((converter = TypeConverterRegistry.builtinConversion(sourceType, targetType)) != null)
+        {
+            write = MethodHandles.filterArguments(put, 0, converter);
+        }
+        else
+        {
+            return null;
+        }
+        if (sourceType.isPrimitive())
+        {
+            return write;
+        }
+        //源属性值为null时不调用转换器: 目标属性为引用类型时设置为null，为基本类型时保持不变
+        MethodHandle writeNull = targetType.isPrimitive() ? noop(write.type()) :
+                MethodHandles.dropArguments(MethodHandles.insertArguments(put, 0, (Object) null), 0, sourceType);
+        return MethodHandles.guardWithTest(dropTarget(IS_NULL.asType(MethodType.methodType(boolean.class, sourceType))),
+                writeNull, write);
+    }
+
+    /**
+     * <p>给(value)boolean的判断添加被忽略的target参数</p>
+     *
+     * @param test (value)boolean
+     * @return (value, Object target)boolean
+     */
+    private static MethodHandle dropTarget(MethodHandle test)
+    {
+        return MethodHandles.dropArguments(test, 1, Object.class);
+    }
+
+    /**
+     * <p>什么都不做的MethodHandle</p>
+     *
+     * @param type 返回类型为void的MethodType
+     * @return MethodHandle
+     */
+    static MethodHandle noop(MethodType type)
+    {
+        return MethodHandles.dropArguments(NOOP, 0, type.parameterList());
+    }
+
+    private static void noop()
+    {
+    }
+
+    /**
+     * <p>目标路径中间的属性，为null时使用默认构造器创建</p>
+     */
+    private static final class NestedTarget
+    {
+        //NestedTarget.get(Object)Object
+        private static final MethodHandle GET;
+
+        static
+        {
+            try
+            {
+                GET = MethodHandles.lookup().findVirtual(NestedTarget.class, "get", MethodType.methodType(Object.class, Object.class));
+            }
+            catch (ReflectiveOperationException e)
+            {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        //(Object)Object
+        private final MethodHandle reader;
+
+        //(Object, Object)void
+        private final MethodHandle writer;
+
+        //创建属性值
+        private final BeanInstantiator instantiator;
+
+        private NestedTarget(BeanProperty property)
+        {
+            this.reader = property.getReader().asType(MethodType.methodType(Object.class, Object.class));
+            this.writer = property.getWriter().asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.instantiator = BeanInstantiators.get(property.getWriteType());
+            if (instantiator == null)
+            {
+                throw new IllegalArgumentException("nested property : [" + property.getName() + "] of type : [" +
+                        property.getWriteType().getName() + "] has no public default constructor");
+            }
+        }
+
+        /**
+         * @param property 目标路径中间的属性
+         * @return (Object holder)Object，返回属性值，为null时创建并设置
+         */
+        private static MethodHandle getOrCreate(BeanProperty property)
+        {
+            return GET.bindTo(new NestedTarget(property));
+        }
+
+        private Object get(Object holder) throws Throwable
+        {
+            Object value = (Object) reader.invokeExact(holder);
+            if (value == null)
+            {
+                value = instantiator.newInstance();
+                writer.invokeExact(holder, value);
+            }
+            return value;
+        }
+    }
+
+    @Override
+    public void copy(Object sourceObj, Object targetObj)
+    {
+        try
+        {
+            copier.invokeExact(sourceObj, targetObj);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Class<?> getSourceClass()
+    {
+        return sourceClass;
+    }
+
+    Class<?> getTargetClass()
+    {
+        return targetClass;
+    }
+
+    /**
+     * @return 拷贝的属性数量
+     */
+    int getPropertyCount()
+    {
+        return propertyCount;
+    }
+}
@@ -0,0 +1,274 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 比较两个bean的属性，并只拷贝不同的属性。
+ * 比较的属性是源对象可读、目标对象可读且可写、并且类型可以直接拷贝的同名属性，
+ * 基本类型的属性必须类型相同，使用基本类型的==比较(float、double按位比较，NaN与自身相等)，不会装箱；
+ * 引用类型的属性使用equals比较。
+ * 每个class pair只编译一次，每个属性编译为一个比较的MethodHandle与一个拷贝的MethodHandle，
+ * 比较与拷贝时不使用反射，除了返回的{@link BeanDiff}不分配内存。
+ * </p>
+ */
+final class PropertyDiffer
+{
+    //(Object source, Object target)boolean
+    private static final MethodType COMPARE_TYPE = MethodType.methodType(boolean.class, Object.class, Object.class);
+
+    //(Object source, Object target)void
+    private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    //Objects.equals(Object, Object)boolean
+    private static final MethodHandle OBJECTS_EQUALS;
+
+    //编译好的比较器
+    private static final ClassPairCache<PropertyDiffer> differCache = new ClassPairCache<>();
+
+    static
+    {
+        try
+        {
+            OBJECTS_EQUALS = MethodHandles.publicLookup().findStatic(Objects.class, "equals", COMPARE_TYPE);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //源Class
+    final Class<?> sourceClass;
+
+    //目标Class
+    final Class<?> targetClass;
+
+    //比较的属性名，按属性名排序
+    final String[] names;
+
+    //(Object source, Object target)boolean，属性值是否相等，与names一一对应
+    private final MethodHandle[] comparators;
+
+    //(Object source, Object target)void，拷贝一个属性，与names一一对应
+    private final MethodHandle[] copiers;
+
+    private PropertyDiffer(Class<?> sourceClass, Class<?> targetClass)
+    {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        BeanProperties sourceProperties = BeanProperties.of(sourceClass);
+        List<String> names = new ArrayList<>();
+        List<MethodHandle> comparators = new ArrayList<>();
+        List<MethodHandle> copiers = new ArrayList<>();
+        for (BeanProperty targetProperty : BeanProperties.of(targetClass).getProperties())
+        {
+            BeanProperty sourceProperty = sourceProperties.getProperty(targetProperty.getName());
+            if (sourceProperty == null || !sourceProperty.isReadable() || !targetProperty.isReadable() || !targetProperty.isWritable())
+            {
+                continue;
+            }
+            Class<?> sourceType = sourceProperty.getReadType();
+            Class<?> targetType = targetProperty.getReadType();
+            if ((sourceType.isPrimitive() || targetType.isPrimitive()) ? sourceType != targetType :
+                    !targetProperty.getWriteType().isAssignableFrom(sourceType))
+            {
+                continue;
+            }
+            MethodHandle write = PropertyCopier.compileWrite(sourceType, targetProperty.getWriteType(), targetProperty.getWriter(), null);
+            if (write == null)
+            {
+                continue;
+            }
+            names.add(targetProperty.getName());
+            comparators.add(compileComparator(sourceProperty.getReader(), targetProperty.getReader(), sourceType));
+            copiers.add(MethodHandles.filterArguments(write, 0, sourceProperty.getReader()).asType(COPY_TYPE));
+        }
+        this.names = names.toArray(new String[0]);
+        this.comparators = comparators.toArray(new MethodHandle[0]);
+        this.copiers = copiers.toArray(new MethodHandle[0]);
+    }
+
+    /**
+     * <p>获取已编译的比较器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 比较器
+     */
+    static PropertyDiffer get(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return differCache.get(sourceClass, targetClass, PropertyDiffer::new);
+    }
+
+    /**
+     * <p>编译一个属性的比较</p>
+     *
+     * @param sourceReader (Object)type
+     * @param targetReader (Object)type或(Object)引用类型
+     * @param type         源属性类型
+     * @return (Object source, Object target)boolean
+     */
+    private static MethodHandle compileComparator(MethodHandle sourceReader, MethodHandle targetReader, Class<?> type)
+    {
+        MethodHandle equals;
+        if (type.isPrimitive())
+        {
+            try
+            {
+                equals = MethodHandles.lookup().findStatic(PropertyDiffer.class, "equals", MethodType.methodType(boolean.class, type, type));
+            }
+            catch (ReflectiveOperationException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        else
+        {
+            equals = OBJECTS_EQUALS;
+            sourceReader = sourceReader.asType(MethodType.methodType(Object.class, Object.class));
+            targetReader = targetReader.asType(MethodType.methodType(Object.class, Object.class));
+        }
+        return MethodHandles.filterArguments(equals, 0, sourceReader, targetReader);
+    }
+
+    /**
+     * <p>比较源对象与目标对象</p>
+     *
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     * @return 不同的属性
+     */
+    BeanDiff diff(Object sourceObj, Object targetObj)
+    {
+        return compare(sourceObj, targetObj, false);
+    }
+
+    /**
+     * <p>比较源对象与目标对象，并把不同的属性拷贝到目标对象</p>
+     *
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     * @return 拷贝前不同的属性
+     */
+    BeanDiff copyChanged(Object sourceObj, Object targetObj)
+    {
+        return compare(sourceObj, targetObj, true);
+    }
+
+    /**
+     * <p>只把diff中不同的属性拷贝到目标对象</p>
+     *
+     * @param sourceObj 源对象
+     * @param targetObj 目标对象
+     * @param diff      同一个class pair的diff
+     */
+    void apply(Object sourceObj, Object targetObj, BeanDiff diff)
+    {
+        try
+        {
+            for (int i = 0; i < copiers.length; ++i)
+            {
+                if (diff.isChanged(i))
+                {
+                    copiers[i].invokeExact(sourceObj, targetObj);
+                }
+            }
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param propertyName 属性名
+     * @return 属性的位置，不比较的属性返回-1
+     */
+    int indexOf(String propertyName)
+    {
+        //names与BeanProperties的属性顺序相同，按属性名排序
+        int index = Arrays.binarySearch(names, propertyName);
+        return index >= 0 ? index : -1;
+    }
+
+    private BeanDiff compare(Object sourceObj, Object targetObj, boolean copy)
+    {
+        long[] words = new long[(names.length + 63) >>> 6];
+        try
+        {
+            for (int i = 0; i < comparators.length; ++i)
+            {
+                if (!(boolean) comparators[i].invokeExact(sourceObj, targetObj))
+                {
+                    words[i >>> 6] |= 1L << i;
+                    if (copy)
+                    {
+                        copiers[i].invokeExact(sourceObj, targetObj);
+                    }
+                }
+            }
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+        return new BeanDiff(this, words);
+    }
+
+    private static boolean equals(boolean a, boolean b)
+    {
+        return a == b;
+    }
+
+    private static boolean equals(byte a, byte b)
+    {
+        return a == b;
+    }
+
+    private static boolean equals(short a, short b)
+    {
+        return a == b;
+    }
+
+    private static boolean equals(char a, char b)
+    {
+        return a == b;
+    }
+
+    private static boolean equals(int a, int b)
+    {
+        return a == b;
+    }
+
+    private static boolean equals(long a, long b)
+    {
+        return a == b;
+    }
+
+    private static boolean equals(float a, float b)
+    {
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+    }
+
+    private static boolean equals(double a, double b)
+    {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+}
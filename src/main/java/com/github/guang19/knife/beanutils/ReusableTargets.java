@@ -0,0 +1,192 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 每个线程复用的目标对象，以及把拷贝器不写入的属性恢复为默认值的重置器。
+ * 每个目标Class在每个线程中缓存一个目标对象，使用时从线程中取出，用完后放回；
+ * 嵌套使用同一个目标Class时，内层取不到缓存的对象就创建新的对象，不会覆盖外层正在使用的对象。
+ *
+ * 重置器把目标对象中拷贝器不写入的属性恢复为默认构造器创建的对象中的值，默认值只读取一次。
+ * null与不可变类型的默认值直接写入；可变的默认值(例如默认创建的集合)每次重置时深拷贝一份新的对象写入，
+ * 不会在目标对象之间共享；不能深拷贝的可变默认值(例如没有默认构造器的类型)不重置。
+ * 源对象中没有类型完全相同的同名可读属性的目标属性都会被重置，拷贝器写入的属性不必重置。
+ * 每个class pair只编译一次重置器。
+ * </p>
+ */
+final class ReusableTargets
+{
+    //(Object target)void
+    private static final MethodType RESET_TYPE = MethodType.methodType(void.class, Object.class);
+
+    //目标Class -> 每个线程缓存的目标对象
+    private static final ClassValue<ThreadLocal<Object>> targetCache = new ClassValue<ThreadLocal<Object>>()
+    {
+        @Override
+        protected ThreadLocal<Object> computeValue(Class<?> type)
+        {
+            return new ThreadLocal<>();
+        }
+    };
+
+    //编译好的重置器
+    private static final ClassPairCache<MethodHandle[]> resetterCache = new ClassPairCache<>();
+
+    //DeepCopier.copy(Object, boolean)Object
+    private static final MethodHandle DEEP_COPY;
+
+    static
+    {
+        try
+        {
+            DEEP_COPY = MethodHandles.lookup().findStatic(DeepCopier.class, "copy",
+                    MethodType.methodType(Object.class, Object.class, boolean.class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //编译重置器，避免每次查找缓存时创建方法引用
+    private static final BiFunction<Class<?>, Class<?>, MethodHandle[]> resetterCompiler = ReusableTargets::compileResetters;
+
+    private ReusableTargets()
+    {
+    }
+
+    /**
+     * <p>取出当前线程缓存的目标对象，没有缓存时创建新的目标对象</p>
+     *
+     * @param targetClass  目标Class
+     * @param instantiator 目标Class的实例化器
+     * @param <T>          Target Class
+     * @return 目标对象，创建失败时返回null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T acquire(Class<T> targetClass, BeanInstantiator instantiator)
+    {
+        ThreadLocal<Object> cached = targetCache.get(targetClass);
+        Object target = cached.get();
+        if (target == null)
+        {
+            return BeanInstantiators.instantiate(instantiator, targetClass);
+        }
+        cached.set(null);
+        return (T) target;
+    }
+
+    /**
+     * <p>把目标对象放回当前线程的缓存</p>
+     *
+     * @param targetClass 目标Class
+     * @param target      {@link #acquire(Class, BeanInstantiator)}取出的目标对象
+     */
+    static void release(Class<?> targetClass, Object target)
+    {
+        targetCache.get(targetClass).set(target);
+    }
+
+    /**
+     * <p>获取已编译的重置器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return (Object target)void，每个需要重置的属性一个
+     */
+    static MethodHandle[] getResetters(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return resetterCache.get(sourceClass, targetClass, resetterCompiler);
+    }
+
+    /**
+     * <p>把拷贝器不写入的属性恢复为默认值</p>
+     *
+     * @param resetters {@link #getResetters(Class, Class)}
+     * @param target    目标对象
+     */
+    static void reset(MethodHandle[] resetters, Object target)
+    {
+        try
+        {
+            for (MethodHandle resetter : resetters)
+            {
+                resetter.invokeExact(target);
+            }
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle[] compileResetters(Class<?> sourceClass, Class<?> targetClass)
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(targetClass);
+        Object prototype = instantiator == null ? null : BeanInstantiators.instantiate(instantiator, targetClass);
+        if (prototype == null)
+        {
+            return new MethodHandle[0];
+        }
+        BeanProperties sourceProperties = BeanProperties.of(sourceClass);
+        List<MethodHandle> resetters = new ArrayList<>();
+        try
+        {
+            for (BeanProperty targetProperty : BeanProperties.of(targetClass).getProperties())
+            {
+                if (!targetProperty.isReadable() || !targetProperty.isWritable() ||
+                        targetProperty.getReadType() != targetProperty.getWriteType())
+                {
+                    continue;
+                }
+                BeanProperty sourceProperty = sourceProperties.getProperty(targetProperty.getName());
+                if (sourceProperty != null && sourceProperty.isReadable() && sourceProperty.getReadType() == targetProperty.getWriteType())
+                {
+                    //拷贝器会写入这个属性
+                    continue;
+                }
+                Object defaultValue = targetProperty.getReader().asType(MethodType.methodType(Object.class, Object.class)).invoke(prototype);
+                MethodHandle writer = targetProperty.getWriter().asType(MethodType.methodType(void.class, Object.class, targetProperty.getWriteType()));
+                if (defaultValue == null || DeepCopier.isImmutable(defaultValue.getClass()))
+                {
+                    resetters.add(MethodHandles.insertArguments(writer, 1, defaultValue).asType(RESET_TYPE));
+                    continue;
+                }
+                try
+                {
+                    DeepCopier.copy(defaultValue, true);
+                }
+                catch (IllegalArgumentException e)
+                {
+                    //不能深拷贝的可变默认值不重置
+                    continue;
+                }
+                //() -> DeepCopier.copy(defaultValue, true)
+                MethodHandle defaultSupplier = MethodHandles.insertArguments(DEEP_COPY, 0, defaultValue, true).
+                        asType(MethodType.methodType(targetProperty.getWriteType()));
+                resetters.add(MethodHandles.collectArguments(writer, 1, defaultSupplier).asType(RESET_TYPE));
+            }
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException(e);
+        }
+        return resetters.toArray(new MethodHandle[0]);
+    }
+}
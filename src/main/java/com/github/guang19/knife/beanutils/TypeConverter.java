@@ -0,0 +1,22 @@
+package com.github.guang19.knife.beanutils;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 把源类型的属性值转换为目标类型的属性值。
+ * 与{@link BeanFieldValueConverter}不同，TypeConverter注册在{@link TypeConverterRegistry}中，
+ * 以(源类型, 目标类型)为key，在编译拷贝器时就为每个属性确定好，不需要在转换器中用instanceof判断属性。
+ * </p>
+ */
+@FunctionalInterface
+public interface TypeConverter<S, T>
+{
+    /**
+     * 转换属性值
+     *
+     * @param value 源属性值，不会为null
+     * @return 转换后的属性值。如果返回null，基本类型的目标属性将保持不变
+     */
+    public abstract T convert(S value);
+}
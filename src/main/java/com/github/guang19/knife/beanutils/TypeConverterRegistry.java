@@ -0,0 +1,283 @@
+package com.github.guang19.knife.beanutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 以(源类型, 目标类型)为key的属性值转换器注册表。
+ *
+ * 使用注册表拷贝时，每个class pair会被编译为一个拷贝器，每个属性的转换规则在编译时就确定:
+ * 1. 目标属性类型可以接收源属性类型的值时，直接拷贝，不经过任何转换器;
+ * 2. 已注册(源类型, 目标类型)的{@link TypeConverter}时，使用该转换器;
+ * 3. 内置的转换: 包装类型与基本类型之间的拆箱、装箱(如Long -> long)，以及基本类型的拓宽(如int -> long),
+ *    基本类型之间的转换不会装箱，不会创建对象;
+ * 4. 其他属性不拷贝。
+ *
+ * 源属性值为null时不会调用转换器: 目标属性为引用类型时被设置为null，为基本类型时保持不变。
+ *
+ * 注册表创建后不可修改，可以被多个线程共享，编译好的拷贝器缓存在注册表中。
+ *
+ * e.g.
+ *
+ *  TypeConverterRegistry registry = TypeConverterRegistry.builder().
+ *          register(Inner.class, String.class, Inner::toString).
+ *          build();
+ *
+ *  BeanUtils.copy(person1, person2, registry);
+ * </p>
+ */
+public final class TypeConverterRegistry
+{
+    //只有内置转换的注册表
+    private static final TypeConverterRegistry DEFAULTS = new TypeConverterRegistry(new HashMap<>());
+
+    //TypeConverter.convert(Object)Object
+    private static final MethodHandle CONVERT;
+
+    static
+    {
+        try
+        {
+            CONVERT = MethodHandles.publicLookup().findVirtual(TypeConverter.class, "convert",
+                    MethodType.methodType(Object.class, Object.class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //源类型 -> (目标类型 -> 转换器)
+    private final Map<Class<?>, Map<Class<?>, TypeConverter<?, ?>>> converters;
+
+    //编译好的拷贝器
+    private final ClassPairCache<PropertyCopier> copierCache = new ClassPairCache<>();
+
+    //编译好的创建器
+    private final ClassPairCache<ObjectCreator> creatorCache = new ClassPairCache<>();
+
+    //编译拷贝器，只创建一次，查找缓存时不分配内存
+    private final BiFunction<Class<?>, Class<?>, PropertyCopier> copierCompiler = this::compile;
+
+    //编译创建器
+    private final BiFunction<Class<?>, Class<?>, ObjectCreator> creatorCompiler = (s, t) -> ObjectCreators.compile(s, t, this);
+
+    private TypeConverterRegistry(Map<Class<?>, Map<Class<?>, TypeConverter<?, ?>>> converters)
+    {
+        this.converters = converters;
+    }
+
+    /**
+     * @return 只有内置转换的注册表
+     */
+    public static TypeConverterRegistry defaults()
+    {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return 注册表的Builder，已包含内置转换
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * <p>获取已编译的拷贝器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 拷贝器
+     */
+    PropertyCopier getCopier(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return copierCache.get(sourceClass, targetClass, copierCompiler);
+    }
+
+    /**
+     * <p>获取已编译的创建器，用于没有默认构造器的目标Class</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 创建器
+     */
+    ObjectCreator getCreator(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return creatorCache.get(sourceClass, targetClass, creatorCompiler);
+    }
+
+    /**
+     * <p>编译拷贝器</p>
+     *
+     * @param sourceClass 源Class
+     * @param targetClass 目标Class
+     * @return 拷贝器
+     */
+    private PropertyCopier compile(Class<?> sourceClass, Class<?> targetClass)
+    {
+        return PropertyCopier.compile(sourceClass, targetClass, this);
+    }
+
+    /**
+     * <p>查找用户注册的转换器，基本类型会按包装类型查找</p>
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return (sourceType)Object 的MethodHandle，如果没有注册，则返回null
+     */
+    MethodHandle findConverter(Class<?> sourceType, Class<?> targetType)
+    {
+        TypeConverter<?, ?> converter = find(sourceType, targetType);
+        if (converter == null)
+        {
+            converter = find(wrap(sourceType), wrap(targetType));
+        }
+        return converter == null ? null :
+                CONVERT.bindTo(converter).asType(MethodType.methodType(Object.class, sourceType));
+    }
+
+    private TypeConverter<?, ?> find(Class<?> sourceType, Class<?> targetType)
+    {
+        Map<Class<?>, TypeConverter<?, ?>> targetConverters = converters.get(sourceType);
+        return targetConverters == null ? null : targetConverters.get(targetType);
+    }
+
+    /**
+     * <p>
+     * 内置的转换: 包装类型与基本类型之间的拆箱、装箱，以及基本类型的拓宽。
+     * 返回的MethodHandle不处理null，源类型为包装类型时，调用方需要先判断null。
+     * </p>
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return (sourceType)targetType 的MethodHandle，如果不支持，则返回null
+     */
+    static MethodHandle builtinConversion(Class<?> sourceType, Class<?> targetType)
+    {
+        Class<?> sourcePrimitive = unwrap(sourceType);
+        Class<?> targetPrimitive = unwrap(targetType);
+        if (sourcePrimitive == null || targetPrimitive == null ||
+                !(sourcePrimitive == targetPrimitive || isWidening(sourcePrimitive, targetPrimitive)))
+        {
+            return null;
+        }
+        return MethodHandles.identity(targetPrimitive).asType(MethodType.methodType(targetType, sourceType));
+    }
+
+    /**
+     * <p>基本类型的拓宽转换(JLS 5.1.2)</p>
+     *
+     * @param from 源基本类型
+     * @param to   目标基本类型
+     * @return 是否是拓宽转换
+     */
+    private static boolean isWidening(Class<?> from, Class<?> to)
+    {
+        int fromRank = wideningRank(from);
+        int toRank = wideningRank(to);
+        if (fromRank < 0 || toRank < 0)
+        {
+            return false;
+        }
+        //char 只能拓宽为int及以上，byte、short不能拓宽为char
+        if (from == char.class)
+        {
+            return toRank >= wideningRank(int.class);
+        }
+        return to != char.class && fromRank < toRank;
+    }
+
+    private static int wideningRank(Class<?> type)
+    {
+        if (type == byte.class)
+        {
+            return 0;
+        }
+        if (type == short.class || type == char.class)
+        {
+            return 1;
+        }
+        if (type == int.class)
+        {
+            return 2;
+        }
+        if (type == long.class)
+        {
+            return 3;
+        }
+        if (type == float.class)
+        {
+            return 4;
+        }
+        if (type == double.class)
+        {
+            return 5;
+        }
+        return -1;
+    }
+
+    /**
+     * @param type 类型
+     * @return 基本类型本身或包装类型对应的基本类型，其他类型返回null
+     */
+    static Class<?> unwrap(Class<?> type)
+    {
+        Class<?> primitive = type.isPrimitive() ? type : MethodType.methodType(type).unwrap().returnType();
+        return primitive == void.class || !primitive.isPrimitive() ? null : primitive;
+    }
+
+    /**
+     * @param type 类型
+     * @return 基本类型对应的包装类型，其他类型返回自身
+     */
+    static Class<?> wrap(Class<?> type)
+    {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * <p>TypeConverterRegistry的Builder，已包含内置转换</p>
+     */
+    public static final class Builder
+    {
+        private final Map<Class<?>, Map<Class<?>, TypeConverter<?, ?>>> converters = new HashMap<>();
+
+        private Builder()
+        {
+        }
+
+        /**
+         * <p>注册转换器，已注册的(源类型, 目标类型)会被覆盖</p>
+         *
+         * @param sourceType 源类型
+         * @param targetType 目标类型
+         * @param converter  转换器
+         * @param <S>        源类型
+         * @param <T>        目标类型
+         * @return this
+         */
+        public <S, T> Builder register(Class<S> sourceType, Class<T> targetType, TypeConverter<? super S, ? extends T> converter)
+        {
+            converters.computeIfAbsent(sourceType, k -> new HashMap<>()).put(targetType, converter);
+            return this;
+        }
+
+        /**
+         * @return TypeConverterRegistry
+         */
+        public TypeConverterRegistry build()
+        {
+            Map<Class<?>, Map<Class<?>, TypeConverter<?, ?>>> copy = new HashMap<>();
+            converters.forEach((sourceType, targetConverters) -> copy.put(sourceType, new HashMap<>(targetConverters)));
+            return new TypeConverterRegistry(copy);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.guang19.knife.beanutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>预热的结果: 每个class pair生成拷贝器与实例化器的耗时，以及失败的原因</p>
+ */
+public final class WarmUpReport
+{
+    //每个class pair的结果，与传入的顺序一致
+    private final List<Entry> entries;
+
+    //从开始到全部完成的耗时
+    private final long elapsedNanos;
+
+    WarmUpReport(List<Entry> entries, long elapsedNanos)
+    {
+        this.entries = Collections.unmodifiableList(entries);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return 每个class pair的结果
+     */
+    public List<Entry> getEntries()
+    {
+        return entries;
+    }
+
+    /**
+     * @return 失败的class pair的结果
+     */
+    public List<Entry> getFailures()
+    {
+        List<Entry> failures = new ArrayList<>();
+        for (Entry entry : entries)
+        {
+            if (!entry.isSuccess())
+            {
+                failures.add(entry);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * @return 从开始到全部完成的耗时(纳秒)
+     */
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WarmUpReport{" +
+                "classPairs=" + entries.size() +
+                ", failures=" + getFailures().size() +
+                ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                '}';
+    }
+
+    /**
+     * <p>一个class pair的预热结果</p>
+     */
+    public static final class Entry
+    {
+        //class pair
+        private final ClassPair classPair;
+
+        //生成拷贝器与实例化器的耗时
+        private final long elapsedNanos;
+
+        //失败的原因，成功时为null
+        private final Throwable failure;
+
+        Entry(ClassPair classPair, long elapsedNanos, Throwable failure)
+        {
+            this.classPair = classPair;
+            this.elapsedNanos = elapsedNanos;
+            this.failure = failure;
+        }
+
+        public ClassPair getClassPair()
+        {
+            return classPair;
+        }
+
+        /**
+         * @return 生成拷贝器与实例化器的耗时(纳秒)
+         */
+        public long getElapsedNanos()
+        {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return 失败的原因，成功时为null
+         */
+        public Throwable getFailure()
+        {
+            return failure;
+        }
+
+        public boolean isSuccess()
+        {
+            return failure == null;
+        }
+
+        @Override
+        public String toString()
+        {
+            return classPair + " " + TimeUnit.NANOSECONDS.toMicros(elapsedNanos) + "us" +
+                    (failure == null ? "" : " failed : " + failure);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person2;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>异步批量转换测试</p>
+ */
+public class AsyncConverterTest
+{
+    public static class Checked
+    {
+        private String name;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            if ("bad".equals(name))
+            {
+                throw new IllegalArgumentException("bad name");
+            }
+            this.name = name;
+        }
+    }
+
+    private static List<Person1> persons(int size)
+    {
+        List<Person1> persons = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i)
+        {
+            persons.add(i % 100 == 7 ? null : new Person1((long) i, i % 500 == 3 ? "bad" : "p" + i, i, null));
+        }
+        return persons;
+    }
+
+    @Test
+    public void testBoundedConcurrency()
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        //当前线程是否在执行还没有提交下一个块的块
+        ThreadLocal<Boolean> active = ThreadLocal.withInitial(() -> false);
+        try
+        {
+            AsyncConversionOptions options = AsyncConversionOptions.builder().chunkSize(100).maxInFlight(2).executor(task ->
+            {
+                //块在转换完成后才提交下一个块，此时不再计入正在执行的块
+                if (active.get())
+                {
+                    active.set(false);
+                    running.decrementAndGet();
+                }
+                pool.execute(() ->
+                {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    active.set(true);
+                    try
+                    {
+                        task.run();
+                    }
+                    finally
+                    {
+                        if (active.get())
+                        {
+                            active.set(false);
+                            running.decrementAndGet();
+                        }
+                    }
+                });
+            }).build();
+            List<Person2> persons = BeanUtils.createNewTypeCollectionAsync(persons(2500), Person2.class, options).join();
+            Assert.assertEquals(2475, persons.size());
+            Assert.assertEquals(Long.valueOf(0L), persons.get(0).getId());
+            Assert.assertEquals(Long.valueOf(2499L), persons.get(persons.size() - 1).getId());
+            Assert.assertTrue(maxRunning.get() <= 2);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDefaultExecutor()
+    {
+        Assert.assertEquals(2475, BeanUtils.createNewTypeCollectionAsync(persons(2500), Person2.class).join().size());
+        Assert.assertTrue(BeanUtils.createNewTypeCollectionAsync(new ArrayList<Person1>(), Person2.class).join().isEmpty());
+    }
+
+    @Test
+    public void testErrorChannel()
+    {
+        List<Object> failed = Collections.synchronizedList(new ArrayList<>());
+        AsyncConversionOptions options = AsyncConversionOptions.builder().chunkSize(64).
+                onError((source, cause) -> failed.add(source)).build();
+        List<Checked> checked = BeanUtils.createNewTypeCollectionAsync(persons(2500), Checked.class, options).join();
+        Assert.assertEquals(5, failed.size());
+        Assert.assertEquals(2470, checked.size());
+        Assert.assertEquals("bad", ((Person1) failed.get(0)).getName());
+    }
+
+    @Test
+    public void testFailure()
+    {
+        try
+        {
+            BeanUtils.createNewTypeCollectionAsync(persons(2500), Checked.class).join();
+            Assert.fail();
+        }
+        catch (CompletionException e)
+        {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        try
+        {
+            BeanUtils.createNewTypeCollectionAsync(persons(10), Runnable.class).join();
+            Assert.fail();
+        }
+        catch (CompletionException e)
+        {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+}
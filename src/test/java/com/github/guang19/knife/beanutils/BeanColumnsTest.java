@@ -0,0 +1,201 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanColumns.ColumnType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>按列导出与导入测试</p>
+ */
+public class BeanColumnsTest
+{
+    public static class Sale
+    {
+        private long id;
+
+        private Integer quantity;
+
+        private double price;
+
+        private boolean paid;
+
+        private String region;
+
+        private TimeUnit unit;
+
+        public Sale()
+        {
+        }
+
+        public Sale(long id, Integer quantity, double price, boolean paid, String region, TimeUnit unit)
+        {
+            this.id = id;
+            this.quantity = quantity;
+            this.price = price;
+            this.paid = paid;
+            this.region = region;
+            this.unit = unit;
+        }
+
+        public long getId()
+        {
+            return id;
+        }
+
+        public void setId(long id)
+        {
+            this.id = id;
+        }
+
+        public Integer getQuantity()
+        {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity)
+        {
+            this.quantity = quantity;
+        }
+
+        public double getPrice()
+        {
+            return price;
+        }
+
+        public void setPrice(double price)
+        {
+            this.price = price;
+        }
+
+        public boolean isPaid()
+        {
+            return paid;
+        }
+
+        public void setPaid(boolean paid)
+        {
+            this.paid = paid;
+        }
+
+        public String getRegion()
+        {
+            return region;
+        }
+
+        public void setRegion(String region)
+        {
+            this.region = region;
+        }
+
+        public TimeUnit getUnit()
+        {
+            return unit;
+        }
+
+        public void setUnit(TimeUnit unit)
+        {
+            this.unit = unit;
+        }
+    }
+
+    private static List<Sale> sales()
+    {
+        return Arrays.asList(new Sale(1L, 3, 1.5, true, "east", TimeUnit.DAYS),
+                new Sale(2L, null, 2.5, false, "west", null),
+                new Sale(3L, 5, 3.5, true, "east", TimeUnit.DAYS));
+    }
+
+    public static class Defaulted
+    {
+        private String name = "default";
+
+        private Integer count = 7;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public Integer getCount()
+        {
+            return count;
+        }
+
+        public void setCount(Integer count)
+        {
+            this.count = count;
+        }
+    }
+
+    @Test
+    public void testToColumns()
+    {
+        for (boolean direct : new boolean[]{false, true})
+        {
+            BeanColumns columns = BeanUtils.toColumns(sales(), Sale.class, direct);
+            Assert.assertEquals(3, columns.size());
+            Assert.assertEquals(direct, columns.isDirect());
+            Assert.assertEquals(Arrays.asList("id", "paid", "price", "quantity", "region", "unit"), columns.getColumnNames());
+            Assert.assertEquals(ColumnType.INT, columns.getColumnType("paid"));
+            Assert.assertArrayEquals(new long[]{1L, 2L, 3L}, columns.getLongs("id"));
+            Assert.assertArrayEquals(new double[]{1.5, 2.5, 3.5}, columns.getDoubles("price"), 0);
+            Assert.assertArrayEquals(new int[]{1, 0, 1}, columns.getInts("paid"));
+            Assert.assertArrayEquals(new int[]{3, 0, 5}, columns.getInts("quantity"));
+            Assert.assertTrue(columns.isNull("quantity", 1));
+            Assert.assertFalse(columns.isNull("quantity", 0));
+            Assert.assertEquals(Arrays.asList("east", "west"), columns.getDictionary("region"));
+            Assert.assertEquals(0, columns.getCodeColumn("region").get(2));
+            Assert.assertEquals("DAYS", columns.getString("unit", 0));
+            Assert.assertNull(columns.getString("unit", 1));
+            Assert.assertEquals(direct, !columns.getLongColumn("id").hasArray());
+        }
+    }
+
+    @Test
+    public void testFromColumns()
+    {
+        List<Sale> sales = BeanUtils.fromColumns(BeanUtils.toColumns(sales(), Sale.class, true), Sale.class);
+        Assert.assertEquals(3, sales.size());
+        Sale sale = sales.get(0);
+        Assert.assertEquals(1L, sale.getId());
+        Assert.assertEquals(Integer.valueOf(3), sale.getQuantity());
+        Assert.assertTrue(sale.isPaid());
+        Assert.assertEquals("east", sale.getRegion());
+        Assert.assertSame(TimeUnit.DAYS, sale.getUnit());
+        Assert.assertNull(sales.get(1).getQuantity());
+        Assert.assertNull(sales.get(1).getUnit());
+        Assert.assertFalse(sales.get(1).isPaid());
+    }
+
+    @Test
+    public void testFromColumnsWithDefaults()
+    {
+        Defaulted empty = new Defaulted();
+        empty.setName(null);
+        empty.setCount(null);
+        List<Defaulted> defaulted = BeanUtils.fromColumns(BeanUtils.toColumns(Arrays.asList(empty, new Defaulted()), Defaulted.class),
+                Defaulted.class);
+        //null不会被默认值覆盖
+        Assert.assertNull(defaulted.get(0).getName());
+        Assert.assertNull(defaulted.get(0).getCount());
+        Assert.assertEquals("default", defaulted.get(1).getName());
+        Assert.assertEquals(Integer.valueOf(7), defaulted.get(1).getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongColumnType()
+    {
+        BeanUtils.toColumns(sales(), Sale.class).getLongs("price");
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Inner;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import com.github.guang19.knife.beanutils.TypeConverterRegistryTest.PrimitivePerson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>属性diff与增量拷贝测试</p>
+ */
+public class BeanDiffTest
+{
+    @Test
+    public void testDiff()
+    {
+        Inner inner = new Inner();
+        Person1 source = new Person1(1L, "yxg", 20, inner);
+        Person1 target = new Person1(1L, "guang19", 20, null);
+        BeanDiff diff = BeanUtils.diff(source, target);
+        Assert.assertEquals(Arrays.asList("age", "id", "inner", "name"), diff.getPropertyNames());
+        Assert.assertEquals(Arrays.asList("inner", "name"), diff.getChangedProperties());
+        Assert.assertEquals(2, diff.getChangedCount());
+        Assert.assertTrue(diff.isChanged("name"));
+        Assert.assertFalse(diff.isChanged("id"));
+        Assert.assertFalse(diff.isChanged("unknown"));
+        Assert.assertEquals(0b1100L, diff.toLongArray()[0]);
+        //diff不修改目标对象
+        Assert.assertEquals("guang19", target.getName());
+
+        BeanUtils.applyDiff(source, target, diff);
+        Assert.assertEquals("yxg", target.getName());
+        Assert.assertSame(inner, target.getInner());
+        Assert.assertTrue(BeanUtils.diff(source, target).isEmpty());
+    }
+
+    @Test
+    public void testCopyChanged()
+    {
+        PrimitivePerson source = new PrimitivePerson();
+        source.setId(1L);
+        source.setAge(20L);
+        PrimitivePerson target = new PrimitivePerson();
+        target.setId(1L);
+        BeanDiff diff = BeanUtils.copyChanged(source, target);
+        Assert.assertEquals(Collections.singletonList("age"), diff.getChangedProperties());
+        Assert.assertEquals(20L, target.getAge());
+        Assert.assertTrue(BeanUtils.copyChanged(source, target).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testApplyToOtherClass()
+    {
+        BeanDiff diff = BeanUtils.diff(new Person1(), new Person1());
+        BeanUtils.applyDiff(new PrimitivePerson(), new Person1(), diff);
+    }
+}
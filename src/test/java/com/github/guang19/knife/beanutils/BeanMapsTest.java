@@ -0,0 +1,69 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Inner;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import com.github.guang19.knife.beanutils.TypeConverterRegistryTest.PrimitivePerson;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>bean与Map转换测试</p>
+ */
+public class BeanMapsTest
+{
+    @Test
+    public void testBeanToMap()
+    {
+        Inner inner = new Inner();
+        Map<String, Object> map = BeanUtils.beanToMap(new Person1(1L, "yxg", 20, inner));
+        Assert.assertEquals(Arrays.asList("age", "id", "inner", "name"), Arrays.asList(map.keySet().toArray()));
+        Assert.assertEquals(1L, map.get("id"));
+        Assert.assertSame(inner, map.get("inner"));
+
+        Map<String, Object> converted = BeanUtils.beanToMap(new Person1(1L, "yxg", 20, inner),
+                fieldVal -> fieldVal instanceof Inner ? "inner" : fieldVal);
+        Assert.assertEquals("inner", converted.get("inner"));
+
+        //同一个线程复用同一个Map
+        Map<String, Object> reusable = BeanUtils.beanToReusableMap(new Person1(1L, "yxg", 20, inner));
+        Assert.assertSame(reusable, BeanUtils.beanToReusableMap(new Person1(2L, null, null, null)));
+        Assert.assertEquals(2L, reusable.get("id"));
+        Assert.assertNull(reusable.get("name"));
+    }
+
+    @Test
+    public void testMapToBean()
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", 3L);
+        map.put("name", "yxg");
+        //类型不兼容，跳过
+        map.put("age", "20");
+        map.put("unknown", 1);
+        Person1 person = BeanUtils.mapToBean(map, Person1.class);
+        Assert.assertEquals(Long.valueOf(3L), person.getId());
+        Assert.assertEquals("yxg", person.getName());
+        Assert.assertNull(person.getAge());
+
+        //基本类型的属性不接收null
+        PrimitivePerson primitivePerson = new PrimitivePerson();
+        map.put("id", null);
+        map.put("age", 20L);
+        BeanUtils.copyFromMap(map, primitivePerson);
+        Assert.assertEquals(-1L, primitivePerson.getId());
+        Assert.assertEquals(20L, primitivePerson.getAge());
+
+        //使用转换器转换值
+        Person1 converted = BeanUtils.mapToBean(map, Person1.class,
+                fieldVal -> fieldVal instanceof Long ? ((Long) fieldVal).intValue() : fieldVal);
+        Assert.assertEquals(Integer.valueOf(20), converted.getAge());
+
+        Assert.assertNull(BeanUtils.mapToBean(map, BeanUtilTest.NoDefaultConstructor.class));
+    }
+}
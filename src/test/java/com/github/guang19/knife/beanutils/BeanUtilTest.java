@@ -2,11 +2,20 @@ package com.github.guang19.knife.beanutils;
 
 import com.github.guang19.knife.beanutils.BeanFieldValueConverter;
 import com.github.guang19.knife.beanutils.BeanUtils;
+import com.github.guang19.knife.beanutils.ClassPair;
+import com.github.guang19.knife.beanutils.CopyEngine;
+import com.github.guang19.knife.beanutils.CopyEngines;
+import com.github.guang19.knife.beanutils.WarmUpReport;
 import net.sf.cglib.beans.BeanCopier;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author yangguang
@@ -245,4 +254,448 @@ public class BeanUtilTest
         System.out.println(newTypeCollection1);
         System.out.println(newTypeCollection2);
     }
+
+    public static class NoDefaultConstructor
+    {
+        private Long id;
+
+        public NoDefaultConstructor(Long id)
+        {
+            this.id = id;
+        }
+
+        public Long getId()
+        {
+            return id;
+        }
+
+        public void setId(Long id)
+        {
+            this.id = id;
+        }
+    }
+
+    @Test
+    public void test04() throws Exception
+    {
+        BeanInstantiator instantiator = BeanInstantiators.get(Person2.class);
+        Assert.assertNotNull(instantiator);
+        Assert.assertTrue(instantiator.newInstance() instanceof Person2);
+        Assert.assertSame(instantiator, BeanInstantiators.get(Person2.class));
+
+        //没有默认构造器的类型只检测一次，不会每个元素都抛出异常
+        Assert.assertNull(BeanInstantiators.get(NoDefaultConstructor.class));
+        Person1 person1 = new Person1(1L, "yxg", 19, new Inner());
+        Assert.assertNull(BeanUtils.createNewTypeObj(person1, NoDefaultConstructor.class));
+        Assert.assertTrue(BeanUtils.createNewTypeCollection(Arrays.asList(person1, person1), NoDefaultConstructor.class).isEmpty());
+    }
+
+    @Test
+    public void test05() throws Exception
+    {
+        List<Person1> person1List = new ArrayList<>();
+        for (int i = 0; i < BeanUtils.PARALLEL_THRESHOLD * 2; ++i)
+        {
+            person1List.add(i % 100 == 0 ? null : new Person1((long) i, "yxg" + i, i, new Inner()));
+        }
+        List<Person2> person2List = BeanUtils.createNewTypeCollectionParallel(person1List, Person2.class);
+        List<Person2> sequentialList = BeanUtils.createNewTypeCollection(person1List, Person2.class);
+        Assert.assertEquals(sequentialList.size(), person2List.size());
+        //保持源集合的顺序
+        for (int i = 0; i < person2List.size(); ++i)
+        {
+            Assert.assertEquals(sequentialList.get(i).getId(), person2List.get(i).getId());
+        }
+
+        Set<Person2> person2Set = BeanUtils.createNewTypeCollectionParallel(new HashSet<>(person1List), Person2.class);
+        Assert.assertEquals(person2List.size(), person2Set.size());
+    }
+
+    @Test
+    public void test06() throws Exception
+    {
+        //源数据只在被消费时才读取
+        AtomicInteger consumed = new AtomicInteger();
+        Iterator<Person1> cursor = new Iterator<Person1>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return true;
+            }
+
+            @Override
+            public Person1 next()
+            {
+                int i = consumed.incrementAndGet();
+                return i % 2 == 0 ? null : new Person1((long) i, "yxg" + i, i, new Inner());
+            }
+        };
+        Iterator<Person2> person2Iterator = BeanUtils.createNewTypeIterator(cursor, Person2.class);
+        Assert.assertEquals(0, consumed.get());
+        Assert.assertEquals(Long.valueOf(1), person2Iterator.next().getId());
+        Assert.assertEquals(Long.valueOf(3), person2Iterator.next().getId());
+        Assert.assertEquals(3, consumed.get());
+
+        List<Person2> person2List = BeanUtils.createNewTypeStream(Stream.generate(cursor::next), Person2.class).
+                limit(10).
+                collect(Collectors.toList());
+        Assert.assertEquals(10, person2List.size());
+
+        List<Person1> person1List = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i)
+        {
+            person1List.add(new Person1((long) i, "yxg" + i, i, new Inner()));
+        }
+        Assert.assertEquals(1000, StreamSupport.stream(
+                BeanUtils.createNewTypeSpliterator(person1List.spliterator(), Person2.class), true).count());
+    }
+
+    public static class MarkedPerson
+    {
+        private String name;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+    }
+
+    //模拟knife-processor生成的拷贝器，注册在src/test/resources/META-INF/services中
+    public static class MarkedPersonCopier extends GeneratedBeanCopier
+    {
+        public MarkedPersonCopier()
+        {
+            super(Person1.class, MarkedPerson.class);
+        }
+
+        @Override
+        public void copy(Object sourceObj, Object targetObj)
+        {
+            ((MarkedPerson) targetObj).setName("generated:" + ((Person1) sourceObj).getName());
+        }
+    }
+
+    @Test
+    public void test07() throws Exception
+    {
+        Person1 person1 = new Person1(1L, "yxg", 19, new Inner());
+        //存在生成的拷贝器时，不使用转换器的拷贝会直接使用它
+        MarkedPerson markedPerson = BeanUtils.createNewTypeObj(person1, MarkedPerson.class);
+        Assert.assertEquals("generated:yxg", markedPerson.getName());
+        Assert.assertEquals("generated:yxg", BeanUtils.createNewTypeCollection(Collections.singletonList(person1), MarkedPerson.class).get(0).getName());
+
+        //使用转换器时仍然使用BeanCopier
+        BeanUtils.copy(person1, markedPerson, fieldVal -> fieldVal);
+        Assert.assertEquals("yxg", markedPerson.getName());
+    }
+
+    @Test
+    public void test08() throws Exception
+    {
+        Person1 person1 = new Person1(1L, "yxg", 19, new Inner());
+        //所有可用的引擎拷贝规则相同: Inner -> String 不拷贝
+        for (CopyEngine copyEngine : CopyEngines.supported())
+        {
+            Person2 person2 = new Person2();
+            copyEngine.createCopier(Person1.class, Person2.class).copy(person1, person2);
+            Assert.assertEquals(copyEngine.getName(), "Person2{id=1, name='yxg', age=19, inner=null}", person2.toString());
+        }
+
+        //为class pair单独选择引擎
+        BeanUtils.setCopyEngine(Person1.class, Person2.class, CopyEngines.METHOD_HANDLE);
+        try
+        {
+            Assert.assertEquals("yxg", BeanUtils.createNewTypeObj(person1, Person2.class).getName());
+        }
+        finally
+        {
+            BeanUtils.setCopyEngine(Person1.class, Person2.class, null);
+        }
+
+        for (CopyEngine copyEngine : CopyEngines.all())
+        {
+            if (!copyEngine.isSupported())
+            {
+                try
+                {
+                    BeanUtils.setDefaultCopyEngine(copyEngine);
+                    Assert.fail();
+                }
+                catch (IllegalArgumentException e)
+                {
+                    Assert.assertNotSame(copyEngine, BeanUtils.getDefaultCopyEngine());
+                }
+            }
+        }
+    }
+
+    public static class Node
+    {
+        private String name;
+
+        private int[] weights;
+
+        private Node parent;
+
+        private List<Node> children = new ArrayList<>();
+
+        private Map<String, Inner> inners = new TreeMap<>(Comparator.reverseOrder());
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public int[] getWeights()
+        {
+            return weights;
+        }
+
+        public void setWeights(int[] weights)
+        {
+            this.weights = weights;
+        }
+
+        public Node getParent()
+        {
+            return parent;
+        }
+
+        public void setParent(Node parent)
+        {
+            this.parent = parent;
+        }
+
+        public List<Node> getChildren()
+        {
+            return children;
+        }
+
+        public void setChildren(List<Node> children)
+        {
+            this.children = children;
+        }
+
+        public Map<String, Inner> getInners()
+        {
+            return inners;
+        }
+
+        public void setInners(Map<String, Inner> inners)
+        {
+            this.inners = inners;
+        }
+    }
+
+    @Test
+    public void test09() throws Exception
+    {
+        Inner shared = new Inner();
+        Node root = new Node();
+        root.setName("root");
+        root.setWeights(new int[]{1, 2});
+        for (int i = 0; i < 2; ++i)
+        {
+            Node child = new Node();
+            child.setName("child" + i);
+            child.setParent(root);
+            child.getInners().put("a", shared);
+            child.getInners().put("b", shared);
+            root.getChildren().add(child);
+        }
+
+        Node copy = BeanUtils.deepCopy(root);
+        Assert.assertNotSame(root, copy);
+        Assert.assertSame(root.getName(), copy.getName());
+        Assert.assertNotSame(root.getWeights(), copy.getWeights());
+        Assert.assertArrayEquals(root.getWeights(), copy.getWeights());
+        Assert.assertEquals(2, copy.getChildren().size());
+        Node child0 = copy.getChildren().get(0);
+        Assert.assertNotSame(root.getChildren().get(0), child0);
+        //循环引用与共享引用在拷贝后保持不变
+        Assert.assertSame(copy, child0.getParent());
+        Assert.assertNotSame(shared, child0.getInners().get("a"));
+        Assert.assertSame(child0.getInners().get("a"), copy.getChildren().get(1).getInners().get("b"));
+        //保留TreeMap的comparator
+        Assert.assertEquals(Arrays.asList("b", "a"), new ArrayList<>(child0.getInners().keySet()));
+
+        //不保留引用关系时共享的对象会被拷贝多次
+        Node tree = new Node();
+        tree.getInners().put("a", shared);
+        tree.getInners().put("b", shared);
+        Node treeCopy = BeanUtils.deepCopy(tree, false);
+        Assert.assertNotSame(treeCopy.getInners().get("a"), treeCopy.getInners().get("b"));
+
+        Assert.assertNull(BeanUtils.deepCopy(null));
+        Assert.assertSame("immutable", BeanUtils.deepCopy("immutable"));
+        try
+        {
+            BeanUtils.deepCopy(new NoDefaultConstructor(1L));
+            Assert.fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("NoDefaultConstructor"));
+        }
+    }
+
+    @BeanMapper
+    public interface WarmUpMapper
+    {
+        Person2 toPerson2(Person1 person1);
+
+        void copy(Node source, Node target);
+    }
+
+    @Test
+    public void test10() throws Exception
+    {
+        WarmUpReport report = BeanUtils.warmUp(Arrays.asList(ClassPair.of(Person1.class, Person2.class),
+                ClassPair.of(Person2.class, Person1.class))).get();
+        Assert.assertEquals(2, report.getEntries().size());
+        Assert.assertEquals(ClassPair.of(Person2.class, Person1.class), report.getEntries().get(1).getClassPair());
+        Assert.assertTrue(report.getFailures().isEmpty());
+
+        //扫描@BeanMapper接口声明的class pair
+        report = BeanUtils.warmUp(BeanUtilTest.class.getPackage().getName()).get();
+        Set<ClassPair> classPairs = report.getEntries().stream().map(WarmUpReport.Entry::getClassPair).collect(Collectors.toSet());
+        Assert.assertTrue(classPairs.contains(ClassPair.of(Person1.class, Person2.class)));
+        Assert.assertTrue(classPairs.contains(ClassPair.of(Node.class, Node.class)));
+    }
+
+    @Test
+    public void test11() throws Exception
+    {
+        List<Person1> person1List = Arrays.asList(new Person1(1L, "a", 1, null), new Person1(2L, "b", 2, null));
+        Assert.assertEquals(2, BeanUtils.createNewTypeCollection(person1List, Person2.class).size());
+
+        //批量转换之间切换引擎、淘汰拷贝器，之后的批量转换立即使用新的拷贝器
+        AtomicInteger copies = new AtomicInteger();
+        CopyEngine countingEngine = new CopyEngine()
+        {
+            @Override
+            public String getName()
+            {
+                return "counting";
+            }
+
+            @Override
+            public boolean isSupported()
+            {
+                return true;
+            }
+
+            @Override
+            public BoundCopier createCopier(Class<?> sourceClass, Class<?> targetClass)
+            {
+                BoundCopier copier = CopyEngines.METHOD_HANDLE.createCopier(sourceClass, targetClass);
+                return (sourceObj, targetObj) ->
+                {
+                    copies.incrementAndGet();
+                    copier.copy(sourceObj, targetObj);
+                };
+            }
+        };
+        BeanUtils.setCopyEngine(Person1.class, Person2.class, countingEngine);
+        try
+        {
+            Assert.assertEquals("b", BeanUtils.createNewTypeCollection(person1List, Person2.class).get(1).getName());
+            Assert.assertEquals(2, copies.get());
+        }
+        finally
+        {
+            BeanUtils.setCopyEngine(Person1.class, Person2.class, null);
+        }
+        BeanUtils.createNewTypeCollection(person1List, Person2.class);
+        Assert.assertEquals(2, copies.get());
+
+        CopyEngine defaultEngine = BeanUtils.getDefaultCopyEngine();
+        BeanUtils.setDefaultCopyEngine(countingEngine);
+        try
+        {
+            BeanUtils.clearCopiers();
+            BeanUtils.createNewTypeCollection(person1List, Person2.class);
+            Assert.assertEquals(4, copies.get());
+        }
+        finally
+        {
+            BeanUtils.setDefaultCopyEngine(defaultEngine);
+            BeanUtils.clearCopiers();
+        }
+        BeanUtils.createNewTypeCollection(person1List, Person2.class);
+        Assert.assertEquals(4, copies.get());
+    }
+
+    @Test
+    public void test12() throws Exception
+    {
+        //常用的可变JDK类型保留状态
+        Assert.assertEquals(5, BeanUtils.deepCopy(new AtomicInteger(5)).get());
+        StringBuilder builder = new StringBuilder("abc");
+        StringBuilder builderCopy = BeanUtils.deepCopy(builder);
+        Assert.assertNotSame(builder, builderCopy);
+        Assert.assertEquals("abc", builderCopy.toString());
+        List<StringBuilder> builders = BeanUtils.deepCopy(Collections.singletonList(builder));
+        Assert.assertEquals("abc", builders.get(0).toString());
+        Assert.assertNotSame(builder, builders.get(0));
+        Date date = new Date(1000L);
+        Date dateCopy = BeanUtils.deepCopy(date);
+        Assert.assertNotSame(date, dateCopy);
+        Assert.assertEquals(date, dateCopy);
+        BitSet bits = BitSet.valueOf(new long[]{5L});
+        Assert.assertEquals(bits, BeanUtils.deepCopy(bits));
+
+        //其他JDK类型不作为bean拷贝
+        try
+        {
+            BeanUtils.deepCopy(new Thread());
+            Assert.fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("java.lang.Thread"));
+        }
+    }
+
+    @Test
+    public void test13() throws Exception
+    {
+        Person1 person1 = new Person1(1L, "yxg", 19, new Inner());
+        BeanFieldValueConverter converter = fieldVal -> fieldVal instanceof Inner ? "inner" : fieldVal;
+        //使用转换器的拷贝跟随class pair的引擎，所有引擎的转换规则相同
+        for (CopyEngine copyEngine : CopyEngines.supported())
+        {
+            BeanUtils.setCopyEngine(Person1.class, Person2.class, copyEngine);
+            BeanUtils.setCopyEngine(Person1.class, BeanColumnsTest.Sale.class, copyEngine);
+            try
+            {
+                Person2 person2 = new Person2();
+                BeanUtils.copy(person1, person2, converter);
+                Assert.assertEquals(copyEngine.getName(), "Person2{id=1, name='yxg', age=19, inner=inner}", person2.toString());
+                Assert.assertEquals("inner", BeanUtils.createNewTypeCollection(Collections.singletonList(person1), Person2.class,
+                        converter).get(0).getInner());
+                //基本类型的目标属性收到null时设置为0
+                BeanColumnsTest.Sale sale = new BeanColumnsTest.Sale();
+                sale.setId(5L);
+                BeanUtils.copy(new Person1(), sale, fieldVal -> fieldVal);
+                Assert.assertEquals(copyEngine.getName(), 0L, sale.getId());
+            }
+            finally
+            {
+                BeanUtils.setCopyEngine(Person1.class, Person2.class, null);
+                BeanUtils.setCopyEngine(Person1.class, BeanColumnsTest.Sale.class, null);
+            }
+        }
+    }
 }
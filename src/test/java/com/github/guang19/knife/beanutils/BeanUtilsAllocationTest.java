@@ -0,0 +1,143 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person2;
+import com.github.guang19.knife.beanutils.ObjectCreatorsTest.ImmutablePerson;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>
+ * 稳定状态下拷贝路径的内存分配测试: 拷贝器已缓存、统计关闭时，
+ * copy、copyAll与forEachConverted不分配内存，createNewTypeObj只分配目标对象。
+ * 使用com.sun.management.ThreadMXBean统计当前线程分配的字节数，JVM不支持时跳过。
+ * </p>
+ */
+public class BeanUtilsAllocationTest
+{
+    //预热次数，保证热点代码被JIT编译
+    private static final int WARM_UP = 20_000;
+
+    //统计次数
+    private static final int ITERATIONS = 10_000;
+
+    //统计轮数，取分配最少的一轮，排除JIT编译队列繁忙时尚未编译完成的代码的分配
+    private static final int ROUNDS = 5;
+
+    //平均每次操作允许的误差字节数，来自统计本身
+    private static final double TOLERANCE = 1.0;
+
+    private static com.sun.management.ThreadMXBean threadMXBean;
+
+    //防止目标对象被逃逸分析消除
+    private static volatile Object sink;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        Assume.assumeFalse(BeanUtilsMetrics.enabled);
+    }
+
+    @Test
+    public void testCopy()
+    {
+        Person1 source = new Person1(1L, "yxg", 20, null);
+        Person2 target = new Person2();
+        TypeConverterRegistry registry = TypeConverterRegistry.defaults();
+        CopyPolicy policy = CopyPolicy.builder().exclude("id").ignoreNull().build();
+        BeanFieldValueConverter converter = fieldVal -> fieldVal;
+
+        assertAllocated("copy", 0, () -> BeanUtils.copy(source, target));
+        assertAllocated("copy(converter)", 0, () -> BeanUtils.copy(source, target, converter));
+        assertAllocated("copy(registry)", 0, () -> BeanUtils.copy(source, target, registry));
+        assertAllocated("copy(policy)", 0, () -> BeanUtils.copy(source, target, policy));
+    }
+
+    @Test
+    public void testCreateNewTypeObj()
+    {
+        Person1 source = new Person1(1L, "yxg", 20, null);
+        TypeConverterRegistry registry = TypeConverterRegistry.defaults();
+        double person2 = allocated(() -> sink = new Person2());
+        double immutablePerson = allocated(() -> sink = new ImmutablePerson(1L, "yxg", 20L, null));
+
+        assertAllocated("createNewTypeObj", person2, () -> sink = BeanUtils.createNewTypeObj(source, Person2.class));
+        assertAllocated("createNewTypeObj(registry)", person2,
+                () -> sink = BeanUtils.createNewTypeObj(source, Person2.class, registry));
+        assertAllocated("createNewTypeObj(constructor)", immutablePerson,
+                () -> sink = BeanUtils.createNewTypeObj(source, ImmutablePerson.class));
+    }
+
+    @Test
+    public void testCreateNewTypeCollection()
+    {
+        List<Person1> sources = Arrays.asList(new Person1(1L, "a", 1, null), new Person1(2L, "b", 2, null));
+        //ArrayList与它的数组，以及两个目标对象
+        double expected = allocated(() ->
+        {
+            List<Object> list = new java.util.ArrayList<>(2);
+            list.add(new Person2());
+            list.add(new Person2());
+            sink = list;
+        });
+        assertAllocated("createNewTypeCollection", expected,
+                () -> sink = BeanUtils.createNewTypeCollection(sources, Person2.class));
+    }
+
+    @Test
+    public void testReusableTargets()
+    {
+        List<Person1> sources = Arrays.asList(new Person1(1L, "a", 1, null), new Person1(2L, "b", 2, null));
+        Person2[] targets = {new Person2(), new Person2()};
+        assertAllocated("copyAll", 0, () -> BeanUtils.copyAll(sources, targets));
+        //只分配遍历源集合的Iterator
+        double iterator = allocated(() -> sink = sources.iterator());
+        assertAllocated("forEachConverted", iterator, () -> BeanUtils.forEachConverted(sources, Person2.class, target -> sink = target, true));
+    }
+
+    /**
+     * <p>断言平均每次操作分配的字节数不超过预期</p>
+     */
+    private static void assertAllocated(String operation, double expectedBytes, Runnable runnable)
+    {
+        double bytes = allocated(runnable);
+        Assert.assertTrue(operation + " allocated " + bytes + " bytes per operation, expected " + expectedBytes,
+                bytes <= expectedBytes + TOLERANCE);
+    }
+
+    /**
+     * @return 预热后平均每次操作分配的字节数，多轮统计中最少的一轮
+     */
+    private static double allocated(Runnable runnable)
+    {
+        for (int i = 0; i < WARM_UP; ++i)
+        {
+            runnable.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        double min = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; ++round)
+        {
+            long start = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < ITERATIONS; ++i)
+            {
+                runnable.run();
+            }
+            min = Math.min(min, (double) (threadMXBean.getThreadAllocatedBytes(threadId) - start) / ITERATIONS);
+        }
+        return min;
+    }
+}
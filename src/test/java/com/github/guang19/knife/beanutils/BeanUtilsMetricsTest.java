@@ -0,0 +1,183 @@
+package com.github.guang19.knife.beanutils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p></p>
+ */
+public class BeanUtilsMetricsTest
+{
+    public static class Source
+    {
+        private String name;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+    }
+
+    public static class Target
+    {
+        private String name;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+    }
+
+    @After
+    public void tearDown()
+    {
+        BeanUtilsMetrics.disable();
+        BeanUtilsMetrics.reset();
+        BeanUtilsMetrics.unregisterMBean();
+    }
+
+    @Test
+    public void testMetrics() throws Exception
+    {
+        List<String> events = new CopyOnWriteArrayList<>();
+        BeanUtilsListener listener = new BeanUtilsListener()
+        {
+            @Override
+            public void onCopierGenerated(Class<?> sourceClass, Class<?> targetClass, long elapsedNanos)
+            {
+                events.add("generated:" + targetClass.getSimpleName());
+            }
+
+            @Override
+            public void onCopy(Class<?> sourceClass, Class<?> targetClass, long elapsedNanos)
+            {
+                events.add("copy:" + targetClass.getSimpleName());
+            }
+
+            @Override
+            public void onConversionFailure(Class<?> targetClass, Throwable cause)
+            {
+                events.add("failure:" + targetClass.getSimpleName());
+            }
+        };
+        BeanUtilsMetrics.addListener(listener);
+        try
+        {
+            Source source = new Source();
+            source.setName("yxg");
+            //关闭时不记录
+            BeanUtils.copy(source, new Target());
+            Assert.assertTrue(events.isEmpty());
+            Assert.assertNull(BeanUtilsMetrics.getPairMetrics(Source.class, Target.class));
+
+            BeanUtilsMetrics.enable();
+            for (int i = 0; i < 10; ++i)
+            {
+                BeanUtils.copy(source, new Target());
+            }
+            Assert.assertNull(BeanUtils.createNewTypeObj(source, BeanUtilTest.NoDefaultConstructor.class));
+
+            PairMetrics pairMetrics = BeanUtilsMetrics.getPairMetrics(Source.class, Target.class);
+            Assert.assertEquals(10, pairMetrics.getCopyCount());
+            Assert.assertTrue(pairMetrics.getCopyNanosP50() <= pairMetrics.getCopyNanosP99());
+            Assert.assertTrue(BeanUtilsMetrics.getCopierCacheHits() >= 10);
+            Assert.assertEquals(1, BeanUtilsMetrics.getConversionFailures());
+            Assert.assertEquals(10, events.stream().filter("copy:Target"::equals).count());
+            Assert.assertTrue(events.contains("failure:NoDefaultConstructor"));
+
+            BeanUtilsMetrics.registerMBean();
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(BeanUtilsMetrics.MBEAN_NAME);
+            Assert.assertEquals(1L, server.getAttribute(name, "ConversionFailures"));
+            CompositeData[] pairs = (CompositeData[]) server.getAttribute(name, "PairMetrics");
+            Assert.assertTrue(pairs.length >= 1);
+            server.setAttribute(name, new Attribute("Enabled", false));
+            Assert.assertFalse(BeanUtilsMetrics.isEnabled());
+        }
+        finally
+        {
+            BeanUtilsMetrics.removeListener(listener);
+        }
+    }
+
+    @Test
+    public void testPairMetricsDoNotPinClassLoader() throws Exception
+    {
+        URL testClasses = new File(Target.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toURI().toURL();
+        URLClassLoader loader = new URLClassLoader(new URL[]{testClasses}, ClassLoader.getSystemClassLoader().getParent());
+        Class<?> childClass = loader.loadClass(Target.class.getName());
+        BeanUtilsMetrics.recordGeneration(String.class, childClass, 1L, false);
+        BeanUtilsMetrics.recordCopy(String.class, childClass, 1L);
+        Assert.assertEquals(1, BeanUtilsMetrics.getPairMetrics(String.class, childClass).getCopyCount());
+        WeakReference<ClassLoader> loaderReference = new WeakReference<>(loader);
+        loader.close();
+        loader = null;
+        childClass = null;
+        for (int i = 0; i < 20 && loaderReference.get() != null; ++i)
+        {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Assert.assertNull(loaderReference.get());
+        Assert.assertTrue(BeanUtilsMetrics.getPairMetrics().isEmpty());
+    }
+
+    @Test
+    public void testEvictPairMetrics() throws Exception
+    {
+        URL testClasses = new File(Target.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toURI().toURL();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{testClasses}, ClassLoader.getSystemClassLoader().getParent()))
+        {
+            Class<?> childClass = loader.loadClass(Target.class.getName());
+            BeanUtilsMetrics.recordCopy(Source.class, childClass, 1L);
+            BeanUtilsMetrics.recordCopy(Source.class, Target.class, 1L);
+            Assert.assertEquals(2, BeanUtilsMetrics.getPairMetrics().size());
+            BeanUtils.evictCopiers(loader);
+            Assert.assertNull(BeanUtilsMetrics.getPairMetrics(Source.class, childClass));
+            Assert.assertEquals(1, BeanUtilsMetrics.getPairMetrics().size());
+            Assert.assertEquals(Target.class.getName(), BeanUtilsMetrics.getPairMetrics().get(0).getTargetClassName());
+        }
+    }
+
+    @Test
+    public void testHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getPercentile(0.99D));
+        for (int i = 1; i <= 100; ++i)
+        {
+            histogram.record(i);
+        }
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(5050, histogram.getSum());
+        Assert.assertEquals(100, histogram.getMax());
+        //50落在[32, 64)
+        Assert.assertEquals(63, histogram.getPercentile(0.5D));
+        Assert.assertEquals(100, histogram.getPercentile(1D));
+    }
+}
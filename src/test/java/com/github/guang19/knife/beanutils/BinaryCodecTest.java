@@ -0,0 +1,339 @@
+package com.github.guang19.knife.beanutils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>二进制编码测试</p>
+ */
+public class BinaryCodecTest
+{
+    public static class Item
+    {
+        private int count;
+
+        private long id;
+
+        private double price;
+
+        private boolean active;
+
+        private char grade;
+
+        private Short level;
+
+        private Float ratio;
+
+        private String name;
+
+        private byte[] data;
+
+        private TimeUnit unit;
+
+        private Item child;
+
+        public int getCount()
+        {
+            return count;
+        }
+
+        public void setCount(int count)
+        {
+            this.count = count;
+        }
+
+        public long getId()
+        {
+            return id;
+        }
+
+        public void setId(long id)
+        {
+            this.id = id;
+        }
+
+        public double getPrice()
+        {
+            return price;
+        }
+
+        public void setPrice(double price)
+        {
+            this.price = price;
+        }
+
+        public boolean isActive()
+        {
+            return active;
+        }
+
+        public void setActive(boolean active)
+        {
+            this.active = active;
+        }
+
+        public char getGrade()
+        {
+            return grade;
+        }
+
+        public void setGrade(char grade)
+        {
+            this.grade = grade;
+        }
+
+        public Short getLevel()
+        {
+            return level;
+        }
+
+        public void setLevel(Short level)
+        {
+            this.level = level;
+        }
+
+        public Float getRatio()
+        {
+            return ratio;
+        }
+
+        public void setRatio(Float ratio)
+        {
+            this.ratio = ratio;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public byte[] getData()
+        {
+            return data;
+        }
+
+        public void setData(byte[] data)
+        {
+            this.data = data;
+        }
+
+        public TimeUnit getUnit()
+        {
+            return unit;
+        }
+
+        public void setUnit(TimeUnit unit)
+        {
+            this.unit = unit;
+        }
+
+        public Item getChild()
+        {
+            return child;
+        }
+
+        public void setChild(Item child)
+        {
+            this.child = child;
+        }
+    }
+
+    public static class Other
+    {
+        private int count;
+
+        public int getCount()
+        {
+            return count;
+        }
+
+        public void setCount(int count)
+        {
+            this.count = count;
+        }
+    }
+
+    private static Item item()
+    {
+        Item item = new Item();
+        item.setCount(-7);
+        item.setId(Long.MAX_VALUE);
+        item.setPrice(12.25);
+        item.setActive(true);
+        item.setGrade('好');
+        item.setLevel((short) -3);
+        item.setName("knife-刀");
+        item.setData(new byte[]{1, 2, 3});
+        item.setUnit(TimeUnit.SECONDS);
+        Item child = new Item();
+        child.setName("child");
+        child.setRatio(0.5F);
+        item.setChild(child);
+        return item;
+    }
+
+    @Test
+    public void testRoundTrip()
+    {
+        ByteBuffer[] buffers = {ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256).order(ByteOrder.LITTLE_ENDIAN)};
+        for (ByteBuffer buffer : buffers)
+        {
+            BeanUtils.writeBinary(item(), buffer);
+            buffer.flip();
+            Item item = BeanUtils.readBinary(buffer, Item.class);
+            Assert.assertFalse(buffer.hasRemaining());
+            Assert.assertEquals(-7, item.getCount());
+            Assert.assertEquals(Long.MAX_VALUE, item.getId());
+            Assert.assertEquals(12.25, item.getPrice(), 0);
+            Assert.assertTrue(item.isActive());
+            Assert.assertEquals('好', item.getGrade());
+            Assert.assertEquals(Short.valueOf((short) -3), item.getLevel());
+            Assert.assertNull(item.getRatio());
+            Assert.assertEquals("knife-刀", item.getName());
+            Assert.assertArrayEquals(new byte[]{1, 2, 3}, item.getData());
+            Assert.assertSame(TimeUnit.SECONDS, item.getUnit());
+            Assert.assertEquals("child", item.getChild().getName());
+            Assert.assertEquals(Float.valueOf(0.5F), item.getChild().getRatio());
+            Assert.assertNull(item.getChild().getUnit());
+            Assert.assertNull(item.getChild().getChild());
+        }
+    }
+
+    @Test
+    public void testToBinary()
+    {
+        Item item = item();
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 1000; ++i)
+        {
+            name.append(i);
+        }
+        item.setName(name.toString());
+        byte[] bytes = BeanUtils.toBinary(item);
+        Assert.assertEquals(name.toString(), BeanUtils.readBinary(ByteBuffer.wrap(bytes), Item.class).getName());
+        //varint: 小的整数只占用1个字节
+        Assert.assertEquals(5, BeanUtils.toBinary(new Other()).length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSchemaMismatch()
+    {
+        BeanUtils.readBinary(ByteBuffer.wrap(BeanUtils.toBinary(new Other())), Item.class);
+    }
+
+    /**
+     * <p>在新的ClassLoader中生成Outer与Inner，两个版本中的Class名称与Outer的属性相同，只有Inner的属性不同</p>
+     */
+    private static Class<?> outerClass(String innerProperty, Class<?> innerPropertyType) throws ClassNotFoundException
+    {
+        Map<String, byte[]> classes = new HashMap<>();
+        classes.put("knife.test.Inner", beanClass("knife/test/Inner", innerProperty, Type.getDescriptor(innerPropertyType)));
+        classes.put("knife.test.Outer", beanClass("knife/test/Outer", "inner", "Lknife/test/Inner;"));
+        ClassLoader classLoader = new ClassLoader(BinaryCodecTest.class.getClassLoader())
+        {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException
+            {
+                byte[] bytecode = classes.get(name);
+                if (bytecode == null)
+                {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytecode, 0, bytecode.length);
+            }
+        };
+        return classLoader.loadClass("knife.test.Outer");
+    }
+
+    /**
+     * <p>生成只有一个属性的bean</p>
+     *
+     * @param className  类的内部名称
+     * @param property   属性名
+     * @param descriptor 属性类型的描述符
+     * @return 字节码
+     */
+    private static byte[] beanClass(String className, String property, String descriptor)
+    {
+        Type type = Type.getType(descriptor);
+        String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, className, null, "java/lang/Object", null);
+        classWriter.visitField(Opcodes.ACC_PRIVATE, property, descriptor, null, null).visitEnd();
+
+        MethodVisitor constructor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor getter = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "get" + capitalized, "()" + descriptor, null, null);
+        getter.visitCode();
+        getter.visitVarInsn(Opcodes.ALOAD, 0);
+        getter.visitFieldInsn(Opcodes.GETFIELD, className, property, descriptor);
+        getter.visitInsn(type.getOpcode(Opcodes.IRETURN));
+        getter.visitMaxs(0, 0);
+        getter.visitEnd();
+
+        MethodVisitor setter = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "set" + capitalized, "(" + descriptor + ")V", null, null);
+        setter.visitCode();
+        setter.visitVarInsn(Opcodes.ALOAD, 0);
+        setter.visitVarInsn(type.getOpcode(Opcodes.ILOAD), 1);
+        setter.visitFieldInsn(Opcodes.PUTFIELD, className, property, descriptor);
+        setter.visitInsn(Opcodes.RETURN);
+        setter.visitMaxs(0, 0);
+        setter.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    @Test
+    public void testNestedSchemaMismatch() throws Exception
+    {
+        Class<?> writerClass = outerClass("count", int.class);
+        Class<?> readerClass = outerClass("name", String.class);
+        Assert.assertEquals(writerClass.getName(), readerClass.getName());
+        Object outer = writerClass.newInstance();
+        writerClass.getMethod("setInner", writerClass.getMethod("getInner").getReturnType()).
+                invoke(outer, writerClass.getMethod("getInner").getReturnType().newInstance());
+        ByteBuffer buffer = ByteBuffer.wrap(BeanUtils.toBinary(outer));
+        Assert.assertNotNull(BeanUtils.readBinary(buffer.duplicate(), writerClass));
+        try
+        {
+            BeanUtils.readBinary(buffer, readerClass);
+            Assert.fail();
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertTrue(e.getMessage().contains("does not match"));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCycle()
+    {
+        Item item = new Item();
+        item.setChild(item);
+        BeanUtils.toBinary(item);
+    }
+}
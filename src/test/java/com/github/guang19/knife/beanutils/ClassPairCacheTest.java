@@ -0,0 +1,296 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person2;
+import net.sf.cglib.beans.BeanCopier;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>ClassPairCache并发测试</p>
+ */
+public class ClassPairCacheTest
+{
+    //并发线程数
+    private static final int THREADS = 64;
+
+    @Test
+    public void testSingleFlightUnderContention() throws Exception
+    {
+        ClassPairCache<BeanCopier> cache = new ClassPairCache<>();
+        AtomicInteger person1ToPerson2 = new AtomicInteger();
+        AtomicInteger person2ToPerson1 = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        List<Future<BeanCopier>> futures = new ArrayList<>();
+        try
+        {
+            for (int i = 0; i < THREADS; ++i)
+            {
+                boolean reverse = (i & 1) == 1;
+                futures.add(executor.submit(() ->
+                {
+                    barrier.await();
+                    return reverse ?
+                            cache.get(Person2.class, Person1.class, (s, t) -> slowCreate(s, t, person2ToPerson1)) :
+                            cache.get(Person1.class, Person2.class, (s, t) -> slowCreate(s, t, person1ToPerson2));
+                }));
+            }
+            BeanCopier first = futures.get(0).get(10, TimeUnit.SECONDS);
+            BeanCopier second = futures.get(1).get(10, TimeUnit.SECONDS);
+            assertNotSame(first, second);
+            for (int i = 0; i < THREADS; ++i)
+            {
+                assertSame((i & 1) == 1 ? second : first, futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        //每个class pair只生成一次BeanCopier
+        assertEquals(1, person1ToPerson2.get());
+        assertEquals(1, person2ToPerson1.get());
+    }
+
+    @Test
+    public void testFailedGenerationIsNotCached() throws Exception
+    {
+        ClassPairCache<BeanCopier> cache = new ClassPairCache<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        AtomicInteger generations = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(THREADS);
+        List<Future<BeanCopier>> futures = new ArrayList<>();
+        try
+        {
+            for (int i = 0; i < THREADS; ++i)
+            {
+                futures.add(executor.submit(() ->
+                {
+                    barrier.await();
+                    entered.countDown();
+                    return cache.get(Person1.class, Person2.class, (s, t) ->
+                    {
+                        generations.incrementAndGet();
+                        //所有线程都进入get后再失败，保证其他线程等待的是同一次创建
+                        try
+                        {
+                            entered.await(10, TimeUnit.SECONDS);
+                            Thread.sleep(200);
+                        }
+                        catch (InterruptedException e)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IllegalArgumentException("generation failed");
+                    });
+                }));
+            }
+            for (Future<BeanCopier> future : futures)
+            {
+                try
+                {
+                    future.get(10, TimeUnit.SECONDS);
+                    fail();
+                }
+                catch (ExecutionException e)
+                {
+                    assertTrue(e.getCause() instanceof IllegalArgumentException);
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        //并发的调用只执行一次失败的创建，异常抛给所有等待的线程
+        assertEquals(1, generations.get());
+        //失败的结果不会缓存，重新获取时会再次创建
+        assertNotNull(cache.get(Person1.class, Person2.class, (s, t) -> BeanCopier.create(s, t, false)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRecursiveGeneration()
+    {
+        ClassPairCache<BeanCopier> cache = new ClassPairCache<>();
+        cache.get(Person1.class, Person2.class, (s, t) -> cache.get(s, t, (s1, t1) -> BeanCopier.create(s1, t1, false)));
+    }
+
+    @Test
+    public void testLruEviction()
+    {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+        AtomicInteger generations = new AtomicInteger();
+        BeanUtilsMetrics.enable();
+        BeanUtils.setCopierCachePolicy(CopierCachePolicy.lru(2));
+        try
+        {
+            cache.get(Person1.class, Person2.class, (s, t) -> count(generations));
+            cache.get(Person2.class, Person1.class, (s, t) -> count(generations));
+            //Person1 -> Person2最近被访问，淘汰Person2 -> Person1
+            cache.get(Person1.class, Person2.class, (s, t) -> count(generations));
+            cache.get(String.class, Person1.class, (s, t) -> count(generations));
+            assertEquals(2, cache.size());
+            assertEquals(3, generations.get());
+            cache.get(Person1.class, Person2.class, (s, t) -> count(generations));
+            assertEquals(3, generations.get());
+            cache.get(Person2.class, Person1.class, (s, t) -> count(generations));
+            assertEquals(4, generations.get());
+            assertEquals(2, BeanUtilsMetrics.getCopierEvictions());
+            assertEquals(1, BeanUtilsMetrics.getCopierRegenerations());
+        }
+        finally
+        {
+            BeanUtils.setCopierCachePolicy(CopierCachePolicy.unbounded());
+            BeanUtilsMetrics.disable();
+            BeanUtilsMetrics.reset();
+        }
+    }
+
+    @Test
+    public void testTombstonesAreBounded()
+    {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+        AtomicInteger generations = new AtomicInteger();
+        BeanUtilsMetrics.enable();
+        BeanUtils.setCopierCachePolicy(CopierCachePolicy.lru(2));
+        try
+        {
+            Class<?>[] sources = {Integer.class, Long.class, Short.class, Byte.class, Double.class};
+            for (Class<?> source : sources)
+            {
+                cache.get(source, Person1.class, (s, t) -> count(generations));
+            }
+            //淘汰了3个值，只保留最近的2个标记，Integer的标记已被丢弃
+            assertEquals(3, BeanUtilsMetrics.getCopierEvictions());
+            cache.get(Integer.class, Person1.class, (s, t) -> count(generations));
+            assertEquals(0, BeanUtilsMetrics.getCopierRegenerations());
+            cache.get(Short.class, Person1.class, (s, t) -> count(generations));
+            assertEquals(1, BeanUtilsMetrics.getCopierRegenerations());
+            assertEquals(7, generations.get());
+            assertEquals(2, cache.size());
+        }
+        finally
+        {
+            BeanUtils.setCopierCachePolicy(CopierCachePolicy.unbounded());
+            BeanUtilsMetrics.disable();
+            BeanUtilsMetrics.reset();
+        }
+    }
+
+    @Test
+    public void testLfuEviction()
+    {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+        AtomicInteger generations = new AtomicInteger();
+        BeanUtils.setCopierCachePolicy(CopierCachePolicy.lfu(2));
+        try
+        {
+            cache.get(Person1.class, Person2.class, (s, t) -> count(generations));
+            cache.get(Person2.class, Person1.class, (s, t) -> count(generations));
+            for (int i = 0; i < 3; ++i)
+            {
+                cache.get(Person2.class, Person1.class, (s, t) -> count(generations));
+            }
+            cache.get(Person1.class, Person2.class, (s, t) -> count(generations));
+            //新的值不会被立即淘汰，淘汰访问次数最少的Person1 -> Person2
+            cache.get(String.class, Person1.class, (s, t) -> count(generations));
+            cache.get(String.class, Person1.class, (s, t) -> count(generations));
+            cache.get(Person2.class, Person1.class, (s, t) -> count(generations));
+            assertEquals(3, generations.get());
+            cache.get(Person1.class, Person2.class, (s, t) -> count(generations));
+            assertEquals(4, generations.get());
+            assertEquals(2, cache.size());
+        }
+        finally
+        {
+            BeanUtils.setCopierCachePolicy(CopierCachePolicy.unbounded());
+        }
+    }
+
+    @Test
+    public void testEvictClassLoader() throws Exception
+    {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+        URL testClasses = new File(Person2.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toURI().toURL();
+        //不委托给加载测试类的ClassLoader，得到另一个Person2
+        URLClassLoader loader = new URLClassLoader(new URL[]{testClasses}, ClassLoader.getSystemClassLoader().getParent());
+        Class<?> isolatedPerson2 = loader.loadClass(Person2.class.getName());
+        assertNotSame(Person2.class, isolatedPerson2);
+
+        AtomicInteger generations = new AtomicInteger();
+        cache.get(String.class, isolatedPerson2, (s, t) -> count(generations));
+        cache.get(Person1.class, Person2.class, (s, t) -> count(generations));
+        cache.get(String.class, isolatedPerson2, (s, t) -> count(generations));
+        assertEquals(2, generations.get());
+
+        cache.evict(loader);
+        assertEquals(1, cache.size());
+        cache.get(String.class, isolatedPerson2, (s, t) -> count(generations));
+        assertEquals(3, generations.get());
+
+        cache.evict(Person1.class, Person2.class);
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testClassLoaderCanBeCollected() throws Exception
+    {
+        ClassPairCache<Object> cache = new ClassPairCache<>();
+        URL testClasses = new File(Person2.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toURI().toURL();
+        URLClassLoader loader = new URLClassLoader(new URL[]{testClasses}, ClassLoader.getSystemClassLoader().getParent());
+        Class<?> childClass = loader.loadClass(Person2.class.getName());
+        //值引用子ClassLoader中的Class，挂在生命周期较短的子Class上
+        cache.get(String.class, childClass, (s, t) -> t);
+        WeakReference<ClassLoader> loaderReference = new WeakReference<>(loader);
+        loader.close();
+        loader = null;
+        childClass = null;
+        for (int i = 0; i < 20 && loaderReference.get() != null; ++i)
+        {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull(loaderReference.get());
+    }
+
+    private static String count(AtomicInteger generations)
+    {
+        return String.valueOf(generations.incrementAndGet());
+    }
+
+    private static BeanCopier slowCreate(Class<?> sourceClass, Class<?> targetClass, AtomicInteger counter)
+    {
+        counter.incrementAndGet();
+        //放大并发窗口
+        sleep();
+        return BeanCopier.create(sourceClass, targetClass, false);
+    }
+
+    private static void sleep()
+    {
+        try
+        {
+            Thread.sleep(50);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
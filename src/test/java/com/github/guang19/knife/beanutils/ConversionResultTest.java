@@ -0,0 +1,60 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.AsyncConverterTest.Checked;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person2;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>结构化的批量转换结果测试</p>
+ */
+public class ConversionResultTest
+{
+    @Test
+    public void testConverted()
+    {
+        List<Person1> persons = new LinkedList<>(Arrays.asList(new Person1(1L, "a", 1, null), null, new Person1(2L, "b", 2, null)));
+        ConversionResult<Person2> result = BeanUtils.convertCollection(persons, Person2.class);
+        Assert.assertFalse(result.hasFailures());
+        Assert.assertEquals(3, result.getSourceCount());
+        Assert.assertEquals(2, result.getConvertedCount());
+        Assert.assertEquals(1, result.getSkippedCount());
+        Assert.assertEquals("b", result.getTargets().get(1).getName());
+        Assert.assertEquals(2, BeanUtils.convertCollection(persons, Person2.class, TypeConverterRegistry.defaults()).getConvertedCount());
+    }
+
+    @Test
+    public void testFailures()
+    {
+        List<Person1> persons = new ArrayList<>();
+        for (int i = 0; i < 100; ++i)
+        {
+            persons.add(new Person1((long) i, i % 5 == 0 ? "bad" : "p" + i, i, null));
+        }
+        ConversionResult<Checked> result = BeanUtils.convertCollection(persons, Checked.class);
+        Assert.assertTrue(result.hasFailures());
+        Assert.assertEquals(20, result.getFailedCount());
+        Assert.assertEquals(80, result.getConvertedCount());
+        Assert.assertEquals(Collections.singletonMap(IllegalArgumentException.class.getName(), 20), result.getFailureCounts());
+        Assert.assertEquals(ConversionResult.MAX_SAMPLE_FAILURES, result.getSampleFailures().size());
+        ConversionResult.Failure failure = result.getSampleFailures().get(1);
+        Assert.assertEquals(5, failure.getIndex());
+        Assert.assertSame(persons.get(5), failure.getSource());
+        Assert.assertEquals("bad name", failure.getCause().getMessage());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFailFast()
+    {
+        BeanUtils.convertCollection(Collections.singletonList(new Person1()), Runnable.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.guang19.knife.beanutils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>拷贝引擎测试</p>
+ */
+public class CopyEnginesTest
+{
+    public static class Source
+    {
+        private String name;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+    }
+
+    public static class Target
+    {
+        private String name;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+    }
+
+    @Test
+    public void testHiddenClassWithChildLoaderSource() throws Exception
+    {
+        URL testClasses = new File(Source.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toURI().toURL();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{testClasses}, ClassLoader.getSystemClassLoader().getParent()))
+        {
+            //目标Class的ClassLoader看不到子ClassLoader中的源Class，退化为使用MethodHandle
+            Class<?> childClass = loader.loadClass(Source.class.getName());
+            Assert.assertNotSame(Source.class, childClass);
+            BoundCopier copier = CopyEngines.HIDDEN_CLASS.createCopier(childClass, Target.class);
+            for (String name : new String[]{"a", "b"})
+            {
+                Object source = childClass.newInstance();
+                childClass.getMethod("setName", String.class).invoke(source, name);
+                Target target = new Target();
+                copier.copy(source, target);
+                Assert.assertEquals(name, target.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Inner;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person2;
+import com.github.guang19.knife.beanutils.TypeConverterRegistryTest.PrimitivePerson;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>CopyPolicy测试</p>
+ */
+public class CopyPolicyTest
+{
+    @Test
+    public void testIgnoreNull()
+    {
+        CopyPolicy patch = CopyPolicy.builder().ignoreNull().build();
+        Person1 target = new Person1(1L, "yxg", 20, new Inner());
+        BeanUtils.copy(new Person1(null, "guang19", null, null), target, patch);
+        Assert.assertEquals(Long.valueOf(1L), target.getId());
+        Assert.assertEquals("guang19", target.getName());
+        Assert.assertEquals(Integer.valueOf(20), target.getAge());
+        Assert.assertNotNull(target.getInner());
+        //同一个策略的拷贝器只编译一次
+        Assert.assertSame(patch.getCopier(Person1.class, Person1.class), patch.getCopier(Person1.class, Person1.class));
+    }
+
+    @Test
+    public void testIncludeAndExclude()
+    {
+        Person1 source = new Person1(1L, "yxg", 20, new Inner());
+        Person1 excluded = BeanUtils.createNewTypeObj(source, Person1.class, CopyPolicy.builder().exclude("id", "inner").build());
+        Assert.assertNull(excluded.getId());
+        Assert.assertNull(excluded.getInner());
+        Assert.assertEquals("yxg", excluded.getName());
+        Assert.assertEquals(Integer.valueOf(20), excluded.getAge());
+
+        Person2 included = new Person2();
+        BeanUtils.copy(source, included, CopyPolicy.builder().include("name", "age", "id").exclude("id").build());
+        Assert.assertNull(included.getId());
+        Assert.assertEquals("yxg", included.getName());
+        Assert.assertEquals(Integer.valueOf(20), included.getAge());
+        //类型不兼容的属性不拷贝
+        Assert.assertNull(included.getInner());
+    }
+
+    @Test
+    public void testIgnoreNullWithRegistry()
+    {
+        CopyPolicy policy = CopyPolicy.builder().
+                ignoreNull().
+                typeConverterRegistry(TypeConverterRegistry.defaults()).
+                build();
+        PrimitivePerson target = new PrimitivePerson();
+        target.setName("yxg");
+        target.setAge(20L);
+        BeanUtils.copy(new Person1(2L, null, 30, null), target, policy);
+        Assert.assertEquals(2L, target.getId());
+        Assert.assertEquals("yxg", target.getName());
+        Assert.assertEquals(30L, target.getAge());
+    }
+
+    @Test
+    public void testMappings()
+    {
+        CopyPolicy policy = CopyPolicy.builder().
+                map("name", "userName").
+                map("address.city", "city").
+                map("address.city", "address.city").
+                build();
+        User user = new User();
+        user.setName("yxg");
+        user.setAddress(new Address());
+        user.getAddress().setCity("Chengdu");
+        UserDto dto = new UserDto();
+        BeanUtils.copy(user, dto, policy);
+        Assert.assertEquals("yxg", dto.getUserName());
+        Assert.assertEquals("Chengdu", dto.getCity());
+        //目标路径中间的属性为null时创建
+        Assert.assertEquals("Chengdu", dto.getAddress().getCity());
+        Assert.assertNotSame(user.getAddress(), dto.getAddress());
+
+        //源路径中间的属性为null时不拷贝
+        user.setAddress(null);
+        dto.setCity("Beijing");
+        BeanUtils.copy(user, dto, policy);
+        Assert.assertEquals("Beijing", dto.getCity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownPath()
+    {
+        BeanUtils.copy(new User(), new UserDto(), CopyPolicy.builder().map("address.street", "city").build());
+    }
+
+    public static class Address
+    {
+        private String city;
+
+        public String getCity()
+        {
+            return city;
+        }
+
+        public void setCity(String city)
+        {
+            this.city = city;
+        }
+    }
+
+    public static class User
+    {
+        private String name;
+
+        private Address address;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public Address getAddress()
+        {
+            return address;
+        }
+
+        public void setAddress(Address address)
+        {
+            this.address = address;
+        }
+    }
+
+    public static class UserDto
+    {
+        private String userName;
+
+        private String city;
+
+        private Address address;
+
+        public String getUserName()
+        {
+            return userName;
+        }
+
+        public void setUserName(String userName)
+        {
+            this.userName = userName;
+        }
+
+        public String getCity()
+        {
+            return city;
+        }
+
+        public void setCity(String city)
+        {
+            this.city = city;
+        }
+
+        public Address getAddress()
+        {
+            return address;
+        }
+
+        public void setAddress(Address address)
+        {
+            this.address = address;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.guang19.knife.beanutils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>嵌套的泛型容器属性转换测试</p>
+ */
+public class NestedConvertersTest
+{
+    public static class Item
+    {
+        private String name;
+
+        private Integer count;
+
+        public Item()
+        {
+        }
+
+        public Item(String name, Integer count)
+        {
+            this.name = name;
+            this.count = count;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public Integer getCount()
+        {
+            return count;
+        }
+
+        public void setCount(Integer count)
+        {
+            this.count = count;
+        }
+    }
+
+    public static class ItemDto
+    {
+        private String name;
+
+        //Integer -> long 拆箱后拓宽
+        private long count;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public void setCount(long count)
+        {
+            this.count = count;
+        }
+    }
+
+    public static class Order
+    {
+        private List<Item> items;
+
+        private Map<String, List<Item>> groups;
+
+        private Item[] gifts;
+
+        private List<Integer> scores;
+
+        private List<String> tags;
+
+        public List<Item> getItems()
+        {
+            return items;
+        }
+
+        public void setItems(List<Item> items)
+        {
+            this.items = items;
+        }
+
+        public Map<String, List<Item>> getGroups()
+        {
+            return groups;
+        }
+
+        public void setGroups(Map<String, List<Item>> groups)
+        {
+            this.groups = groups;
+        }
+
+        public Item[] getGifts()
+        {
+            return gifts;
+        }
+
+        public void setGifts(Item[] gifts)
+        {
+            this.gifts = gifts;
+        }
+
+        public List<Integer> getScores()
+        {
+            return scores;
+        }
+
+        public void setScores(List<Integer> scores)
+        {
+            this.scores = scores;
+        }
+
+        public List<String> getTags()
+        {
+            return tags;
+        }
+
+        public void setTags(List<String> tags)
+        {
+            this.tags = tags;
+        }
+    }
+
+    public static class OrderDto
+    {
+        private List<ItemDto> items;
+
+        private Map<String, Set<ItemDto>> groups;
+
+        private List<ItemDto> gifts;
+
+        private long[] scores;
+
+        private List<String> tags;
+
+        public List<ItemDto> getItems()
+        {
+            return items;
+        }
+
+        public void setItems(List<ItemDto> items)
+        {
+            this.items = items;
+        }
+
+        public Map<String, Set<ItemDto>> getGroups()
+        {
+            return groups;
+        }
+
+        public void setGroups(Map<String, Set<ItemDto>> groups)
+        {
+            this.groups = groups;
+        }
+
+        public List<ItemDto> getGifts()
+        {
+            return gifts;
+        }
+
+        public void setGifts(List<ItemDto> gifts)
+        {
+            this.gifts = gifts;
+        }
+
+        public long[] getScores()
+        {
+            return scores;
+        }
+
+        public void setScores(long[] scores)
+        {
+            this.scores = scores;
+        }
+
+        public List<String> getTags()
+        {
+            return tags;
+        }
+
+        public void setTags(List<String> tags)
+        {
+            this.tags = tags;
+        }
+    }
+
+    @Test
+    public void testNestedCollections()
+    {
+        Order order = new Order();
+        order.setItems(Arrays.asList(new Item("a", 1), null, new Item("b", 2)));
+        Map<String, List<Item>> groups = new HashMap<>();
+        groups.put("g", Collections.singletonList(new Item("c", 3)));
+        order.setGroups(groups);
+        order.setGifts(new Item[]{new Item("d", 4)});
+        order.setScores(Arrays.asList(1, null, 3));
+        order.setTags(Arrays.asList("x", "y"));
+
+        OrderDto dto = BeanUtils.createNewTypeObj(order, OrderDto.class, TypeConverterRegistry.defaults());
+        Assert.assertEquals(3, dto.getItems().size());
+        Assert.assertEquals("a", dto.getItems().get(0).getName());
+        Assert.assertEquals(1L, dto.getItems().get(0).getCount());
+        Assert.assertNull(dto.getItems().get(1));
+        Set<ItemDto> group = dto.getGroups().get("g");
+        Assert.assertTrue(group instanceof LinkedHashSet);
+        Assert.assertEquals(3L, group.iterator().next().getCount());
+        Assert.assertEquals("d", dto.getGifts().get(0).getName());
+        //null不能写入基本类型的数组，保留默认值
+        Assert.assertArrayEquals(new long[]{1L, 0L, 3L}, dto.getScores());
+        //元素类型相同，共享引用
+        Assert.assertSame(order.getTags(), dto.getTags());
+
+        order.setItems(null);
+        Assert.assertNull(BeanUtils.createNewTypeObj(order, OrderDto.class, TypeConverterRegistry.defaults()).getItems());
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Inner;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.beans.ConstructorProperties;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>构造器、Builder创建目标对象测试</p>
+ */
+public class ObjectCreatorsTest
+{
+    public static final class ImmutablePerson
+    {
+        private final long id;
+
+        private final String name;
+
+        //Integer -> long 拆箱后拓宽
+        private final long age;
+
+        //源对象没有此属性
+        private final String nickname;
+
+        @ConstructorProperties({"id", "name", "age", "nickname"})
+        public ImmutablePerson(long id, String name, long age, String nickname)
+        {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.nickname = nickname;
+        }
+
+        public long getId()
+        {
+            return id;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public long getAge()
+        {
+            return age;
+        }
+
+        public String getNickname()
+        {
+            return nickname;
+        }
+    }
+
+    public static final class BuiltPerson
+    {
+        private final Long id;
+
+        private final String name;
+
+        private final String inner;
+
+        private BuiltPerson(Builder builder)
+        {
+            this.id = builder.id;
+            this.name = builder.name;
+            this.inner = builder.inner;
+        }
+
+        public static Builder builder()
+        {
+            return new Builder();
+        }
+
+        public Long getId()
+        {
+            return id;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public String getInner()
+        {
+            return inner;
+        }
+
+        public static final class Builder
+        {
+            private Long id;
+
+            private String name;
+
+            //源对象的inner属性类型不同，保留默认值
+            private String inner = "default";
+
+            public Builder id(Long id)
+            {
+                this.id = id;
+                return this;
+            }
+
+            public Builder withName(String name)
+            {
+                this.name = name;
+                return this;
+            }
+
+            public Builder inner(String inner)
+            {
+                this.inner = inner;
+                return this;
+            }
+
+            public BuiltPerson build()
+            {
+                return new BuiltPerson(this);
+            }
+        }
+    }
+
+    @Test
+    public void testConstructor()
+    {
+        ImmutablePerson person = BeanUtils.createNewTypeObj(new Person1(1L, "yxg", 20, new Inner()), ImmutablePerson.class);
+        Assert.assertEquals(1L, person.getId());
+        Assert.assertEquals("yxg", person.getName());
+        Assert.assertEquals(20L, person.getAge());
+        Assert.assertNull(person.getNickname());
+
+        //null不能传给基本类型的参数，使用默认值
+        person = BeanUtils.createNewTypeObj(new Person1(), ImmutablePerson.class, TypeConverterRegistry.defaults());
+        Assert.assertEquals(0L, person.getId());
+        Assert.assertEquals(0L, person.getAge());
+
+        List<ImmutablePerson> persons = BeanUtils.createNewTypeCollection(
+                Arrays.asList(new Person1(1L, "a", 1, null), new Person1(2L, "b", 2, null)), ImmutablePerson.class);
+        Assert.assertEquals(2, persons.size());
+        Assert.assertEquals(2L, persons.get(1).getId());
+    }
+
+    @Test
+    public void testBuilder()
+    {
+        BuiltPerson person = BeanUtils.createNewTypeObj(new Person1(1L, "yxg", 20, new Inner()), BuiltPerson.class);
+        Assert.assertEquals(Long.valueOf(1L), person.getId());
+        Assert.assertEquals("yxg", person.getName());
+        Assert.assertEquals("default", person.getInner());
+
+        TypeConverterRegistry registry = TypeConverterRegistry.builder().
+                register(Inner.class, String.class, inner -> "inner").
+                build();
+        person = BeanUtils.createNewTypeObj(new Person1(1L, "yxg", 20, new Inner()), BuiltPerson.class, registry);
+        Assert.assertEquals("inner", person.getInner());
+    }
+
+    @Test
+    public void testCopyPolicy()
+    {
+        Person1 source = new Person1(1L, "yxg", 20, null);
+        ImmutablePerson person = BeanUtils.createNewTypeObj(source, ImmutablePerson.class,
+                CopyPolicy.builder().exclude("id").map("name", "nickname").build());
+        Assert.assertEquals(0L, person.getId());
+        Assert.assertEquals("yxg", person.getName());
+        Assert.assertEquals("yxg", person.getNickname());
+
+        //源属性值为null时保留Builder中的默认值
+        TypeConverterRegistry registry = TypeConverterRegistry.builder().
+                register(Inner.class, String.class, inner -> "inner").
+                build();
+        BuiltPerson built = BeanUtils.createNewTypeObj(source, BuiltPerson.class, CopyPolicy.builder().typeConverterRegistry(registry).build());
+        Assert.assertNull(built.getInner());
+        built = BeanUtils.createNewTypeObj(source, BuiltPerson.class, CopyPolicy.builder().typeConverterRegistry(registry).ignoreNull().build());
+        Assert.assertEquals("default", built.getInner());
+        Assert.assertEquals("yxg", built.getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCopyPolicyWithNestedMapping()
+    {
+        BeanUtils.createNewTypeObj(new Person1(), ImmutablePerson.class, CopyPolicy.builder().map("inner.name", "nickname").build());
+    }
+
+    @Test
+    public void testUnsupported()
+    {
+        Assert.assertFalse(ObjectCreators.isSupported(List.class));
+        Assert.assertNull(BeanUtils.createNewTypeObj(new Person1(), Integer.class));
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person2;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>拷贝到已有的目标对象与复用目标对象测试</p>
+ */
+public class ReusableTargetsTest
+{
+    public static class Tagged
+    {
+        private String name;
+
+        private List<String> tags = new ArrayList<>();
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public List<String> getTags()
+        {
+            return tags;
+        }
+
+        public void setTags(List<String> tags)
+        {
+            this.tags = tags;
+        }
+    }
+
+    private static List<Person1> sources()
+    {
+        return Arrays.asList(new Person1(1L, "a", 1, null), null, new Person1(3L, "c", 3, null));
+    }
+
+    @Test
+    public void testCopyAll()
+    {
+        Person2[] targets = {new Person2(), new Person2(), new Person2()};
+        Assert.assertEquals(2, BeanUtils.copyAll(sources(), targets));
+        Assert.assertEquals("a", targets[0].getName());
+        Assert.assertNull(targets[1].getName());
+        Assert.assertEquals(Long.valueOf(3L), targets[2].getId());
+
+        Person2[] registryTargets = {new Person2(), new Person2(), new Person2()};
+        Assert.assertEquals(2, BeanUtils.copyAll(new ArrayList<>(sources()), registryTargets, TypeConverterRegistry.defaults()));
+        Assert.assertEquals(Integer.valueOf(3), registryTargets[2].getAge());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCopyAllTooFewTargets()
+    {
+        BeanUtils.copyAll(sources(), new Person2[2]);
+    }
+
+    @Test
+    public void testForEachConverted()
+    {
+        List<Person2> seen = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        BeanUtils.forEachConverted(sources(), Person2.class, target ->
+        {
+            seen.add(target);
+            names.add(target.getName());
+        });
+        Assert.assertEquals(Arrays.asList("a", "c"), names);
+        Assert.assertSame(seen.get(0), seen.get(1));
+
+        //同一个线程再次使用时复用同一个目标对象
+        List<Person2> reused = new ArrayList<>();
+        BeanUtils.forEachConverted(sources(), Person2.class, reused::add);
+        Assert.assertSame(seen.get(0), reused.get(0));
+    }
+
+    @Test
+    public void testReset()
+    {
+        //Person1的inner与Person2的inner类型不同，拷贝器不写入
+        List<String> inners = new ArrayList<>();
+        BeanUtils.forEachConverted(sources(), Person2.class, target ->
+        {
+            inners.add(target.getInner());
+            target.setInner("dirty");
+        }, true);
+        Assert.assertEquals(Arrays.asList(null, null), inners);
+
+        //默认重置，上一次调用留下的属性不会保留到这一次调用
+        inners.clear();
+        BeanUtils.forEachConverted(sources(), Person2.class, target ->
+        {
+            inners.add(target.getInner());
+            target.setInner("dirty");
+        });
+        Assert.assertEquals(Arrays.asList(null, null), inners);
+
+        inners.clear();
+        BeanUtils.forEachConverted(sources(), Person2.class, target ->
+        {
+            inners.add(target.getInner());
+            target.setInner("dirty");
+        }, false);
+        Assert.assertEquals(Arrays.asList("dirty", "dirty"), inners);
+    }
+
+    @Test
+    public void testResetMutableDefault()
+    {
+        List<List<String>> tags = new ArrayList<>();
+        BeanUtils.forEachConverted(sources(), Tagged.class, target ->
+        {
+            Assert.assertTrue(target.getTags().isEmpty());
+            target.getTags().add(target.getName());
+            tags.add(target.getTags());
+        });
+        //每次重置写入新的默认值，不共享同一个集合
+        Assert.assertNotSame(tags.get(0), tags.get(1));
+        Assert.assertEquals(Arrays.asList("a"), tags.get(0));
+        Assert.assertEquals(Arrays.asList("c"), tags.get(1));
+    }
+
+    @Test
+    public void testNested()
+    {
+        List<Person2> outer = new ArrayList<>();
+        List<Person2> inner = new ArrayList<>();
+        BeanUtils.forEachConverted(sources(), Person2.class, target ->
+        {
+            outer.add(target);
+            String name = target.getName();
+            //内层取不到外层正在使用的目标对象，创建新的目标对象
+            BeanUtils.forEachConverted(sources(), Person2.class, inner::add);
+            Assert.assertEquals(name, target.getName());
+        });
+        Assert.assertNotSame(outer.get(0), inner.get(0));
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.guang19.knife.beanutils;
+
+import com.github.guang19.knife.beanutils.BeanUtilTest.Inner;
+import com.github.guang19.knife.beanutils.BeanUtilTest.Person1;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author yangguang
+ * @date 2026/10/18
+ * @description <p>TypeConverterRegistry测试</p>
+ */
+public class TypeConverterRegistryTest
+{
+    public static class PrimitivePerson
+    {
+        private long id = -1L;
+
+        private String name;
+
+        //Integer -> long 拆箱后拓宽
+        private long age;
+
+        private String inner;
+
+        public long getId()
+        {
+            return id;
+        }
+
+        public void setId(long id)
+        {
+            this.id = id;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public long getAge()
+        {
+            return age;
+        }
+
+        public void setAge(long age)
+        {
+            this.age = age;
+        }
+
+        public String getInner()
+        {
+            return inner;
+        }
+
+        public void setInner(String inner)
+        {
+            this.inner = inner;
+        }
+    }
+
+    public static class WidePerson
+    {
+        private double id;
+
+        private Long age;
+
+        public double getId()
+        {
+            return id;
+        }
+
+        public void setId(double id)
+        {
+            this.id = id;
+        }
+
+        public Long getAge()
+        {
+            return age;
+        }
+
+        public void setAge(Long age)
+        {
+            this.age = age;
+        }
+    }
+
+    @Test
+    public void testBuiltinConversions()
+    {
+        Person1 person1 = new Person1(1L, "yxg", 19, new Inner());
+        PrimitivePerson primitivePerson = new PrimitivePerson();
+        BeanUtils.copy(person1, primitivePerson, TypeConverterRegistry.defaults());
+        Assert.assertEquals(1L, primitivePerson.getId());
+        Assert.assertEquals("yxg", primitivePerson.getName());
+        Assert.assertEquals(19L, primitivePerson.getAge());
+        //没有注册Inner -> String的转换器，不拷贝
+        Assert.assertNull(primitivePerson.getInner());
+
+        //long -> double 拓宽，long -> Long 装箱
+        WidePerson widePerson = BeanUtils.createNewTypeObj(primitivePerson, WidePerson.class, TypeConverterRegistry.defaults());
+        Assert.assertEquals(1D, widePerson.getId(), 0D);
+        Assert.assertEquals(Long.valueOf(19L), widePerson.getAge());
+
+        //null不会被拆箱，基本类型的目标属性保持不变
+        PrimitivePerson target = new PrimitivePerson();
+        BeanUtils.copy(new Person1(null, null, null, null), target, TypeConverterRegistry.defaults());
+        Assert.assertEquals(-1L, target.getId());
+    }
+
+    @Test
+    public void testRegisteredConverter()
+    {
+        TypeConverterRegistry registry = TypeConverterRegistry.builder().
+                register(Inner.class, String.class, inner -> "inner").
+                register(Integer.class, long.class, age -> age >= 0 ? age * 2L : null).
+                build();
+
+        List<Person1> person1List = new ArrayList<>();
+        person1List.add(new Person1(1L, "yxg", 19, new Inner()));
+        person1List.add(new Person1(2L, "guang19", -1, null));
+        List<PrimitivePerson> primitivePersonList = BeanUtils.createNewTypeCollection(person1List, PrimitivePerson.class, registry);
+
+        Assert.assertEquals("inner", primitivePersonList.get(0).getInner());
+        Assert.assertEquals(38L, primitivePersonList.get(0).getAge());
+        //源属性值为null时不调用转换器
+        Assert.assertNull(primitivePersonList.get(1).getInner());
+        //转换器返回null时基本类型的目标属性保持不变
+        Assert.assertEquals(0L, primitivePersonList.get(1).getAge());
+
+        //每个class pair只编译一次
+        Assert.assertSame(registry.getCopier(Person1.class, PrimitivePerson.class), registry.getCopier(Person1.class, PrimitivePerson.class));
+        Assert.assertEquals(4, registry.getCopier(Person1.class, PrimitivePerson.class).getPropertyCount());
+    }
+}